@@ -0,0 +1,72 @@
+// 100+ 农户并发的读写混合压测（k6：https://k6.io）
+//
+// 平台线程模式：java -jar target/backend-*.jar
+// 虚拟线程模式：mvn -Pjava21 package 后 java -jar target/backend-*.jar --spring.profiles.active=vt
+// 运行：k6 run -e BASE_URL=http://localhost:8080 -e VUS=200 -e USER_IDS=1-500 -e DEVICE_IDS=1-100 loadtest/farmers.js
+//
+// 对比两种模式的 http_req_duration p95/p99、http_reqs（吞吐）与失败率，
+// 同时观察 /actuator/prometheus 中的 hikaricp_connections_pending、jdbc_connections_limit_waiting
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '200');
+
+function range(spec) {
+    const [from, to] = (spec || '1-100').split('-').map(Number);
+    return { from, to };
+}
+
+const users = range(__ENV.USER_IDS);
+const devices = range(__ENV.DEVICE_IDS);
+
+function pick(r) {
+    return r.from + Math.floor(Math.random() * (r.to - r.from + 1));
+}
+
+export const options = {
+    scenarios: {
+        farmers: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<500', 'p(99)<1000'],
+    },
+};
+
+export default function () {
+    const deviceId = pick(devices);
+    const roll = Math.random();
+    let res;
+    if (roll < 0.4) {
+        res = http.get(`${BASE_URL}/api/device/${deviceId}/current-data`, { tags: { name: 'current-data' } });
+    } else if (roll < 0.6) {
+        res = http.get(`${BASE_URL}/api/users/${pick(users)}`, { tags: { name: 'user' } });
+    } else if (roll < 0.75) {
+        res = http.get(`${BASE_URL}/api/users/page?page=1&size=20`, { tags: { name: 'user-page' } });
+    } else if (roll < 0.85) {
+        res = http.get(`${BASE_URL}/api/device/${deviceId}/history`, { tags: { name: 'history' } });
+    } else {
+        const body = JSON.stringify({
+            soilHumidity: 30 + Math.random() * 40,
+            temperature: 15 + Math.random() * 15,
+            lightIntensity: Math.random() * 50000,
+            batteryLevel: 80,
+        });
+        res = http.post(`${BASE_URL}/api/device/${deviceId}/data`, body, {
+            headers: { 'Content-Type': 'application/json' },
+            tags: { name: 'report' },
+        });
+    }
+    check(res, { 'status < 500': (r) => r.status < 500 });
+    // 农户操作之间的思考时间
+    sleep(0.5 + Math.random());
+}
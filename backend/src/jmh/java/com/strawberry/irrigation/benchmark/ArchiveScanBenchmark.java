@@ -0,0 +1,94 @@
+package com.strawberry.irrigation.benchmark;
+
+import com.strawberry.irrigation.module_device.archive.BucketingSink;
+import com.strawberry.irrigation.module_device.archive.SensorArchiveStore;
+import com.strawberry.irrigation.module_device.archive.SeriesCodec;
+import com.strawberry.irrigation.module_device.config.ArchiveProperties;
+import com.strawberry.irrigation.module_device.history.SensorSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 冷数据归档扫描基准：读取一台设备 30 天（259200 行，10 秒间隔）的归档文件
+ * scanRaw 输出全部原始行，scanHourly 在读取时按小时分桶（对应历史查询的 HOUR_1 粒度）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArchiveScanBenchmark {
+
+    private static final int DAYS = 30;
+    private static final long DEVICE_ID = 1L;
+
+    private Path directory;
+    private SensorArchiveStore store;
+    private long fromMillis;
+    private long toMillis;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("archive-benchmark");
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setDirectory(directory.toString());
+        store = new SensorArchiveStore(properties);
+
+        Random random = new Random(42);
+        LocalDate firstDay = LocalDate.of(2024, 4, 1);
+        double humidity = 45.0;
+        double temperature = 22.0;
+        for (int d = 0; d < DAYS; d++) {
+            LocalDate day = firstDay.plusDays(d);
+            long dayStart = day.atStartOfDay(store.getZone()).toInstant().toEpochMilli();
+            SensorSeries series = new SensorSeries(8_640);
+            for (int i = 0; i < 8_640; i++) {
+                humidity = Math.round((humidity + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0;
+                temperature = Math.round((temperature + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0;
+                series.add(dayStart + i * 10_000L + random.nextInt(5), humidity, temperature,
+                        random.nextInt(50_000), 87.0);
+            }
+            store.write(DEVICE_ID, day, SeriesCodec.encode(DEVICE_ID, series));
+        }
+        fromMillis = firstDay.atStartOfDay(store.getZone()).toInstant().toEpochMilli();
+        toMillis = firstDay.plusDays(DAYS).atStartOfDay(store.getZone()).toInstant().toEpochMilli();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public SensorSeries scanRaw() {
+        SensorSeries series = new SensorSeries(DAYS * 8_640);
+        store.read(DEVICE_ID, fromMillis, toMillis, series::add);
+        return series;
+    }
+
+    @Benchmark
+    public SensorSeries scanHourly() {
+        SensorSeries series = new SensorSeries(DAYS * 24);
+        BucketingSink buckets = new BucketingSink(3_600_000L, series::add);
+        store.read(DEVICE_ID, fromMillis, toMillis, buckets);
+        buckets.flush();
+        return series;
+    }
+}
@@ -0,0 +1,64 @@
+package com.strawberry.irrigation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.strawberry.irrigation.common.response.Result;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result / UserResponse 的 JSON 序列化基准（与 Spring MVC 消息转换器使用同一 ObjectMapper 配置）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Result<UserResponse> single;
+    private Result<List<UserResponse>> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        single = Result.success(user(1));
+        List<UserResponse> users = new ArrayList<>(100);
+        for (int i = 1; i <= 100; i++) {
+            users.add(user(i));
+        }
+        page = Result.success(users);
+    }
+
+    @Benchmark
+    public byte[] serializeSingleUser() throws Exception {
+        return objectMapper.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] serializeUserPageOf100() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static UserResponse user(long id) {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 8, 0);
+        return new UserResponse(id, "farmer" + id, "农户" + id, "13800000000", "farmer" + id + "@example.com",
+                "FARMER", "ACTIVE", now, now, null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.strawberry.irrigation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.utils.BloomFilter;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.token.AccessTokenClaims;
+import com.strawberry.irrigation.module_auth.token.JwtTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求的认证开销：访问令牌校验（HMAC + 载荷解析）与吊销名单布隆过滤器查询
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtVerificationBenchmark {
+
+    private JwtTokenService tokenService;
+    private BloomFilter revoked;
+    private String token;
+    private String jti;
+
+    @Setup
+    public void setUp() {
+        AuthProperties properties = new AuthProperties();
+        properties.getJwt().setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        tokenService = new JwtTokenService(properties, new ObjectMapper());
+        token = tokenService.issue(1L, "farmer1", "FARMER").token();
+        jti = tokenService.verify(token).jti();
+        revoked = BloomFilter.create(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            revoked.put(UUID.randomUUID().toString());
+        }
+    }
+
+    @Benchmark
+    public AccessTokenClaims verifyToken() {
+        return tokenService.verify(token);
+    }
+
+    @Benchmark
+    public boolean checkRevocation() {
+        return revoked.mightContain(jti);
+    }
+}
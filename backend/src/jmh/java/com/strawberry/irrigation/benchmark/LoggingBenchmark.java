@@ -0,0 +1,112 @@
+package com.strawberry.irrigation.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.strawberry.irrigation.common.logging.SqlSamplingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日志输出基准：模拟一次请求的日志量（一条 SQL 的三行 DEBUG + 一行访问日志）
+ * SYNC：同步文件输出（开发环境与原 StdOutImpl 的行为）；ASYNC_BLOCKING：异步队列、满时阻塞；
+ * ASYNC：生产配置（满时丢弃 INFO 及以下）；ASYNC_SAMPLED：生产配置 + SQL 日志 1/100 采样
+ * 输出写入临时文件，避免干扰 JMH 自身的控制台输出
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"SYNC", "ASYNC_BLOCKING", "ASYNC", "ASYNC_SAMPLED"})
+    public String mode;
+
+    private LoggerContext context;
+    private File logFile;
+    private org.slf4j.Logger sqlLogger;
+    private org.slf4j.Logger accessLogger;
+    private long id;
+
+    @Setup
+    public void setUp() throws Exception {
+        logFile = Files.createTempFile("logging-benchmark", ".log").toFile();
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> target = file;
+        if (!"SYNC".equals(mode)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setIncludeCallerData(false);
+            if ("ASYNC_BLOCKING".equals(mode)) {
+                async.setDiscardingThreshold(0);
+            } else {
+                async.setDiscardingThreshold(1638);
+                async.setNeverBlock(true);
+            }
+            async.addAppender(file);
+            async.start();
+            target = async;
+        }
+        if ("ASYNC_SAMPLED".equals(mode)) {
+            SqlSamplingTurboFilter filter = new SqlSamplingTurboFilter();
+            filter.setSampleEvery(100);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(ch.qos.logback.classic.Level.DEBUG);
+        root.addAppender(target);
+        sqlLogger = context.getLogger("com.strawberry.irrigation.module_user.dao.UserMapper.selectById");
+        accessLogger = context.getLogger("ACCESS");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public void logRequest() {
+        long userId = ++id;
+        sqlLogger.debug("==>  Preparing: SELECT id,username,real_name,phone_number,email,user_type,status "
+                + "FROM users WHERE id=? AND deleted=0");
+        sqlLogger.debug("==> Parameters: {}(Long)", userId);
+        sqlLogger.debug("<==      Total: {}", 1);
+        accessLogger.info("method={} uri=/api/users/{} status={} ms={}", "GET", userId, 200, 3);
+    }
+}
@@ -0,0 +1,90 @@
+package com.strawberry.irrigation.benchmark;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_control.dao.IrrigationRuleMapper;
+import com.strawberry.irrigation.module_control.engine.RuleEngine;
+import com.strawberry.irrigation.module_control.entity.IrrigationRule;
+import com.strawberry.irrigation.module_control.service.IrrigationControlService;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 规则评估基准：每条读数只评估所属传感器、所含参数的规则，与规则总数无关
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleEvaluationBenchmark {
+
+    @Param({"100", "10000"})
+    private int sensorCount;
+
+    private RuleEngine engine;
+    private SensorReading[] readings;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<IrrigationRule> rules = new ArrayList<>();
+        long ruleId = 1;
+        for (long sensor = 1; sensor <= sensorCount; sensor++) {
+            rules.add(rule(ruleId++, sensor, "SOIL_HUMIDITY", "<", 30.0));
+            rules.add(rule(ruleId++, sensor, "SOIL_HUMIDITY", "<", 20.0));
+            rules.add(rule(ruleId++, sensor, "TEMPERATURE", ">=", 38.0));
+        }
+        IrrigationRuleMapper mapper = Stubs.mapper(IrrigationRuleMapper.class, "selectList", rules);
+        // 未启用集群时本节点拥有全部设备
+        ClusterMembership membership = new ClusterMembership(new ClusterProperties(),
+                Stubs.mapper(ClusterLeaseMapper.class, "selectLiveNodes", List.of()), event -> { },
+                new SimpleMeterRegistry());
+        engine = new RuleEngine(mapper, Stubs.mapper(IrrigationControlService.class, "executeRuleAction", null),
+                membership);
+        engine.reload();
+
+        // 读数都不满足阈值，测的是稳态下的评估开销而非动作执行
+        readings = new SensorReading[1024];
+        for (int i = 0; i < readings.length; i++) {
+            readings[i] = new SensorReading(1 + (i * 7919L) % sensorCount, i, 45.0, 24.0, 1000.0, 90.0);
+        }
+    }
+
+    @Benchmark
+    public void evaluateReading() {
+        engine.onReading(readings[next++ & (readings.length - 1)]);
+    }
+
+    private static IrrigationRule rule(long id, long sensorId, String parameter, String operator, double threshold) {
+        IrrigationRule rule = new IrrigationRule();
+        rule.setId(id);
+        rule.setName("rule-" + id);
+        rule.setSensorDeviceId(sensorId);
+        rule.setActuatorDeviceId(1_000_000L + sensorId);
+        rule.setMeasuredParameter(parameter);
+        rule.setThresholdOperator(operator);
+        rule.setThresholdValue(threshold);
+        rule.setAction("START_PUMP");
+        rule.setDurationSeconds(60);
+        rule.setIsEnabled(true);
+        return rule;
+    }
+}
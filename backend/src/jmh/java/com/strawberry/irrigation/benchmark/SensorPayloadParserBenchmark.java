@@ -0,0 +1,47 @@
+package com.strawberry.irrigation.benchmark;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.mqtt.SensorPayloadParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MQTT 传感器报文解析基准（每个采集线程复用一个解析器实例）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensorPayloadParserBenchmark {
+
+    private final SensorPayloadParser parser = new SensorPayloadParser();
+
+    private final byte[] compact = ("{\"humidity\":42.5,\"temperature\":23.1,\"light\":1200,"
+            + "\"battery\":88,\"timestamp\":1714550400}").getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] verbose = ("{\n  \"soil_humidity\": 42.5,\n  \"temperature\": -3.25,\n"
+            + "  \"light_intensity\": 12000.75,\n  \"battery_level\": 88.0,\n"
+            + "  \"firmware\": \"v1.2.3\",\n  \"timestamp\": 1714550400123\n}").getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public SensorReading parseCompact() {
+        return parser.parse(compact, 1L, 0L);
+    }
+
+    @Benchmark
+    public SensorReading parseVerboseWithUnknownField() {
+        return parser.parse(verbose, 1L, 0L);
+    }
+}
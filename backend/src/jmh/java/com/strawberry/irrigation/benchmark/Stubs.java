@@ -0,0 +1,44 @@
+package com.strawberry.irrigation.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * 基准测试用的 Mapper 桩
+ * 用 JDK 动态代理固定返回值，避免 Mockito 的调用记录开销混入测量结果
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * 创建 Mapper 桩：指定方法返回固定结果，其余方法返回 null（基本类型返回 0）
+     */
+    @SuppressWarnings("unchecked")
+    static <M> M mapper(Class<M> type, String method, Object result) {
+        return (M) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            if (m.getName().equals(method)) {
+                return result;
+            }
+            if (m.getDeclaringClass() == Object.class) {
+                return switch (m.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            Class<?> returnType = m.getReturnType();
+            if (returnType == long.class || returnType == Long.class) {
+                return 0L;
+            }
+            if (returnType == int.class) {
+                return 0;
+            }
+            if (returnType == List.class) {
+                return List.of();
+            }
+            return null;
+        });
+    }
+}
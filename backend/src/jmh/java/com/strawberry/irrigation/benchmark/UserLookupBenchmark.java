@@ -0,0 +1,66 @@
+package com.strawberry.irrigation.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.module_user.cache.UserCache;
+import com.strawberry.irrigation.module_user.config.UserCacheProperties;
+import com.strawberry.irrigation.module_user.dao.UserMapper;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import com.strawberry.irrigation.module_user.entity.User;
+import com.strawberry.irrigation.module_user.service.impl.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserServiceImpl 查询基准（Mapper 为固定返回的桩，不访问数据库）
+ * 对比本地缓存命中路径与每次回源（缓存容量为 0）路径的服务层开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    private UserServiceImpl cached;
+    private UserServiceImpl uncached;
+
+    @Setup
+    public void setUp() {
+        User user = new User("farmer01", "hash", "farmer01@example.com", "农户", "13800000000", "FARMER");
+        user.setId(1L);
+        UserMapper mapper = Stubs.mapper(UserMapper.class, "selectById", user);
+
+        // 查询路径不涉及密码哈希
+        cached = new UserServiceImpl(mapper, cache(10_000), null);
+        uncached = new UserServiceImpl(mapper, cache(0), null);
+    }
+
+    @Benchmark
+    public UserResponse getUserByIdCached() {
+        return cached.getUserById(1L);
+    }
+
+    @Benchmark
+    public UserResponse getUserByIdUncached() {
+        return uncached.getUserById(1L);
+    }
+
+    private static UserCache cache(long maximumSize) {
+        UserCacheProperties properties = new UserCacheProperties();
+        properties.setMaximumSize(maximumSize);
+        return new UserCache(properties, new DefaultListableBeanFactory().getBeanProvider(StringRedisTemplate.class), new ObjectMapper());
+    }
+}
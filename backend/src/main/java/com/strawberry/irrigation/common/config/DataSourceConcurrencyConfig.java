@@ -0,0 +1,58 @@
+package com.strawberry.irrigation.common.config;
+
+import com.strawberry.irrigation.common.jdbc.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * 数据库连接并发限制（app.datasource.concurrency-limit.enabled=true 时生效，vt 环境默认开启）
+ * 把连接池包装为 ConcurrencyLimitedDataSource，许可数默认等于 Hikari 最大连接数
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.concurrency-limit", name = "enabled", havingValue = "true")
+public class DataSourceConcurrencyConfig {
+
+    private static final String PREFIX = "app.datasource.concurrency-limit.";
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getProperty(PREFIX + "max-concurrency", Integer.class,
+                        dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10);
+                long acquireTimeoutMs = environment.getProperty(PREFIX + "acquire-timeout-ms", Long.class, 30_000L);
+                ConcurrencyLimitedDataSource limited =
+                        new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+                meterRegistry.ifAvailable(registry -> bindMetrics(registry, beanName, limited));
+                log.info("数据源 {} 启用连接并发限制：{} 个许可，等待超时 {}ms", beanName, maxConcurrency, acquireTimeoutMs);
+                return limited;
+            }
+        };
+    }
+
+    private static void bindMetrics(MeterRegistry registry, String beanName, ConcurrencyLimitedDataSource limited) {
+        Gauge.builder("jdbc.connections.limit.waiting", limited, ConcurrencyLimitedDataSource::getWaitingThreads)
+                .description("等待数据库连接许可的线程数")
+                .tag("name", beanName)
+                .register(registry);
+        Gauge.builder("jdbc.connections.limit.active", limited, ConcurrencyLimitedDataSource::getActiveConnections)
+                .tag("name", beanName)
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.strawberry.irrigation.common.config;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * MQTT 配置
+ * 仅在 app.mqtt.enabled=true 时创建客户端。使用持久会话（cleanSession=false）：
+ * 断线期间 Broker 为我们保留订阅与 QoS1 消息，重连后无需各订阅方重新订阅。
+ * 各模块通过 subscribe(topic, qos, listener) 注册自己的消息监听器，共用同一连接。
+ * 集群部署时客户端ID 自动追加节点ID，避免多个实例以同一ID 连接而被 Broker 轮流踢下线。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.mqtt", name = "enabled", havingValue = "true")
+public class MqttConfig {
+
+    /**
+     * 停机时由容器在所有依赖方（订阅者、指令发布者）销毁之后断开连接
+     */
+    @Bean(destroyMethod = "disconnectForcibly")
+    public MqttClient mqttClient(MqttProperties properties, ClusterProperties clusterProperties,
+                                 ClusterMembership clusterMembership) throws MqttException {
+        String clientId = clusterProperties.isEnabled()
+                ? properties.getClientId() + "-" + clusterMembership.getNodeId()
+                : properties.getClientId();
+        MqttClient client = new MqttClient(properties.getBrokerUrl(), clientId, new MemoryPersistence());
+        client.connect(connectOptions(properties));
+        return client;
+    }
+
+    private MqttConnectOptions connectOptions(MqttProperties properties) {
+        MqttConnectOptions options = new MqttConnectOptions();
+        options.setAutomaticReconnect(true);
+        options.setCleanSession(false);
+        // 提高在途消息上限，避免高频上报时 QoS1 消息被客户端限流
+        options.setMaxInflight(1000);
+        if (StringUtils.hasText(properties.getUsername())) {
+            options.setUserName(properties.getUsername());
+        }
+        if (StringUtils.hasText(properties.getPassword())) {
+            options.setPassword(properties.getPassword().toCharArray());
+        }
+        return options;
+    }
+}
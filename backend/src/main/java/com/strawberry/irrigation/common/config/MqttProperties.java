@@ -0,0 +1,48 @@
+package com.strawberry.irrigation.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * MQTT 连接配置（绑定 app.mqtt.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mqtt")
+public class MqttProperties {
+
+    /**
+     * 是否启用 MQTT 客户端（本地开发未部署 Broker 时可关闭）
+     */
+    private boolean enabled = false;
+
+    /**
+     * Broker 地址，例如 tcp://localhost:1883
+     */
+    private String brokerUrl = "tcp://localhost:1883";
+
+    /**
+     * 客户端ID 前缀；集群部署时实际ID 为 {clientId}-{节点ID}，保证每个实例唯一
+     */
+    private String clientId = "smart-irrigation-backend";
+
+    private String username;
+
+    private String password;
+
+    /**
+     * 传感器数据上报主题（+ 为设备物理ID）
+     */
+    private String sensorTopic = "strawberry/sensor/+/data";
+
+    /**
+     * 设备心跳主题（+ 为设备物理ID），执行器等不上报读数的设备靠心跳维持在线状态
+     */
+    private String heartbeatTopic = "strawberry/device/+/heartbeat";
+
+    /**
+     * 订阅 QoS
+     */
+    private int qos = 1;
+}
@@ -0,0 +1,13 @@
+package com.strawberry.irrigation.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置
+ * 开启 @Scheduled，用于缓存回写、周期刷新等后台维护任务
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
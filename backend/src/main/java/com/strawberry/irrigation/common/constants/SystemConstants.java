@@ -32,4 +32,24 @@ public class SystemConstants {
     public static final String USER_CREATE_SUCCESS = "用户创建成功";
     public static final String USER_UPDATE_SUCCESS = "用户信息更新成功";
     public static final String USER_DELETE_SUCCESS = "用户删除成功";
-}
\ No newline at end of file
+
+    // ===== 灌溉控制相关常量 =====
+    public static final String TRIGGER_TYPE_MANUAL = "MANUAL";
+    public static final String TRIGGER_TYPE_AUTO = "AUTO";
+    public static final String TRIGGER_TYPE_SCHEDULE = "SCHEDULE";
+
+    public static final String PUMP_ON = "PUMP_ON";
+    public static final String PUMP_OFF = "PUMP_OFF";
+
+    public static final String IRRIGATION_STATUS_SUCCESS = "SUCCESS";
+    public static final String IRRIGATION_STATUS_FAILED = "FAILED";
+
+    /**
+     * 灌溉计划未指定时区时使用的时区（与 db/irrigation_schedules.sql 中 time_zone 列的默认值一致）
+     */
+    public static final String SCHEDULE_DEFAULT_TIME_ZONE = "Asia/Shanghai";
+
+    // ===== MQTT 主题 =====
+    public static final String ACTUATOR_TOPIC_PREFIX = "strawberry/actuator/";
+    public static final String ACTUATOR_CONTROL_SUFFIX = "/control";
+}
@@ -0,0 +1,89 @@
+package com.strawberry.irrigation.common.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 访问日志过滤器
+ * 每个请求结束后输出一行（方法、路径、状态码、耗时），替代控制器中逐方法的 info 日志。
+ * 日志写入名为 ACCESS 的 Logger，生产环境由 logback-spring.xml 路由到独立的异步文件。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS");
+
+    private final AccessLogProperties properties;
+    private final AtomicLong counter = new AtomicLong();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !ACCESS_LOG.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            int status = response.getStatus();
+            if (shouldLog(status, elapsedMs)) {
+                ACCESS_LOG.info(format(request.getMethod(), request.getRequestURI(), status, elapsedMs));
+            }
+        }
+    }
+
+    boolean shouldLog(int status, long elapsedMs) {
+        if (status >= 500 || elapsedMs >= properties.getSlowThresholdMs()) {
+            return true;
+        }
+        int sampleEvery = properties.getSampleEvery();
+        return sampleEvery <= 1 || counter.getAndIncrement() % sampleEvery == 0;
+    }
+
+    String format(String method, String uri, int status, long elapsedMs) {
+        StringBuilder line = new StringBuilder(96);
+        if ("json".equalsIgnoreCase(properties.getFormat())) {
+            line.append("{\"method\":\"").append(method).append("\",\"uri\":\"");
+            appendJsonEscaped(line, uri);
+            line.append("\",\"status\":").append(status)
+                    .append(",\"ms\":").append(elapsedMs).append('}');
+        } else {
+            line.append("method=").append(method)
+                    .append(" uri=").append(uri)
+                    .append(" status=").append(status)
+                    .append(" ms=").append(elapsedMs);
+        }
+        return line.toString();
+    }
+
+    private static void appendJsonEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.strawberry.irrigation.common.logging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 访问日志配置（绑定 app.logging.access.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.logging.access")
+public class AccessLogProperties {
+
+    /**
+     * 是否输出访问日志
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每 N 个请求记录 1 条，1 表示全部记录；慢请求与 5xx 始终记录
+     */
+    private int sampleEvery = 1;
+
+    /**
+     * 输出格式：text（key=value）或 json（每行一个 JSON 对象，便于日志平台解析）
+     */
+    private String format = "text";
+
+    /**
+     * 慢请求阈值（毫秒）
+     */
+    private long slowThresholdMs = 1000;
+}
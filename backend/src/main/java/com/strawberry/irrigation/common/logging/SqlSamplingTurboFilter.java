@@ -0,0 +1,55 @@
+package com.strawberry.irrigation.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MyBatis SQL 日志采样过滤器（在 logback-spring.xml 中注册）
+ * <p>
+ * MyBatis 通过 Slf4jImpl 以 Mapper 语句ID为 Logger 名输出 DEBUG 日志，一次执行依次输出
+ * "==>  Preparing"、"==> Parameters"、"<==      Total/Updates" 等多行。
+ * 过滤器在 Preparing 行按 1/sampleEvery 的比例决定本次执行是否输出，
+ * 同一线程上的后续行沿用该决定，保证采样到的语句日志完整。
+ * 仅作用于 Logger 名包含 loggerNameContains 的 DEBUG 日志，isDebugEnabled 判断不受影响。
+ */
+public class SqlSamplingTurboFilter extends TurboFilter {
+
+    private static final String PREPARING = "==>  Preparing:";
+
+    private final AtomicLong counter = new AtomicLong();
+    private final ThreadLocal<Boolean> sampled = ThreadLocal.withInitial(() -> Boolean.TRUE);
+
+    private String loggerNameContains = ".dao.";
+    private int sampleEvery = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                              Object[] params, Throwable t) {
+        if (format == null || sampleEvery <= 1 || level != Level.DEBUG
+                || !logger.getName().contains(loggerNameContains)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (format.startsWith(PREPARING)) {
+            boolean keep = counter.getAndIncrement() % sampleEvery == 0;
+            sampled.set(keep);
+            return keep ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+        return sampled.get() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerNameContains(String loggerNameContains) {
+        this.loggerNameContains = loggerNameContains;
+    }
+
+    /**
+     * 每 N 条语句输出 1 条，1 或以下表示不采样
+     */
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+}
@@ -0,0 +1,97 @@
+package com.strawberry.irrigation.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis 语句耗时统计插件
+ * 按 Mapper 方法（如 UserMapper.selectById）记录 mybatis.statement 计时器，标签：statement、command、outcome。
+ * BATCH 执行器下 update 只是加入批次，真正的执行耗时记录在 statement=batch.flush 上。
+ * 与 MybatisPlusInterceptor 一样拦截 Executor，两个 query 重载之间的内部转调不经过代理，不会重复计时。
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class MybatisMetricsInterceptor implements Interceptor {
+
+    public static final String METRIC_NAME = "mybatis.statement";
+
+    private static final String BATCH_FLUSH = "batch.flush";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MybatisMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        String statement;
+        String command;
+        Object[] args = invocation.getArgs();
+        if (args.length > 0 && args[0] instanceof MappedStatement mappedStatement) {
+            statement = shortName(mappedStatement.getId());
+            command = mappedStatement.getSqlCommandType().name();
+        } else {
+            statement = BATCH_FLUSH;
+            command = "FLUSH";
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            timer(statement, command, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        // 非 BATCH 会话提交时也会触发 flushStatements，没有待执行语句的空刷新不计入
+        if (statement != BATCH_FLUSH || !(result instanceof List<?> list) || !list.isEmpty()) {
+            timer(statement, command, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    private Timer timer(String statement, String command, String outcome) {
+        return timers.computeIfAbsent(statement + '|' + outcome, key -> Timer.builder(METRIC_NAME)
+                .description("MyBatis 语句执行耗时")
+                .tag("statement", statement)
+                .tag("command", command)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * com.xxx.module_user.dao.UserMapper.selectById → UserMapper.selectById
+     */
+    static String shortName(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return type >= 0 ? id.substring(type + 1) : id;
+    }
+}
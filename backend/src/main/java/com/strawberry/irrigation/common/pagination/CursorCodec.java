@@ -0,0 +1,56 @@
+package com.strawberry.irrigation.common.pagination;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import org.springframework.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * 分页游标编解码
+ * 游标内容为 [版本号(1字节), 上一页最后一条记录的ID(8字节)]，以 URL 安全的 Base64 编码，
+ * 对客户端不透明，以后改变排序键时只需提升版本号
+ */
+public final class CursorCodec {
+
+    private static final byte VERSION = 1;
+    private static final int LENGTH = 1 + Long.BYTES;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorCodec() {
+    }
+
+    public static String encode(long lastId) {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH);
+        buffer.put(VERSION).putLong(lastId);
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    /**
+     * 解析游标
+     * @param cursor 游标，为空表示第一页
+     * @return 上一页最后一条记录的ID，第一页返回 null
+     */
+    public static Long decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw invalid();
+        }
+        return ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "无效的分页游标");
+    }
+}
@@ -0,0 +1,31 @@
+package com.strawberry.irrigation.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 客户端把 nextCursor 原样传回即可获取下一页，hasMore 为 false 时表示已到末尾
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> records;
+
+    /**
+     * 下一页游标（不透明字符串），没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    /**
+     * 满足条件的总数，仅在请求时显式要求统计才返回，否则为 null
+     */
+    private Long total;
+}
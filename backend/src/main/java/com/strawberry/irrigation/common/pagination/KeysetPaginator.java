@@ -0,0 +1,78 @@
+package com.strawberry.irrigation.common.pagination;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 键集（seek）分页
+ * 以自增主键为排序键：WHERE id > ? ORDER BY id LIMIT size+1，
+ * 无论翻到第几页都只走主键索引的一次范围扫描；多取的一条用于判断是否还有下一页，
+ * 总数统计（COUNT）只在调用方显式要求时执行。
+ * <p>
+ * 适用于任何以 BIGSERIAL 主键追加写入的表（用户、灌溉日志、系统日志等）：
+ * <pre>
+ * KeysetPaginator.page(userMapper, QueryWrapper::new, "id", User::getId,
+ *         cursor, size, withCount, UserResponse::new);
+ * </pre>
+ */
+public final class KeysetPaginator {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private KeysetPaginator() {
+    }
+
+    /**
+     * 查询一页数据
+     * @param mapper    实体 Mapper
+     * @param filter    过滤条件工厂（每次调用返回新的 QueryWrapper，分页与统计各用一个）
+     * @param keyColumn 排序键列名（须单调递增且唯一，通常为 id）
+     * @param keyGetter 从实体读取排序键
+     * @param cursor    上一页返回的游标，第一页为空
+     * @param size      每页大小（1-100）
+     * @param withCount 是否统计总数
+     * @param converter 实体到响应对象的转换
+     * @return 分页结果
+     */
+    public static <E, R> CursorPage<R> page(BaseMapper<E> mapper,
+                                            Supplier<QueryWrapper<E>> filter,
+                                            String keyColumn,
+                                            ToLongFunction<E> keyGetter,
+                                            String cursor,
+                                            int size,
+                                            boolean withCount,
+                                            Function<E, R> converter) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                    "每页大小必须在1-" + MAX_PAGE_SIZE + "之间");
+        }
+        Long afterKey = CursorCodec.decode(cursor);
+
+        QueryWrapper<E> query = filter.get();
+        if (afterKey != null) {
+            query.gt(keyColumn, afterKey);
+        }
+        query.orderByAsc(keyColumn);
+        // 第一页、不统计总数：分页插件只追加 LIMIT，不再执行 COUNT
+        List<E> rows = mapper.selectPage(new Page<>(1, size + 1L, false), query).getRecords();
+
+        boolean hasMore = rows.size() > size;
+        int count = Math.min(rows.size(), size);
+        List<R> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(converter.apply(rows.get(i)));
+        }
+        String nextCursor = hasMore ? CursorCodec.encode(keyGetter.applyAsLong(rows.get(count - 1))) : null;
+        Long total = withCount ? mapper.selectCount(filter.get()) : null;
+        return new CursorPage<>(records, nextCursor, hasMore, total);
+    }
+}
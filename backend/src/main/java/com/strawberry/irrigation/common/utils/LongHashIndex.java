@@ -0,0 +1,78 @@
+package com.strawberry.irrigation.common.utils;
+
+import java.util.Map;
+
+/**
+ * 只读的 long → V 开放寻址哈希索引
+ * 构建后不可变，查询不装箱、不加锁；需要更新时整体重建并替换引用（写时复制）。
+ * 适合"构建少、查询极多"的热路径，例如按设备ID查找规则。
+ *
+ * @param <V> 值类型
+ */
+public final class LongHashIndex<V> {
+
+    private static final LongHashIndex<?> EMPTY = new LongHashIndex<>(Map.of());
+
+    private final long[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    private LongHashIndex(Map<Long, V> source) {
+        int capacity = Integer.highestOneBit(Math.max(2, source.size() * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.size = source.size();
+        for (Map.Entry<Long, V> entry : source.entrySet()) {
+            long key = entry.getKey();
+            int slot = mix(key) & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = entry.getValue();
+        }
+    }
+
+    /**
+     * 由 Map 构建索引（值不能为 null）
+     */
+    public static <V> LongHashIndex<V> of(Map<Long, V> source) {
+        return new LongHashIndex<>(source);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> LongHashIndex<V> empty() {
+        return (LongHashIndex<V>) EMPTY;
+    }
+
+    /**
+     * 查询
+     * @param key 键
+     * @return 值，不存在时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            Object value = values[slot];
+            if (value == null) {
+                return null;
+            }
+            if (keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
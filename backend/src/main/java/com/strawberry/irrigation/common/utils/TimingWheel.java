@@ -0,0 +1,114 @@
+package com.strawberry.irrigation.common.utils;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮（单线程使用，不做同步）
+ * <p>
+ * 4 层、每层 64 个槽：第 0 层每槽一个 tick，第 n 层每槽 64^n 个 tick，tick 为 1 秒时可覆盖约 194 天。
+ * 插入与到期都是 O(1)；高层槽在低层转完一圈时整体下沉到低一层（级联），每个条目最多级联 3 次。
+ * 不支持取消：调用方在到期回调中自行判断条目是否仍然有效（惰性失效），需要时重新插入。
+ *
+ * @param <T> 条目类型
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final ArrayDeque<Entry<T>>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis 必须大于 0");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new ArrayDeque[LEVELS][SLOTS];
+    }
+
+    /**
+     * 插入条目，在 deadlineMillis 所在 tick 结束后到期（已过期的条目在下一次推进时到期）
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis, tickMillis), currentTick + 1);
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * 推进到 nowMillis，按到期顺序回调到期条目（回调中可以再次 schedule）
+     */
+    public void advance(long nowMillis, Consumer<T> onExpired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            int index = (int) (currentTick & SLOT_MASK);
+            ArrayDeque<Entry<T>> slot = wheels[0][index];
+            if (slot == null || slot.isEmpty()) {
+                continue;
+            }
+            wheels[0][index] = null;
+            size -= slot.size();
+            for (Entry<T> entry : slot) {
+                onExpired.accept(entry.item);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long deadlineTick = entry.deadlineTick;
+        if (level == LEVELS - 1 && delta >= 1L << (SLOT_BITS * LEVELS)) {
+            // 超出最大范围：先放在最高层的最远槽，级联下沉时重新计算位置
+            deadlineTick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+        }
+        int index = (int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        ArrayDeque<Entry<T>> slot = wheels[level][index];
+        if (slot == null) {
+            slot = new ArrayDeque<>();
+            wheels[level][index] = slot;
+        }
+        slot.add(entry);
+    }
+
+    /**
+     * 第 n 层转完一圈时，把第 n+1 层当前槽内的条目重新放置到低层
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            ArrayDeque<Entry<T>> slot = wheels[level][index];
+            if (slot != null && !slot.isEmpty()) {
+                wheels[level][index] = null;
+                for (Entry<T> entry : slot) {
+                    place(entry);
+                }
+            }
+        }
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.strawberry.irrigation.module_auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 认证配置（绑定 app.auth.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.auth")
+public class AuthProperties {
+
+    /**
+     * 是否对 /api/** 强制校验访问令牌；开启后 X-User-Id 请求头由令牌中的用户ID 覆盖，客户端无法伪造
+     */
+    private boolean enabled = false;
+
+    /**
+     * 未开启令牌校验时是否信任客户端自带的 X-User-Id 请求头（仅用于本地开发或由可信网关注入该请求头的部署）；
+     * 默认不信任，依赖当前用户的接口直接拒绝
+     */
+    private boolean trustUserIdHeader = false;
+
+    /**
+     * 无需令牌即可访问的路径（Ant 风格）；HTTP 上报接口会触发灌溉规则，须携带设备所有者的令牌，不属于公开路径
+     */
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/api/auth/**", "/api/system/health"));
+
+    private Jwt jwt = new Jwt();
+
+    private Password password = new Password();
+
+    private Revocation revocation = new Revocation();
+
+    @Data
+    public static class Jwt {
+
+        /**
+         * HS256 签名密钥（Base64，至少 32 字节）；留空时启动时随机生成，重启后已签发的令牌全部失效，且无法在多节点间共用
+         */
+        private String secret;
+
+        /**
+         * 轮换前使用过的密钥（Base64），仍可用于校验，直到其签发的令牌全部过期
+         */
+        private List<String> previousSecrets = new ArrayList<>();
+
+        private String issuer = "smart-irrigation";
+
+        /**
+         * 访问令牌有效期（秒）
+         */
+        private long accessTokenTtlSeconds = 900;
+
+        /**
+         * 刷新令牌有效期（天）
+         */
+        private int refreshTokenTtlDays = 14;
+    }
+
+    @Data
+    public static class Password {
+
+        /**
+         * BCrypt 计算强度（4-31，每加 1 耗时翻倍）
+         */
+        private int bcryptStrength = 10;
+
+        /**
+         * 哈希线程数，0 表示 CPU 核数的一半（至少 1）
+         */
+        private int threads = 0;
+
+        /**
+         * 等待哈希的任务上限，超出时直接拒绝（返回 503），不占用请求线程排队
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * 单次哈希/校验的最长等待（毫秒）
+         */
+        private long timeoutMs = 5_000;
+    }
+
+    @Data
+    public static class Revocation {
+
+        /**
+         * 一个访问令牌有效期内预计吊销的令牌数，决定布隆过滤器大小
+         */
+        private int expectedInsertions = 100_000;
+
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * 同步其他节点吊销记录的周期（毫秒）
+         */
+        private long pollIntervalMs = 5_000;
+
+        /**
+         * 每次拉取时向前重扫的ID 数：BIGSERIAL 按分配顺序而非提交顺序递增，
+         * 较小的ID 可能晚于较大的ID 提交，重扫窗口覆盖这段乱序
+         */
+        private int rescanWindow = 1_000;
+    }
+}
@@ -0,0 +1,93 @@
+package com.strawberry.irrigation.module_auth.controller;
+
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.common.response.Result;
+import com.strawberry.irrigation.module_auth.dto.LoginRequest;
+import com.strawberry.irrigation.module_auth.dto.RefreshRequest;
+import com.strawberry.irrigation.module_auth.dto.TokenResponse;
+import com.strawberry.irrigation.module_auth.filter.JwtAuthenticationFilter;
+import com.strawberry.irrigation.module_auth.service.AuthService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 认证控制器
+ * 登录、刷新令牌、退出登录（这些路径不经过访问令牌校验）
+ * 凭据错误/令牌失效返回 HTTP 401，用户被禁用返回 403，密码哈希繁忙返回 503（带 Retry-After）
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    /**
+     * 以真实 HTTP 状态返回的业务错误码：未认证、已禁用、密码哈希线程池繁忙
+     */
+    private static final Set<HttpStatus> HTTP_STATUSES = EnumSet.of(
+            HttpStatus.UNAUTHORIZED, HttpStatus.FORBIDDEN, HttpStatus.SERVICE_UNAVAILABLE);
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final AuthService authService;
+
+    /**
+     * 登录
+     * POST /api/auth/login
+     */
+    @PostMapping("/login")
+    public ResponseEntity<Result<TokenResponse>> login(@Valid @RequestBody LoginRequest request) {
+        return ResponseEntity.ok(Result.success(authService.login(request)));
+    }
+
+    /**
+     * 刷新令牌
+     * POST /api/auth/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Result<TokenResponse>> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(Result.success(authService.refresh(request.getRefreshToken())));
+    }
+
+    /**
+     * 退出登录，吊销请求头中的访问令牌与请求体中的刷新令牌（均可省略）
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Result<Void>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) RefreshRequest request) {
+        authService.logout(JwtAuthenticationFilter.bearerToken(authorization),
+                request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok(Result.success());
+    }
+
+    /**
+     * 认证接口的 401/403/503 按真实 HTTP 状态返回（其他业务错误与全局处理一致，HTTP 200 + 错误码），
+     * 便于客户端和网关区分凭据错误、账号禁用与过载重试
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<Result<Object>> handleBusiness(BusinessException ex) {
+        HttpStatus status = HttpStatus.resolve(ex.getCode());
+        if (status == null || !HTTP_STATUSES.contains(status)) {
+            return ResponseEntity.ok(Result.fail(ex.getCode(), ex.getMessage()));
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (status == HttpStatus.UNAUTHORIZED) {
+            builder.header(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        } else if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            builder.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+        return builder.body(Result.fail(ex.getCode(), ex.getMessage()));
+    }
+}
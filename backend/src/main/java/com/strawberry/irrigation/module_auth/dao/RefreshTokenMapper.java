@@ -0,0 +1,46 @@
+package com.strawberry.irrigation.module_auth.dao;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 刷新令牌访问层（auth_refresh_tokens 表，需执行 db/auth_tokens.sql）
+ * 只按 SHA-256 摘要存取，过期判断使用数据库时钟
+ */
+@Mapper
+public interface RefreshTokenMapper {
+
+    @Insert("INSERT INTO auth_refresh_tokens (user_id, token_hash, expires_at) " +
+            "VALUES (#{userId}, #{tokenHash}, NOW() + make_interval(days => #{ttlDays}))")
+    void insert(@Param("userId") Long userId, @Param("tokenHash") String tokenHash, @Param("ttlDays") int ttlDays);
+
+    /**
+     * 消费一个有效的刷新令牌（标记为已吊销），单条语句完成，同一令牌并发刷新只有一个成功
+     * @return 令牌所属用户ID，令牌不存在、已使用或已过期时返回 null
+     */
+    @Select("UPDATE auth_refresh_tokens SET revoked = TRUE " +
+            "WHERE token_hash = #{tokenHash} AND NOT revoked AND expires_at > NOW() RETURNING user_id")
+    Long consume(@Param("tokenHash") String tokenHash);
+
+    /**
+     * 已使用过（吊销）的刷新令牌所属用户，用于识别令牌被盗用后的重放
+     */
+    @Select("SELECT user_id FROM auth_refresh_tokens WHERE token_hash = #{tokenHash} AND revoked")
+    Long selectRevokedOwner(@Param("tokenHash") String tokenHash);
+
+    @Update("UPDATE auth_refresh_tokens SET revoked = TRUE WHERE token_hash = #{tokenHash} AND NOT revoked")
+    int revoke(@Param("tokenHash") String tokenHash);
+
+    @Update("UPDATE auth_refresh_tokens SET revoked = TRUE WHERE user_id = #{userId} AND NOT revoked")
+    int revokeAllForUser(@Param("userId") Long userId);
+
+    /**
+     * 删除已过期的刷新令牌
+     */
+    @Delete("DELETE FROM auth_refresh_tokens WHERE expires_at < NOW()")
+    int purgeExpired();
+}
@@ -0,0 +1,44 @@
+package com.strawberry.irrigation.module_auth.dao;
+
+import com.strawberry.irrigation.module_auth.entity.RevokedToken;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 吊销令牌访问层（auth_revoked_tokens 表，需执行 db/auth_tokens.sql）
+ */
+@Mapper
+public interface RevokedTokenMapper {
+
+    /**
+     * 登记吊销（重复吊销忽略）
+     * @param expiresAt 令牌过期时间（epoch 秒）
+     */
+    @Insert("INSERT INTO auth_revoked_tokens (jti, expires_at) VALUES (#{jti}, to_timestamp(#{expiresAt})) " +
+            "ON CONFLICT (jti) DO NOTHING")
+    int insert(@Param("jti") String jti, @Param("expiresAt") long expiresAt);
+
+    /**
+     * 按ID增量读取尚未过期的吊销记录
+     */
+    @Select("SELECT id, jti FROM auth_revoked_tokens " +
+            "WHERE id > #{afterId} AND expires_at > NOW() ORDER BY id LIMIT #{limit}")
+    List<RevokedToken> selectAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 精确判断令牌是否已吊销（仅在布隆过滤器命中时调用）
+     */
+    @Select("SELECT EXISTS (SELECT 1 FROM auth_revoked_tokens WHERE jti = #{jti})")
+    boolean exists(@Param("jti") String jti);
+
+    /**
+     * 删除已过期令牌的吊销记录
+     */
+    @Delete("DELETE FROM auth_revoked_tokens WHERE expires_at < NOW()")
+    int purgeExpired();
+}
@@ -0,0 +1,14 @@
+package com.strawberry.irrigation.module_auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 刷新令牌请求DTO（刷新与退出登录共用）
+ */
+@Data
+public class RefreshRequest {
+
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+}
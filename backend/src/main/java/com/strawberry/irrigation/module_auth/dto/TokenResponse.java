@@ -0,0 +1,28 @@
+package com.strawberry.irrigation.module_auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 令牌响应DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponse {
+
+    private String accessToken;
+    private String tokenType;
+    /**
+     * 访问令牌有效期（秒）
+     */
+    private Long expiresIn;
+    /**
+     * 刷新令牌（只返回一次，服务端仅保存摘要；每次刷新后旧值失效）
+     */
+    private String refreshToken;
+    private Long userId;
+    private String username;
+    private String userType;
+}
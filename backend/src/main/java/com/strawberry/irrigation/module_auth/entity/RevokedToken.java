@@ -0,0 +1,17 @@
+package com.strawberry.irrigation.module_auth.entity;
+
+import lombok.Data;
+
+/**
+ * 提前吊销的访问令牌（auth_revoked_tokens 表）
+ */
+@Data
+public class RevokedToken {
+
+    private Long id;
+
+    /**
+     * 令牌ID（JWT jti）
+     */
+    private String jti;
+}
@@ -0,0 +1,143 @@
+package com.strawberry.irrigation.module_auth.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.response.Result;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.token.AccessTokenClaims;
+import com.strawberry.irrigation.module_auth.token.JwtTokenService;
+import com.strawberry.irrigation.module_auth.token.TokenRevocationList;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 访问令牌校验过滤器（app.auth.enabled=true 时生效）
+ * 对 /api/** 中非公开路径校验 Authorization: Bearer 令牌：签名与有效期只用内存中的密钥计算，
+ * 吊销检查先查布隆过滤器，正常请求全程不访问数据库。
+ * 校验通过后请求头 X-User-Id 改为令牌中的用户ID（客户端自带的值被忽略），
+ * 载荷放入请求属性 {@link #CLAIMS_ATTRIBUTE}；校验失败返回 401。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String CLAIMS_ATTRIBUTE = AccessTokenClaims.class.getName();
+    static final String USER_ID_HEADER = "X-User-Id";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AuthProperties properties;
+    private final JwtTokenService jwtTokenService;
+    private final TokenRevocationList revocationList;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!pathMatcher.match("/api/**", path)) {
+            return true;
+        }
+        for (String pattern : properties.getPublicPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String token = bearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (token == null) {
+            reject(response, "未登录或缺少访问令牌", null);
+            return;
+        }
+        AccessTokenClaims claims = jwtTokenService.verify(token);
+        if (claims == null) {
+            reject(response, "访问令牌无效或已过期", "invalid_token");
+            return;
+        }
+        if (revocationList.isRevoked(claims.jti())) {
+            reject(response, "访问令牌已失效", "invalid_token");
+            return;
+        }
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+        filterChain.doFilter(new AuthenticatedRequest(request, claims.sub()), response);
+    }
+
+    /**
+     * 从 Authorization 请求头中取出 Bearer 令牌
+     * @return 令牌，请求头为空或不是 Bearer 方案时返回 null
+     */
+    public static String bearerToken(String authorization) {
+        if (authorization == null || authorization.length() <= BEARER_PREFIX.length()
+                || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        return authorization.substring(BEARER_PREFIX.length()).trim();
+    }
+
+    private void reject(HttpServletResponse response, String message, String error) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE,
+                error == null ? "Bearer" : "Bearer error=\"" + error + "\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), Result.fail(HttpStatus.UNAUTHORIZED.value(), message));
+    }
+
+    /**
+     * 以令牌中的用户ID 覆盖 X-User-Id 请求头
+     */
+    private static final class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final String userId;
+
+        AuthenticatedRequest(HttpServletRequest request, String userId) {
+            super(request);
+            this.userId = userId;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return USER_ID_HEADER.equalsIgnoreCase(name) ? userId : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return USER_ID_HEADER.equalsIgnoreCase(name)
+                    ? Collections.enumeration(Collections.singletonList(userId))
+                    : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            Set<String> names = new LinkedHashSet<>(Collections.list(super.getHeaderNames()));
+            names.add(USER_ID_HEADER);
+            return Collections.enumeration(names);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.strawberry.irrigation.module_auth.password;
+
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希服务
+ * BCrypt 每次计算耗时数十毫秒，全部放到独立的小线程池中执行：线程数与等待队列都有上限，
+ * 登录洪峰时多余的请求直接返回 503，而不是占满 Tomcat 工作线程、拖慢其他接口。
+ * 历史数据中 password_hash 存的是明文，校验时兼容明文并由调用方改写为哈希。
+ * 指标：auth.password.hash{op}、auth.password.queue.depth
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private static final String BUSY_MESSAGE = "服务繁忙，请稍后重试";
+    private static final long BATCH_RETRY_MILLIS = 10;
+
+    private final BCryptPasswordEncoder encoder;
+    /**
+     * 用户不存在时用于陪跑校验的哈希，使"用户不存在"与"密码错误"的响应耗时一致
+     */
+    private final String dummyHash;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+
+    public PasswordHasher(AuthProperties properties, MeterRegistry meterRegistry) {
+        AuthProperties.Password config = properties.getPassword();
+        this.encoder = new BCryptPasswordEncoder(config.getBcryptStrength());
+        this.dummyHash = encoder.encode("dummy-password");
+        this.timeoutMs = config.getTimeoutMs();
+        int threads = config.getThreads() > 0
+                ? config.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.password.hash").tag("op", "hash").register(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.password.hash").tag("op", "verify").register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("等待哈希计算的任务数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 计算密码哈希
+     */
+    public String hash(String rawPassword) {
+        return call(() -> hashTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * 批量计算密码哈希（批量导入使用）
+     * 每轮只提交与线程数相同的任务并等待完成，期间到达的登录请求在两轮之间得到执行，不会被导入整体阻塞
+     * @return 与输入顺序一致的哈希列表
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        int wave = executor.getCorePoolSize();
+        List<Future<String>> futures = new ArrayList<>(wave);
+        for (int from = 0; from < rawPasswords.size(); from += wave) {
+            futures.clear();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            for (String raw : rawPasswords.subList(from, Math.min(from + wave, rawPasswords.size()))) {
+                futures.add(submitWithRetry(() -> hashTimer.record(() -> encoder.encode(raw)), deadline, futures));
+            }
+            for (Future<String> future : futures) {
+                hashes.add(await(future, deadline - System.nanoTime()));
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * 校验密码
+     * @param rawPassword 用户输入的密码
+     * @param stored      数据库中保存的值（BCrypt 哈希，或尚未迁移的明文）；用户不存在时传 null
+     */
+    public boolean matches(String rawPassword, String stored) {
+        if (rawPassword == null) {
+            return false;
+        }
+        if (stored == null) {
+            call(() -> verifyTimer.record(() -> encoder.matches(rawPassword, dummyHash)));
+            return false;
+        }
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        Boolean matched = call(() -> verifyTimer.record(() -> encoder.matches(rawPassword, stored)));
+        return Boolean.TRUE.equals(matched);
+    }
+
+    /**
+     * 保存的值是否已经是 BCrypt 哈希（否则为历史明文，需要在登录成功后改写）
+     */
+    public static boolean isHashed(String stored) {
+        return stored != null && stored.length() == 60
+                && (stored.startsWith("$2a$") || stored.startsWith("$2b$") || stored.startsWith("$2y$"));
+    }
+
+    int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE.value(), BUSY_MESSAGE);
+        }
+        return await(future, TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+    }
+
+    /**
+     * 批量任务在队列满时短暂等待后重试，而不是像单次请求那样立即拒绝
+     */
+    private <T> Future<T> submitWithRetry(Callable<T> task, long deadline, List<Future<T>> submitted) {
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (System.nanoTime() >= deadline || executor.isShutdown()) {
+                    submitted.forEach(f -> f.cancel(true));
+                    throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE.value(), BUSY_MESSAGE);
+                }
+            }
+            try {
+                Thread.sleep(BATCH_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                submitted.forEach(f -> f.cancel(true));
+                throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE.value(), BUSY_MESSAGE);
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future, long timeoutNanos) {
+        try {
+            return future.get(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE.value(), BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE.value(), BUSY_MESSAGE);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.strawberry.irrigation.module_auth.service;
+
+import com.strawberry.irrigation.module_auth.dto.LoginRequest;
+import com.strawberry.irrigation.module_auth.dto.TokenResponse;
+
+/**
+ * 认证服务接口
+ */
+public interface AuthService {
+
+    /**
+     * 用户名密码登录
+     * @param request 登录请求
+     * @return 访问令牌与刷新令牌
+     */
+    TokenResponse login(LoginRequest request);
+
+    /**
+     * 用刷新令牌换取新的访问令牌与刷新令牌（旧刷新令牌随即失效）
+     * @param refreshToken 刷新令牌
+     * @return 新令牌
+     */
+    TokenResponse refresh(String refreshToken);
+
+    /**
+     * 退出登录：吊销访问令牌与刷新令牌
+     * @param accessToken  访问令牌，可为空
+     * @param refreshToken 刷新令牌，可为空
+     */
+    void logout(String accessToken, String refreshToken);
+}
@@ -0,0 +1,131 @@
+package com.strawberry.irrigation.module_auth.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.dao.RefreshTokenMapper;
+import com.strawberry.irrigation.module_auth.dto.LoginRequest;
+import com.strawberry.irrigation.module_auth.dto.TokenResponse;
+import com.strawberry.irrigation.module_auth.password.PasswordHasher;
+import com.strawberry.irrigation.module_auth.service.AuthService;
+import com.strawberry.irrigation.module_auth.token.AccessTokenClaims;
+import com.strawberry.irrigation.module_auth.token.IssuedToken;
+import com.strawberry.irrigation.module_auth.token.JwtTokenService;
+import com.strawberry.irrigation.module_auth.token.TokenRevocationList;
+import com.strawberry.irrigation.module_user.dao.UserMapper;
+import com.strawberry.irrigation.module_user.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * 认证服务实现
+ * 访问令牌为无状态 JWT，只有登录、刷新、退出登录会访问数据库；
+ * 刷新令牌为随机串，数据库只保存其 SHA-256 摘要，每次刷新轮换一次。
+ * 已使用过的刷新令牌再次出现时视为被盗用，吊销该用户的全部刷新令牌。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuthServiceImpl implements AuthService {
+
+    private static final String BAD_CREDENTIALS = "用户名或密码错误";
+    private static final String INVALID_REFRESH_TOKEN = "刷新令牌无效或已过期";
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final UserMapper userMapper;
+    private final RefreshTokenMapper refreshTokenMapper;
+    private final PasswordHasher passwordHasher;
+    private final JwtTokenService jwtTokenService;
+    private final TokenRevocationList revocationList;
+    private final AuthProperties properties;
+    private final SecureRandom random = new SecureRandom();
+
+    @Override
+    public TokenResponse login(LoginRequest request) {
+        User user = userMapper.selectOne(new QueryWrapper<User>().eq("username", request.getUsername()));
+        if (!passwordHasher.matches(request.getPassword(), user != null ? user.getPasswordHash() : null)
+                || user == null) {
+            throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), BAD_CREDENTIALS);
+        }
+        checkNotBanned(user);
+        if (!PasswordHasher.isHashed(user.getPasswordHash())) {
+            // 历史明文密码：登录成功后改写为哈希
+            User update = new User();
+            update.setId(user.getId());
+            update.setPasswordHash(passwordHasher.hash(request.getPassword()));
+            userMapper.updateById(update);
+            log.info("用户 {} 的密码已迁移为 BCrypt 哈希", user.getId());
+        }
+        log.info("用户登录成功，ID: {}", user.getId());
+        return issue(user);
+    }
+
+    @Override
+    public TokenResponse refresh(String refreshToken) {
+        String tokenHash = sha256(refreshToken);
+        Long userId = refreshTokenMapper.consume(tokenHash);
+        if (userId == null) {
+            Long owner = refreshTokenMapper.selectRevokedOwner(tokenHash);
+            if (owner != null) {
+                int revoked = refreshTokenMapper.revokeAllForUser(owner);
+                log.warn("用户 {} 的已失效刷新令牌被再次使用，已吊销其全部 {} 个刷新令牌", owner, revoked);
+            }
+            throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), INVALID_REFRESH_TOKEN);
+        }
+        User user = userMapper.selectById(userId);
+        if (user == null) {
+            throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), INVALID_REFRESH_TOKEN);
+        }
+        checkNotBanned(user);
+        return issue(user);
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        if (StringUtils.hasText(accessToken)) {
+            AccessTokenClaims claims = jwtTokenService.verify(accessToken);
+            if (claims != null) {
+                revocationList.revoke(claims.jti(), claims.exp());
+            }
+        }
+        if (StringUtils.hasText(refreshToken)) {
+            refreshTokenMapper.revoke(sha256(refreshToken));
+        }
+    }
+
+    private TokenResponse issue(User user) {
+        IssuedToken access = jwtTokenService.issue(user.getId(), user.getUsername(), user.getUserType());
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenMapper.insert(user.getId(), sha256(refreshToken), properties.getJwt().getRefreshTokenTtlDays());
+        return new TokenResponse(access.token(), "Bearer", jwtTokenService.getTtlSeconds(), refreshToken,
+                user.getId(), user.getUsername(), user.getUserType());
+    }
+
+    private static void checkNotBanned(User user) {
+        if (SystemConstants.USER_STATUS_BANNED.equals(user.getStatus())) {
+            throw new BusinessException(HttpStatus.FORBIDDEN.value(), "用户已被禁用");
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.strawberry.irrigation.module_auth.token;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * 访问令牌载荷（JWT 标准字段名）
+ *
+ * @param iss  签发方
+ * @param sub  用户ID
+ * @param name 用户名
+ * @param role 用户类型
+ * @param iat  签发时间（epoch 秒）
+ * @param exp  过期时间（epoch 秒）
+ * @param jti  令牌ID，吊销时使用
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AccessTokenClaims(String iss, String sub, String name, String role, long iat, long exp, String jti) {
+
+    public Long userId() {
+        return Long.valueOf(sub);
+    }
+}
@@ -0,0 +1,10 @@
+package com.strawberry.irrigation.module_auth.token;
+
+/**
+ * 新签发的访问令牌
+ *
+ * @param token     紧凑序列化后的 JWT
+ * @param claims    载荷
+ */
+public record IssuedToken(String token, AccessTokenClaims claims) {
+}
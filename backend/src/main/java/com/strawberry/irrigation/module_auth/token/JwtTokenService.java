@@ -0,0 +1,186 @@
+package com.strawberry.irrigation.module_auth.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 访问令牌签发与校验（JWT，HS256）
+ * 校验只使用启动时加载的密钥与令牌自身的载荷，不查询数据库：
+ * 每个密钥的头部段（含 kid）预先编码好，校验时按头部段原文查找密钥，
+ * 因此 alg=none、其他算法或未知 kid 的令牌在计算签名前就会被拒绝；
+ * Mac 实例按线程缓存，避免每次校验重新初始化。
+ * 轮换密钥时把旧密钥放入 previous-secrets，旧令牌在过期前仍可通过校验。
+ */
+@Slf4j
+@Component
+public class JwtTokenService {
+
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final String issuer;
+    private final long ttlSeconds;
+    private final SigningKey signingKey;
+    /**
+     * 头部段原文 → 密钥
+     */
+    private final Map<String, SigningKey> keysByHeader;
+    private final ObjectWriter claimsWriter;
+    private final ObjectReader claimsReader;
+
+    public JwtTokenService(AuthProperties properties, ObjectMapper objectMapper) {
+        AuthProperties.Jwt jwt = properties.getJwt();
+        this.issuer = jwt.getIssuer();
+        this.ttlSeconds = jwt.getAccessTokenTtlSeconds();
+        this.claimsWriter = objectMapper.writerFor(AccessTokenClaims.class);
+        this.claimsReader = objectMapper.readerFor(AccessTokenClaims.class);
+
+        byte[] secret;
+        if (StringUtils.hasText(jwt.getSecret())) {
+            secret = decodeSecret(jwt.getSecret());
+        } else {
+            secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+            log.warn("未配置 app.auth.jwt.secret，已生成随机签名密钥：重启后已签发的令牌全部失效，多节点部署必须配置同一密钥");
+        }
+        this.signingKey = new SigningKey(secret);
+        List<SigningKey> keys = new ArrayList<>();
+        keys.add(signingKey);
+        for (String previous : jwt.getPreviousSecrets()) {
+            keys.add(new SigningKey(decodeSecret(previous)));
+        }
+        Map<String, SigningKey> byHeader = new HashMap<>();
+        for (SigningKey key : keys) {
+            byHeader.putIfAbsent(key.header, key);
+        }
+        this.keysByHeader = Map.copyOf(byHeader);
+    }
+
+    /**
+     * 签发访问令牌
+     */
+    public IssuedToken issue(Long userId, String username, String role) {
+        return issue(userId, username, role, System.currentTimeMillis() / 1000);
+    }
+
+    IssuedToken issue(Long userId, String username, String role, long nowSeconds) {
+        AccessTokenClaims claims = new AccessTokenClaims(issuer, String.valueOf(userId), username, role,
+                nowSeconds, nowSeconds + ttlSeconds, UUID.randomUUID().toString());
+        String payload;
+        try {
+            payload = B64.encodeToString(claimsWriter.writeValueAsBytes(claims));
+        } catch (Exception e) {
+            throw new IllegalStateException("令牌载荷序列化失败", e);
+        }
+        String signingInput = signingKey.header + '.' + payload;
+        String signature = B64.encodeToString(signingKey.sign(signingInput));
+        return new IssuedToken(signingInput + '.' + signature, claims);
+    }
+
+    /**
+     * 校验访问令牌
+     * @return 载荷；签名不符、已过期、签发方不符或格式错误时返回 null
+     */
+    public AccessTokenClaims verify(String token) {
+        return verify(token, System.currentTimeMillis() / 1000);
+    }
+
+    AccessTokenClaims verify(String token, long nowSeconds) {
+        if (token == null) {
+            return null;
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return null;
+        }
+        SigningKey key = keysByHeader.get(token.substring(0, firstDot));
+        if (key == null) {
+            return null;
+        }
+        AccessTokenClaims claims;
+        try {
+            byte[] expected = key.sign(token.substring(0, lastDot));
+            if (!MessageDigest.isEqual(expected, B64_DECODER.decode(token.substring(lastDot + 1)))) {
+                return null;
+            }
+            claims = claimsReader.readValue(B64_DECODER.decode(token.substring(firstDot + 1, lastDot)));
+        } catch (Exception e) {
+            return null;
+        }
+        if (claims.exp() <= nowSeconds || !issuer.equals(claims.iss()) || claims.sub() == null
+                || claims.jti() == null) {
+            return null;
+        }
+        return claims;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    private static byte[] decodeSecret(String base64) {
+        byte[] secret = Base64.getDecoder().decode(base64.trim());
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("JWT 签名密钥至少需要 " + MIN_SECRET_BYTES + " 字节（Base64 编码）");
+        }
+        return secret;
+    }
+
+    /**
+     * 签名密钥及其预编码的头部段
+     */
+    private static final class SigningKey {
+
+        private final SecretKeySpec key;
+        private final String header;
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(byte[] secret) {
+            this.key = new SecretKeySpec(secret, "HmacSHA256");
+            String kid;
+            try {
+                kid = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(secret), 0, 8);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            this.header = B64.encodeToString(("{\"alg\":\"HS256\",\"typ\":\"JWT\",\"kid\":\"" + kid + "\"}")
+                    .getBytes(StandardCharsets.UTF_8));
+            this.mac = ThreadLocal.withInitial(this::newMac);
+        }
+
+        byte[] sign(String signingInput) {
+            return mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        private Mac newMac() {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 不可用", e);
+            }
+        }
+    }
+}
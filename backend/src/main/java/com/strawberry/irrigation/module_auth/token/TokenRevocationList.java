@@ -0,0 +1,175 @@
+package com.strawberry.irrigation.module_auth.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.strawberry.irrigation.common.utils.BloomFilter;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.dao.RefreshTokenMapper;
+import com.strawberry.irrigation.module_auth.dao.RevokedTokenMapper;
+import com.strawberry.irrigation.module_auth.entity.RevokedToken;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 访问令牌吊销名单
+ * 吊销记录写入 auth_revoked_tokens 表，各节点按ID增量拉取（每次向前重扫一段，覆盖乱序提交）后放入内存中的布隆过滤器。
+ * 校验请求时先查布隆过滤器：未命中（绝大多数请求）直接放行，不访问数据库；
+ * 命中时才按 jti 精确查询一次数据库，结果在本地缓存，误判率决定了这部分查询的比例。
+ * 布隆过滤器不支持删除，因此按访问令牌有效期分代：新吊销写入当前代，
+ * 每过一个有效期当前代转为上一代、上一代整体丢弃，其中的令牌此时都已过期。
+ * 指标：auth.revocation.checks{result}
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final int POLL_BATCH_SIZE = 10_000;
+    private static final int CONFIRMED_CACHE_SIZE = 10_000;
+
+    private final AuthProperties properties;
+    private final RevokedTokenMapper revokedTokenMapper;
+    private final RefreshTokenMapper refreshTokenMapper;
+    private final long generationMillis;
+    private final Cache<String, Boolean> confirmed;
+
+    private volatile Generations generations;
+    private long lastId;
+
+    private final LongAdder bloomMisses = new LongAdder();
+    private final LongAdder revokedHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public TokenRevocationList(AuthProperties properties, RevokedTokenMapper revokedTokenMapper,
+                               RefreshTokenMapper refreshTokenMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.revokedTokenMapper = revokedTokenMapper;
+        this.refreshTokenMapper = refreshTokenMapper;
+        this.generationMillis = TimeUnit.SECONDS.toMillis(Math.max(1, properties.getJwt().getAccessTokenTtlSeconds()));
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(CONFIRMED_CACHE_SIZE)
+                .expireAfterWrite(Duration.ofMillis(generationMillis * 2))
+                .build();
+        this.generations = new Generations(newFilter(), newFilter(), System.currentTimeMillis());
+
+        registerCounter(meterRegistry, "bloom-miss", bloomMisses);
+        registerCounter(meterRegistry, "revoked", revokedHits);
+        registerCounter(meterRegistry, "false-positive", falsePositives);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (properties.isEnabled()) {
+            poll();
+            log.info("令牌吊销名单已加载，布隆过滤器 {} 位 / {} 个哈希", generations.current.getBitCount(),
+                    generations.current.getHashCount());
+        }
+    }
+
+    /**
+     * 拉取其他节点新增的吊销记录，并按有效期轮换分代
+     */
+    @Scheduled(fixedDelayString = "${app.auth.revocation.poll-interval-ms:5000}",
+            initialDelayString = "${app.auth.revocation.poll-interval-ms:5000}")
+    public void poll() {
+        if (properties.isEnabled()) {
+            poll(System.currentTimeMillis());
+        }
+    }
+
+    synchronized void poll(long nowMillis) {
+        rotateIfDue(nowMillis);
+        try {
+            // 从 lastId 之前一段开始重扫：ID 较小但提交较晚的吊销记录不会被跳过（重复加入布隆过滤器无副作用）
+            long afterId = Math.max(0, lastId - properties.getRevocation().getRescanWindow());
+            List<RevokedToken> rows;
+            do {
+                rows = revokedTokenMapper.selectAfter(afterId, POLL_BATCH_SIZE);
+                for (RevokedToken row : rows) {
+                    add(row.getJti());
+                    afterId = row.getId();
+                }
+                lastId = Math.max(lastId, afterId);
+            } while (rows.size() == POLL_BATCH_SIZE);
+        } catch (Exception e) {
+            log.warn("拉取令牌吊销记录失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 吊销访问令牌
+     * @param expiresAt 令牌过期时间（epoch 秒）
+     */
+    public void revoke(String jti, long expiresAt) {
+        revokedTokenMapper.insert(jti, expiresAt);
+        add(jti);
+        confirmed.put(jti, Boolean.TRUE);
+    }
+
+    /**
+     * 令牌是否已被吊销
+     * 精确查询失败时按已吊销处理（只影响布隆过滤器命中的少量请求）
+     */
+    public boolean isRevoked(String jti) {
+        Generations current = generations;
+        if (!current.current.mightContain(jti) && !current.previous.mightContain(jti)) {
+            bloomMisses.increment();
+            return false;
+        }
+        boolean revoked;
+        try {
+            revoked = confirmed.get(jti, revokedTokenMapper::exists);
+        } catch (Exception e) {
+            log.warn("查询令牌吊销状态失败，按已吊销处理: {}", e.getMessage());
+            return true;
+        }
+        (revoked ? revokedHits : falsePositives).increment();
+        return revoked;
+    }
+
+    private void add(String jti) {
+        generations.current.put(jti);
+        // 误判时缓存的 false 需要作废，否则其他节点随后吊销的同一令牌会被放行
+        if (Boolean.FALSE.equals(confirmed.getIfPresent(jti))) {
+            confirmed.invalidate(jti);
+        }
+    }
+
+    private void rotateIfDue(long nowMillis) {
+        Generations current = generations;
+        if (nowMillis - current.startedAt < generationMillis) {
+            return;
+        }
+        generations = new Generations(newFilter(), current.current, nowMillis);
+        try {
+            int revoked = revokedTokenMapper.purgeExpired();
+            int refresh = refreshTokenMapper.purgeExpired();
+            log.debug("令牌吊销名单已轮换，清理过期吊销记录 {} 条、刷新令牌 {} 条", revoked, refresh);
+        } catch (Exception e) {
+            log.warn("清理过期令牌记录失败: {}", e.getMessage());
+        }
+    }
+
+    private BloomFilter newFilter() {
+        AuthProperties.Revocation config = properties.getRevocation();
+        return BloomFilter.create(config.getExpectedInsertions(), config.getFalsePositiveRate());
+    }
+
+    private void registerCounter(MeterRegistry meterRegistry, String result, LongAdder count) {
+        FunctionCounter.builder("auth.revocation.checks", count, LongAdder::doubleValue)
+                .description("访问令牌吊销检查次数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Generations(BloomFilter current, BloomFilter previous, long startedAt) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.strawberry.irrigation.module_auth.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注控制器参数为当前登录用户ID（由 {@link CurrentUserIdArgumentResolver} 解析）
+ * 取代直接读取 X-User-Id 请求头：未开启令牌校验时该请求头可由客户端伪造，设备归属等权限校验不能依赖它
+ */
+@Documented
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUserId {
+}
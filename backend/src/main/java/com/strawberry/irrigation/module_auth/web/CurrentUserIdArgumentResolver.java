@@ -0,0 +1,58 @@
+package com.strawberry.irrigation.module_auth.web;
+
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.filter.JwtAuthenticationFilter;
+import com.strawberry.irrigation.module_auth.token.AccessTokenClaims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 解析 {@link CurrentUserId} 参数
+ * 优先使用访问令牌中的用户ID；未开启令牌校验时默认拒绝（fail closed），
+ * 只有显式配置 app.auth.trust-user-id-header=true（本地开发或由可信网关注入请求头）才读取 X-User-Id
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    static final String USER_ID_HEADER = "X-User-Id";
+
+    private final AuthProperties properties;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUserId.class)
+                && Long.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Long resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object claims = webRequest.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (claims instanceof AccessTokenClaims accessTokenClaims) {
+            return accessTokenClaims.userId();
+        }
+        if (properties.isEnabled() || !properties.isTrustUserIdHeader()) {
+            throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), "未登录或未开启访问令牌校验，无法识别当前用户");
+        }
+        String header = webRequest.getHeader(USER_ID_HEADER);
+        if (!StringUtils.hasText(header)) {
+            throw new BusinessException(HttpStatus.UNAUTHORIZED.value(), "缺少 " + USER_ID_HEADER + " 请求头");
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST.value(), USER_ID_HEADER + " 请求头格式错误");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.strawberry.irrigation.module_cluster.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 集群分片配置（绑定 app.cluster.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cluster")
+public class ClusterProperties {
+
+    /**
+     * 是否按设备分片（单实例部署保持关闭，本节点负责全部设备）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 节点ID，集群内唯一；留空时使用 主机名-进程号
+     */
+    private String nodeId;
+
+    /**
+     * 每个节点在哈希环上的虚拟节点数，越大分布越均匀
+     */
+    private int virtualNodes = 128;
+
+    /**
+     * 租约有效期（毫秒），节点超过该时间未续约即被视为离开
+     */
+    private long leaseTtlMs = 15_000;
+
+    /**
+     * 续约与成员检查周期（毫秒），需明显小于租约有效期
+     */
+    private long heartbeatIntervalMs = 5_000;
+
+    /**
+     * 分片迁入的生效延迟（毫秒）：迁出立即生效、迁入延迟生效，
+     * 保证其他节点在一个心跳周期内感知成员变化并先释放设备，避免重复执行
+     */
+    private long handoffDelayMs = 10_000;
+}
@@ -0,0 +1,61 @@
+package com.strawberry.irrigation.module_cluster.dao;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 集群节点租约访问层（cluster_leases 表，需执行 db/cluster_leases.sql）
+ * 过期判断统一使用数据库时钟，不受各节点时钟偏差影响。
+ * holder 为 NULL 的行是节点租约，非 NULL 的行是由某个节点持有的集群级互斥租约
+ */
+@Mapper
+public interface ClusterLeaseMapper {
+
+    /**
+     * 登记或续约本节点租约
+     */
+    @Insert("INSERT INTO cluster_leases (node_id, expires_at) " +
+            "VALUES (#{nodeId}, NOW() + make_interval(secs => #{ttlSeconds})) " +
+            "ON CONFLICT (node_id) DO UPDATE SET expires_at = EXCLUDED.expires_at")
+    void renew(@Param("nodeId") String nodeId, @Param("ttlSeconds") double ttlSeconds);
+
+    /**
+     * 租约未过期的节点
+     */
+    @Select("SELECT node_id FROM cluster_leases WHERE expires_at > NOW() AND holder IS NULL ORDER BY node_id")
+    List<String> selectLiveNodes();
+
+    /**
+     * 主动释放本节点租约（正常停机时调用，其他节点无需等待租约过期）
+     */
+    @Delete("DELETE FROM cluster_leases WHERE node_id = #{nodeId}")
+    int release(@Param("nodeId") String nodeId);
+
+    /**
+     * 获取或续约集群级互斥租约：租约不存在、已过期或本就由 holder 持有时成功
+     * @return 1 表示 holder 持有该租约，0 表示由其他节点持有
+     */
+    @Insert("INSERT INTO cluster_leases (node_id, holder, expires_at) " +
+            "VALUES (#{lease}, #{holder}, NOW() + make_interval(secs => #{ttlSeconds})) " +
+            "ON CONFLICT (node_id) DO UPDATE SET holder = EXCLUDED.holder, expires_at = EXCLUDED.expires_at " +
+            "WHERE cluster_leases.holder = EXCLUDED.holder OR cluster_leases.expires_at <= NOW()")
+    int tryAcquire(@Param("lease") String lease, @Param("holder") String holder,
+                   @Param("ttlSeconds") double ttlSeconds);
+
+    /**
+     * 主动释放 holder 持有的互斥租约
+     */
+    @Delete("DELETE FROM cluster_leases WHERE node_id = #{lease} AND holder = #{holder}")
+    int releaseHeld(@Param("lease") String lease, @Param("holder") String holder);
+
+    /**
+     * 清理过期已久的租约记录
+     */
+    @Delete("DELETE FROM cluster_leases WHERE expires_at < NOW() - make_interval(secs => #{graceSeconds})")
+    int purgeExpired(@Param("graceSeconds") double graceSeconds);
+}
@@ -0,0 +1,293 @@
+package com.strawberry.irrigation.module_cluster.shard;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 集群成员与设备分片
+ * <p>
+ * 每个节点定期在 cluster_leases 表中续约，租约未过期的节点组成一致性哈希环，设备按内部ID 分配到节点。
+ * 分片迁出立即生效、迁入延迟 handoff-delay-ms 生效：成员变化期间各节点先释放、后接管，
+ * 同一设备任意时刻至多由一个节点负责（owns，用于规则评估、执行器控制等有副作用的处理）。
+ * 本节点续约失败超过租约有效期后不再负责任何设备（其他节点会接管），恢复后按新加入处理。
+ * <p>
+ * 数据采集不能留空窗，单独按 ingests 判断：迁移期间仍由已生效环上的归属节点采集，
+ * 该节点已不在新成员中（宕机、租约过期）时改由新环上的归属节点立即接手，迁入生效后与 owns 一致。
+ * <p>
+ * 归档、分区维护等只能有一个节点执行的全局任务按 isLeader 判断：各节点每次心跳争抢同一张表中的 @leader 租约，
+ * 持有者随心跳续约，宕机后租约过期由其他节点接手。
+ * <p>
+ * 未启用时本节点负责全部设备，owns、ingests、isLeader 恒为 true。
+ */
+@Slf4j
+@Component
+public class ClusterMembership {
+
+    /**
+     * 每隔多少次心跳清理一次过期租约
+     */
+    private static final int PURGE_EVERY = 100;
+
+    /**
+     * 主节点租约名（与节点租约同表，holder 列记录持有节点）
+     */
+    static final String LEADER_LEASE = "@leader";
+
+    private final ClusterProperties properties;
+    private final ClusterLeaseMapper leaseMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final long leaseTtlNanos;
+    private final long handoffNanos;
+
+    private volatile Assignment assignment = new Assignment(ConsistentHashRing.EMPTY, null, 0);
+    private volatile boolean joined;
+    private volatile long leaseDeadlineNanos;
+    private volatile boolean leader;
+    private volatile long leaderDeadlineNanos;
+
+    /**
+     * 以下字段只在 heartbeat 内访问
+     */
+    private boolean fencedReported;
+    private long heartbeats;
+
+    public ClusterMembership(ClusterProperties properties, ClusterLeaseMapper leaseMapper,
+                             ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.leaseMapper = leaseMapper;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = properties.getNodeId() != null && !properties.getNodeId().isBlank()
+                ? properties.getNodeId().trim()
+                : defaultNodeId();
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLeaseTtlMs());
+        this.handoffNanos = TimeUnit.MILLISECONDS.toNanos(properties.getHandoffDelayMs());
+        Gauge.builder("cluster.members", this, ClusterMembership::getMemberCount)
+                .description("当前生效的集群成员数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void join() {
+        if (properties.isEnabled()) {
+            log.info("集群分片已启用，节点ID: {}", nodeId);
+            heartbeat();
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!properties.isEnabled() || !joined) {
+            return;
+        }
+        try {
+            if (leader) {
+                leaseMapper.releaseHeld(LEADER_LEASE, nodeId);
+            }
+            leaseMapper.release(nodeId);
+        } catch (RuntimeException e) {
+            log.warn("释放集群租约失败，其他节点将在租约过期后接管: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 本节点是否负责该设备
+     */
+    public boolean owns(long deviceId) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        if (!joined || System.nanoTime() - leaseDeadlineNanos >= 0) {
+            return false;
+        }
+        Assignment a = assignment;
+        if (!nodeId.equals(a.current.ownerOf(deviceId))) {
+            return false;
+        }
+        return a.next == null || nodeId.equals(a.next.ownerOf(deviceId));
+    }
+
+    /**
+     * 该设备是否正在迁入本节点（迁入生效后 owns 变为 true）
+     * 迁移期间到期的一次性任务（如定时灌溉）由迁入方暂缓到生效后执行，而不是两边都跳过
+     */
+    public boolean isAcquiring(long deviceId) {
+        if (!properties.isEnabled() || !joined || System.nanoTime() - leaseDeadlineNanos >= 0) {
+            return false;
+        }
+        Assignment a = assignment;
+        return a.next != null && nodeId.equals(a.next.ownerOf(deviceId))
+                && !nodeId.equals(a.current.ownerOf(deviceId));
+    }
+
+    /**
+     * 本节点是否采集该设备的上报数据
+     * 与 owns 不同，迁移期间不会出现无人采集的设备，也不受本节点租约过期影响：
+     * 租约过期时其他节点可能已接手，此时宁可短暂重复采集也不丢数据
+     */
+    public boolean ingests(long deviceId) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        if (!joined) {
+            return false;
+        }
+        Assignment a = assignment;
+        String owner = a.current.ownerOf(deviceId);
+        if (a.next != null && (owner == null || !a.next.nodes().contains(owner))) {
+            owner = a.next.ownerOf(deviceId);
+        }
+        return nodeId.equals(owner);
+    }
+
+    /**
+     * 本节点是否为主节点（负责归档、分区维护等全局任务）
+     * 按发起续约前的时间计算租约截止，旧主节点总是先于数据库中的租约过期而退位，任意时刻至多一个主节点
+     */
+    public boolean isLeader() {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        return leader && System.nanoTime() - leaderDeadlineNanos < 0;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 当前生效的成员数（未启用时为 1）
+     */
+    public int getMemberCount() {
+        return properties.isEnabled() ? assignment.current.nodes().size() : 1;
+    }
+
+    /**
+     * 续约并检查成员变化
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.heartbeat-interval-ms:5000}",
+            initialDelayString = "${app.cluster.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (properties.isEnabled()) {
+            heartbeat(System.nanoTime());
+        }
+    }
+
+    synchronized void heartbeat(long nowNanos) {
+        boolean wasValid = joined && nowNanos - leaseDeadlineNanos < 0;
+        List<String> live;
+        try {
+            leaseMapper.renew(nodeId, properties.getLeaseTtlMs() / 1000.0);
+            live = leaseMapper.selectLiveNodes();
+        } catch (RuntimeException e) {
+            log.warn("集群租约续约失败: {}", e.getMessage());
+            if (joined && !fencedReported && nowNanos - leaseDeadlineNanos >= 0) {
+                fencedReported = true;
+                log.error("集群租约已过期，本节点暂停负责任何设备，直到续约成功");
+                publish();
+            }
+            return;
+        }
+        // 以发起续约前的时间计算租约截止，保守估计
+        leaseDeadlineNanos = nowNanos + leaseTtlNanos;
+        joined = true;
+        fencedReported = false;
+        if (++heartbeats % PURGE_EVERY == 0) {
+            purgeExpired();
+        }
+        renewLeadership(nowNanos);
+
+        Set<String> members = new TreeSet<>(live);
+        members.add(nodeId);
+        ConsistentHashRing ring = ConsistentHashRing.of(members, properties.getVirtualNodes());
+        Assignment a = assignment;
+        if (!wasValid) {
+            // 首次加入或租约失效后恢复：期间设备可能已被其他节点接管，一律按迁入处理；
+            // 迁入生效前以其他存活节点组成的环为已生效环，由它们继续采集
+            Set<String> others = new TreeSet<>(members);
+            others.remove(nodeId);
+            assignment = new Assignment(ConsistentHashRing.of(others, properties.getVirtualNodes()), ring,
+                    nowNanos + handoffNanos);
+            log.info("已加入集群，成员: {}，{}ms 后开始负责分片", ring.nodes(), properties.getHandoffDelayMs());
+            publish();
+            return;
+        }
+        ConsistentHashRing target = a.next != null ? a.next : a.current;
+        if (!target.sameMembers(ring)) {
+            assignment = new Assignment(a.current, ring, nowNanos + handoffNanos);
+            log.info("集群成员变化: {} → {}，迁出立即生效，迁入 {}ms 后生效",
+                    target.nodes(), ring.nodes(), properties.getHandoffDelayMs());
+            publish();
+        } else if (a.next != null && nowNanos - a.nextEffectiveNanos >= 0) {
+            assignment = new Assignment(a.next, null, 0);
+            log.info("分片迁入已生效，成员: {}", a.next.nodes());
+            publish();
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void publish() {
+        eventPublisher.publishEvent(new ShardAssignmentChangedEvent(getMemberCount()));
+    }
+
+    private void renewLeadership(long nowNanos) {
+        boolean acquired;
+        try {
+            acquired = leaseMapper.tryAcquire(LEADER_LEASE, nodeId, properties.getLeaseTtlMs() / 1000.0) > 0;
+        } catch (RuntimeException e) {
+            // 保持现状，直到租约截止自然退位
+            log.warn("主节点租约续约失败: {}", e.getMessage());
+            return;
+        }
+        if (acquired) {
+            leaderDeadlineNanos = nowNanos + leaseTtlNanos;
+            if (!leader) {
+                leader = true;
+                log.info("本节点成为主节点，负责归档、分区维护等全局任务");
+            }
+        } else if (leader) {
+            leader = false;
+            log.info("主节点租约已由其他节点持有，本节点不再执行全局任务");
+        }
+    }
+
+    private void purgeExpired() {
+        try {
+            leaseMapper.purgeExpired(TimeUnit.NANOSECONDS.toSeconds(leaseTtlNanos) * 10.0);
+        } catch (RuntimeException e) {
+            log.debug("清理过期租约失败: {}", e.getMessage());
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * 分片分配：current 为已生效的环，next 为等待迁入生效的环（迁移期间只负责两者都归属本节点的设备）
+     */
+    private record Assignment(ConsistentHashRing current, ConsistentHashRing next, long nextEffectiveNanos) {
+    }
+}
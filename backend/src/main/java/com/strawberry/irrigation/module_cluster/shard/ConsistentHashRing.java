@@ -0,0 +1,114 @@
+package com.strawberry.irrigation.module_cluster.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 一致性哈希环（不可变）
+ * 每个节点在环上放置 virtualNodes 个点，设备ID 哈希后顺时针找到的第一个点即归属节点。
+ * 节点加入或离开时只有约 1/N 的设备改变归属。查询为一次哈希 + 二分查找，不产生对象。
+ */
+public final class ConsistentHashRing {
+
+    public static final ConsistentHashRing EMPTY = new ConsistentHashRing(List.of(), new long[0], new String[0]);
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    private ConsistentHashRing(List<String> nodes, long[] points, String[] owners) {
+        this.nodes = nodes;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    /**
+     * 构建哈希环，结果只取决于节点集合（与顺序无关），各节点独立构建得到同一个环
+     */
+    public static ConsistentHashRing of(Collection<String> nodeIds, int virtualNodes) {
+        List<String> sorted = List.copyOf(new TreeSet<>(nodeIds));
+        if (sorted.isEmpty()) {
+            return EMPTY;
+        }
+        int count = sorted.size() * virtualNodes;
+        long[] hashes = new long[count];
+        int[] order = new int[count];
+        int n = 0;
+        for (int node = 0; node < sorted.size(); node++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[n] = hash(sorted.get(node) + '#' + v);
+                order[n] = node;
+                n++;
+            }
+        }
+        // 按哈希值排序，同值时按节点名次序，保证确定性
+        Integer[] index = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            index[i] = i;
+        }
+        Arrays.sort(index, (a, b) -> hashes[a] != hashes[b]
+                ? Long.compare(hashes[a], hashes[b])
+                : Integer.compare(order[a], order[b]));
+        long[] points = new long[count];
+        String[] owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = hashes[index[i]];
+            owners[i] = sorted.get(order[index[i]]);
+        }
+        return new ConsistentHashRing(sorted, points, owners);
+    }
+
+    /**
+     * 设备归属节点，空环返回 null
+     */
+    public String ownerOf(long deviceId) {
+        if (points.length == 0) {
+            return null;
+        }
+        int i = Arrays.binarySearch(points, mix(deviceId));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    /**
+     * 环上的节点（按节点ID排序）
+     */
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    public boolean sameMembers(ConsistentHashRing other) {
+        return nodes.equals(other.nodes);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 字符串哈希：FNV-1a 64 位后再做一次混合，改善相近节点名的分布
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * MurmurHash3 的 64 位终结混合函数
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,9 @@
+package com.strawberry.irrigation.module_cluster.shard;
+
+/**
+ * 本节点负责的设备分片发生变化（成员加入/离开、迁入生效、租约失效或恢复）
+ * 持有分片内状态的组件收到后按 ClusterMembership.owns 重新加载
+ * @param members 当前生效的成员数
+ */
+public record ShardAssignmentChangedEvent(int members) {
+}
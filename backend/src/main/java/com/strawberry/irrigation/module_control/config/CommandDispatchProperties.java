@@ -0,0 +1,69 @@
+package com.strawberry.irrigation.module_control.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 执行器指令下发配置（绑定 app.control.dispatch.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.control.dispatch")
+public class CommandDispatchProperties {
+
+    /**
+     * 指令日志目录（指令写入并刷盘后才返回"已排队"）
+     */
+    private String journalDirectory = "data/commands";
+
+    /**
+     * 指令日志超过该大小（字节）时压缩，只保留未完成的指令
+     */
+    private long journalCompactBytes = 4 * 1024 * 1024;
+
+    /**
+     * 确认方式：broker（Broker 的 PUBACK 即成功）或 device（等待设备在 ack 主题回复 commandId）
+     */
+    private String ackMode = "broker";
+
+    /**
+     * 设备确认主题（+ 为设备物理ID），ack-mode=device 时订阅
+     */
+    private String ackTopic = "strawberry/actuator/+/ack";
+
+    /**
+     * 单次下发等待确认的超时（毫秒）
+     */
+    private long ackTimeoutMs = 10_000;
+
+    /**
+     * 最多下发次数（含首次），重试使用同一 commandId，设备据此去重
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 首次重试间隔（毫秒），之后每次翻倍
+     */
+    private long retryBackoffMs = 2_000;
+
+    /**
+     * 在途指令超时与重试检查周期（毫秒）
+     */
+    private long sweepIntervalMs = 200;
+
+    /**
+     * 灌溉日志批量写入周期（毫秒）
+     */
+    private long logFlushMs = 1_000;
+
+    /**
+     * 已完成指令的 commandId 保留条数，窗口内用同一 commandId 重复提交仍会被忽略
+     */
+    private int completedWindowSize = 10_000;
+
+    /**
+     * 已完成指令的 commandId 保留时长（毫秒）
+     */
+    private long completedWindowMs = 3_600_000;
+}
@@ -0,0 +1,50 @@
+package com.strawberry.irrigation.module_control.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 设备指令执行器配置
+ * 规则动作需要把指令写入指令日志并刷盘（见 IrrigationCommandDispatcher），不能在采集线程中执行。
+ * 默认使用小容量的有界平台线程池；开启虚拟线程（spring.threads.virtual.enabled=true 且运行在 Java 21+）时
+ * 每个动作一个虚拟线程，并发数由 max-concurrency 限制，超出时提交方等待（背压），不再丢弃动作。
+ */
+@Slf4j
+@Configuration
+public class ControlExecutorConfig {
+
+    public static final String ACTION_EXECUTOR = "irrigationActionExecutor";
+
+    @Bean(ACTION_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor platformActionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1_000);
+        executor.setKeepAliveSeconds(60);
+        executor.setThreadNamePrefix("irrigation-action-");
+        executor.setDaemon(true);
+        executor.setRejectedExecutionHandler((runnable, pool) -> log.error("灌溉动作队列已满，丢弃一次规则动作"));
+        return executor;
+    }
+
+    @Bean(ACTION_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualActionExecutor(
+            @Value("${app.control.executor.max-concurrency:1000}") int maxConcurrency) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("irrigation-action-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(maxConcurrency);
+        executor.setTaskTerminationTimeout(10_000);
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.strawberry.irrigation.module_control.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时灌溉配置（绑定 app.control.schedule.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.control.schedule")
+public class ScheduleProperties {
+
+    /**
+     * 全量重新加载计划表的周期（毫秒），用于清除其他节点上已删除的计划；本节点的修改即时生效
+     */
+    private long reloadIntervalMs = 600_000;
+
+    /**
+     * 按 updated_at 增量轮询计划表的周期（毫秒），其他节点上新建、修改或停用的计划在该时间内同步到本节点
+     */
+    private long pollIntervalMs = 5_000;
+
+    /**
+     * 增量轮询的回看窗口（毫秒），容忍节点间时钟偏差与未提交事务造成的 updated_at 乱序
+     */
+    private long overlapMs = 5_000;
+
+    /**
+     * 错过触发时间（例如停机、时钟跳变）后仍然补发的最大延迟（秒），超过则跳过本次
+     */
+    private int misfireGraceSeconds = 60;
+}
@@ -0,0 +1,42 @@
+package com.strawberry.irrigation.module_control.controller;
+
+import com.strawberry.irrigation.common.response.Result;
+import com.strawberry.irrigation.module_auth.web.CurrentUserId;
+import com.strawberry.irrigation.module_control.dto.CommandAcceptedResponse;
+import com.strawberry.irrigation.module_control.dto.ManualIrrigationRequest;
+import com.strawberry.irrigation.module_control.service.IrrigationControlService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 灌溉控制控制器
+ * 提供水泵手动控制相关的REST API接口
+ */
+@RestController
+@RequestMapping("/api/irrigation")
+@RequiredArgsConstructor
+public class IrrigationController {
+
+    private final IrrigationControlService irrigationControlService;
+
+    /**
+     * 手动控制水泵
+     * POST /api/irrigation/manual
+     * 指令写入指令日志后即返回 202，下发结果见灌溉日志；可通过 Idempotency-Key 请求头避免重复提交
+     */
+    @PostMapping("/manual")
+    public ResponseEntity<Result<CommandAcceptedResponse>> manualControl(
+            @CurrentUserId Long userId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody ManualIrrigationRequest request) {
+        CommandAcceptedResponse response = irrigationControlService.manualControl(userId, request, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Result.success(response));
+    }
+}
@@ -0,0 +1,78 @@
+package com.strawberry.irrigation.module_control.controller;
+
+import com.strawberry.irrigation.common.response.Result;
+import com.strawberry.irrigation.module_auth.web.CurrentUserId;
+import com.strawberry.irrigation.module_control.dto.IrrigationScheduleRequest;
+import com.strawberry.irrigation.module_control.dto.IrrigationScheduleResponse;
+import com.strawberry.irrigation.module_control.service.IrrigationScheduleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 定时灌溉计划控制器
+ * 提供按星期与时刻定时开泵的计划管理接口
+ */
+@RestController
+@RequestMapping("/api/irrigation/schedules")
+@RequiredArgsConstructor
+public class IrrigationScheduleController {
+
+    private final IrrigationScheduleService irrigationScheduleService;
+
+    /**
+     * 创建计划
+     * POST /api/irrigation/schedules
+     */
+    @PostMapping
+    public ResponseEntity<Result<IrrigationScheduleResponse>> createSchedule(
+            @CurrentUserId Long userId,
+            @Valid @RequestBody IrrigationScheduleRequest request) {
+        IrrigationScheduleResponse response = irrigationScheduleService.createSchedule(userId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(Result.success(response));
+    }
+
+    /**
+     * 修改计划
+     * PUT /api/irrigation/schedules/{id}
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<Result<IrrigationScheduleResponse>> updateSchedule(
+            @CurrentUserId Long userId,
+            @PathVariable Long id,
+            @Valid @RequestBody IrrigationScheduleRequest request) {
+        return ResponseEntity.ok(Result.success(irrigationScheduleService.updateSchedule(userId, id, request)));
+    }
+
+    /**
+     * 删除计划
+     * DELETE /api/irrigation/schedules/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Result<Void>> deleteSchedule(@CurrentUserId Long userId,
+                                                       @PathVariable Long id) {
+        irrigationScheduleService.deleteSchedule(userId, id);
+        return ResponseEntity.ok(Result.success());
+    }
+
+    /**
+     * 查询当前用户的计划
+     * GET /api/irrigation/schedules
+     */
+    @GetMapping
+    public ResponseEntity<Result<List<IrrigationScheduleResponse>>> getSchedules(
+            @CurrentUserId Long userId) {
+        return ResponseEntity.ok(Result.success(irrigationScheduleService.getSchedules(userId)));
+    }
+}
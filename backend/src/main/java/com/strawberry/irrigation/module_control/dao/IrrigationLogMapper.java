@@ -0,0 +1,25 @@
+package com.strawberry.irrigation.module_control.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationLog;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 灌溉日志数据访问层
+ */
+@Mapper
+public interface IrrigationLogMapper extends BaseMapper<IrrigationLog> {
+
+    /**
+     * 批量插入灌溉日志（一条多行 INSERT）
+     */
+    @Insert("<script>INSERT INTO irrigation_logs (actuator_device_id, trigger_type, trigger_source, action, status, message) " +
+            "VALUES <foreach collection='logs' item='log' separator=','>" +
+            "(#{log.actuatorDeviceId}, #{log.triggerType}, #{log.triggerSource}, #{log.action}, #{log.status}, #{log.message})" +
+            "</foreach></script>")
+    int insertBatch(@Param("logs") List<IrrigationLog> logs);
+}
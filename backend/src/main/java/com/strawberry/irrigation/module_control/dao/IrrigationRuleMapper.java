@@ -0,0 +1,12 @@
+package com.strawberry.irrigation.module_control.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationRule;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 灌溉规则数据访问层
+ */
+@Mapper
+public interface IrrigationRuleMapper extends BaseMapper<IrrigationRule> {
+}
@@ -0,0 +1,31 @@
+package com.strawberry.irrigation.module_control.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationSchedule;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 定时灌溉计划数据访问层
+ */
+@Mapper
+public interface IrrigationScheduleMapper extends BaseMapper<IrrigationSchedule> {
+
+    /**
+     * 计划表最后修改时间（调度器全量重载前读取，作为之后增量轮询的起点）
+     */
+    @Select("SELECT max(updated_at) FROM irrigation_schedules")
+    LocalDateTime selectMaxUpdatedAt();
+
+    /**
+     * 修改时间晚于 since 的计划（含已停用的，调度器据此移出队列）
+     */
+    @Select("SELECT id, name, actuator_device_id, start_time, duration_seconds, days_of_week, time_zone, " +
+            "is_enabled, updated_at AS update_time FROM irrigation_schedules " +
+            "WHERE updated_at > #{since} ORDER BY updated_at")
+    List<IrrigationSchedule> selectChangedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,218 @@
+package com.strawberry.irrigation.module_control.dispatch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 指令日志（追加写的文本文件，每行一条记录，字段以制表符分隔）
+ * <p>
+ * Q 行：指令已排队（写入后立即刷盘，之后接口才返回）；R 行：下发结果；L 行：灌溉日志已入库。
+ * 重启时没有 R 的指令重新下发（同一 commandId），有 R 没有 L 的只补写灌溉日志。
+ * 文件超过阈值时重写为只包含未完成指令的新文件（临时文件 + 原子替换）。
+ */
+@Slf4j
+final class CommandJournal {
+
+    private static final String FILE_NAME = "commands.journal";
+
+    private final Path file;
+    private final long compactBytes;
+    private final Map<String, Entry> live = new LinkedHashMap<>();
+    private FileChannel channel;
+
+    CommandJournal(Path directory, long compactBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.file = directory.resolve(FILE_NAME);
+        this.compactBytes = compactBytes;
+        if (Files.exists(file)) {
+            recover();
+        }
+        rewrite();
+    }
+
+    /**
+     * 恢复出的未完成指令（按排队顺序）
+     */
+    synchronized List<Entry> pending() {
+        return new ArrayList<>(live.values());
+    }
+
+    /**
+     * 记录新排队的指令；同一 commandId 仍未完成（含已有结果、灌溉日志尚未入库）时不写入，
+     * 避免覆盖仍在处理的记录后被前一条指令的 L 行一并清除
+     * @return 是否写入（false 表示该 commandId 已在日志中）
+     */
+    synchronized boolean appendQueued(PumpCommand command) throws IOException {
+        if (live.containsKey(command.commandId())) {
+            return false;
+        }
+        write(encode("Q", command.commandId(), Long.toString(command.actuatorDeviceId()), command.command(),
+                Integer.toString(command.durationSeconds()), command.triggerType(), command.triggerSource(),
+                Long.toString(command.createdAtMillis())), true);
+        live.put(command.commandId(), new Entry(command, null, null));
+        return true;
+    }
+
+    /**
+     * 记录下发结果（不强制刷盘：丢失时重启后会用同一 commandId 再下发一次，由设备去重）
+     */
+    synchronized void appendResult(String commandId, String status, String message) throws IOException {
+        Entry entry = live.get(commandId);
+        if (entry == null) {
+            return;
+        }
+        write(encode("R", commandId, status, message), false);
+        live.put(commandId, new Entry(entry.command(), status, message));
+    }
+
+    synchronized void appendLogged(Collection<String> commandIds) throws IOException {
+        for (String commandId : commandIds) {
+            if (live.remove(commandId) != null) {
+                write(encode("L", commandId), false);
+            }
+        }
+        if (channel.size() > compactBytes) {
+            rewrite();
+        }
+    }
+
+    synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void recover() throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        int start = 0;
+        int end;
+        // 最后一行没有换行符说明写入被中断，忽略
+        while ((end = content.indexOf('\n', start)) >= 0) {
+            String line = content.substring(start, end);
+            start = end + 1;
+            try {
+                apply(decode(line));
+            } catch (RuntimeException e) {
+                log.warn("指令日志中有无法解析的记录，已跳过: {}", line);
+            }
+        }
+    }
+
+    private void apply(String[] fields) {
+        switch (fields[0]) {
+            case "Q" -> live.put(fields[1], new Entry(new PumpCommand(fields[1], Long.parseLong(fields[2]),
+                    fields[3], Integer.parseInt(fields[4]), fields[5], fields[6], Long.parseLong(fields[7])),
+                    null, null));
+            case "R" -> live.computeIfPresent(fields[1], (id, entry) -> new Entry(entry.command(), fields[2], fields[3]));
+            case "L" -> live.remove(fields[1]);
+            default -> throw new IllegalArgumentException(fields[0]);
+        }
+    }
+
+    private void rewrite() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        Path temp = file.resolveSibling(FILE_NAME + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder content = new StringBuilder();
+            for (Entry entry : live.values()) {
+                PumpCommand command = entry.command();
+                content.append(encode("Q", command.commandId(), Long.toString(command.actuatorDeviceId()),
+                        command.command(), Integer.toString(command.durationSeconds()), command.triggerType(),
+                        command.triggerSource(), Long.toString(command.createdAtMillis())));
+                if (entry.status() != null) {
+                    content.append(encode("R", command.commandId(), entry.status(), entry.message()));
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void write(String line, boolean force) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (force) {
+            channel.force(false);
+        }
+    }
+
+    private static String encode(String... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            String field = fields[i] != null ? fields[i] : "";
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    default -> line.append(c);
+                }
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    private static String[] decode(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                field.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * 未完成的指令；status 为 null 表示尚未得到下发结果
+     */
+    record Entry(PumpCommand command, String status, String message) {
+    }
+}
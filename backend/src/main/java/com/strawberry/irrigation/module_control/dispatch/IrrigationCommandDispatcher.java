@@ -0,0 +1,394 @@
+package com.strawberry.irrigation.module_control.dispatch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.module_control.config.CommandDispatchProperties;
+import com.strawberry.irrigation.module_control.dao.IrrigationLogMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationLog;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 执行器指令调度器
+ * <p>
+ * 指令先写入本地指令日志并刷盘（submit 返回即"已持久排队"），再进入该执行器的有序队列：
+ * 同一执行器同时只有一条指令在途，保证开/关泵的先后顺序；不同执行器之间互不等待。
+ * 下发使用 MQTT 异步发布（QoS 1），由 Broker 确认（ack-mode=broker）或设备回复 commandId（ack-mode=device）
+ * 视为成功；超时或发布异常按指数退避重试，重试沿用同一 commandId 以便设备去重，次数用尽记为 FAILED。
+ * 下发结果进入内存队列，按 log-flush-ms 批量写入 irrigation_logs，入库后才从指令日志中清除。
+ * 同一 commandId 在排队、在途、等待写日志期间以及完成后的去重窗口（completed-window-*）内重复提交都会被忽略。
+ */
+@Slf4j
+@Component
+public class IrrigationCommandDispatcher {
+
+    private static final String ACK_MODE_DEVICE = "device";
+
+    private final CommandDispatchProperties properties;
+    private final DeviceRegistry deviceRegistry;
+    private final ObjectProvider<MqttClient> mqttClientProvider;
+    private final IrrigationLogMapper irrigationLogMapper;
+    private final ObjectMapper objectMapper;
+    private final CommandJournal journal;
+
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    /**
+     * 已排队但尚未得到结果的指令（按 commandId 去重与匹配设备确认）
+     */
+    private final Map<String, Pending> inProgress = new ConcurrentHashMap<>();
+    private final Queue<Completed> completed = new ConcurrentLinkedQueue<>();
+    /**
+     * 最近完成的 commandId（有界窗口）
+     */
+    private final Cache<String, Boolean> recentlyCompleted;
+    /**
+     * 写库失败后保留的结果（只由日志写入任务访问）
+     */
+    private final List<Completed> unlogged = new ArrayList<>();
+
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+
+    public IrrigationCommandDispatcher(CommandDispatchProperties properties,
+                                       DeviceRegistry deviceRegistry,
+                                       ObjectProvider<MqttClient> mqttClientProvider,
+                                       IrrigationLogMapper irrigationLogMapper,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry) throws IOException {
+        this.properties = properties;
+        this.deviceRegistry = deviceRegistry;
+        this.mqttClientProvider = mqttClientProvider;
+        this.irrigationLogMapper = irrigationLogMapper;
+        this.objectMapper = objectMapper;
+        this.journal = new CommandJournal(Paths.get(properties.getJournalDirectory()),
+                properties.getJournalCompactBytes());
+        this.recentlyCompleted = Caffeine.newBuilder()
+                .maximumSize(properties.getCompletedWindowSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getCompletedWindowMs()))
+                .build();
+
+        Gauge.builder("irrigation.commands.pending", inProgress, Map::size)
+                .description("已排队尚未完成下发的指令数")
+                .register(meterRegistry);
+        this.succeededCounter = resultCounter(meterRegistry, "success");
+        this.failedCounter = resultCounter(meterRegistry, "failed");
+        this.retriedCounter = resultCounter(meterRegistry, "retried");
+    }
+
+    @PostConstruct
+    public void start() throws MqttException {
+        MqttClient mqttClient = mqttClientProvider.getIfAvailable();
+        if (mqttClient != null && ACK_MODE_DEVICE.equals(properties.getAckMode())) {
+            mqttClient.subscribe(properties.getAckTopic(), 1, (topic, message) -> onDeviceAck(message));
+        }
+        // 恢复上次停机时未完成的指令：有结果的补写日志，没有结果的按原顺序重新下发
+        for (CommandJournal.Entry entry : journal.pending()) {
+            if (entry.status() != null) {
+                completed.add(new Completed(entry.command(), entry.status(), entry.message()));
+            } else {
+                enqueue(entry.command());
+            }
+        }
+        if (!inProgress.isEmpty()) {
+            log.warn("恢复 {} 条未完成的执行器指令，将重新下发", inProgress.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        flushLogs();
+        journal.close();
+    }
+
+    /**
+     * 提交指令：写入指令日志并刷盘后返回，下发在后台异步进行
+     * @return 是否为新指令（false 表示同一 commandId 的指令仍在处理中或刚完成不久，本次忽略）
+     * @throws IOException 指令日志写入失败（指令未被接收）
+     */
+    public boolean submit(PumpCommand command) throws IOException {
+        String commandId = command.commandId();
+        if (inProgress.containsKey(commandId) || recentlyCompleted.getIfPresent(commandId) != null) {
+            return false;
+        }
+        // 指令日志按 commandId 原子判重，并发提交同一指令时只有一个能写入
+        if (!journal.appendQueued(command)) {
+            return false;
+        }
+        return enqueue(command);
+    }
+
+    /**
+     * 指令是否仍在排队或在途
+     */
+    public boolean isInProgress(String commandId) {
+        return inProgress.containsKey(commandId);
+    }
+
+    /**
+     * 检查在途指令的确认超时与待重试指令
+     */
+    @Scheduled(fixedDelayString = "${app.control.dispatch.sweep-interval-ms:200}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Lane lane : lanes.values()) {
+            synchronized (lane) {
+                Pending current = lane.current;
+                if (current == null) {
+                    continue;
+                }
+                if (current.token == null) {
+                    if (now >= current.nextAttemptAt) {
+                        publish(lane, current);
+                    }
+                } else if (current.token.isComplete() && !current.published) {
+                    // 发布回调可能在设置监听器之前就已完成，这里兜底
+                    onPublishComplete(lane, current, current.token, current.token.getException());
+                } else if (now >= current.deadline) {
+                    retryOrFail(lane, current, "等待确认超时");
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.control.dispatch.log-flush-ms:1000}")
+    public synchronized void flushLogs() {
+        Completed next;
+        while ((next = completed.poll()) != null) {
+            unlogged.add(next);
+        }
+        if (unlogged.isEmpty()) {
+            return;
+        }
+        List<IrrigationLog> logs = new ArrayList<>(unlogged.size());
+        List<String> commandIds = new ArrayList<>(unlogged.size());
+        for (Completed result : unlogged) {
+            PumpCommand command = result.command();
+            logs.add(new IrrigationLog(command.actuatorDeviceId(), command.triggerType(), command.triggerSource(),
+                    command.command(), result.status(), result.message()));
+            commandIds.add(command.commandId());
+        }
+        try {
+            irrigationLogMapper.insertBatch(logs);
+        } catch (RuntimeException e) {
+            log.warn("写入灌溉日志失败，{} 条将在下个周期重试: {}", logs.size(), e.getMessage());
+            return;
+        }
+        unlogged.clear();
+        try {
+            journal.appendLogged(commandIds);
+        } catch (IOException e) {
+            // 重启后这些指令只会重复写一次日志，不会重复下发
+            log.warn("更新指令日志失败: {}", e.getMessage());
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private boolean enqueue(PumpCommand command) {
+        Pending pending = new Pending(command);
+        if (inProgress.putIfAbsent(command.commandId(), pending) != null) {
+            return false;
+        }
+        Lane lane = lanes.computeIfAbsent(command.actuatorDeviceId(), id -> new Lane());
+        synchronized (lane) {
+            lane.queue.add(pending);
+            if (lane.current == null) {
+                next(lane);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 取出该执行器的下一条指令并下发（调用方持有 lane 锁）
+     */
+    private void next(Lane lane) {
+        lane.current = lane.queue.poll();
+        if (lane.current != null) {
+            publish(lane, lane.current);
+        }
+    }
+
+    private void publish(Lane lane, Pending pending) {
+        PumpCommand command = pending.command;
+        MqttClient mqttClient = mqttClientProvider.getIfAvailable();
+        if (mqttClient == null) {
+            complete(lane, pending, SystemConstants.IRRIGATION_STATUS_FAILED, "MQTT 未启用，无法下发指令");
+            return;
+        }
+        RegisteredDevice actuator = deviceRegistry.get(command.actuatorDeviceId());
+        if (actuator == null) {
+            complete(lane, pending, SystemConstants.IRRIGATION_STATUS_FAILED,
+                    "执行器设备不存在: " + command.actuatorDeviceId());
+            return;
+        }
+        pending.attempts++;
+        pending.published = false;
+        pending.deadline = System.currentTimeMillis() + properties.getAckTimeoutMs();
+        String topic = SystemConstants.ACTUATOR_TOPIC_PREFIX + actuator.physicalId()
+                + SystemConstants.ACTUATOR_CONTROL_SUFFIX;
+        try {
+            MqttMessage message = new MqttMessage(payload(command).getBytes(StandardCharsets.UTF_8));
+            message.setQos(1);
+            MqttDeliveryToken token = mqttClient.getTopic(topic).publish(message);
+            pending.token = token;
+            token.setActionCallback(new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken asyncActionToken) {
+                    synchronized (lane) {
+                        onPublishComplete(lane, pending, token, null);
+                    }
+                }
+
+                @Override
+                public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
+                    synchronized (lane) {
+                        onPublishComplete(lane, pending, token, exception);
+                    }
+                }
+            });
+        } catch (MqttException e) {
+            pending.token = null;
+            retryOrFail(lane, pending, "发布失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 发布完成（调用方持有 lane 锁）；过期的回调（已超时重发）直接忽略
+     */
+    private void onPublishComplete(Lane lane, Pending pending, IMqttToken token, Throwable exception) {
+        if (lane.current != pending || pending.token != token || pending.published) {
+            return;
+        }
+        pending.published = true;
+        if (exception != null) {
+            retryOrFail(lane, pending, "发布失败: " + exception.getMessage());
+        } else if (!ACK_MODE_DEVICE.equals(properties.getAckMode())) {
+            complete(lane, pending, SystemConstants.IRRIGATION_STATUS_SUCCESS,
+                    "指令已送达 Broker: " + payload(pending.command));
+        }
+    }
+
+    private void onDeviceAck(MqttMessage message) {
+        String commandId;
+        try {
+            JsonNode node = objectMapper.readTree(message.getPayload());
+            commandId = node.path("commandId").asText(null);
+        } catch (IOException e) {
+            log.debug("无法解析的设备确认报文: {}", e.getMessage());
+            return;
+        }
+        Pending pending = commandId != null ? inProgress.get(commandId) : null;
+        if (pending == null) {
+            return;
+        }
+        Lane lane = lanes.get(pending.command.actuatorDeviceId());
+        synchronized (lane) {
+            if (lane.current == pending) {
+                complete(lane, pending, SystemConstants.IRRIGATION_STATUS_SUCCESS,
+                        "设备已确认: " + payload(pending.command));
+            }
+        }
+    }
+
+    private void retryOrFail(Lane lane, Pending pending, String reason) {
+        if (pending.attempts >= properties.getMaxAttempts()) {
+            complete(lane, pending, SystemConstants.IRRIGATION_STATUS_FAILED,
+                    reason + "（已尝试 " + pending.attempts + " 次）");
+            return;
+        }
+        retriedCounter.increment();
+        pending.token = null;
+        pending.nextAttemptAt = System.currentTimeMillis()
+                + (properties.getRetryBackoffMs() << Math.min(pending.attempts - 1, 10));
+        log.warn("执行器 {} 指令 {} 下发未成功，稍后重试: {}",
+                pending.command.actuatorDeviceId(), pending.command.commandId(), reason);
+    }
+
+    /**
+     * 记录结果并下发该执行器的下一条指令（调用方持有 lane 锁）
+     */
+    private void complete(Lane lane, Pending pending, String status, String message) {
+        PumpCommand command = pending.command;
+        (SystemConstants.IRRIGATION_STATUS_SUCCESS.equals(status) ? succeededCounter : failedCounter).increment();
+        if (SystemConstants.IRRIGATION_STATUS_FAILED.equals(status)) {
+            log.error("下发水泵指令失败，执行器 {}: {}", command.actuatorDeviceId(), message);
+        }
+        try {
+            journal.appendResult(command.commandId(), status, message);
+        } catch (IOException e) {
+            log.warn("记录指令结果失败: {}", e.getMessage());
+        }
+        completed.add(new Completed(command, status, message));
+        recentlyCompleted.put(command.commandId(), Boolean.TRUE);
+        inProgress.remove(command.commandId());
+        next(lane);
+    }
+
+    private static String payload(PumpCommand command) {
+        return "{\"commandId\":\"" + command.commandId() + "\",\"command\":\"" + command.command()
+                + "\",\"duration\":" + command.durationSeconds() + "}";
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("irrigation.commands")
+                .description("执行器指令下发结果")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 单个执行器的指令队列（访问需持有该对象的锁）
+     */
+    private static final class Lane {
+        private final Queue<Pending> queue = new ArrayDeque<>();
+        private Pending current;
+    }
+
+    private static final class Pending {
+        private final PumpCommand command;
+        private int attempts;
+        private MqttDeliveryToken token;
+        private boolean published;
+        private long deadline;
+        private long nextAttemptAt;
+
+        private Pending(PumpCommand command) {
+            this.command = command;
+        }
+    }
+
+    private record Completed(PumpCommand command, String status, String message) {
+    }
+}
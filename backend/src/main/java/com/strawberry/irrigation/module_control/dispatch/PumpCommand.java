@@ -0,0 +1,21 @@
+package com.strawberry.irrigation.module_control.dispatch;
+
+/**
+ * 待下发的执行器指令
+ *
+ * @param commandId        指令ID（幂等键，重试时保持不变，设备据此去重）
+ * @param actuatorDeviceId 执行器内部ID（devices.id）
+ * @param command          PUMP_ON / PUMP_OFF
+ * @param durationSeconds  持续秒数
+ * @param triggerType      MANUAL / AUTO
+ * @param triggerSource    手动时为用户ID，自动时为规则ID
+ * @param createdAtMillis  排队时间
+ */
+public record PumpCommand(String commandId,
+                          long actuatorDeviceId,
+                          String command,
+                          int durationSeconds,
+                          String triggerType,
+                          String triggerSource,
+                          long createdAtMillis) {
+}
@@ -0,0 +1,25 @@
+package com.strawberry.irrigation.module_control.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 指令已排队响应DTO
+ * 指令在后台异步下发，结果写入灌溉日志
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommandAcceptedResponse {
+
+    /**
+     * 指令ID（携带幂等键时由用户、执行器与幂等键组成）
+     */
+    private String commandId;
+
+    /**
+     * 是否为重复提交（同一幂等键的指令仍在处理中或刚完成不久）
+     */
+    private boolean duplicate;
+}
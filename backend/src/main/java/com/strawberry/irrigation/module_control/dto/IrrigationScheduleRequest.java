@@ -0,0 +1,54 @@
+package com.strawberry.irrigation.module_control.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * 定时灌溉计划创建/修改请求DTO
+ */
+@Data
+public class IrrigationScheduleRequest {
+
+    @NotBlank(message = "计划名称不能为空")
+    @Size(max = 100, message = "计划名称不能超过100个字符")
+    private String name;
+
+    @NotNull(message = "执行器设备ID不能为空")
+    private Long actuatorDeviceId;
+
+    /**
+     * 开始时刻，例如 06:00
+     */
+    @NotNull(message = "开始时刻不能为空")
+    private LocalTime startTime;
+
+    @NotNull(message = "持续时间不能为空")
+    @Min(value = 1, message = "持续时间必须大于0")
+    @Max(value = 86400, message = "持续时间不能超过一天")
+    private Integer durationSeconds;
+
+    /**
+     * 执行的星期，例如 ["MONDAY", "WEDNESDAY", "FRIDAY"]
+     */
+    @NotEmpty(message = "至少选择一天")
+    private Set<DayOfWeek> daysOfWeek;
+
+    /**
+     * 时区ID，留空使用 Asia/Shanghai
+     */
+    private String timeZone;
+
+    /**
+     * 是否启用，默认启用
+     */
+    private Boolean enabled;
+}
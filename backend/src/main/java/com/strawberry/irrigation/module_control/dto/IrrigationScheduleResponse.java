@@ -0,0 +1,46 @@
+package com.strawberry.irrigation.module_control.dto;
+
+import com.strawberry.irrigation.module_control.entity.IrrigationSchedule;
+import com.strawberry.irrigation.module_control.schedule.CompiledSchedule;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * 定时灌溉计划响应DTO
+ */
+@Data
+@NoArgsConstructor
+public class IrrigationScheduleResponse {
+
+    private Long id;
+    private String name;
+    private Long actuatorDeviceId;
+    private LocalTime startTime;
+    private Integer durationSeconds;
+    private Set<DayOfWeek> daysOfWeek;
+    private String timeZone;
+    private Boolean enabled;
+    /**
+     * 下一次触发时间（计划所在时区的本地时间），未启用或本节点未排队时为空
+     */
+    private LocalDateTime nextFireTime;
+    private LocalDateTime createTime;
+
+    public IrrigationScheduleResponse(IrrigationSchedule schedule, LocalDateTime nextFireTime) {
+        this.id = schedule.getId();
+        this.name = schedule.getName();
+        this.actuatorDeviceId = schedule.getActuatorDeviceId();
+        this.startTime = schedule.getStartTime();
+        this.durationSeconds = schedule.getDurationSeconds();
+        this.daysOfWeek = schedule.getDaysOfWeek() != null ? CompiledSchedule.daysOf(schedule.getDaysOfWeek()) : Set.of();
+        this.timeZone = schedule.getTimeZone();
+        this.enabled = schedule.getIsEnabled();
+        this.nextFireTime = nextFireTime;
+        this.createTime = schedule.getCreateTime();
+    }
+}
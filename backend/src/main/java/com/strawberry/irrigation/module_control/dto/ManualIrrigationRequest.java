@@ -0,0 +1,28 @@
+package com.strawberry.irrigation.module_control.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+/**
+ * 手动控制水泵请求DTO
+ */
+@Data
+public class ManualIrrigationRequest {
+
+    @NotNull(message = "执行器设备ID不能为空")
+    private Long actuatorDeviceId;
+
+    @NotNull(message = "指令不能为空")
+    @Pattern(regexp = "^(PUMP_ON|PUMP_OFF)$", message = "指令只能是 PUMP_ON 或 PUMP_OFF")
+    private String command;
+
+    /**
+     * 持续秒数（PUMP_ON 时有效）
+     */
+    @Min(value = 0, message = "持续时间不能为负数")
+    @Max(value = 86400, message = "持续时间不能超过一天")
+    private Integer durationSeconds;
+}
@@ -0,0 +1,168 @@
+package com.strawberry.irrigation.module_control.engine;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 编译后的灌溉规则
+ * 把数据库中的字符串字段预先解析为枚举与基本类型，评估时只做一次比较，不产生任何对象。
+ * 规则触发后在动作持续时间内进入冷却（至少 {@link #MIN_COOLDOWN_SECONDS} 秒），
+ * 避免持续低湿度时每条读数都重复下发指令。
+ * <p>
+ * 窗口条件（AVERAGE / SUSTAINED）与滞回带的状态保存在规则自身的 WindowState 中，
+ * 每条读数增量更新，评估时不查询历史数据。
+ */
+@Getter
+public final class CompiledRule {
+
+    /**
+     * 最短冷却时间（秒）：持续时间为 0 或很短的规则（如关泵）也不会每条读数都触发
+     */
+    public static final int MIN_COOLDOWN_SECONDS = 60;
+
+    private final long ruleId;
+    private final String name;
+    private final long sensorDeviceId;
+    private final long actuatorDeviceId;
+    private final MeasuredParameter parameter;
+    private final ThresholdOperator operator;
+    private final double threshold;
+    private final String action;
+    /**
+     * 规则动作对应的水泵指令：PUMP_ON / PUMP_OFF
+     */
+    private final String pumpCommand;
+    private final int durationSeconds;
+    private final ConditionType conditionType;
+    private final int windowSeconds;
+    private final double hysteresis;
+
+    /**
+     * 滞回释放阈值（未启用滞回时等于 threshold）
+     */
+    private final double releaseThreshold;
+    private final long windowMillis;
+
+    /**
+     * 冷却截止时间（毫秒时间戳），早于该时间的触发会被抑制
+     */
+    private final AtomicLong cooldownUntil = new AtomicLong();
+
+    @Getter(AccessLevel.NONE)
+    private WindowState window = new WindowState();
+
+    public CompiledRule(long ruleId, String name, long sensorDeviceId, long actuatorDeviceId,
+                        MeasuredParameter parameter, ThresholdOperator operator, double threshold,
+                        String action, int durationSeconds) {
+        this(ruleId, name, sensorDeviceId, actuatorDeviceId, parameter, operator, threshold,
+                action, durationSeconds, ConditionType.INSTANT, 0, 0);
+    }
+
+    public CompiledRule(long ruleId, String name, long sensorDeviceId, long actuatorDeviceId,
+                        MeasuredParameter parameter, ThresholdOperator operator, double threshold,
+                        String action, int durationSeconds,
+                        ConditionType conditionType, int windowSeconds, double hysteresis) {
+        if (conditionType != ConditionType.INSTANT && windowSeconds <= 0) {
+            throw new IllegalArgumentException(conditionType + " 条件需要大于 0 的窗口长度");
+        }
+        if (hysteresis < 0 || Double.isNaN(hysteresis)) {
+            throw new IllegalArgumentException("滞回带宽不能为负数");
+        }
+        this.ruleId = ruleId;
+        this.name = name;
+        this.sensorDeviceId = sensorDeviceId;
+        this.actuatorDeviceId = actuatorDeviceId;
+        this.parameter = parameter;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.action = action;
+        this.pumpCommand = toPumpCommand(action);
+        this.durationSeconds = durationSeconds;
+        this.conditionType = conditionType;
+        this.windowSeconds = conditionType == ConditionType.INSTANT ? 0 : windowSeconds;
+        this.hysteresis = hysteresis;
+        this.releaseThreshold = operator.releaseThreshold(threshold, hysteresis);
+        this.windowMillis = this.windowSeconds * 1000L;
+    }
+
+    /**
+     * 判断读数值是否满足阈值条件（单条读数比较，不含窗口与滞回）
+     */
+    public boolean matches(double value) {
+        return operator.test(value, threshold);
+    }
+
+    /**
+     * 用一条读数推进窗口状态并评估条件
+     * @param value           读数值
+     * @param timestampMillis 读数时间（乱序读数按已见过的最大时间处理）
+     * @return 条件满足时返回参与比较的观测值（瞬时值或窗口均值），否则返回 NaN
+     */
+    public double evaluate(double value, long timestampMillis) {
+        if (conditionType == ConditionType.INSTANT && hysteresis == 0) {
+            return matches(value) ? value : Double.NaN;
+        }
+        WindowState state = window;
+        synchronized (state) {
+            long ts = state.monotonic(timestampMillis);
+            double observed = value;
+            if (conditionType == ConditionType.AVERAGE) {
+                observed = state.average(value, ts, windowMillis);
+                if (Double.isNaN(observed)) {
+                    // 窗口尚未被完整覆盖，不足以判断
+                    return Double.NaN;
+                }
+            }
+            boolean holds = operator.test(observed, state.active ? releaseThreshold : threshold);
+            state.active = holds;
+            if (conditionType == ConditionType.SUSTAINED) {
+                return state.sustained(holds, ts) >= windowMillis ? observed : Double.NaN;
+            }
+            return holds ? observed : Double.NaN;
+        }
+    }
+
+    /**
+     * 尝试占用一次触发机会：不在冷却期内则进入冷却并返回 true
+     * @param nowMillis 当前时间
+     */
+    public boolean tryFire(long nowMillis) {
+        long until = cooldownUntil.get();
+        if (nowMillis < until) {
+            return false;
+        }
+        return cooldownUntil.compareAndSet(until, nowMillis + Math.max(durationSeconds, MIN_COOLDOWN_SECONDS) * 1000L);
+    }
+
+    /**
+     * 规则动作 → 水泵指令；未填写时按开泵处理（早期规则只有 START_PUMP 一种动作）
+     */
+    static String toPumpCommand(String action) {
+        if (action == null || action.isBlank()) {
+            return SystemConstants.PUMP_ON;
+        }
+        return switch (action.trim().toUpperCase()) {
+            case "START_PUMP", SystemConstants.PUMP_ON -> SystemConstants.PUMP_ON;
+            case "STOP_PUMP", SystemConstants.PUMP_OFF -> SystemConstants.PUMP_OFF;
+            default -> throw new IllegalArgumentException("未知的规则动作: " + action);
+        };
+    }
+
+    /**
+     * 从旧规则继承冷却状态（规则重新加载时保持，避免刷新后立即重复触发）；
+     * 传感器、参数与窗口定义均未变化时同时继承窗口状态，避免每次刷新后窗口重新积累
+     */
+    void inheritState(CompiledRule previous) {
+        cooldownUntil.set(previous.cooldownUntil.get());
+        if (previous.sensorDeviceId == sensorDeviceId
+                && previous.parameter == parameter
+                && previous.operator == operator
+                && previous.conditionType == conditionType
+                && previous.windowSeconds == windowSeconds) {
+            window = previous.window;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.strawberry.irrigation.module_control.engine;
+
+/**
+ * 规则条件类型（对应 irrigation_rules.condition_type）
+ */
+public enum ConditionType {
+
+    /**
+     * 单条读数满足阈值即触发
+     */
+    INSTANT,
+
+    /**
+     * 最近 window_seconds 内读数的平均值满足阈值
+     */
+    AVERAGE,
+
+    /**
+     * 读数连续 window_seconds 满足阈值
+     */
+    SUSTAINED;
+
+    /**
+     * 由名称解析，空值视为 INSTANT（兼容旧规则）
+     * @throws IllegalArgumentException 不支持的类型
+     */
+    public static ConditionType fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return INSTANT;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的条件类型: " + name);
+        }
+    }
+}
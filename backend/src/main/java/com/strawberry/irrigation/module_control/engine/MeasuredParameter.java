@@ -0,0 +1,36 @@
+package com.strawberry.irrigation.module_control.engine;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+
+/**
+ * 规则可监测的传感器参数（对应 irrigation_rules.measured_parameter）
+ */
+public enum MeasuredParameter {
+
+    SOIL_HUMIDITY,
+    TEMPERATURE,
+    LIGHT_INTENSITY,
+    BATTERY_LEVEL;
+
+    private static final MeasuredParameter[] VALUES = values();
+
+    /**
+     * 从读数中取出本参数的值（缺失时为 NaN）
+     */
+    public double read(SensorReading reading) {
+        return switch (this) {
+            case SOIL_HUMIDITY -> reading.soilHumidity();
+            case TEMPERATURE -> reading.temperature();
+            case LIGHT_INTENSITY -> reading.lightIntensity();
+            case BATTERY_LEVEL -> reading.batteryLevel();
+        };
+    }
+
+    public static MeasuredParameter byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+}
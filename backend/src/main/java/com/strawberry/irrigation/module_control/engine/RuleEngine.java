@@ -0,0 +1,168 @@
+package com.strawberry.irrigation.module_control.engine;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_cluster.shard.ShardAssignmentChangedEvent;
+import com.strawberry.irrigation.module_control.dao.IrrigationRuleMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationRule;
+import com.strawberry.irrigation.module_control.service.IrrigationControlService;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.service.SensorReadingListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 自动灌溉规则引擎（事件驱动）
+ * <p>
+ * 启用的规则按 sensor_device_id + measured_parameter 建立索引，每条读数到达时只评估
+ * 与该传感器相关的规则，代价与读数数量成正比，而不是"规则数 × 设备数"的全表轮询，
+ * 也没有轮询间隔带来的开泵延迟。规则表本身定期刷新（规则变化远比读数少）。
+ * <p>
+ * 窗口条件（均值、持续时长）与滞回由 CompiledRule 按读数增量维护，使用读数自身的时间戳。
+ * <p>
+ * 集群部署时只加载传感器归属本节点分片的规则，分片变化时重新加载，同一规则不会在多个节点上同时触发。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RuleEngine implements SensorReadingListener {
+
+    private final IrrigationRuleMapper ruleMapper;
+    private final IrrigationControlService irrigationControlService;
+    private final ClusterMembership clusterMembership;
+
+    private volatile RuleIndex index = RuleIndex.EMPTY;
+
+    /**
+     * 规则表是否包含窗口条件列（未执行 db/irrigation_rules_windowed.sql 时只查询原有列）
+     */
+    private volatile boolean windowColumns = true;
+
+    @Override
+    public void onReading(SensorReading reading) {
+        CompiledRule[][] byParameter = index.rulesFor(reading.deviceId());
+        if (byParameter == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (int p = 0; p < byParameter.length; p++) {
+            CompiledRule[] rules = byParameter[p];
+            if (rules == null) {
+                continue;
+            }
+            double value = MeasuredParameter.byOrdinal(p).read(reading);
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            for (CompiledRule rule : rules) {
+                // 先推进窗口状态再检查冷却，冷却期内的读数同样计入窗口
+                double observed = rule.evaluate(value, reading.epochMillis());
+                if (!Double.isNaN(observed) && rule.tryFire(now)) {
+                    irrigationControlService.executeRuleAction(rule, observed);
+                }
+            }
+        }
+    }
+
+    /**
+     * 重新加载启用的规则并重建索引
+     */
+    public synchronized void reload() {
+        List<IrrigationRule> rules;
+        try {
+            rules = selectEnabledRules();
+        } catch (BadSqlGrammarException e) {
+            if (!windowColumns) {
+                throw e;
+            }
+            windowColumns = false;
+            log.warn("irrigation_rules 缺少窗口条件列，所有规则按单条读数评估（请执行 db/irrigation_rules_windowed.sql）");
+            rules = selectEnabledRules();
+        }
+
+        List<CompiledRule> compiled = new ArrayList<>(rules.size());
+        for (IrrigationRule rule : rules) {
+            if (rule.getSensorDeviceId() != null && !clusterMembership.owns(rule.getSensorDeviceId())) {
+                continue;
+            }
+            try {
+                compiled.add(compile(rule));
+            } catch (IllegalArgumentException e) {
+                log.warn("规则 {} 配置无效，已跳过: {}", rule.getId(), e.getMessage());
+            }
+        }
+        index = RuleIndex.build(compiled, index);
+        log.debug("灌溉规则已加载，共 {} 条", index.ruleCount());
+    }
+
+    public int getRuleCount() {
+        return index.ruleCount();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        safeReload();
+    }
+
+    @EventListener(ShardAssignmentChangedEvent.class)
+    public void onShardChanged() {
+        safeReload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.control.rules.refresh-interval-ms:60000}",
+            initialDelayString = "${app.control.rules.refresh-interval-ms:60000}")
+    public void refresh() {
+        safeReload();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void safeReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // 数据库不可用时保留旧索引继续工作
+            log.warn("加载灌溉规则失败，继续使用现有规则: {}", e.getMessage());
+        }
+    }
+
+    private List<IrrigationRule> selectEnabledRules() {
+        QueryWrapper<IrrigationRule> queryWrapper = new QueryWrapper<>();
+        if (!windowColumns) {
+            queryWrapper.select("id", "name", "sensor_device_id", "actuator_device_id", "threshold_operator",
+                    "threshold_value", "measured_parameter", "action", "duration_seconds");
+        }
+        queryWrapper.eq("is_enabled", true);
+        return ruleMapper.selectList(queryWrapper);
+    }
+
+    static CompiledRule compile(IrrigationRule rule) {
+        if (rule.getSensorDeviceId() == null || rule.getActuatorDeviceId() == null) {
+            throw new IllegalArgumentException("缺少传感器或执行器设备");
+        }
+        if (rule.getThresholdValue() == null) {
+            throw new IllegalArgumentException("缺少阈值");
+        }
+        return new CompiledRule(
+                rule.getId(),
+                rule.getName(),
+                rule.getSensorDeviceId(),
+                rule.getActuatorDeviceId(),
+                MeasuredParameter.valueOf(rule.getMeasuredParameter()),
+                ThresholdOperator.fromSymbol(rule.getThresholdOperator()),
+                rule.getThresholdValue(),
+                rule.getAction(),
+                rule.getDurationSeconds() != null ? rule.getDurationSeconds() : 0,
+                ConditionType.fromName(rule.getConditionType()),
+                rule.getWindowSeconds() != null ? rule.getWindowSeconds() : 0,
+                rule.getHysteresis() != null ? rule.getHysteresis() : 0);
+    }
+}
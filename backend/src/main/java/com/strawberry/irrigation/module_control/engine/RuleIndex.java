@@ -0,0 +1,74 @@
+package com.strawberry.irrigation.module_control.engine;
+
+import com.strawberry.irrigation.common.utils.LongHashIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 规则索引：传感器设备ID → 监测参数 → 规则数组
+ * 不可变，规则变化时整体重建后替换，评估线程无需加锁
+ */
+public final class RuleIndex {
+
+    public static final RuleIndex EMPTY = new RuleIndex(LongHashIndex.empty(), Map.of());
+
+    private final LongHashIndex<CompiledRule[][]> bySensor;
+    private final Map<Long, CompiledRule> byRuleId;
+
+    private RuleIndex(LongHashIndex<CompiledRule[][]> bySensor, Map<Long, CompiledRule> byRuleId) {
+        this.bySensor = bySensor;
+        this.byRuleId = byRuleId;
+    }
+
+    /**
+     * 构建索引
+     * @param rules    编译后的规则
+     * @param previous 旧索引（用于继承冷却与窗口状态）
+     */
+    public static RuleIndex build(Collection<CompiledRule> rules, RuleIndex previous) {
+        Map<Long, List<List<CompiledRule>>> grouped = new HashMap<>();
+        Map<Long, CompiledRule> byRuleId = new HashMap<>();
+        for (CompiledRule rule : rules) {
+            CompiledRule old = previous.byRuleId.get(rule.getRuleId());
+            if (old != null) {
+                rule.inheritState(old);
+            }
+            byRuleId.put(rule.getRuleId(), rule);
+            List<List<CompiledRule>> perParameter = grouped.computeIfAbsent(rule.getSensorDeviceId(), k -> {
+                List<List<CompiledRule>> lists = new ArrayList<>(MeasuredParameter.count());
+                for (int i = 0; i < MeasuredParameter.count(); i++) {
+                    lists.add(new ArrayList<>());
+                }
+                return lists;
+            });
+            perParameter.get(rule.getParameter().ordinal()).add(rule);
+        }
+
+        Map<Long, CompiledRule[][]> arrays = new HashMap<>();
+        grouped.forEach((sensorId, perParameter) -> {
+            CompiledRule[][] table = new CompiledRule[MeasuredParameter.count()][];
+            for (int i = 0; i < table.length; i++) {
+                List<CompiledRule> list = perParameter.get(i);
+                // 没有规则的参数保持 null，评估时直接跳过
+                table[i] = list.isEmpty() ? null : list.toArray(new CompiledRule[0]);
+            }
+            arrays.put(sensorId, table);
+        });
+        return new RuleIndex(LongHashIndex.of(arrays), byRuleId);
+    }
+
+    /**
+     * 查询某传感器关联的规则（按 MeasuredParameter.ordinal() 分组），没有规则时返回 null
+     */
+    public CompiledRule[][] rulesFor(long sensorDeviceId) {
+        return bySensor.get(sensorDeviceId);
+    }
+
+    public int ruleCount() {
+        return byRuleId.size();
+    }
+}
@@ -0,0 +1,58 @@
+package com.strawberry.irrigation.module_control.engine;
+
+/**
+ * 阈值比较运算符（对应 irrigation_rules.threshold_operator）
+ */
+public enum ThresholdOperator {
+
+    LT("<"),
+    LE("<="),
+    GT(">"),
+    GE(">=");
+
+    private final String symbol;
+
+    ThresholdOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * 判断 value 与 threshold 是否满足本运算符
+     */
+    public boolean test(double value, double threshold) {
+        return switch (this) {
+            case LT -> value < threshold;
+            case LE -> value <= threshold;
+            case GT -> value > threshold;
+            case GE -> value >= threshold;
+        };
+    }
+
+    /**
+     * 滞回释放阈值：小于类运算符上移、大于类运算符下移 hysteresis，
+     * 条件成立后读数需越过该值才视为不再满足
+     */
+    public double releaseThreshold(double threshold, double hysteresis) {
+        return switch (this) {
+            case LT, LE -> threshold + hysteresis;
+            case GT, GE -> threshold - hysteresis;
+        };
+    }
+
+    /**
+     * 由符号解析运算符
+     * @throws IllegalArgumentException 不支持的符号
+     */
+    public static ThresholdOperator fromSymbol(String symbol) {
+        for (ThresholdOperator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("不支持的阈值运算符: " + symbol);
+    }
+}
@@ -0,0 +1,109 @@
+package com.strawberry.irrigation.module_control.engine;
+
+/**
+ * 单条规则的窗口状态（规则只绑定一个传感器，即每个 规则 × 设备 一份）
+ * <p>
+ * 滑动平均使用按时间淘汰的环形缓冲区 + 运行和，每条读数 O(1)（均摊）；
+ * 持续条件只记录条件开始成立的时间；滞回只需要一个"已激活"标志。调用方负责加锁。
+ */
+final class WindowState {
+
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * 缓冲区上限：窗口内读数超过该数量时淘汰最早的读数（窗口实际变短）
+     */
+    static final int MAX_CAPACITY = 8_192;
+
+    private long[] times = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    private double sum;
+
+    /**
+     * 缓冲区自上次为空以来的第一条读数时间，窗口被完整覆盖后均值才有效
+     */
+    private long coveredSince;
+    /**
+     * 条件开始连续成立的时间，-1 表示当前不成立
+     */
+    private long conditionSince = -1;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * 滞回锁存：条件成立后，直到越过释放阈值才视为不成立
+     */
+    boolean active;
+
+    /**
+     * 时间戳单调化（乱序到达的读数按最近一次读数的时间处理）
+     */
+    long monotonic(long timestampMillis) {
+        lastTimestamp = Math.max(lastTimestamp, timestampMillis);
+        return lastTimestamp;
+    }
+
+    /**
+     * 加入一条读数并返回窗口均值；窗口尚未被完整覆盖时返回 NaN
+     */
+    double average(double value, long timestampMillis, long windowMillis) {
+        long expireBefore = timestampMillis - windowMillis;
+        while (size > 0 && times[head] < expireBefore) {
+            sum -= values[head];
+            head = (head + 1) % times.length;
+            size--;
+        }
+        if (size == 0) {
+            // 缓冲区清空时重置运行和，顺带消除浮点累计误差
+            sum = 0;
+            coveredSince = timestampMillis;
+        }
+        if (size == times.length) {
+            if (times.length < MAX_CAPACITY) {
+                grow();
+            } else {
+                sum -= values[head];
+                head = (head + 1) % times.length;
+                size--;
+            }
+        }
+        int tail = (head + size) % times.length;
+        times[tail] = timestampMillis;
+        values[tail] = value;
+        size++;
+        sum += value;
+        return timestampMillis - coveredSince >= windowMillis ? sum / size : Double.NaN;
+    }
+
+    /**
+     * 记录条件是否成立，返回已连续成立的时长（毫秒），不成立时返回 -1
+     */
+    long sustained(boolean holds, long timestampMillis) {
+        if (!holds) {
+            conditionSince = -1;
+            return -1;
+        }
+        if (conditionSince < 0) {
+            conditionSince = timestampMillis;
+        }
+        return timestampMillis - conditionSince;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        long[] newTimes = new long[capacity];
+        double[] newValues = new double[capacity];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % times.length;
+            newTimes[i] = times[index];
+            newValues[i] = values[index];
+        }
+        times = newTimes;
+        values = newValues;
+        head = 0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.strawberry.irrigation.module_control.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 灌溉日志实体类
+ * 对应 irrigation_logs 表，记录每一次执行器操作及其结果
+ */
+@Data
+@NoArgsConstructor
+@TableName("irrigation_logs")
+public class IrrigationLog {
+
+    /**
+     * 日志ID（主键）
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 被操作的执行器设备ID（devices.id）
+     */
+    @TableField("actuator_device_id")
+    private Long actuatorDeviceId;
+
+    /**
+     * 触发类型：MANUAL（手动）, AUTO（自动规则）
+     */
+    @TableField("trigger_type")
+    private String triggerType;
+
+    /**
+     * 触发源：手动时为用户ID，自动时为规则ID
+     */
+    @TableField("trigger_source")
+    private String triggerSource;
+
+    /**
+     * 执行的动作：PUMP_ON, PUMP_OFF
+     */
+    @TableField("action")
+    private String action;
+
+    /**
+     * 执行状态：SUCCESS, FAILED
+     */
+    @TableField("status")
+    private String status;
+
+    /**
+     * 详细信息或错误原因
+     */
+    @TableField("message")
+    private String message;
+
+    /**
+     * 创建时间
+     */
+    @TableField("created_at")
+    private LocalDateTime createTime;
+
+    public IrrigationLog(Long actuatorDeviceId, String triggerType, String triggerSource,
+                         String action, String status, String message) {
+        this.actuatorDeviceId = actuatorDeviceId;
+        this.triggerType = triggerType;
+        this.triggerSource = triggerSource;
+        this.action = action;
+        this.status = status;
+        this.message = message;
+    }
+}
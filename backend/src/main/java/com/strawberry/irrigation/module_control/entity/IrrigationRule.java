@@ -0,0 +1,110 @@
+package com.strawberry.irrigation.module_control.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 灌溉规则实体类
+ * 对应 irrigation_rules 表：当传感器某项参数满足阈值条件时，对执行器执行动作
+ */
+@Data
+@NoArgsConstructor
+@TableName("irrigation_rules")
+public class IrrigationRule {
+
+    /**
+     * 规则ID（主键）
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 规则名称
+     */
+    @TableField("name")
+    private String name;
+
+    /**
+     * 关联的传感器设备ID（devices.id）
+     */
+    @TableField("sensor_device_id")
+    private Long sensorDeviceId;
+
+    /**
+     * 关联的执行器（水泵）设备ID（devices.id）
+     */
+    @TableField("actuator_device_id")
+    private Long actuatorDeviceId;
+
+    /**
+     * 阈值比较运算符：<, <=, >, >=
+     */
+    @TableField("threshold_operator")
+    private String thresholdOperator;
+
+    /**
+     * 阈值
+     */
+    @TableField("threshold_value")
+    private Double thresholdValue;
+
+    /**
+     * 监测参数：SOIL_HUMIDITY, TEMPERATURE, LIGHT_INTENSITY, BATTERY_LEVEL
+     */
+    @TableField("measured_parameter")
+    private String measuredParameter;
+
+    /**
+     * 触发动作：START_PUMP（开泵，持续 duration_seconds）或 STOP_PUMP（关泵）
+     */
+    @TableField("action")
+    private String action;
+
+    /**
+     * 动作持续秒数
+     */
+    @TableField("duration_seconds")
+    private Integer durationSeconds;
+
+    /**
+     * 条件类型：INSTANT, AVERAGE, SUSTAINED（需执行 db/irrigation_rules_windowed.sql）
+     */
+    @TableField("condition_type")
+    private String conditionType;
+
+    /**
+     * 窗口长度（秒），AVERAGE / SUSTAINED 必填
+     */
+    @TableField("window_seconds")
+    private Integer windowSeconds;
+
+    /**
+     * 滞回带宽，0 表示不启用
+     */
+    @TableField("hysteresis")
+    private Double hysteresis;
+
+    /**
+     * 是否启用
+     */
+    @TableField("is_enabled")
+    private Boolean isEnabled;
+
+    /**
+     * 规则创建者（users.id）
+     */
+    @TableField("created_by")
+    private Long createdBy;
+
+    /**
+     * 创建时间
+     */
+    @TableField("created_at")
+    private LocalDateTime createTime;
+}
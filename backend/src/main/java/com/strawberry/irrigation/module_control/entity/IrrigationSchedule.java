@@ -0,0 +1,88 @@
+package com.strawberry.irrigation.module_control.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * 定时灌溉计划实体类
+ * 对应 irrigation_schedules 表：在指定星期的固定时刻对执行器开泵一段时间
+ */
+@Data
+@NoArgsConstructor
+@TableName("irrigation_schedules")
+public class IrrigationSchedule {
+
+    /**
+     * 计划ID（主键）
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 计划名称
+     */
+    @TableField("name")
+    private String name;
+
+    /**
+     * 执行器（水泵）设备ID（devices.id）
+     */
+    @TableField("actuator_device_id")
+    private Long actuatorDeviceId;
+
+    /**
+     * 开始时刻（time_zone 时区的本地时间）
+     */
+    @TableField("start_time")
+    private LocalTime startTime;
+
+    /**
+     * 开泵持续秒数
+     */
+    @TableField("duration_seconds")
+    private Integer durationSeconds;
+
+    /**
+     * 执行的星期（位掩码：周一 = 1 …… 周日 = 64）
+     */
+    @TableField("days_of_week")
+    private Integer daysOfWeek;
+
+    /**
+     * 时区ID，例如 Asia/Shanghai
+     */
+    @TableField("time_zone")
+    private String timeZone;
+
+    /**
+     * 是否启用
+     */
+    @TableField("is_enabled")
+    private Boolean isEnabled;
+
+    /**
+     * 计划创建者（users.id）
+     */
+    @TableField("created_by")
+    private Long createdBy;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "created_at", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "updated_at", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
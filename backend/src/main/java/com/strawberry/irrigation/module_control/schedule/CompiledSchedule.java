@@ -0,0 +1,105 @@
+package com.strawberry.irrigation.module_control.schedule;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.module_control.entity.IrrigationSchedule;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 编译后的定时灌溉计划（不可变，计划内容相同即相等）
+ * @param scheduleId       计划ID
+ * @param name             计划名称
+ * @param actuatorDeviceId 执行器设备ID
+ * @param startTime        开始时刻（本地时间）
+ * @param durationSeconds  开泵秒数
+ * @param daysMask         星期位掩码：周一 = 1 …… 周日 = 64
+ * @param zone             时区
+ */
+public record CompiledSchedule(long scheduleId, String name, long actuatorDeviceId, LocalTime startTime,
+                               int durationSeconds, int daysMask, ZoneId zone) {
+
+    public static final int ALL_DAYS = 0x7F;
+
+    public CompiledSchedule {
+        if (daysMask <= 0 || daysMask > ALL_DAYS) {
+            throw new IllegalArgumentException("星期设置无效: " + daysMask);
+        }
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("持续时间必须大于 0");
+        }
+    }
+
+    /**
+     * 由实体编译
+     * @throws IllegalArgumentException 字段缺失或时区无效
+     */
+    public static CompiledSchedule of(IrrigationSchedule schedule) {
+        if (schedule.getActuatorDeviceId() == null || schedule.getStartTime() == null
+                || schedule.getDurationSeconds() == null || schedule.getDaysOfWeek() == null) {
+            throw new IllegalArgumentException("计划字段不完整");
+        }
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(schedule.getTimeZone() != null
+                    ? schedule.getTimeZone()
+                    : SystemConstants.SCHEDULE_DEFAULT_TIME_ZONE);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的时区: " + schedule.getTimeZone());
+        }
+        return new CompiledSchedule(schedule.getId(), schedule.getName(), schedule.getActuatorDeviceId(),
+                schedule.getStartTime(), schedule.getDurationSeconds(), schedule.getDaysOfWeek(), zone);
+    }
+
+    /**
+     * 严格晚于 afterMillis 的下一次触发时间（毫秒时间戳）
+     * 夏令时跳过的时刻顺延到跳变之后，重复的时刻只触发一次（取较早的偏移）
+     */
+    public long nextFireAfter(long afterMillis) {
+        LocalDate date = Instant.ofEpochMilli(afterMillis).atZone(zone).toLocalDate();
+        // 最多看 8 天：当天时刻已过且只在本星期几执行时，下一次在 7 天后
+        for (int i = 0; i <= 7; i++) {
+            LocalDate day = date.plusDays(i);
+            if (!runsOn(day.getDayOfWeek())) {
+                continue;
+            }
+            long fireAt = ZonedDateTime.of(day, startTime, zone).toInstant().toEpochMilli();
+            if (fireAt > afterMillis) {
+                return fireAt;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public boolean runsOn(DayOfWeek day) {
+        return (daysMask & maskOf(day)) != 0;
+    }
+
+    public static int maskOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public static int maskOf(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= maskOf(day);
+        }
+        return mask;
+    }
+
+    public static Set<DayOfWeek> daysOf(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & maskOf(day)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+}
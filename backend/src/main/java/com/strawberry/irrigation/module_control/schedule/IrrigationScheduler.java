@@ -0,0 +1,501 @@
+package com.strawberry.irrigation.module_control.schedule;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_control.config.ScheduleProperties;
+import com.strawberry.irrigation.module_control.dao.IrrigationScheduleMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationSchedule;
+import com.strawberry.irrigation.module_control.service.IrrigationControlService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 定时灌溉调度器
+ * <p>
+ * 所有启用计划的下一次触发时间放在一个按时间排序的优先队列中，由单个线程等待队首到期：
+ * 空闲时线程阻塞在条件变量上，不轮询数据库，也不为每个计划注册定时任务。
+ * 计划变化时只替换该计划的队列项（旧项惰性作废），插入 O(log n)；队首变早时唤醒线程重新计算等待时间。
+ * <p>
+ * 触发时按执行器分片判断是否由本节点负责（见 ClusterMembership），指令ID 由 计划ID + 触发时间 确定，
+ * 重复提交会被指令分发器去重。执行器正在迁入本节点时暂缓该次触发，每秒重试直到迁入生效（超过补发期限则放弃）。
+ * 其他节点上新建、修改或停用的计划按 updated_at 增量轮询同步（默认 5 秒），硬删除的计划在下次全量 reload 时清除；
+ * 执行前按ID 重新读取计划行，以数据库为准可避免已删除的计划继续开泵。
+ */
+@Slf4j
+@Component
+public class IrrigationScheduler {
+
+    /**
+     * 最长等待时间：系统时钟被调整时最迟在该时间内按新时钟重新计算
+     */
+    private static final long MAX_SLEEP_MS = 60_000;
+
+    /**
+     * 分片迁移期间暂缓的触发的重试间隔
+     */
+    private static final long DEFER_RETRY_MS = 1_000;
+
+    private final IrrigationScheduleMapper scheduleMapper;
+    private final IrrigationControlService irrigationControlService;
+    private final ClusterMembership clusterMembership;
+    private final long misfireGraceMillis;
+    private final Duration pollOverlap;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::fireAt));
+    /**
+     * 计划ID → 当前有效的队列项，队列中不在此映射里的项均已作废
+     */
+    private Map<Long, Entry> entries = new HashMap<>();
+    /**
+     * 等待分片迁入生效的触发（只由调度线程访问）
+     */
+    private final List<Firing> deferred = new ArrayList<>();
+    private long deferredRetryAt;
+
+    private final Counter firedCounter;
+    private final Counter misfiredCounter;
+    private final Counter foreignCounter;
+    private final Counter deferredCounter;
+    private final Counter staleCounter;
+
+    /**
+     * 已同步到的计划表最大 updated_at（由 synchronized 方法访问）
+     */
+    private LocalDateTime watermark;
+    private boolean loaded;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public IrrigationScheduler(ScheduleProperties properties,
+                               IrrigationScheduleMapper scheduleMapper,
+                               IrrigationControlService irrigationControlService,
+                               ClusterMembership clusterMembership,
+                               MeterRegistry meterRegistry) {
+        this.scheduleMapper = scheduleMapper;
+        this.irrigationControlService = irrigationControlService;
+        this.clusterMembership = clusterMembership;
+        this.misfireGraceMillis = TimeUnit.SECONDS.toMillis(properties.getMisfireGraceSeconds());
+        this.pollOverlap = Duration.ofMillis(properties.getOverlapMs());
+        Gauge.builder("irrigation.schedules.active", this, IrrigationScheduler::size)
+                .description("已排队的定时灌溉计划数")
+                .register(meterRegistry);
+        this.firedCounter = firingCounter(meterRegistry, "fired");
+        this.misfiredCounter = firingCounter(meterRegistry, "misfired");
+        this.foreignCounter = firingCounter(meterRegistry, "foreign");
+        this.deferredCounter = firingCounter(meterRegistry, "deferred");
+        this.staleCounter = firingCounter(meterRegistry, "stale");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "irrigation-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 新增或替换一个计划（内容未变化时保持原触发时间）
+     */
+    public void schedule(CompiledSchedule schedule) {
+        schedule(schedule, System.currentTimeMillis());
+    }
+
+    /**
+     * 移除计划（删除或停用）
+     */
+    public void cancel(long scheduleId) {
+        lock.lock();
+        try {
+            // 队列中的旧项惰性作废，到期出队时丢弃
+            if (entries.remove(scheduleId) != null) {
+                compactIfNeeded();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 下一次触发时间（毫秒时间戳），计划不存在时返回 null
+     */
+    public Long nextFireTime(long scheduleId) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(scheduleId);
+            return entry != null && entry.fireAt != Long.MAX_VALUE ? entry.fireAt : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 从数据库重新加载全部启用的计划
+     * 先记下水位再读取全表，期间发生的修改会在下一次增量轮询中重复应用（内容未变的计划保持原触发时间，幂等）
+     */
+    public synchronized void reload() {
+        LocalDateTime maxUpdatedAt = scheduleMapper.selectMaxUpdatedAt();
+        QueryWrapper<IrrigationSchedule> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("is_enabled", true);
+        List<IrrigationSchedule> schedules = scheduleMapper.selectList(queryWrapper);
+
+        List<CompiledSchedule> compiled = new ArrayList<>(schedules.size());
+        for (IrrigationSchedule schedule : schedules) {
+            try {
+                compiled.add(CompiledSchedule.of(schedule));
+            } catch (IllegalArgumentException e) {
+                log.warn("灌溉计划 {} 配置无效，已跳过: {}", schedule.getId(), e.getMessage());
+            }
+        }
+        replaceAll(compiled, System.currentTimeMillis());
+        watermark = maxUpdatedAt;
+        loaded = true;
+        log.debug("灌溉计划已加载，共 {} 条", compiled.size());
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        safeReload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.control.schedule.reload-interval-ms:600000}",
+            initialDelayString = "${app.control.schedule.reload-interval-ms:600000}")
+    public void refresh() {
+        safeReload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.control.schedule.poll-interval-ms:5000}",
+            initialDelayString = "${app.control.schedule.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            pollChanges(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.warn("轮询灌溉计划变更失败，继续使用现有计划: {}", e.getMessage());
+        }
+    }
+
+    // ========== 队列操作（包可见，便于测试） ==========
+
+    /**
+     * 增量同步修改时间晚于水位的计划（含其他节点上的新建、修改与停用）
+     */
+    synchronized void pollChanges(long nowMillis) {
+        if (!loaded) {
+            // 首次全量加载完成前不轮询，避免启动时把全表按增量逐条读一遍
+            return;
+        }
+        LocalDateTime since = watermark != null
+                ? watermark.minus(pollOverlap)
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+        for (IrrigationSchedule schedule : scheduleMapper.selectChangedSince(since)) {
+            if (Boolean.TRUE.equals(schedule.getIsEnabled())) {
+                try {
+                    schedule(CompiledSchedule.of(schedule), nowMillis);
+                } catch (IllegalArgumentException e) {
+                    cancel(schedule.getId());
+                    log.warn("灌溉计划 {} 配置无效，已移出队列: {}", schedule.getId(), e.getMessage());
+                }
+            } else {
+                cancel(schedule.getId());
+            }
+            if (schedule.getUpdateTime() != null
+                    && (watermark == null || schedule.getUpdateTime().isAfter(watermark))) {
+                watermark = schedule.getUpdateTime();
+            }
+        }
+    }
+
+    void schedule(CompiledSchedule schedule, long nowMillis) {
+        lock.lock();
+        try {
+            Entry current = entries.get(schedule.scheduleId());
+            if (current != null && current.schedule.equals(schedule)) {
+                return;
+            }
+            enqueue(new Entry(schedule, schedule.nextFireAfter(nowMillis)));
+            compactIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 整体替换计划集合：内容未变的计划保留原队列项，其余重新计算
+     */
+    void replaceAll(Collection<CompiledSchedule> schedules, long nowMillis) {
+        lock.lock();
+        try {
+            Map<Long, Entry> replaced = new HashMap<>(schedules.size() * 2);
+            for (CompiledSchedule schedule : schedules) {
+                Entry current = entries.get(schedule.scheduleId());
+                replaced.put(schedule.scheduleId(), current != null && current.schedule.equals(schedule)
+                        ? current
+                        : new Entry(schedule, schedule.nextFireAfter(nowMillis)));
+            }
+            entries = replaced;
+            rebuildQueue();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取出到期的计划并为其排入下一次触发
+     * @return 需要执行的触发（超过补发期限的触发已被跳过）
+     */
+    List<Firing> pollDue(long nowMillis) {
+        List<Firing> due = new ArrayList<>();
+        lock.lock();
+        try {
+            Entry head;
+            while ((head = queue.peek()) != null && head.fireAt <= nowMillis) {
+                queue.poll();
+                if (entries.get(head.schedule.scheduleId()) != head) {
+                    continue;
+                }
+                enqueue(new Entry(head.schedule, head.schedule.nextFireAfter(nowMillis)));
+                if (nowMillis - head.fireAt > misfireGraceMillis) {
+                    misfiredCounter.increment();
+                    log.warn("灌溉计划 [{}] 错过触发时间 {}ms，跳过本次", head.schedule.name(), nowMillis - head.fireAt);
+                } else {
+                    due.add(new Firing(head.schedule, head.fireAt));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    /**
+     * 执行一次到期的触发：不归本节点的跳过，正在迁入本节点的暂缓，执行前以数据库中的计划为准
+     */
+    void fire(Firing firing, long nowMillis) {
+        CompiledSchedule schedule = firing.schedule();
+        if (!clusterMembership.owns(schedule.actuatorDeviceId())) {
+            if (!clusterMembership.isAcquiring(schedule.actuatorDeviceId())) {
+                foreignCounter.increment();
+            } else if (nowMillis - firing.fireAtMillis() > misfireGraceMillis) {
+                misfiredCounter.increment();
+                log.warn("灌溉计划 [{}] 等待分片迁入超过补发期限，跳过本次", schedule.name());
+            } else {
+                if (deferred.isEmpty()) {
+                    deferredRetryAt = nowMillis + DEFER_RETRY_MS;
+                }
+                deferred.add(firing);
+                deferredCounter.increment();
+            }
+            return;
+        }
+        CompiledSchedule current = latest(firing);
+        if (current == null) {
+            staleCounter.increment();
+            return;
+        }
+        try {
+            irrigationControlService.executeScheduledAction(current, firing.fireAtMillis());
+            firedCounter.increment();
+        } catch (RuntimeException e) {
+            log.error("灌溉计划 [{}] 执行失败: {}", schedule.name(), e.getMessage());
+        }
+    }
+
+    /**
+     * 重试到期的暂缓触发
+     */
+    void retryDeferred(long nowMillis) {
+        if (deferred.isEmpty() || nowMillis < deferredRetryAt) {
+            return;
+        }
+        List<Firing> retry = new ArrayList<>(deferred);
+        deferred.clear();
+        for (Firing firing : retry) {
+            fire(firing, nowMillis);
+        }
+    }
+
+    int deferredCount() {
+        return deferred.size();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void run() {
+        while (running) {
+            long now = System.currentTimeMillis();
+            for (Firing firing : pollDue(now)) {
+                fire(firing, now);
+            }
+            retryDeferred(now);
+            lock.lock();
+            try {
+                if (!running) {
+                    break;
+                }
+                // 在持锁状态下计算等待时间，不会错过等待前插入的更早计划
+                Entry head = queue.peek();
+                long wait = head == null
+                        ? MAX_SLEEP_MS
+                        : Math.min(MAX_SLEEP_MS, head.fireAt - System.currentTimeMillis());
+                if (!deferred.isEmpty()) {
+                    wait = Math.min(wait, deferredRetryAt - System.currentTimeMillis());
+                }
+                if (wait > 0) {
+                    changed.await(wait, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 按ID 重新读取计划并同步到队列
+     * @return 应执行的计划；计划已删除、停用、配置无效或触发时刻已被修改时返回 null。数据库不可用时沿用队列中的版本
+     */
+    private CompiledSchedule latest(Firing firing) {
+        CompiledSchedule schedule = firing.schedule();
+        IrrigationSchedule row;
+        try {
+            row = scheduleMapper.selectById(schedule.scheduleId());
+        } catch (RuntimeException e) {
+            log.warn("读取灌溉计划 [{}] 失败，按已加载的版本执行: {}", schedule.name(), e.getMessage());
+            return schedule;
+        }
+        if (row == null || !Boolean.TRUE.equals(row.getIsEnabled())) {
+            cancel(schedule.scheduleId());
+            log.info("灌溉计划 [{}] 已在其他节点删除或停用，跳过本次", schedule.name());
+            return null;
+        }
+        CompiledSchedule current;
+        try {
+            current = CompiledSchedule.of(row);
+        } catch (IllegalArgumentException e) {
+            cancel(schedule.scheduleId());
+            log.warn("灌溉计划 {} 配置无效，已移除: {}", row.getId(), e.getMessage());
+            return null;
+        }
+        if (current.equals(schedule)) {
+            return schedule;
+        }
+        schedule(current);
+        // 触发时刻未变（如只改了时长）按新内容执行，否则等新的触发时间
+        return current.nextFireAfter(firing.fireAtMillis() - 1) == firing.fireAtMillis() ? current : null;
+    }
+
+    private void enqueue(Entry entry) {
+        entries.put(entry.schedule.scheduleId(), entry);
+        if (entry.fireAt == Long.MAX_VALUE) {
+            return;
+        }
+        queue.add(entry);
+        if (queue.peek() == entry) {
+            changed.signal();
+        }
+    }
+
+    /**
+     * 作废项过多时重建队列，避免频繁修改计划导致队列无限增长
+     */
+    private void compactIfNeeded() {
+        if (queue.size() > entries.size() * 2 + 1_024) {
+            rebuildQueue();
+        }
+    }
+
+    private void rebuildQueue() {
+        queue.clear();
+        for (Entry entry : entries.values()) {
+            if (entry.fireAt != Long.MAX_VALUE) {
+                queue.add(entry);
+            }
+        }
+    }
+
+    private void safeReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // 数据库不可用时保留现有队列继续工作
+            log.warn("加载灌溉计划失败，继续使用现有计划: {}", e.getMessage());
+        }
+    }
+
+    private static Counter firingCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("irrigation.schedule.firings")
+                .description("定时灌溉计划的触发次数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 一次到期的触发
+     */
+    record Firing(CompiledSchedule schedule, long fireAtMillis) {
+    }
+
+    private static final class Entry {
+
+        private final CompiledSchedule schedule;
+        private final long fireAt;
+
+        private Entry(CompiledSchedule schedule, long fireAt) {
+            this.schedule = schedule;
+            this.fireAt = fireAt;
+        }
+
+        private long fireAt() {
+            return fireAt;
+        }
+    }
+}
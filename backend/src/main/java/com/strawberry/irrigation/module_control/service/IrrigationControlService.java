@@ -0,0 +1,38 @@
+package com.strawberry.irrigation.module_control.service;
+
+import com.strawberry.irrigation.module_control.dto.CommandAcceptedResponse;
+import com.strawberry.irrigation.module_control.dto.ManualIrrigationRequest;
+import com.strawberry.irrigation.module_control.engine.CompiledRule;
+import com.strawberry.irrigation.module_control.schedule.CompiledSchedule;
+
+/**
+ * 灌溉控制服务接口
+ * 定义水泵控制与自动规则动作执行的核心业务操作
+ */
+public interface IrrigationControlService {
+
+    /**
+     * 执行自动规则触发的动作（异步执行，不阻塞采集线程）
+     * @param rule          触发的规则
+     * @param observedValue 触发时的读数值
+     */
+    void executeRuleAction(CompiledRule rule, double observedValue);
+
+    /**
+     * 执行定时计划触发的开泵（异步执行，不阻塞调度线程）
+     * @param schedule     触发的计划
+     * @param fireAtMillis 本次计划触发时间，与计划ID 一起构成指令ID，重复触发会被去重
+     */
+    void executeScheduledAction(CompiledSchedule schedule, long fireAtMillis);
+
+    /**
+     * 手动控制水泵：指令持久排队后立即返回，下发结果写入灌溉日志
+     * 农户只能控制自己名下的执行器，管理员可控制任意执行器
+     * @param userId         当前用户ID
+     * @param request        指令
+     * @param idempotencyKey 幂等键（可选），同一用户对同一执行器使用同一键重复提交时，
+     *                       在指令处理期间及完成后的去重窗口内会被忽略
+     * @return 指令ID
+     */
+    CommandAcceptedResponse manualControl(Long userId, ManualIrrigationRequest request, String idempotencyKey);
+}
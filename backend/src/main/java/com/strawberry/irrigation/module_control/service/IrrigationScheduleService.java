@@ -0,0 +1,33 @@
+package com.strawberry.irrigation.module_control.service;
+
+import com.strawberry.irrigation.module_control.dto.IrrigationScheduleRequest;
+import com.strawberry.irrigation.module_control.dto.IrrigationScheduleResponse;
+
+import java.util.List;
+
+/**
+ * 定时灌溉计划服务接口
+ * 农户只能为自己名下的执行器创建计划、只能修改自己的计划，管理员不受限制
+ */
+public interface IrrigationScheduleService {
+
+    /**
+     * 创建计划，保存后立即加入调度队列
+     */
+    IrrigationScheduleResponse createSchedule(Long userId, IrrigationScheduleRequest request);
+
+    /**
+     * 修改计划，调度队列中只替换该计划
+     */
+    IrrigationScheduleResponse updateSchedule(Long userId, Long scheduleId, IrrigationScheduleRequest request);
+
+    /**
+     * 删除计划
+     */
+    void deleteSchedule(Long userId, Long scheduleId);
+
+    /**
+     * 查询当前用户创建的计划
+     */
+    List<IrrigationScheduleResponse> getSchedules(Long userId);
+}
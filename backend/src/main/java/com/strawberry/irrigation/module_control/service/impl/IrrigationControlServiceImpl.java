@@ -0,0 +1,119 @@
+package com.strawberry.irrigation.module_control.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_control.config.ControlExecutorConfig;
+import com.strawberry.irrigation.module_control.dispatch.IrrigationCommandDispatcher;
+import com.strawberry.irrigation.module_control.dispatch.PumpCommand;
+import com.strawberry.irrigation.module_control.dto.CommandAcceptedResponse;
+import com.strawberry.irrigation.module_control.dto.ManualIrrigationRequest;
+import com.strawberry.irrigation.module_control.engine.CompiledRule;
+import com.strawberry.irrigation.module_control.schedule.CompiledSchedule;
+import com.strawberry.irrigation.module_control.service.IrrigationControlService;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import com.strawberry.irrigation.module_user.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+/**
+ * 灌溉控制服务实现类
+ * 指令统一交给 IrrigationCommandDispatcher：写入指令日志后即返回，MQTT 下发、确认、重试与灌溉日志均在后台完成。
+ * 规则动作与定时计划在指令执行器中提交（见 ControlExecutorConfig），避免指令日志刷盘阻塞采集线程与调度线程。
+ */
+@Slf4j
+@Service
+public class IrrigationControlServiceImpl implements IrrigationControlService {
+
+    private static final Pattern IDEMPOTENCY_KEY = Pattern.compile("^[A-Za-z0-9_-]{1,64}$");
+    private static final String DEVICE_TYPE_ACTUATOR = "ACTUATOR";
+
+    private final IrrigationCommandDispatcher commandDispatcher;
+    private final DeviceRegistry deviceRegistry;
+    private final UserService userService;
+
+    private final Executor actionExecutor;
+
+    public IrrigationControlServiceImpl(IrrigationCommandDispatcher commandDispatcher,
+                                        DeviceRegistry deviceRegistry,
+                                        UserService userService,
+                                        @Qualifier(ControlExecutorConfig.ACTION_EXECUTOR) Executor actionExecutor) {
+        this.commandDispatcher = commandDispatcher;
+        this.deviceRegistry = deviceRegistry;
+        this.userService = userService;
+        this.actionExecutor = actionExecutor;
+    }
+
+    @Override
+    public void executeRuleAction(CompiledRule rule, double observedValue) {
+        log.info("规则 [{}] 触发：{} {} {}（当前值 {}），执行器 {} {}",
+                rule.getName(), rule.getParameter(), rule.getOperator().getSymbol(), rule.getThreshold(),
+                observedValue, rule.getActuatorDeviceId(), rule.getPumpCommand());
+        boolean pumpOn = SystemConstants.PUMP_ON.equals(rule.getPumpCommand());
+        PumpCommand command = new PumpCommand(UUID.randomUUID().toString(), rule.getActuatorDeviceId(),
+                rule.getPumpCommand(), pumpOn ? rule.getDurationSeconds() : 0, SystemConstants.TRIGGER_TYPE_AUTO,
+                String.valueOf(rule.getRuleId()), System.currentTimeMillis());
+        actionExecutor.execute(() -> {
+            try {
+                commandDispatcher.submit(command);
+            } catch (IOException e) {
+                log.error("规则 [{}] 的指令排队失败: {}", rule.getName(), e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void executeScheduledAction(CompiledSchedule schedule, long fireAtMillis) {
+        log.info("灌溉计划 [{}] 触发：执行器 {} 开泵 {} 秒",
+                schedule.name(), schedule.actuatorDeviceId(), schedule.durationSeconds());
+        PumpCommand command = new PumpCommand("schedule-" + schedule.scheduleId() + "-" + fireAtMillis,
+                schedule.actuatorDeviceId(), SystemConstants.PUMP_ON, schedule.durationSeconds(),
+                SystemConstants.TRIGGER_TYPE_SCHEDULE, String.valueOf(schedule.scheduleId()), System.currentTimeMillis());
+        actionExecutor.execute(() -> {
+            try {
+                commandDispatcher.submit(command);
+            } catch (IOException e) {
+                log.error("灌溉计划 [{}] 的指令排队失败: {}", schedule.name(), e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public CommandAcceptedResponse manualControl(Long userId, ManualIrrigationRequest request, String idempotencyKey) {
+        if (StringUtils.hasText(idempotencyKey) && !IDEMPOTENCY_KEY.matcher(idempotencyKey).matches()) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "幂等键只能包含字母、数字、下划线和连字符，最长64位");
+        }
+        RegisteredDevice actuator = deviceRegistry.get(request.getActuatorDeviceId());
+        if (actuator == null || !DEVICE_TYPE_ACTUATOR.equals(actuator.type())) {
+            throw new BusinessException(HttpStatus.NOT_FOUND.value(), "执行器设备不存在");
+        }
+        UserResponse user = userService.getUserById(userId);
+        if (!SystemConstants.USER_TYPE_ADMIN.equals(user.getUserType()) && !userId.equals(actuator.ownerId())) {
+            throw new BusinessException(HttpStatus.FORBIDDEN.value(), "无权控制该设备");
+        }
+
+        // 幂等键只在同一用户对同一执行器的请求之间生效，不同用户使用相同的键互不影响
+        String commandId = StringUtils.hasText(idempotencyKey)
+                ? "manual-" + userId + "-" + actuator.id() + "-" + idempotencyKey
+                : UUID.randomUUID().toString();
+        PumpCommand command = new PumpCommand(commandId, actuator.id(), request.getCommand(),
+                request.getDurationSeconds() != null ? request.getDurationSeconds() : 0,
+                SystemConstants.TRIGGER_TYPE_MANUAL, String.valueOf(userId), System.currentTimeMillis());
+        try {
+            boolean accepted = commandDispatcher.submit(command);
+            return new CommandAcceptedResponse(commandId, !accepted);
+        } catch (IOException e) {
+            log.error("手动指令排队失败，执行器 {}: {}", actuator.id(), e.getMessage());
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE.value(), "指令排队失败，请稍后重试");
+        }
+    }
+}
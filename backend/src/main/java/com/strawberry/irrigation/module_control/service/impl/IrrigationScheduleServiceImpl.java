@@ -0,0 +1,156 @@
+package com.strawberry.irrigation.module_control.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_control.dao.IrrigationScheduleMapper;
+import com.strawberry.irrigation.module_control.dto.IrrigationScheduleRequest;
+import com.strawberry.irrigation.module_control.dto.IrrigationScheduleResponse;
+import com.strawberry.irrigation.module_control.entity.IrrigationSchedule;
+import com.strawberry.irrigation.module_control.schedule.CompiledSchedule;
+import com.strawberry.irrigation.module_control.schedule.IrrigationScheduler;
+import com.strawberry.irrigation.module_control.service.IrrigationScheduleService;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import com.strawberry.irrigation.module_user.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 定时灌溉计划服务实现类
+ * 写库成功后直接增量更新 IrrigationScheduler 的队列，不依赖轮询计划表
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IrrigationScheduleServiceImpl implements IrrigationScheduleService {
+
+    private static final String DEVICE_TYPE_ACTUATOR = "ACTUATOR";
+
+    private final IrrigationScheduleMapper scheduleMapper;
+    private final IrrigationScheduler scheduler;
+    private final DeviceRegistry deviceRegistry;
+    private final UserService userService;
+
+    @Override
+    public IrrigationScheduleResponse createSchedule(Long userId, IrrigationScheduleRequest request) {
+        boolean admin = isAdmin(userId);
+        checkActuator(userId, admin, request.getActuatorDeviceId());
+
+        IrrigationSchedule schedule = new IrrigationSchedule();
+        apply(schedule, request);
+        schedule.setCreatedBy(userId);
+        scheduleMapper.insert(schedule);
+        log.info("灌溉计划创建成功，ID: {}, 执行器: {}", schedule.getId(), schedule.getActuatorDeviceId());
+
+        return sync(schedule);
+    }
+
+    @Override
+    public IrrigationScheduleResponse updateSchedule(Long userId, Long scheduleId, IrrigationScheduleRequest request) {
+        boolean admin = isAdmin(userId);
+        IrrigationSchedule schedule = loadOwned(userId, admin, scheduleId);
+        if (!request.getActuatorDeviceId().equals(schedule.getActuatorDeviceId())) {
+            checkActuator(userId, admin, request.getActuatorDeviceId());
+        }
+
+        apply(schedule, request);
+        scheduleMapper.updateById(schedule);
+        log.info("灌溉计划更新成功，ID: {}", scheduleId);
+
+        return sync(schedule);
+    }
+
+    @Override
+    public void deleteSchedule(Long userId, Long scheduleId) {
+        loadOwned(userId, isAdmin(userId), scheduleId);
+        scheduleMapper.deleteById(scheduleId);
+        scheduler.cancel(scheduleId);
+        log.info("灌溉计划删除成功，ID: {}", scheduleId);
+    }
+
+    @Override
+    public List<IrrigationScheduleResponse> getSchedules(Long userId) {
+        QueryWrapper<IrrigationSchedule> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("created_by", userId).orderByAsc("id");
+        return scheduleMapper.selectList(queryWrapper).stream()
+                .map(schedule -> new IrrigationScheduleResponse(schedule, nextFireTime(schedule)))
+                .toList();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void apply(IrrigationSchedule schedule, IrrigationScheduleRequest request) {
+        String timeZone = StringUtils.hasText(request.getTimeZone())
+                ? request.getTimeZone().trim()
+                : SystemConstants.SCHEDULE_DEFAULT_TIME_ZONE;
+        try {
+            ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "无效的时区: " + timeZone);
+        }
+        schedule.setName(request.getName().trim());
+        schedule.setActuatorDeviceId(request.getActuatorDeviceId());
+        schedule.setStartTime(request.getStartTime().withSecond(0).withNano(0));
+        schedule.setDurationSeconds(request.getDurationSeconds());
+        schedule.setDaysOfWeek(CompiledSchedule.maskOf(request.getDaysOfWeek()));
+        schedule.setTimeZone(timeZone);
+        schedule.setIsEnabled(request.getEnabled() == null || request.getEnabled());
+    }
+
+    /**
+     * 把计划的最新状态同步到调度队列
+     */
+    private IrrigationScheduleResponse sync(IrrigationSchedule schedule) {
+        if (Boolean.TRUE.equals(schedule.getIsEnabled())) {
+            scheduler.schedule(CompiledSchedule.of(schedule));
+        } else {
+            scheduler.cancel(schedule.getId());
+        }
+        return new IrrigationScheduleResponse(schedule, nextFireTime(schedule));
+    }
+
+    private LocalDateTime nextFireTime(IrrigationSchedule schedule) {
+        Long fireAt = scheduler.nextFireTime(schedule.getId());
+        if (fireAt == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(fireAt), ZoneId.of(schedule.getTimeZone()));
+    }
+
+    private IrrigationSchedule loadOwned(Long userId, boolean admin, Long scheduleId) {
+        IrrigationSchedule schedule = scheduleMapper.selectById(scheduleId);
+        if (schedule == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND.value(), "灌溉计划不存在");
+        }
+        if (!admin && !userId.equals(schedule.getCreatedBy())) {
+            throw new BusinessException(HttpStatus.FORBIDDEN.value(), "无权修改该计划");
+        }
+        return schedule;
+    }
+
+    private void checkActuator(Long userId, boolean admin, Long actuatorDeviceId) {
+        RegisteredDevice actuator = deviceRegistry.get(actuatorDeviceId);
+        if (actuator == null || !DEVICE_TYPE_ACTUATOR.equals(actuator.type())) {
+            throw new BusinessException(HttpStatus.NOT_FOUND.value(), "执行器设备不存在");
+        }
+        if (!admin && !userId.equals(actuator.ownerId())) {
+            throw new BusinessException(HttpStatus.FORBIDDEN.value(), "无权控制该设备");
+        }
+    }
+
+    private boolean isAdmin(Long userId) {
+        UserResponse user = userService.getUserById(userId);
+        return SystemConstants.USER_TYPE_ADMIN.equals(user.getUserType());
+    }
+}
@@ -0,0 +1,47 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 按位读取（高位在前），直接读取内存映射的文件缓冲，不复制
+ */
+final class BitInput {
+
+    private final ByteBuffer buffer;
+    private final int base;
+    private long bitPosition;
+
+    /**
+     * @param buffer 数据缓冲
+     * @param offset 起始字节位置（绝对位置）
+     */
+    BitInput(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.base = offset;
+    }
+
+    boolean readBit() {
+        int b = buffer.get(base + (int) (bitPosition >>> 3));
+        boolean bit = (b & (0x80 >>> (bitPosition & 7))) != 0;
+        bitPosition++;
+        return bit;
+    }
+
+    /**
+     * 读取 bits 位（bits ≤ 64），按无符号返回
+     */
+    long readBits(int bits) {
+        long value = 0;
+        int remaining = bits;
+        while (remaining > 0) {
+            int offset = (int) (bitPosition & 7);
+            int take = Math.min(8 - offset, remaining);
+            int b = buffer.get(base + (int) (bitPosition >>> 3)) & 0xFF;
+            int chunk = (b >>> (8 - offset - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            bitPosition += take;
+            remaining -= take;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,50 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import java.util.Arrays;
+
+/**
+ * 按位写入缓冲（高位在前）
+ */
+final class BitOutput {
+
+    private byte[] bytes;
+    private long bitCount;
+
+    BitOutput(int initialBytes) {
+        bytes = new byte[Math.max(16, initialBytes)];
+    }
+
+    void writeBit(boolean bit) {
+        ensure(1);
+        if (bit) {
+            bytes[(int) (bitCount >>> 3)] |= (byte) (0x80 >>> (bitCount & 7));
+        }
+        bitCount++;
+    }
+
+    /**
+     * 写入 value 的低 bits 位（bits ≤ 64）
+     */
+    void writeBits(long value, int bits) {
+        ensure(bits);
+        for (int i = bits - 1; i >= 0; ) {
+            int offset = (int) (bitCount & 7);
+            int take = Math.min(8 - offset, i + 1);
+            int chunk = (int) ((value >>> (i - take + 1)) & ((1 << take) - 1));
+            bytes[(int) (bitCount >>> 3)] |= (byte) (chunk << (8 - offset - take));
+            bitCount += take;
+            i -= take;
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, (int) ((bitCount + 7) >>> 3));
+    }
+
+    private void ensure(int bits) {
+        int needed = (int) ((bitCount + bits + 7) >>> 3);
+        if (needed > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length << 1));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.strawberry.irrigation.module_device.archive;
+
+/**
+ * 把按时间升序到达的原始读数按固定时间桶求平均后写入下游（与 SQL avg 一致，忽略缺失值）
+ * 桶起点按 Unix 纪元对齐，与 date_bin / time_bucket 在分钟、小时粒度上的分桶结果一致
+ */
+public final class BucketingSink implements ReadingSink {
+
+    private static final int COLUMNS = 4;
+
+    private final long bucketMillis;
+    private final ReadingSink downstream;
+
+    private long currentBucket = Long.MIN_VALUE;
+    private final double[] sums = new double[COLUMNS];
+    private final int[] counts = new int[COLUMNS];
+
+    public BucketingSink(long bucketMillis, ReadingSink downstream) {
+        this.bucketMillis = bucketMillis;
+        this.downstream = downstream;
+    }
+
+    @Override
+    public void add(long epochMillis, double humidity, double temperature, double light, double battery) {
+        long bucket = Math.floorDiv(epochMillis, bucketMillis) * bucketMillis;
+        if (bucket != currentBucket) {
+            flush();
+            currentBucket = bucket;
+        }
+        accumulate(0, humidity);
+        accumulate(1, temperature);
+        accumulate(2, light);
+        accumulate(3, battery);
+    }
+
+    /**
+     * 输出最后一个未完成的桶（读取结束后必须调用）
+     */
+    public void flush() {
+        if (currentBucket == Long.MIN_VALUE) {
+            return;
+        }
+        downstream.add(currentBucket, average(0), average(1), average(2), average(3));
+        for (int c = 0; c < COLUMNS; c++) {
+            sums[c] = 0;
+            counts[c] = 0;
+        }
+        currentBucket = Long.MIN_VALUE;
+    }
+
+    private void accumulate(int column, double value) {
+        if (!Double.isNaN(value)) {
+            sums[column] += value;
+            counts[column]++;
+        }
+    }
+
+    private double average(int column) {
+        return counts[column] > 0 ? sums[column] / counts[column] : Double.NaN;
+    }
+}
@@ -0,0 +1,10 @@
+package com.strawberry.irrigation.module_device.archive;
+
+/**
+ * 归档读数的接收方（签名与 SensorSeries#add 一致，可直接传方法引用）
+ */
+@FunctionalInterface
+public interface ReadingSink {
+
+    void add(long epochMillis, double humidity, double temperature, double light, double battery);
+}
@@ -0,0 +1,211 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import com.strawberry.irrigation.module_device.config.ArchiveProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * 冷数据归档文件存储（app.device.archive.enabled=true 时启用）
+ * <p>
+ * 每台设备每天一个文件：{directory}/{设备ID}/{yyyyMMdd}.sda，内容为 SeriesCodec 编码。
+ * 写入先落临时文件并 fsync，再原子改名，读者永远看不到半个文件；读取时内存映射文件直接解码。
+ * 水位线文件 WATERMARK 记录"早于该日期的数据已全部归档"，历史查询据此决定哪段时间读归档。
+ * 多节点共享同一归档目录时只有主节点推进水位线，其他节点每次读取水位线前比较文件修改时间，变化后重新加载。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.device.archive", name = "enabled", havingValue = "true")
+public class SensorArchiveStore {
+
+    private static final String EXTENSION = ".sda";
+    private static final String WATERMARK_FILE = "WATERMARK";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Path root;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    /**
+     * 水位线（毫秒时间戳，不含），没有归档数据时为 Long.MIN_VALUE
+     */
+    private volatile long watermarkMillis;
+    private volatile LocalDate watermarkDay;
+
+    /**
+     * 上次加载时 WATERMARK 文件的修改时间，文件不存在时为 null
+     */
+    private volatile FileTime watermarkModified;
+
+    public SensorArchiveStore(ArchiveProperties properties) throws IOException {
+        this.root = Paths.get(properties.getDirectory()).toAbsolutePath();
+        Files.createDirectories(root);
+        reloadWatermark();
+    }
+
+    /**
+     * 早于该时间点的数据从归档读取
+     */
+    public long getWatermarkMillis() {
+        refreshWatermark();
+        return watermarkMillis;
+    }
+
+    /**
+     * 已归档到的日期（不含），没有归档数据时返回 null
+     */
+    public LocalDate getWatermarkDay() {
+        refreshWatermark();
+        return watermarkDay;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 写入一台设备一天的归档文件（覆盖已有文件）
+     */
+    public void write(long deviceId, LocalDate day, byte[] encoded) {
+        Path target = file(deviceId, day);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(encoded);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            move(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入归档文件失败: " + target, e);
+        }
+    }
+
+    /**
+     * 读取设备在 [fromMillis, toMillis) 内的归档读数，按时间升序输出
+     * @return 输出的行数
+     */
+    public int read(long deviceId, long fromMillis, long toMillis, ReadingSink sink) {
+        if (fromMillis >= toMillis) {
+            return 0;
+        }
+        LocalDate day = Instant.ofEpochMilli(fromMillis).atZone(zone).toLocalDate();
+        LocalDate lastDay = Instant.ofEpochMilli(toMillis - 1).atZone(zone).toLocalDate();
+        int rows = 0;
+        for (; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            Path path = file(deviceId, day);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                rows += SeriesCodec.decode(buffer, fromMillis, toMillis, sink);
+            } catch (NoSuchFileException e) {
+                // 当天没有数据
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取归档文件失败: " + path, e);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 推进水位线：day 之前（不含）的数据已全部归档
+     */
+    public void advanceWatermark(LocalDate day) {
+        Path target = root.resolve(WATERMARK_FILE);
+        Path temp = root.resolve(WATERMARK_FILE + ".tmp");
+        try {
+            Files.writeString(temp, day.format(DAY_FORMAT), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            move(temp, target);
+            watermarkModified = Files.getLastModifiedTime(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("更新归档水位线失败", e);
+        }
+        setWatermark(day);
+    }
+
+    /**
+     * 归档目录占用的字节数（用于监控压缩效果）
+     */
+    public long sizeOnDisk() {
+        try (var paths = Files.walk(root)) {
+            return paths.filter(path -> path.toString().endsWith(EXTENSION))
+                    .mapToLong(path -> path.toFile().length())
+                    .sum();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private Path file(long deviceId, LocalDate day) {
+        return root.resolve(Long.toString(deviceId)).resolve(day.format(DAY_FORMAT) + EXTENSION);
+    }
+
+    /**
+     * WATERMARK 文件的修改时间与上次加载时不同（其他节点推进了水位线）时重新加载；
+     * 读取失败时沿用当前水位线，下次查询再试
+     */
+    private void refreshWatermark() {
+        Path path = root.resolve(WATERMARK_FILE);
+        try {
+            FileTime modified = Files.exists(path) ? Files.getLastModifiedTime(path) : null;
+            if (!Objects.equals(modified, watermarkModified)) {
+                reloadWatermark();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("重新加载归档水位线失败，沿用 {}: {}", watermarkDay, e.getMessage());
+        }
+    }
+
+    private synchronized void reloadWatermark() throws IOException {
+        Path path = root.resolve(WATERMARK_FILE);
+        if (!Files.exists(path)) {
+            watermarkModified = null;
+            setWatermark(null);
+            return;
+        }
+        // 先取修改时间再读内容：两者之间若被改写，下次比较时仍会发现变化
+        FileTime modified = Files.getLastModifiedTime(path);
+        LocalDate day = LocalDate.parse(Files.readString(path, StandardCharsets.UTF_8).trim(), DAY_FORMAT);
+        setWatermark(day);
+        watermarkModified = modified;
+    }
+
+    private void setWatermark(LocalDate day) {
+        watermarkDay = day;
+        watermarkMillis = day != null ? day.atStartOfDay(zone).toInstant().toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.config.ArchiveProperties;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.history.SensorSeries;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 冷数据归档任务（app.device.archive.enabled=true 时启用）
+ * <p>
+ * 按天推进：把早于 age-days 的一天数据逐设备读出、编码为归档文件，全部写完后推进水位线，
+ * 之后逐设备删除数据库中的对应行。删除与写归档在同一事务中：DELETE ... RETURNING 返回实际删除的行，
+ * 其中归档读取之后才写入的行（补传、采集缓冲回放）先合并进归档文件，再提交删除，写归档失败则删除回滚。
+ * 水位线之前仍留在数据库中的行（推进水位线之后才到达的迟到数据）在下次运行时按同样方式合并后删除。
+ * 任何时刻一行数据至少在归档或数据库其中之一，不会因删除而丢失。
+ * <p>
+ * 集群部署时只在主节点（ClusterMembership#isLeader）上执行，失去主节点身份后在当前这一天处理完即停止；
+ * 归档目录需为各节点共享的存储。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.device.archive", name = "enabled", havingValue = "true")
+public class SensorArchiver {
+
+    /**
+     * 10 秒上报间隔下单台设备一天的读数条数
+     */
+    private static final int ROWS_PER_DAY = 8_640;
+
+    private final SensorDataMapper sensorDataMapper;
+    private final SensorArchiveStore archiveStore;
+    private final ArchiveProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ClusterMembership clusterMembership;
+
+    public SensorArchiver(SensorDataMapper sensorDataMapper, SensorArchiveStore archiveStore,
+                          ArchiveProperties properties, PlatformTransactionManager transactionManager,
+                          ClusterMembership clusterMembership) {
+        this.sensorDataMapper = sensorDataMapper;
+        this.archiveStore = archiveStore;
+        this.properties = properties;
+        this.clusterMembership = clusterMembership;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.device.archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (!clusterMembership.isLeader()) {
+            log.debug("本节点不是主节点，跳过传感器数据归档");
+            return;
+        }
+        try {
+            archiveDueDays();
+        } catch (RuntimeException e) {
+            log.error("传感器数据归档失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 归档到期的数据，返回本次处理的天数（含合并迟到数据的天数）
+     */
+    public int archiveDueDays() {
+        LocalDate cutoff = LocalDate.now(archiveStore.getZone()).minusDays(properties.getAgeDays());
+        LocalDate day = archiveStore.getWatermarkDay();
+        int processed = 0;
+        if (day == null) {
+            LocalDateTime earliest = sensorDataMapper.selectEarliestTime();
+            if (earliest == null) {
+                return 0;
+            }
+            day = earliest.toLocalDate();
+        } else if (properties.isDeleteArchivedRows()) {
+            // 水位线之前仍有行：上次删除中断，或推进水位线之后才到达的迟到数据
+            LocalDateTime earliest;
+            while (processed < properties.getMaxDaysPerRun() && clusterMembership.isLeader()
+                    && (earliest = sensorDataMapper.selectEarliestTime()) != null
+                    && earliest.toLocalDate().isBefore(day)) {
+                mergeLateRows(earliest.toLocalDate());
+                processed++;
+            }
+        }
+
+        while (day.isBefore(cutoff) && processed < properties.getMaxDaysPerRun() && clusterMembership.isLeader()) {
+            archiveDay(day);
+            day = day.plusDays(1);
+            processed++;
+        }
+        return processed;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void archiveDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        long start = System.currentTimeMillis();
+
+        List<Long> deviceIds = sensorDataMapper.selectDeviceIds(from, to);
+        long rows = 0;
+        long bytes = 0;
+        for (Long deviceId : deviceIds) {
+            SensorSeries series = new SensorSeries(ROWS_PER_DAY);
+            readOnlyTransaction.executeWithoutResult(
+                    status -> sensorDataMapper.selectRange(deviceId, from, to, series));
+            if (series.size() == 0) {
+                continue;
+            }
+            byte[] encoded = SeriesCodec.encode(deviceId, series);
+            archiveStore.write(deviceId, day, encoded);
+            rows += series.size();
+            bytes += encoded.length;
+        }
+        archiveStore.advanceWatermark(day.plusDays(1));
+
+        long deleted = 0;
+        if (properties.isDeleteArchivedRows()) {
+            for (Long deviceId : deviceIds) {
+                deleted += deleteArchived(deviceId, day);
+            }
+        }
+        log.info("已归档 {}：{} 台设备，{} 行，压缩后 {} 字节（{} 字节/行），删除 {} 行，耗时 {}ms",
+                day, deviceIds.size(), rows, bytes, rows > 0 ? String.format("%.2f", (double) bytes / rows) : "-",
+                deleted, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 已归档日期中仍留在数据库的行：逐设备合并进归档后删除
+     */
+    private void mergeLateRows(LocalDate day) {
+        List<Long> deviceIds = sensorDataMapper.selectDeviceIds(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        long deleted = 0;
+        for (Long deviceId : deviceIds) {
+            deleted += deleteArchived(deviceId, day);
+        }
+        log.info("已将 {} 的 {} 行迟到数据合并进归档（{} 台设备）", day, deleted, deviceIds.size());
+    }
+
+    /**
+     * 在一个事务中删除设备当天的行：被删除的行若有归档中没有的，先合并写入归档文件再提交
+     * @return 删除的行数
+     */
+    private int deleteArchived(long deviceId, LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        Integer deleted = writeTransaction.execute(status -> {
+            SensorSeries removed = new SensorSeries(ROWS_PER_DAY);
+            sensorDataMapper.deleteRangeReturning(deviceId, from, to, removed);
+            if (removed.size() == 0) {
+                return 0;
+            }
+            SensorSeries archived = new SensorSeries(ROWS_PER_DAY);
+            archiveStore.read(deviceId, millis(from), millis(to), archived::add);
+            SensorSeries merged = merge(archived, removed);
+            if (merged.size() > archived.size()) {
+                archiveStore.write(deviceId, day, SeriesCodec.encode(deviceId, merged));
+            }
+            return removed.size();
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private long millis(LocalDateTime time) {
+        return time.atZone(archiveStore.getZone()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 合并两个按时间升序的序列，时间戳相同的行以已归档的为准
+     */
+    private static SensorSeries merge(SensorSeries archived, SensorSeries removed) {
+        SensorSeries merged = new SensorSeries(archived.size() + removed.size());
+        int i = 0;
+        int j = 0;
+        while (i < archived.size() || j < removed.size()) {
+            boolean takeArchived = j == removed.size()
+                    || (i < archived.size() && archived.time(i) <= removed.time(j));
+            if (takeArchived) {
+                if (j < removed.size() && archived.time(i) == removed.time(j)) {
+                    j++;
+                }
+                copy(archived, i++, merged);
+            } else {
+                copy(removed, j++, merged);
+            }
+        }
+        return merged;
+    }
+
+    private static void copy(SensorSeries source, int index, SensorSeries target) {
+        target.add(source.time(index),
+                source.value(SensorSeries.HUMIDITY, index),
+                source.value(SensorSeries.TEMPERATURE, index),
+                source.value(SensorSeries.LIGHT, index),
+                source.value(SensorSeries.BATTERY, index));
+    }
+}
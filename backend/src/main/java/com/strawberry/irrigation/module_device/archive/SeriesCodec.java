@@ -0,0 +1,333 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import com.strawberry.irrigation.module_device.history.SensorSeries;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 单设备单日读数的列式压缩编码
+ * <p>
+ * 文件结构：魔数、版本、设备ID、行数，随后是时间列和 4 个测量列，每列带字节长度，可独立解码。
+ * 时间列：首个时间戳原样存放，其后存"差值的差值"（delta-of-delta），上报间隔稳定时每行只占 1 位。
+ * 测量列按内容选择编码：
+ * DECIMAL —— 所有值都能用不超过 4 位小数精确表示（传感器读数通常如此）时，存放放大为整数后的相邻差值；
+ * XOR —— 否则使用 Gorilla 浮点编码：与前值异或，只存有效位，连续相同值每行 1 位。
+ * 两种编码都是无损的（NaN 只能走 XOR，按原始位编码）。
+ */
+public final class SeriesCodec {
+
+    static final int MAGIC = 0x53444131;
+    static final byte VERSION = 1;
+
+    static final byte ENCODING_XOR = 0;
+    static final byte ENCODING_DECIMAL = 1;
+
+    private static final int MAX_SCALE = 4;
+    private static final double[] POW10 = {1, 10, 100, 1_000, 10_000};
+    private static final double MAX_EXACT = 1L << 53;
+
+    private SeriesCodec() {
+    }
+
+    /**
+     * 编码整个序列
+     * @param deviceId 设备ID
+     * @param series   按时间升序的读数
+     * @return 编码后的字节
+     */
+    public static byte[] encode(long deviceId, SensorSeries series) {
+        int count = series.size();
+        byte[] timeColumn = encodeTimes(series, count);
+        byte[][] valueColumns = new byte[SensorSeries.COLUMN_COUNT][];
+        byte[] encodings = new byte[SensorSeries.COLUMN_COUNT];
+        byte[] scales = new byte[SensorSeries.COLUMN_COUNT];
+        int total = 4 + 1 + 8 + 4 + 4 + timeColumn.length;
+        for (int c = 0; c < SensorSeries.COLUMN_COUNT; c++) {
+            int scale = decimalScale(series, c, count);
+            if (scale >= 0) {
+                encodings[c] = ENCODING_DECIMAL;
+                scales[c] = (byte) scale;
+                valueColumns[c] = encodeDecimal(series, c, count, POW10[scale]);
+            } else {
+                encodings[c] = ENCODING_XOR;
+                valueColumns[c] = encodeXor(series, c, count);
+            }
+            total += 1 + 1 + 4 + valueColumns[c].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(total);
+        out.putInt(MAGIC).put(VERSION).putLong(deviceId).putInt(count);
+        out.putInt(timeColumn.length).put(timeColumn);
+        for (int c = 0; c < SensorSeries.COLUMN_COUNT; c++) {
+            out.put(encodings[c]).put(scales[c]).putInt(valueColumns[c].length).put(valueColumns[c]);
+        }
+        return out.array();
+    }
+
+    /**
+     * 解码并输出 [fromMillis, toMillis) 内的读数
+     * @param buffer 编码数据（通常为内存映射的文件）
+     * @param sink   接收方
+     * @return 输出的行数
+     */
+    public static int decode(ByteBuffer buffer, long fromMillis, long toMillis, ReadingSink sink) {
+        int position = buffer.position();
+        if (buffer.getInt(position) != MAGIC || buffer.get(position + 4) != VERSION) {
+            throw new IllegalArgumentException("不是有效的归档数据");
+        }
+        int count = buffer.getInt(position + 13);
+        position += 17;
+
+        int timeLength = buffer.getInt(position);
+        long[] times = decodeTimes(buffer, position + 4, count);
+        position += 4 + timeLength;
+        // 时间范围外的行不解码测量列
+        int first = lowerBound(times, count, fromMillis);
+        int last = lowerBound(times, count, toMillis);
+        if (first >= last) {
+            return 0;
+        }
+
+        double[][] columns = new double[SensorSeries.COLUMN_COUNT][];
+        for (int c = 0; c < SensorSeries.COLUMN_COUNT; c++) {
+            byte encoding = buffer.get(position);
+            int scale = buffer.get(position + 1);
+            int length = buffer.getInt(position + 2);
+            columns[c] = encoding == ENCODING_DECIMAL
+                    ? decodeDecimal(buffer, position + 6, last, POW10[scale])
+                    : decodeXor(buffer, position + 6, last);
+            position += 6 + length;
+        }
+        for (int i = first; i < last; i++) {
+            sink.add(times[i], columns[0][i], columns[1][i], columns[2][i], columns[3][i]);
+        }
+        return last - first;
+    }
+
+    // ========== 时间列 ==========
+
+    private static byte[] encodeTimes(SensorSeries series, int count) {
+        BitOutput out = new BitOutput(count / 4 + 16);
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < count; i++) {
+            long time = series.time(i);
+            if (i == 0) {
+                out.writeBits(time, 64);
+            } else {
+                long delta = time - previous;
+                long zigzag = zigzag(delta - previousDelta);
+                if (zigzag == 0) {
+                    out.writeBit(false);
+                } else if (zigzag < (1L << 7)) {
+                    out.writeBits(0b10, 2);
+                    out.writeBits(zigzag, 7);
+                } else if (zigzag < (1L << 9)) {
+                    out.writeBits(0b110, 3);
+                    out.writeBits(zigzag, 9);
+                } else if (zigzag < (1L << 12)) {
+                    out.writeBits(0b1110, 4);
+                    out.writeBits(zigzag, 12);
+                } else {
+                    out.writeBits(0b1111, 4);
+                    out.writeBits(zigzag, 64);
+                }
+                previousDelta = delta;
+            }
+            previous = time;
+        }
+        return out.toByteArray();
+    }
+
+    private static long[] decodeTimes(ByteBuffer buffer, int offset, int count) {
+        long[] times = new long[count];
+        if (count == 0) {
+            return times;
+        }
+        BitInput in = new BitInput(buffer, offset);
+        times[0] = in.readBits(64);
+        long delta = 0;
+        for (int i = 1; i < count; i++) {
+            long zigzag;
+            if (!in.readBit()) {
+                zigzag = 0;
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(7);
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(9);
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(12);
+            } else {
+                zigzag = in.readBits(64);
+            }
+            delta += unzigzag(zigzag);
+            times[i] = times[i - 1] + delta;
+        }
+        return times;
+    }
+
+    // ========== 十进制列 ==========
+
+    /**
+     * 能无损表示该列的最小小数位数，不能时返回 -1
+     */
+    private static int decimalScale(SensorSeries series, int column, int count) {
+        for (int scale = 0; scale <= MAX_SCALE; scale++) {
+            if (fitsScale(series, column, count, POW10[scale])) {
+                return scale;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean fitsScale(SensorSeries series, int column, int count, double factor) {
+        for (int i = 0; i < count; i++) {
+            double value = series.value(column, i);
+            double scaled = value * factor;
+            if (Double.isNaN(value) || Math.abs(scaled) >= MAX_EXACT
+                    || Math.round(scaled) / factor != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encodeDecimal(SensorSeries series, int column, int count, double factor) {
+        BitOutput out = new BitOutput(count / 2 + 16);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long scaled = Math.round(series.value(column, i) * factor);
+            if (i == 0) {
+                out.writeBits(scaled, 64);
+            } else {
+                long zigzag = zigzag(scaled - previous);
+                if (zigzag == 0) {
+                    out.writeBit(false);
+                } else if (zigzag < (1L << 6)) {
+                    out.writeBits(0b10, 2);
+                    out.writeBits(zigzag, 6);
+                } else if (zigzag < (1L << 13)) {
+                    out.writeBits(0b110, 3);
+                    out.writeBits(zigzag, 13);
+                } else {
+                    out.writeBits(0b111, 3);
+                    out.writeBits(zigzag, 64);
+                }
+            }
+            previous = scaled;
+        }
+        return out.toByteArray();
+    }
+
+    private static double[] decodeDecimal(ByteBuffer buffer, int offset, int count, double factor) {
+        double[] values = new double[count];
+        if (count == 0) {
+            return values;
+        }
+        BitInput in = new BitInput(buffer, offset);
+        long scaled = in.readBits(64);
+        values[0] = scaled / factor;
+        for (int i = 1; i < count; i++) {
+            long zigzag;
+            if (!in.readBit()) {
+                zigzag = 0;
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(6);
+            } else if (!in.readBit()) {
+                zigzag = in.readBits(13);
+            } else {
+                zigzag = in.readBits(64);
+            }
+            scaled += unzigzag(zigzag);
+            values[i] = scaled / factor;
+        }
+        return values;
+    }
+
+    // ========== XOR（Gorilla）列 ==========
+
+    private static byte[] encodeXor(SensorSeries series, int column, int count) {
+        BitOutput out = new BitOutput(count + 16);
+        long previous = 0;
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 0; i < count; i++) {
+            long bits = Double.doubleToRawLongBits(series.value(column, i));
+            if (i == 0) {
+                out.writeBits(bits, 64);
+            } else {
+                long xor = bits ^ previous;
+                if (xor == 0) {
+                    out.writeBit(false);
+                } else {
+                    out.writeBit(true);
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                        // 有效位落在上一个窗口内，沿用窗口
+                        out.writeBit(false);
+                        out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                    } else {
+                        int meaningful = 64 - leading - trailing;
+                        out.writeBit(true);
+                        out.writeBits(leading, 5);
+                        out.writeBits(meaningful - 1, 6);
+                        out.writeBits(xor >>> trailing, meaningful);
+                        previousLeading = leading;
+                        previousTrailing = trailing;
+                    }
+                }
+            }
+            previous = bits;
+        }
+        return out.toByteArray();
+    }
+
+    private static double[] decodeXor(ByteBuffer buffer, int offset, int count) {
+        double[] values = new double[count];
+        if (count == 0) {
+            return values;
+        }
+        BitInput in = new BitInput(buffer, offset);
+        long bits = in.readBits(64);
+        values[0] = Double.longBitsToDouble(bits);
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int meaningful = (int) in.readBits(6) + 1;
+                    trailing = 64 - leading - meaningful;
+                }
+                bits ^= in.readBits(64 - leading - trailing) << trailing;
+            }
+            values[i] = Double.longBitsToDouble(bits);
+        }
+        return values;
+    }
+
+    // ========== 工具 ==========
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int lowerBound(long[] times, int count, long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,93 @@
+package com.strawberry.irrigation.module_device.cache;
+
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.service.SensorReadingListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 最新读数的 Redis 异步镜像（可选，app.device.latest.redis-mirror.enabled=true 时启用）
+ * 采集路径只记录"哪些设备有更新"，由定时任务合并后批量（pipeline）写入 Redis，
+ * 同一设备在一个周期内的多次更新只写最后一次，Redis 故障不影响采集与本地查询。
+ * 集群部署时每个节点都能看到全部设备的读数，只由负责采集该设备的节点写 Redis。
+ * Key 格式：device:latest:{deviceId}（Hash）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.device.latest.redis-mirror", name = "enabled", havingValue = "true")
+public class LatestReadingRedisMirror implements SensorReadingListener {
+
+    private static final String KEY_PREFIX = "device:latest:";
+
+    private final LatestReadingStore latestReadingStore;
+    private final StringRedisTemplate redisTemplate;
+    private final ClusterMembership clusterMembership;
+
+    private final Set<Long> dirtyDevices = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onReading(SensorReading reading) {
+        if (clusterMembership.ingests(reading.deviceId())) {
+            dirtyDevices.add(reading.deviceId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.device.latest.redis-mirror.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirtyDevices.isEmpty()) {
+            return;
+        }
+        Map<Long, SensorReading> snapshot = new HashMap<>();
+        Iterator<Long> iterator = dirtyDevices.iterator();
+        while (iterator.hasNext()) {
+            Long deviceId = iterator.next();
+            iterator.remove();
+            SensorReading reading = latestReadingStore.get(deviceId);
+            if (reading != null) {
+                snapshot.put(deviceId, reading);
+            }
+        }
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                snapshot.forEach((deviceId, reading) -> redis.hMSet(KEY_PREFIX + deviceId, toHash(reading)));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // 写入失败的设备重新标记，下个周期重试
+            dirtyDevices.addAll(snapshot.keySet());
+            log.warn("最新读数同步 Redis 失败，{} 台设备待重试: {}", snapshot.size(), e.getMessage());
+        }
+    }
+
+    private static Map<String, String> toHash(SensorReading reading) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put("time", String.valueOf(reading.epochMillis()));
+        putIfPresent(hash, "soilHumidity", reading.soilHumidity());
+        putIfPresent(hash, "temperature", reading.temperature());
+        putIfPresent(hash, "lightIntensity", reading.lightIntensity());
+        putIfPresent(hash, "batteryLevel", reading.batteryLevel());
+        return hash;
+    }
+
+    private static void putIfPresent(Map<String, String> hash, String field, double value) {
+        if (!Double.isNaN(value)) {
+            hash.put(field, String.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.strawberry.irrigation.module_device.cache;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 设备最新读数的本地内存存储
+ * <p>
+ * 按设备内部ID直接寻址：ID 的高位选页、低位选槽，每页是一个 long[]，每个槽位连续存放
+ * [版本号, 时间戳, 湿度, 温度, 光照, 电量] 六个 long（double 以原始位存放）。
+ * 写入与读取采用顺序锁（seqlock）：写者把版本号 CAS 为奇数后写字段、再发布为偶数；
+ * 读者读两次版本号，一致且为偶数即为完整快照，全程无锁、不阻塞写者。
+ * 页在首次写入对应 ID 段时才分配，目录扩容是唯一需要加锁的操作（只在出现新 ID 段时发生）。
+ */
+@Component
+public class LatestReadingStore {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int SLOT_WIDTH = 6;
+
+    private static final int VERSION = 0;
+    private static final int TIME = 1;
+    private static final int HUMIDITY = 2;
+    private static final int TEMPERATURE = 3;
+    private static final int LIGHT = 4;
+    private static final int BATTERY = 5;
+
+    /**
+     * 支持的最大设备ID（超出范围的设备不进入内存缓存，查询时回退到数据库）
+     */
+    private static final long MAX_DEVICE_ID = Integer.MAX_VALUE;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private volatile long[][] pages = new long[16][];
+
+    /**
+     * 写入设备最新读数，比现有读数更旧的数据会被忽略（乱序到达）
+     * @param reading 读数
+     * @return 是否更新了缓存
+     */
+    public boolean update(SensorReading reading) {
+        long deviceId = reading.deviceId();
+        if (deviceId < 0 || deviceId > MAX_DEVICE_ID) {
+            return false;
+        }
+        long[] page = pageForWrite(deviceId);
+        int base = ((int) deviceId & PAGE_MASK) * SLOT_WIDTH;
+
+        long version = lock(page, base);
+        long currentTime = (long) LONGS.getOpaque(page, base + TIME);
+        if (version != 0 && reading.epochMillis() < currentTime) {
+            LONGS.setRelease(page, base + VERSION, version);
+            return false;
+        }
+        LONGS.setOpaque(page, base + TIME, reading.epochMillis());
+        LONGS.setOpaque(page, base + HUMIDITY, Double.doubleToRawLongBits(reading.soilHumidity()));
+        LONGS.setOpaque(page, base + TEMPERATURE, Double.doubleToRawLongBits(reading.temperature()));
+        LONGS.setOpaque(page, base + LIGHT, Double.doubleToRawLongBits(reading.lightIntensity()));
+        LONGS.setOpaque(page, base + BATTERY, Double.doubleToRawLongBits(reading.batteryLevel()));
+        LONGS.setRelease(page, base + VERSION, version + 2);
+        return true;
+    }
+
+    /**
+     * 读取设备最新读数
+     * @param deviceId 设备内部ID
+     * @return 最新读数，缓存中没有时返回 null
+     */
+    public SensorReading get(long deviceId) {
+        if (deviceId < 0 || deviceId > MAX_DEVICE_ID) {
+            return null;
+        }
+        long[][] directory = pages;
+        int pageIndex = (int) (deviceId >>> PAGE_BITS);
+        if (pageIndex >= directory.length || directory[pageIndex] == null) {
+            return null;
+        }
+        long[] page = directory[pageIndex];
+        int base = ((int) deviceId & PAGE_MASK) * SLOT_WIDTH;
+
+        while (true) {
+            long before = (long) LONGS.getAcquire(page, base + VERSION);
+            if (before == 0) {
+                return null;
+            }
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long time = (long) LONGS.getOpaque(page, base + TIME);
+            long humidity = (long) LONGS.getOpaque(page, base + HUMIDITY);
+            long temperature = (long) LONGS.getOpaque(page, base + TEMPERATURE);
+            long light = (long) LONGS.getOpaque(page, base + LIGHT);
+            long battery = (long) LONGS.getOpaque(page, base + BATTERY);
+            VarHandle.loadLoadFence();
+            long after = (long) LONGS.getOpaque(page, base + VERSION);
+            if (before == after) {
+                return new SensorReading(deviceId, time,
+                        Double.longBitsToDouble(humidity),
+                        Double.longBitsToDouble(temperature),
+                        Double.longBitsToDouble(light),
+                        Double.longBitsToDouble(battery));
+            }
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 把槽位版本号从偶数 CAS 为奇数，返回加锁前的版本号
+     */
+    private static long lock(long[] page, int base) {
+        while (true) {
+            long version = (long) LONGS.getVolatile(page, base + VERSION);
+            if ((version & 1) == 0 && LONGS.compareAndSet(page, base + VERSION, version, version + 1)) {
+                return version;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private long[] pageForWrite(long deviceId) {
+        int pageIndex = (int) (deviceId >>> PAGE_BITS);
+        long[][] directory = pages;
+        if (pageIndex < directory.length && directory[pageIndex] != null) {
+            return directory[pageIndex];
+        }
+        return allocatePage(pageIndex);
+    }
+
+    private synchronized long[] allocatePage(int pageIndex) {
+        long[][] directory = pages;
+        if (pageIndex >= directory.length) {
+            int newLength = directory.length;
+            while (newLength <= pageIndex) {
+                newLength <<= 1;
+            }
+            long[][] grown = new long[newLength][];
+            System.arraycopy(directory, 0, grown, 0, directory.length);
+            directory = grown;
+        }
+        if (directory[pageIndex] == null) {
+            // 复制目录后再发布，读者要么看到旧目录要么看到完整的新目录
+            long[][] copy = directory == pages ? directory.clone() : directory;
+            copy[pageIndex] = new long[PAGE_SIZE * SLOT_WIDTH];
+            directory = copy;
+        }
+        pages = directory;
+        return directory[pageIndex];
+    }
+}
@@ -0,0 +1,44 @@
+package com.strawberry.irrigation.module_device.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 冷数据归档配置（绑定 app.device.archive.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.device.archive")
+public class ArchiveProperties {
+
+    /**
+     * 是否启用归档（启用后历史查询会自动读取归档文件）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 归档文件根目录，按 {设备ID}/{yyyyMMdd}.sda 存放；集群部署时必须是各节点共享的存储
+     */
+    private String directory = "data/archive";
+
+    /**
+     * 早于该天数的数据转入归档
+     */
+    private int ageDays = 30;
+
+    /**
+     * 单次归档任务最多处理的天数（首次启用时逐步追平历史数据）
+     */
+    private int maxDaysPerRun = 7;
+
+    /**
+     * 归档后是否从 sensor_data 删除对应数据（原生分区模式下可关闭，交给分区保留期整体删除）
+     */
+    private boolean deleteArchivedRows = true;
+
+    /**
+     * 归档任务执行时间（cron）
+     */
+    private String cron = "0 30 3 * * *";
+}
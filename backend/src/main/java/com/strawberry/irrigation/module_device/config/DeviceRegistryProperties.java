@@ -0,0 +1,34 @@
+package com.strawberry.irrigation.module_device.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 设备注册表配置（绑定 app.device.registry.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.device.registry")
+public class DeviceRegistryProperties {
+
+    /**
+     * 增量轮询间隔（毫秒），按 devices.updated_at 拉取变化的设备（需执行 db/devices_registry.sql）
+     */
+    private long pollIntervalMs = 5_000;
+
+    /**
+     * 全量重载间隔（毫秒），用于清除已删除的设备
+     */
+    private long fullReloadIntervalMs = 600_000;
+
+    /**
+     * 增量查询向前回溯的时间（毫秒），覆盖提交晚于时间戳的长事务
+     */
+    private long overlapMs = 5_000;
+
+    /**
+     * 索引中查不到的设备回源未命中后，在此时间（毫秒）内不再重复查库
+     */
+    private long missLookupCooldownMs = 1_000;
+}
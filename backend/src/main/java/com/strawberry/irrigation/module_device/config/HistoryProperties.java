@@ -0,0 +1,43 @@
+package com.strawberry.irrigation.module_device.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 历史数据查询配置（绑定 app.device.history.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.device.history")
+public class HistoryProperties {
+
+    /**
+     * 聚合数据来源：continuous-aggregate（TimescaleDB 连续聚合视图）或 on-the-fly（按需 date_bin 聚合，适用于原生 PostgreSQL）
+     */
+    private String source = "continuous-aggregate";
+
+    /**
+     * 自动选择粒度时单次返回的最大点数
+     */
+    private int maxPoints = 1_000;
+
+    /**
+     * 显式指定粒度（非 AUTO）时允许加载的最大估算点数，超出时拒绝查询，需改用更粗的粒度或 AUTO
+     */
+    private int maxExplicitPoints = 50_000;
+
+    /**
+     * 设备上报间隔（秒），用于估算原始数据点数
+     */
+    private int reportIntervalSeconds = 10;
+
+    /**
+     * 单次查询允许的最大时间跨度（天）
+     */
+    private int maxRangeDays = 366;
+
+    public boolean isOnTheFly() {
+        return "on-the-fly".equalsIgnoreCase(source);
+    }
+}
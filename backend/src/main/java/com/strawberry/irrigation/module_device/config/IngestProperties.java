@@ -0,0 +1,94 @@
+package com.strawberry.irrigation.module_device.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 传感器数据采集管道配置（绑定 app.device.ingest.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.device.ingest")
+public class IngestProperties {
+
+    /**
+     * 缓冲队列容量，队列满时触发背压
+     */
+    private int queueCapacity = 100_000;
+
+    /**
+     * 单批写入的最大条数（达到即刷写）
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * 最大刷写延迟（毫秒），批次未满时到时间也会刷写
+     */
+    private long flushIntervalMs = 500;
+
+    /**
+     * 队列满时生产者最长等待时间（毫秒），0 表示立即拒绝
+     */
+    private long offerTimeoutMs = 50;
+
+    /**
+     * 读数采集时间最多早于服务器时间多少秒（设备离线补传的上限），更早的读数拒绝
+     */
+    private long maxReadingAgeSeconds = 7 * 24 * 3600;
+
+    /**
+     * 读数采集时间最多晚于服务器时间多少秒（设备时钟偏差），更晚的读数拒绝
+     */
+    private long maxClockSkewSeconds = 300;
+
+    /**
+     * 死信文件：因数据本身问题（外键不存在、数值越界等）无法入库的读数逐条追加到此文件，不再重试
+     */
+    private String deadLetterFile = "data/ingest/dead-letter.csv";
+
+    /**
+     * 预写日志配置
+     */
+    private Spool spool = new Spool();
+
+    @Data
+    public static class Spool {
+
+        /**
+         * 启用后读数先写入本地预写日志再批量入库，数据库不可用期间不丢数据
+         */
+        private boolean enabled = false;
+
+        /**
+         * 段文件目录
+         */
+        private String directory = "data/spool";
+
+        /**
+         * 单个段文件大小（MB）
+         */
+        private int segmentSizeMb = 64;
+
+        /**
+         * 最多保留的段文件数，未入库数据超过 segmentSizeMb × maxSegments 时触发背压
+         */
+        private int maxSegments = 32;
+
+        /**
+         * 成组刷盘周期（毫秒）
+         */
+        private long fsyncIntervalMs = 5;
+
+        /**
+         * 是否等到读数刷盘后才返回接收成功。
+         * 写入映射内存即可在进程崩溃后保留；关闭时仅在操作系统崩溃或断电时可能丢失最后一个刷盘周期内的读数
+         */
+        private boolean durableAck = false;
+
+        /**
+         * 入库失败后的最大重试间隔（毫秒），重试间隔从 100ms 开始指数增长
+         */
+        private long retryMaxBackoffMs = 30_000;
+    }
+}
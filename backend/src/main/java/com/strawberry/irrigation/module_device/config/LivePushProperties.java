@@ -0,0 +1,64 @@
+package com.strawberry.irrigation.module_device.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 实时读数推送配置（绑定 app.device.live.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.device.live")
+public class LivePushProperties {
+
+    /**
+     * 推送周期（毫秒），同一设备在一个周期内的多条读数只推送最新一条
+     */
+    private long tickMs = 1_000;
+
+    /**
+     * 每个连接待发送帧的上限，超出时丢弃最早的帧
+     */
+    private int clientBufferSize = 256;
+
+    /**
+     * 单个连接最多订阅的设备数
+     */
+    private int maxDevicesPerSession = 500;
+
+    /**
+     * 单个用户最多同时保持的连接数
+     */
+    private int maxSessionsPerUser = 10;
+
+    /**
+     * 心跳间隔（秒），用于及时发现已断开的连接
+     */
+    private int heartbeatSeconds = 15;
+
+    /**
+     * 慢连接判定（毫秒）：有待发帧且超过该时间没有完成一次发送即断开，客户端会自动重连
+     */
+    private long slowConsumerTimeoutMs = 30_000;
+
+    /**
+     * 连接最长保持时间（毫秒），到期后由客户端（EventSource）自动重连
+     */
+    private long sessionTimeoutMs = 3_600_000;
+
+    /**
+     * 发送线程数（阻塞写出响应，与推送周期线程分离）
+     */
+    private int senderThreads = 4;
+
+    /**
+     * 单次写出超时（毫秒）：一帧超过该时间仍未写出的连接立即断开，不再等待慢连接判定
+     */
+    private long writeTimeoutMs = 5_000;
+
+    /**
+     * 发送线程上限：阻塞在超时连接上的线程不计入 senderThreads，线程池临时扩容补足，最多扩到该值
+     */
+    private int maxSenderThreads = 32;
+}
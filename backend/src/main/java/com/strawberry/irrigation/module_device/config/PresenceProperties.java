@@ -0,0 +1,34 @@
+package com.strawberry.irrigation.module_device.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 设备在线状态配置（绑定 app.device.presence.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.device.presence")
+public class PresenceProperties {
+
+    /**
+     * 超过该时间（秒）未收到心跳或读数即判定离线
+     */
+    private int offlineTimeoutSeconds = 90;
+
+    /**
+     * 时间轮 tick（毫秒），即离线判定的精度
+     */
+    private long tickMs = 1_000;
+
+    /**
+     * 在线/离线状态变化的写库周期（毫秒），同一周期内的变化合并为批量 UPDATE
+     */
+    private long transitionFlushMs = 1_000;
+
+    /**
+     * last_active_at 的批量写库周期（毫秒）
+     */
+    private long lastActiveFlushMs = 60_000;
+}
@@ -0,0 +1,64 @@
+package com.strawberry.irrigation.module_device.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 传感器数据存储配置（绑定 app.device.storage.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.device.storage")
+public class StorageProperties {
+
+    /**
+     * 存储模式：timescale（TimescaleDB 超表，由扩展管理分块）或 partitioned（PostgreSQL 原生分区表，由应用管理）
+     */
+    private String mode = "timescale";
+
+    private Partitioned partitioned = new Partitioned();
+
+    public boolean isPartitioned() {
+        return "partitioned".equalsIgnoreCase(mode);
+    }
+
+    @Data
+    public static class Partitioned {
+
+        /**
+         * 分区粒度：day、week 或 month
+         */
+        private String interval = "day";
+
+        /**
+         * 分区边界所用时区（空表示系统时区），决定分区在哪个"零点"切换
+         */
+        private String timeZone;
+
+        /**
+         * 提前创建的未来分区数
+         */
+        private int premake = 7;
+
+        /**
+         * 数据保留天数，0 表示不自动删除；过期分区整体 DETACH + DROP，不执行 DELETE
+         */
+        private int retentionDays = 0;
+
+        /**
+         * 每个时间分区下按 device_id 的哈希子分区数，0 表示不做子分区（只对新建分区生效）
+         */
+        private int hashPartitions = 0;
+
+        /**
+         * 批量写入时直接写入对应的时间分区，跳过父表的逐行路由
+         */
+        private boolean routeInserts = true;
+
+        /**
+         * 分区维护间隔（毫秒）
+         */
+        private long maintenanceIntervalMs = 3_600_000;
+    }
+}
@@ -0,0 +1,165 @@
+package com.strawberry.irrigation.module_device.controller;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.common.response.Result;
+import com.strawberry.irrigation.module_auth.web.CurrentUserId;
+import com.strawberry.irrigation.module_device.dto.DevicePresenceSummary;
+import com.strawberry.irrigation.module_device.dto.SensorDataReportRequest;
+import com.strawberry.irrigation.module_device.dto.SensorDataResponse;
+import com.strawberry.irrigation.module_device.dto.SensorHistoryResponse;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.export.ExportFormat;
+import com.strawberry.irrigation.module_device.ingest.ReadingTimestampPolicy;
+import com.strawberry.irrigation.module_device.service.DeviceAccessService;
+import com.strawberry.irrigation.module_device.service.DevicePresenceService;
+import com.strawberry.irrigation.module_device.service.SensorDataService;
+import com.strawberry.irrigation.module_device.service.SensorExportService;
+import com.strawberry.irrigation.module_device.service.SensorHistoryService;
+import com.strawberry.irrigation.module_device.service.SensorLiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 设备数据控制器
+ * 提供传感器数据相关的REST API接口
+ */
+@RestController
+@RequestMapping("/api/device")
+@RequiredArgsConstructor
+@Validated
+public class SensorDataController {
+
+    private final SensorDataService sensorDataService;
+    private final SensorHistoryService sensorHistoryService;
+    private final SensorExportService sensorExportService;
+    private final SensorLiveService sensorLiveService;
+    private final DevicePresenceService devicePresenceService;
+    private final DeviceAccessService deviceAccessService;
+    private final ReadingTimestampPolicy timestampPolicy;
+
+    /**
+     * 上报传感器数据（HTTP 通道）
+     * POST /api/device/{id}/data
+     * 读数会触发灌溉规则，因此需要设备所有者（或管理员）的令牌，不在公开路径中
+     */
+    @PostMapping("/{id}/data")
+    public ResponseEntity<Result<Void>> reportSensorData(@CurrentUserId Long userId,
+                                                         @PathVariable Long id,
+                                                         @RequestBody SensorDataReportRequest request) {
+        deviceAccessService.checkAccess(userId, id);
+        long now = System.currentTimeMillis();
+        long epochMillis = request.getTimestamp() != null
+                ? ReadingTimestampPolicy.toEpochMillis(request.getTimestamp())
+                : now;
+        if (!timestampPolicy.isAcceptable(epochMillis, now)) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "采集时间超出允许范围，请检查设备时钟");
+        }
+        SensorReading reading = new SensorReading(id, epochMillis,
+                orNaN(request.getSoilHumidity()),
+                orNaN(request.getTemperature()),
+                orNaN(request.getLightIntensity()),
+                orNaN(request.getBatteryLevel()));
+
+        if (!sensorDataService.reportSensorData(reading)) {
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE.value(), "采集队列繁忙，请稍后重试");
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Result.success());
+    }
+
+    /**
+     * 获取设备当前数据
+     * GET /api/device/{id}/current-data
+     */
+    @GetMapping("/{id}/current-data")
+    public ResponseEntity<Result<SensorDataResponse>> getCurrentData(@CurrentUserId Long userId,
+                                                                     @PathVariable Long id) {
+        deviceAccessService.checkAccess(userId, id);
+        return ResponseEntity.ok(Result.success(sensorDataService.getCurrentData(id)));
+    }
+
+    /**
+     * 获取设备历史数据
+     * GET /api/device/{id}/history?from=&to=&resolution=AUTO&mode=bucket|lttb&points=&parameter=
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<Result<SensorHistoryResponse>> getHistoricalData(
+            @CurrentUserId Long userId,
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "AUTO") String resolution,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Integer points,
+            @RequestParam(required = false) String parameter) {
+        deviceAccessService.checkAccess(userId, id);
+        SensorHistoryResponse response = sensorHistoryService.getHistoricalData(
+                id, from, to, resolution, mode, points, parameter);
+        return ResponseEntity.ok(Result.success(response));
+    }
+
+    /**
+     * 流式导出设备原始数据
+     * GET /api/device/{id}/export?from=&to=&format=ndjson|csv
+     * 数据边查边写，不在内存中组装列表，也不包装为 Result
+     */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportSensorData(
+            @CurrentUserId Long userId,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        deviceAccessService.checkAccess(userId, id);
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        if (exportFormat == null) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "无效的导出格式，可选值：ndjson, csv");
+        }
+        sensorExportService.validateExport(from, to);
+
+        StreamingResponseBody body = out -> sensorExportService.export(id, from, to, exportFormat, out);
+        String filename = "sensor-" + id + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 订阅设备实时读数（Server-Sent Events）
+     * GET /api/device/live?deviceIds=1,2,3
+     * 每个推送周期内同一设备只推送最新一条（event: reading），连接断开后由浏览器 EventSource 自动重连
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeLive(@CurrentUserId Long userId,
+                                    @RequestParam(required = false) List<Long> deviceIds) {
+        return sensorLiveService.subscribe(userId, deviceIds);
+    }
+
+    /**
+     * 按农户统计在线/离线设备数
+     * GET /api/device/presence
+     */
+    @GetMapping("/presence")
+    public ResponseEntity<Result<List<DevicePresenceSummary>>> getPresenceSummary(
+            @CurrentUserId Long userId) {
+        return ResponseEntity.ok(Result.success(devicePresenceService.summarize(userId)));
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
@@ -0,0 +1,49 @@
+package com.strawberry.irrigation.module_device.dao;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.strawberry.irrigation.module_device.dto.DeviceActivity;
+import com.strawberry.irrigation.module_device.entity.Device;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 设备数据访问层
+ * 使用MyBatis-Plus BaseMapper 提供基础 CRUD
+ */
+@Mapper
+public interface DeviceMapper extends BaseMapper<Device> {
+
+    /**
+     * 设备表最后修改时间（注册表全量重载前读取，作为之后增量轮询的起点）
+     */
+    @Select("SELECT max(updated_at) FROM devices")
+    LocalDateTime selectMaxUpdatedAt();
+
+    /**
+     * 修改时间晚于 since 的设备（注册表增量刷新）
+     */
+    @Select("SELECT id, device_id, type, created_by, updated_at FROM devices " +
+            "WHERE updated_at > #{since} ORDER BY updated_at")
+    List<Device> selectChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 批量更新在线状态（只在状态变化时调用）
+     */
+    @Update("<script>UPDATE devices SET is_online = #{online} WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int updateOnline(@Param("ids") List<Long> ids, @Param("online") boolean online);
+
+    /**
+     * 批量回写最后活动时间（一条 UPDATE ... FROM (VALUES ...)）
+     */
+    @Update("<script>UPDATE devices AS d SET last_active_at = to_timestamp(CAST(v.ms AS DOUBLE PRECISION) / 1000) " +
+            "FROM (VALUES <foreach collection='items' item='item' separator=','>" +
+            "(CAST(#{item.deviceId} AS BIGINT), CAST(#{item.epochMillis} AS BIGINT))</foreach>) AS v(id, ms) " +
+            "WHERE d.id = v.id</script>")
+    int updateLastActive(@Param("items") List<DeviceActivity> items);
+}
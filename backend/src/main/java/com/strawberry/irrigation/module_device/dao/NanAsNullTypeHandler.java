@@ -0,0 +1,45 @@
+package com.strawberry.irrigation.module_device.dao;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * double 类型处理器：NaN 写入为 NULL，读取 NULL 时返回 NaN
+ * 配合 SensorReading 的基本类型字段使用（NaN 表示该测量值缺失）
+ */
+public class NanAsNullTypeHandler extends BaseTypeHandler<Double> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, Double parameter, JdbcType jdbcType)
+            throws SQLException {
+        if (parameter.isNaN()) {
+            ps.setNull(i, Types.DOUBLE);
+        } else {
+            ps.setDouble(i, parameter);
+        }
+    }
+
+    @Override
+    public Double getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        double value = rs.getDouble(columnName);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    @Override
+    public Double getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        double value = rs.getDouble(columnIndex);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    @Override
+    public Double getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        double value = cs.getDouble(columnIndex);
+        return cs.wasNull() ? Double.NaN : value;
+    }
+}
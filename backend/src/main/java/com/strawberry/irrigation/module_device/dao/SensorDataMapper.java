@@ -0,0 +1,128 @@
+package com.strawberry.irrigation.module_device.dao;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.entity.SensorData;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 传感器数据访问层（sensor_data 超表）
+ * 写入走 BATCH 执行器 + reWriteBatchedInserts，由驱动合并为多行 INSERT
+ */
+@Mapper
+public interface SensorDataMapper {
+
+    /**
+     * 插入单条读数（在 BATCH 会话中调用，由 flushStatements 统一提交）
+     * 时间戳先转为 double 再换算为秒，避免逐行做 numeric 除法
+     */
+    @Insert("INSERT INTO sensor_data (time, device_id, soil_humidity, temperature, light_intensity, battery_level) " +
+            "VALUES (to_timestamp(CAST(#{epochMillis} AS DOUBLE PRECISION) / 1000), #{deviceId}, " +
+            "#{soilHumidity,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler}, " +
+            "#{temperature,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler}, " +
+            "#{lightIntensity,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler}, " +
+            "#{batteryLevel,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler})")
+    void insertReading(SensorReading reading);
+
+    /**
+     * 插入单条读数到指定的分区表（表名来自 SensorPartitionManager，非用户输入）
+     * 同一批次内相同表名的语句会被 BATCH 执行器合并为一个批次
+     */
+    @Insert("INSERT INTO ${table} (time, device_id, soil_humidity, temperature, light_intensity, battery_level) " +
+            "VALUES (to_timestamp(CAST(#{reading.epochMillis} AS DOUBLE PRECISION) / 1000), #{reading.deviceId}, " +
+            "#{reading.soilHumidity,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler}, " +
+            "#{reading.temperature,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler}, " +
+            "#{reading.lightIntensity,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler}, " +
+            "#{reading.batteryLevel,typeHandler=com.strawberry.irrigation.module_device.dao.NanAsNullTypeHandler})")
+    void insertReadingInto(@Param("table") String table, @Param("reading") SensorReading reading);
+
+    /**
+     * 查询设备最新一条读数（命中 sensor_data(device_id, time DESC) 索引）
+     */
+    @Select("SELECT time, device_id, soil_humidity, temperature, light_intensity, battery_level " +
+            "FROM sensor_data WHERE device_id = #{deviceId} ORDER BY time DESC LIMIT 1")
+    SensorData selectLatest(Long deviceId);
+
+    /**
+     * 按时间范围流式读取原始数据
+     */
+    @Select("SELECT time, device_id, soil_humidity, temperature, light_intensity, battery_level " +
+            "FROM sensor_data WHERE device_id = #{deviceId} AND time >= #{from} AND time < #{to} ORDER BY time")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 5000)
+    void selectRange(@Param("deviceId") Long deviceId,
+                     @Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to,
+                     ResultHandler<SensorData> handler);
+
+    /**
+     * 按时间范围以服务端游标读取原始数据（用于导出，需在事务内遍历，事务结束即关闭游标）
+     */
+    @Select("SELECT time, device_id, soil_humidity, temperature, light_intensity, battery_level " +
+            "FROM sensor_data WHERE device_id = #{deviceId} AND time >= #{from} AND time < #{to} ORDER BY time")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 5000)
+    Cursor<SensorData> cursorRange(@Param("deviceId") Long deviceId,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    /**
+     * 从连续聚合视图读取分桶数据（视图名来自 HistoryResolution 枚举，非用户输入）
+     */
+    @Select("SELECT bucket AS time, device_id, soil_humidity, temperature, light_intensity, battery_level " +
+            "FROM ${view} WHERE device_id = #{deviceId} AND bucket >= #{from} AND bucket < #{to} ORDER BY bucket")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 5000)
+    void selectAggregated(@Param("view") String view,
+                          @Param("deviceId") Long deviceId,
+                          @Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to,
+                          ResultHandler<SensorData> handler);
+
+    /**
+     * 在原始表上按需分桶聚合（未安装 TimescaleDB 时使用，需要 PostgreSQL 14+ 的 date_bin）
+     */
+    @Select("SELECT date_bin(make_interval(secs => #{bucketSeconds}), time, TIMESTAMPTZ '2000-01-01') AS time, " +
+            "device_id, avg(soil_humidity) AS soil_humidity, avg(temperature) AS temperature, " +
+            "avg(light_intensity) AS light_intensity, avg(battery_level) AS battery_level " +
+            "FROM sensor_data WHERE device_id = #{deviceId} AND time >= #{from} AND time < #{to} " +
+            "GROUP BY 1, device_id ORDER BY 1")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 5000)
+    void selectBucketed(@Param("bucketSeconds") int bucketSeconds,
+                        @Param("deviceId") Long deviceId,
+                        @Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to,
+                        ResultHandler<SensorData> handler);
+
+    /**
+     * 最早一条读数的时间（归档任务首次运行时确定起点）
+     */
+    @Select("SELECT min(time) FROM sensor_data")
+    LocalDateTime selectEarliestTime();
+
+    /**
+     * 时间范围内有读数的设备
+     */
+    @Select("SELECT DISTINCT device_id FROM sensor_data WHERE time >= #{from} AND time < #{to}")
+    List<Long> selectDeviceIds(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * 删除设备在时间范围内的读数，并按时间升序返回被删除的行（归档任务据此把迟到的行合并进归档后再提交）
+     * 必须在读写事务中调用
+     */
+    @Select("WITH deleted AS (DELETE FROM sensor_data " +
+            "WHERE device_id = #{deviceId} AND time >= #{from} AND time < #{to} " +
+            "RETURNING time, device_id, soil_humidity, temperature, light_intensity, battery_level) " +
+            "SELECT * FROM deleted ORDER BY time")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = 5000, flushCache = Options.FlushCachePolicy.TRUE)
+    void deleteRangeReturning(@Param("deviceId") Long deviceId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to,
+                              ResultHandler<SensorData> handler);
+}
@@ -0,0 +1,104 @@
+package com.strawberry.irrigation.module_device.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * sensor_data 原生分区维护（DDL）
+ * 分区名与边界均由 PartitionLayout 生成，不来自用户输入；PostgreSQL 的 DDL 不支持绑定参数，只能拼接
+ */
+@Mapper
+public interface SensorPartitionMapper {
+
+    /**
+     * 列出父表的直接子分区
+     */
+    @Select("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(#{parent})")
+    List<String> listPartitions(@Param("parent") String parent);
+
+    /**
+     * 父表是否为分区表（relkind = 'p'）
+     */
+    @Select("SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass(#{parent}) AND relkind = 'p')")
+    boolean isPartitioned(@Param("parent") String parent);
+
+    /**
+     * 创建时间分区（叶子分区）
+     */
+    @Update("CREATE TABLE IF NOT EXISTS ${name} PARTITION OF ${parent} FOR VALUES FROM ('${from}') TO ('${to}')")
+    void createRangePartition(@Param("parent") String parent,
+                              @Param("name") String name,
+                              @Param("from") String from,
+                              @Param("to") String to);
+
+    /**
+     * 创建时间分区，该分区本身再按 device_id 哈希分区
+     */
+    @Update("CREATE TABLE IF NOT EXISTS ${name} PARTITION OF ${parent} FOR VALUES FROM ('${from}') TO ('${to}') " +
+            "PARTITION BY HASH (device_id)")
+    void createHashedRangePartition(@Param("parent") String parent,
+                                    @Param("name") String name,
+                                    @Param("from") String from,
+                                    @Param("to") String to);
+
+    /**
+     * 创建哈希子分区
+     */
+    @Update("CREATE TABLE IF NOT EXISTS ${name} PARTITION OF ${parent} " +
+            "FOR VALUES WITH (MODULUS ${modulus}, REMAINDER ${remainder})")
+    void createHashPartition(@Param("parent") String parent,
+                             @Param("name") String name,
+                             @Param("modulus") int modulus,
+                             @Param("remainder") int remainder);
+
+    /**
+     * 默认分区中是否有落在 [from, to) 内的行（有则无法直接创建该时间分区）
+     */
+    @Select("SELECT EXISTS (SELECT 1 FROM ${table} WHERE time >= '${from}' AND time < '${to}')")
+    boolean hasRowsBetween(@Param("table") String table, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * 阻止其他会话向该表写入，直到当前事务结束（读不受影响）
+     */
+    @Update("LOCK TABLE ${table} IN EXCLUSIVE MODE")
+    void lockTable(@Param("table") String table);
+
+    /**
+     * 创建与父表结构相同的独立表，之后再 ATTACH 为分区
+     */
+    @Update("CREATE TABLE ${name} (LIKE ${parent} INCLUDING DEFAULTS INCLUDING CONSTRAINTS)")
+    void createDetachedTable(@Param("parent") String parent, @Param("name") String name);
+
+    /**
+     * 创建与父表结构相同、按 device_id 哈希分区的独立表
+     */
+    @Update("CREATE TABLE ${name} (LIKE ${parent} INCLUDING DEFAULTS INCLUDING CONSTRAINTS) " +
+            "PARTITION BY HASH (device_id)")
+    void createDetachedHashedTable(@Param("parent") String parent, @Param("name") String name);
+
+    /**
+     * 把 source 中 [from, to) 内的行移动到 target（两表列顺序一致）
+     * @return 移动的行数
+     */
+    @Update("WITH moved AS (DELETE FROM ${source} WHERE time >= '${from}' AND time < '${to}' RETURNING *) " +
+            "INSERT INTO ${target} SELECT * FROM moved")
+    int moveRows(@Param("source") String source, @Param("target") String target,
+                 @Param("from") String from, @Param("to") String to);
+
+    @Update("ALTER TABLE ${parent} ATTACH PARTITION ${name} FOR VALUES FROM ('${from}') TO ('${to}')")
+    void attachPartition(@Param("parent") String parent,
+                         @Param("name") String name,
+                         @Param("from") String from,
+                         @Param("to") String to);
+
+    @Update("ALTER TABLE ${parent} DETACH PARTITION ${name}")
+    void detachPartition(@Param("parent") String parent, @Param("name") String name);
+
+    @Update("DROP TABLE IF EXISTS ${name}")
+    void dropTable(@Param("name") String name);
+}
@@ -0,0 +1,10 @@
+package com.strawberry.irrigation.module_device.dto;
+
+/**
+ * 设备最后活动时间（批量回写 devices.last_active_at）
+ *
+ * @param deviceId    设备内部ID
+ * @param epochMillis 最后活动时间（毫秒时间戳）
+ */
+public record DeviceActivity(long deviceId, long epochMillis) {
+}
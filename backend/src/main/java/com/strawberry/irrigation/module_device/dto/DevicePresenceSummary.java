@@ -0,0 +1,23 @@
+package com.strawberry.irrigation.module_device.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 按农户（设备所有者）统计的在线/离线设备数
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DevicePresenceSummary {
+
+    /**
+     * 设备所有者（devices.created_by）
+     */
+    private Long ownerId;
+
+    private int online;
+
+    private int offline;
+}
@@ -0,0 +1,24 @@
+package com.strawberry.irrigation.module_device.dto;
+
+import lombok.Data;
+
+/**
+ * 传感器数据上报请求DTO
+ * 用于通过 HTTP 接口上报传感器数据（MQTT 之外的补充通道）
+ */
+@Data
+public class SensorDataReportRequest {
+
+    private Double soilHumidity;
+
+    private Double temperature;
+
+    private Double lightIntensity;
+
+    private Double batteryLevel;
+
+    /**
+     * 采集时间（秒或毫秒时间戳，按 ReadingTimestampPolicy 换算；可选，缺省为服务器接收时间）
+     */
+    private Long timestamp;
+}
@@ -0,0 +1,40 @@
+package com.strawberry.irrigation.module_device.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 传感器数据响应DTO
+ * 用于向前端返回设备的一条读数（缺失的测量值为 null）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensorDataResponse {
+
+    private Long deviceId;
+    private LocalDateTime time;
+    private Double soilHumidity;
+    private Double temperature;
+    private Double lightIntensity;
+    private Double batteryLevel;
+
+    // 从内部读数记录转换为Response DTO的构造方法
+    public SensorDataResponse(SensorReading reading) {
+        this.deviceId = reading.deviceId();
+        this.time = LocalDateTime.ofInstant(Instant.ofEpochMilli(reading.epochMillis()), ZoneId.systemDefault());
+        this.soilHumidity = orNull(reading.soilHumidity());
+        this.temperature = orNull(reading.temperature());
+        this.lightIntensity = orNull(reading.lightIntensity());
+        this.batteryLevel = orNull(reading.batteryLevel());
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,39 @@
+package com.strawberry.irrigation.module_device.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 传感器历史数据响应DTO
+ * 按列返回（时间数组 + 各测量值数组），比逐点对象数组的 JSON 体积小得多，前端图表可直接使用
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensorHistoryResponse {
+
+    private Long deviceId;
+
+    /**
+     * 实际使用的粒度：RAW, MINUTE_1, MINUTE_15, HOUR_1, DAY_1
+     */
+    private String resolution;
+
+    /**
+     * 是否经过 LTTB 降采样
+     */
+    private boolean downsampled;
+
+    private int pointCount;
+
+    /**
+     * 时间（毫秒时间戳）
+     */
+    private long[] times;
+
+    private Double[] soilHumidity;
+    private Double[] temperature;
+    private Double[] lightIntensity;
+    private Double[] batteryLevel;
+}
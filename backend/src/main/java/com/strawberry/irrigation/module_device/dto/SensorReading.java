@@ -0,0 +1,20 @@
+package com.strawberry.irrigation.module_device.dto;
+
+/**
+ * 传感器读数（采集链路内部使用的原始值记录）
+ * 全部使用基本类型，避免在高频采集路径上产生装箱对象；缺失的测量值用 NaN 表示，入库时写为 NULL
+ *
+ * @param deviceId       设备内部ID（devices.id）
+ * @param epochMillis    采集时间（毫秒时间戳）
+ * @param soilHumidity   土壤湿度（%）
+ * @param temperature    温度（摄氏度）
+ * @param lightIntensity 光照强度
+ * @param batteryLevel   电池电量
+ */
+public record SensorReading(long deviceId,
+                            long epochMillis,
+                            double soilHumidity,
+                            double temperature,
+                            double lightIntensity,
+                            double batteryLevel) {
+}
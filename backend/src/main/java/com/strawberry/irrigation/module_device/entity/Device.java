@@ -0,0 +1,82 @@
+package com.strawberry.irrigation.module_device.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 设备实体类
+ * 对应 devices 表，包含传感器与执行器（水泵）
+ */
+@Data
+@NoArgsConstructor
+@TableName("devices")
+public class Device {
+
+    /**
+     * 设备内部ID（主键）
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 设备名称
+     */
+    @TableField("name")
+    private String name;
+
+    /**
+     * 设备物理ID（MQTT Client ID）
+     */
+    @TableField("device_id")
+    private String deviceId;
+
+    /**
+     * 设备类型（SENSOR-传感器，ACTUATOR-执行器）
+     */
+    @TableField("type")
+    private String type;
+
+    /**
+     * 安装位置
+     */
+    @TableField("location")
+    private String location;
+
+    /**
+     * 是否在线
+     */
+    @TableField("is_online")
+    private Boolean isOnline;
+
+    /**
+     * 最后活动时间
+     */
+    @TableField("last_active_at")
+    private LocalDateTime lastActiveAt;
+
+    /**
+     * 创建者/所有者（users.id）
+     */
+    @TableField("created_by")
+    private Long createdBy;
+
+    /**
+     * 注册时间
+     */
+    @TableField("created_at")
+    private LocalDateTime createTime;
+
+    /**
+     * 最后修改时间（由触发器维护，见 db/devices_registry.sql；默认查询不包含该列）
+     */
+    @TableField(value = "updated_at", select = false, insertStrategy = FieldStrategy.NEVER,
+            updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime updatedAt;
+}
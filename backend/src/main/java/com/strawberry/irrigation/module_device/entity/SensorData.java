@@ -0,0 +1,54 @@
+package com.strawberry.irrigation.module_device.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 传感器数据实体类
+ * 对应 sensor_data 超表（无主键，按 time + device_id 组织），用于查询结果映射
+ */
+@Data
+@NoArgsConstructor
+@TableName("sensor_data")
+public class SensorData {
+
+    /**
+     * 采集时间
+     */
+    @TableField("time")
+    private LocalDateTime time;
+
+    /**
+     * 设备内部ID（devices.id）
+     */
+    @TableField("device_id")
+    private Long deviceId;
+
+    /**
+     * 土壤湿度（%）
+     */
+    @TableField("soil_humidity")
+    private Double soilHumidity;
+
+    /**
+     * 温度（摄氏度）
+     */
+    @TableField("temperature")
+    private Double temperature;
+
+    /**
+     * 光照强度
+     */
+    @TableField("light_intensity")
+    private Double lightIntensity;
+
+    /**
+     * 电池电量
+     */
+    @TableField("battery_level")
+    private Double batteryLevel;
+}
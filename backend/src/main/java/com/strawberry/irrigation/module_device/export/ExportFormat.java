@@ -0,0 +1,120 @@
+package com.strawberry.irrigation.module_device.export;
+
+import com.strawberry.irrigation.module_device.entity.SensorData;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 传感器数据导出格式
+ * 每行直接写入 Writer，不经过 Jackson 对象树，也不缓存整批结果
+ */
+public enum ExportFormat {
+
+    /**
+     * 每行一个 JSON 对象（application/x-ndjson）
+     */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public void writeHeader(Writer writer) {
+        }
+
+        @Override
+        public void writeRow(SensorData row, StringBuilder line, Writer writer) throws IOException {
+            line.setLength(0);
+            line.append("{\"time\":\"");
+            TIME_FORMAT.formatTo(row.getTime(), line);
+            line.append("\",\"deviceId\":").append(row.getDeviceId());
+            appendJson(line, "soilHumidity", row.getSoilHumidity());
+            appendJson(line, "temperature", row.getTemperature());
+            appendJson(line, "lightIntensity", row.getLightIntensity());
+            appendJson(line, "batteryLevel", row.getBatteryLevel());
+            line.append("}\n");
+            writer.append(line);
+        }
+    },
+
+    /**
+     * 逗号分隔，首行为列名（text/csv），缺失值留空
+     */
+    CSV("text/csv", "csv") {
+        @Override
+        public void writeHeader(Writer writer) throws IOException {
+            writer.write("time,device_id,soil_humidity,temperature,light_intensity,battery_level\n");
+        }
+
+        @Override
+        public void writeRow(SensorData row, StringBuilder line, Writer writer) throws IOException {
+            line.setLength(0);
+            TIME_FORMAT.formatTo(row.getTime(), line);
+            line.append(',').append(row.getDeviceId());
+            appendCsv(line, row.getSoilHumidity());
+            appendCsv(line, row.getTemperature());
+            appendCsv(line, row.getLightIntensity());
+            appendCsv(line, row.getBatteryLevel());
+            line.append('\n');
+            writer.append(line);
+        }
+    };
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 写入文件头（CSV 列名行，NDJSON 无文件头）
+     */
+    public abstract void writeHeader(Writer writer) throws IOException;
+
+    /**
+     * 写入一行数据
+     * @param row    数据行
+     * @param line   可复用的行缓冲，避免逐行分配
+     * @param writer 输出
+     */
+    public abstract void writeRow(SensorData row, StringBuilder line, Writer writer) throws IOException;
+
+    /**
+     * 按名称解析导出格式（不区分大小写）
+     * @return 匹配的格式，无法识别时返回 null
+     */
+    public static ExportFormat fromName(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static void appendJson(StringBuilder line, String field, Double value) {
+        line.append(",\"").append(field).append("\":");
+        if (value == null) {
+            line.append("null");
+        } else {
+            line.append(value.doubleValue());
+        }
+    }
+
+    private static void appendCsv(StringBuilder line, Double value) {
+        line.append(',');
+        if (value != null) {
+            line.append(value.doubleValue());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.strawberry.irrigation.module_device.history;
+
+/**
+ * 历史数据查询粒度
+ * RAW 直接读 sensor_data，其余粒度读对应的连续聚合视图（或按需 date_bin 聚合）
+ */
+public enum HistoryResolution {
+
+    RAW(0, null),
+    MINUTE_1(60, "sensor_data_1m"),
+    MINUTE_15(15 * 60, "sensor_data_15m"),
+    HOUR_1(60 * 60, "sensor_data_1h"),
+    DAY_1(24 * 60 * 60, "sensor_data_1d");
+
+    private final int bucketSeconds;
+    private final String aggregateView;
+
+    HistoryResolution(int bucketSeconds, String aggregateView) {
+        this.bucketSeconds = bucketSeconds;
+        this.aggregateView = aggregateView;
+    }
+
+    public int getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public String getAggregateView() {
+        return aggregateView;
+    }
+
+    /**
+     * 估算给定时间范围内本粒度的点数
+     * @param rangeSeconds        时间范围（秒）
+     * @param reportIntervalSeconds 设备上报间隔（秒，用于估算原始点数）
+     */
+    public long estimatePoints(long rangeSeconds, int reportIntervalSeconds) {
+        int step = this == RAW ? Math.max(1, reportIntervalSeconds) : bucketSeconds;
+        return rangeSeconds / step;
+    }
+
+    /**
+     * 自动选择粒度：点数不超过 maxPoints 的最细粒度，都超过时使用最粗粒度（调用方需再降采样到 maxPoints）
+     */
+    public static HistoryResolution select(long rangeSeconds, int reportIntervalSeconds, int maxPoints) {
+        for (HistoryResolution resolution : values()) {
+            if (resolution.estimatePoints(rangeSeconds, reportIntervalSeconds) <= maxPoints) {
+                return resolution;
+            }
+        }
+        return DAY_1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.strawberry.irrigation.module_device.history;
+
+/**
+ * LTTB（Largest-Triangle-Three-Buckets）降采样
+ * 把 n 个点压缩为 threshold 个点，同时保留曲线的峰谷形状：
+ * 首尾点固定保留，中间每个桶选出与"上一个已选点、下一个桶的平均点"构成三角形面积最大的点。
+ * 缺失值（NaN）不参与选点。
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * 计算需要保留的点下标
+     * @param times     时间（x）
+     * @param values    数值（y）
+     * @param size      有效点数
+     * @param threshold 目标点数
+     * @return 升序的保留点下标
+     */
+    public static int[] downsample(long[] times, double[] values, int size, int threshold) {
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+
+        double bucketWidth = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // 下一个桶的平均点（最后一个桶以末点为参照）
+            int nextStart = (int) Math.floor((bucket + 1) * bucketWidth) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketWidth) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            int avgCount = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                if (!Double.isNaN(values[i])) {
+                    avgX += times[i];
+                    avgY += values[i];
+                    avgCount++;
+                }
+            }
+            if (avgCount == 0) {
+                avgX = times[size - 1];
+                avgY = Double.isNaN(values[size - 1]) ? 0 : values[size - 1];
+            } else {
+                avgX /= avgCount;
+                avgY /= avgCount;
+            }
+
+            // 当前桶内选择三角形面积最大的点
+            int start = (int) Math.floor(bucket * bucketWidth) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketWidth) + 1;
+            double prevX = times[previous];
+            double prevY = Double.isNaN(values[previous]) ? avgY : values[previous];
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                if (Double.isNaN(values[i])) {
+                    continue;
+                }
+                double area = Math.abs((prevX - avgX) * (values[i] - prevY)
+                        - (prevX - times[i]) * (avgY - prevY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            selected[count++] = best;
+            previous = best;
+        }
+
+        selected[count++] = size - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,87 @@
+package com.strawberry.irrigation.module_device.history;
+
+import com.strawberry.irrigation.module_device.entity.SensorData;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * 按列存放的传感器时间序列
+ * 作为 MyBatis ResultHandler 逐行接收查询结果，直接写入基本类型数组，不保留行对象列表
+ */
+public final class SensorSeries implements ResultHandler<SensorData> {
+
+    public static final int HUMIDITY = 0;
+    public static final int TEMPERATURE = 1;
+    public static final int LIGHT = 2;
+    public static final int BATTERY = 3;
+    public static final int COLUMN_COUNT = 4;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private long[] times;
+    private final double[][] columns = new double[COLUMN_COUNT][];
+    private int size;
+
+    public SensorSeries(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        times = new long[capacity];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            columns[i] = new double[capacity];
+        }
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends SensorData> context) {
+        SensorData row = context.getResultObject();
+        add(row.getTime().atZone(zone).toInstant().toEpochMilli(),
+                orNaN(row.getSoilHumidity()),
+                orNaN(row.getTemperature()),
+                orNaN(row.getLightIntensity()),
+                orNaN(row.getBatteryLevel()));
+    }
+
+    public void add(long epochMillis, double humidity, double temperature, double light, double battery) {
+        if (size == times.length) {
+            int capacity = size << 1;
+            times = Arrays.copyOf(times, capacity);
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+        }
+        times[size] = epochMillis;
+        columns[HUMIDITY][size] = humidity;
+        columns[TEMPERATURE][size] = temperature;
+        columns[LIGHT][size] = light;
+        columns[BATTERY][size] = battery;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long time(int index) {
+        return times[index];
+    }
+
+    public double value(int column, int index) {
+        return columns[column][index];
+    }
+
+    /**
+     * 以指定列为依据做 LTTB 降采样
+     * @param column    依据的测量列
+     * @param threshold 目标点数
+     * @return 升序的保留点下标
+     */
+    public int[] downsample(int column, int threshold) {
+        return Lttb.downsample(times, columns[column], size, threshold);
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
@@ -0,0 +1,44 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 读数采集时间的统一换算与校验，MQTT 与 HTTP 两个上报通道共用
+ * <p>
+ * 设备上报的时间戳可能是秒也可能是毫秒：小于 1e11 的按秒处理（1e11 秒已是公元 5138 年），否则按毫秒处理。
+ * 换算后的时间必须落在 [服务器时间 - maxReadingAgeSeconds, 服务器时间 + maxClockSkewSeconds] 内，
+ * 时钟错乱的设备上报的读数会被拒绝，避免写入错误的分区或让历史曲线出现跳点。
+ */
+@Component
+public class ReadingTimestampPolicy {
+
+    /**
+     * 小于该值的时间戳按秒处理，否则按毫秒处理
+     */
+    private static final long MILLIS_THRESHOLD = 100_000_000_000L;
+
+    private final long maxAgeMillis;
+    private final long maxSkewMillis;
+
+    public ReadingTimestampPolicy(IngestProperties properties) {
+        this.maxAgeMillis = properties.getMaxReadingAgeSeconds() * 1000L;
+        this.maxSkewMillis = properties.getMaxClockSkewSeconds() * 1000L;
+    }
+
+    /**
+     * 把上报的时间戳（秒或毫秒）换算为毫秒
+     */
+    public static long toEpochMillis(long timestamp) {
+        return timestamp < MILLIS_THRESHOLD ? timestamp * 1000L : timestamp;
+    }
+
+    /**
+     * 判断采集时间是否在允许范围内
+     * @param epochMillis 采集时间（毫秒）
+     * @param nowMillis   服务器当前时间（毫秒）
+     */
+    public boolean isAcceptable(long epochMillis, long nowMillis) {
+        return epochMillis >= nowMillis - maxAgeMillis && epochMillis <= nowMillis + maxSkewMillis;
+    }
+}
@@ -0,0 +1,71 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.partition.SensorPartitionManager;
+import lombok.RequiredArgsConstructor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 传感器数据批量写入器
+ * 在一个事务内使用 MyBatis BATCH 执行器写入整批读数，
+ * 配合 JDBC URL 上的 reWriteBatchedInserts=true，驱动会把批次改写为多行 INSERT。
+ * 原生分区模式下先按目标时间分区分组，每组直接写入分区表，省去父表的逐行分区路由
+ */
+@Component
+@RequiredArgsConstructor
+public class SensorBatchWriter {
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<SensorPartitionManager> partitionManager;
+
+    /**
+     * 写入一批读数（整批成功或整批回滚）
+     * @param batch 读数列表
+     */
+    public void write(List<SensorReading> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+                SensorDataMapper mapper = session.getMapper(SensorDataMapper.class);
+                SensorPartitionManager partitions = partitionManager.getIfAvailable();
+                if (partitions == null) {
+                    for (SensorReading reading : batch) {
+                        mapper.insertReading(reading);
+                    }
+                } else {
+                    // 相同 SQL 连续执行才会被合并为一个 JDBC 批次，因此按表分组写入
+                    for (Map.Entry<String, List<SensorReading>> group : groupByTable(batch, partitions).entrySet()) {
+                        for (SensorReading reading : group.getValue()) {
+                            mapper.insertReadingInto(group.getKey(), reading);
+                        }
+                    }
+                }
+                session.flushStatements();
+            }
+        });
+    }
+
+    private static Map<String, List<SensorReading>> groupByTable(List<SensorReading> batch,
+                                                                 SensorPartitionManager partitions) {
+        Map<String, List<SensorReading>> groups = new LinkedHashMap<>();
+        for (SensorReading reading : batch) {
+            groups.computeIfAbsent(partitions.tableFor(reading.epochMillis()), table -> new ArrayList<>())
+                    .add(reading);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,105 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Instant;
+
+/**
+ * 采集死信文件
+ * 因读数本身问题而永久无法入库的记录逐条追加到 CSV 文件（时间,设备ID,采集时间,各测量值,原因），
+ * 写库线程随后跳过这些记录继续入库，需要时可人工修正后重新导入
+ */
+@Slf4j
+@Component
+public class SensorDeadLetter {
+
+    private static final String HEADER = "quarantined_at,device_id,epoch_millis,soil_humidity,temperature,"
+            + "light_intensity,battery_level,reason\n";
+
+    private final Path file;
+
+    public SensorDeadLetter(IngestProperties properties) {
+        this.file = Paths.get(properties.getDeadLetterFile());
+    }
+
+    /**
+     * 追加一条无法入库的读数
+     * @param reading 读数
+     * @param reason  失败原因
+     * @throws UncheckedIOException 写文件失败（调用方应保留该读数稍后重试）
+     */
+    public synchronized void append(SensorReading reading, Throwable reason) {
+        String line = Instant.now() + "," + reading.deviceId() + "," + reading.epochMillis() + ","
+                + reading.soilHumidity() + "," + reading.temperature() + "," + reading.lightIntensity() + ","
+                + reading.batteryLevel() + "," + csv(reasonOf(reason)) + "\n";
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.notExists(file)) {
+                Files.writeString(file, HEADER, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+            }
+            Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入死信文件 " + file + " 失败", e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 判断入库失败是否由数据本身引起（重试不会成功）
+     * 依据 SQLSTATE：22 类（数据异常，如数值越界、格式错误）和 23 类（完整性约束违反，如外键不存在、无匹配分区）；
+     * 连接中断、超时、锁冲突等其他错误都按可恢复处理，由调用方退避重试
+     */
+    public static boolean isPermanent(Throwable error) {
+        return permanentCause(error) != null;
+    }
+
+    /**
+     * @return 异常链中表明数据本身有问题的那个异常，没有则返回 null
+     */
+    private static Throwable permanentCause(Throwable error) {
+        for (Throwable cause = error; cause != null && cause.getCause() != cause; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return cause;
+            }
+            if (cause instanceof SQLException sql) {
+                // 批量执行时真正的错误挂在 getNextException 链上
+                for (SQLException next = sql; next != null; next = next.getNextException()) {
+                    String state = next.getSQLState();
+                    if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+                        return next;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String reasonOf(Throwable error) {
+        Throwable cause = permanentCause(error);
+        if (cause == null) {
+            cause = error;
+        }
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    private static String csv(String value) {
+        return '"' + value.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + '"';
+    }
+}
@@ -0,0 +1,347 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 传感器数据采集管道
+ * 读数先进入有界队列，由单个写线程按"批次大小或最大延迟"两个条件之一触发批量落库。
+ * 队列满时生产者最多等待 offerTimeoutMs，仍无空间则拒绝（背压交给上游处理）。
+ * 启用预写日志（app.device.ingest.spool.enabled）后，读数改为追加到 SensorSpool，写线程从日志按批读取，
+ * 入库失败时按指数退避重试同一批次而不是丢弃，成功后才推进检查点。
+ * 失败由数据本身引起（外键不存在、数值越界等，见 SensorDeadLetter#isPermanent）时改为逐条重写，
+ * 无法写入的读数转入死信文件，其余照常入库，避免一条坏数据卡住整个日志直到写满触发背压。
+ * 指标：sensor.ingest.queue.depth、sensor.ingest.readings{result}、sensor.ingest.flush{outcome}、sensor.ingest.batch.size
+ */
+@Slf4j
+@Component
+public class SensorIngestPipeline {
+
+    private final IngestProperties properties;
+    private final SensorBatchWriter batchWriter;
+    private final BlockingQueue<SensorReading> queue;
+    private final SensorSpool spool;
+    private final SensorDeadLetter deadLetter;
+
+    /**
+     * 等待刷盘确认的最短超时（毫秒）
+     */
+    private static final long DURABLE_ACK_TIMEOUT_MS = 1_000;
+
+    /**
+     * 预写日志模式下入库失败后的首次重试间隔（毫秒）
+     */
+    private static final long INITIAL_BACKOFF_MS = 100;
+
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong quarantinedCount = new AtomicLong();
+
+    private final Timer flushSuccessTimer;
+    private final Timer flushFailureTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public SensorIngestPipeline(IngestProperties properties, SensorBatchWriter batchWriter,
+                                ObjectProvider<SensorSpool> spoolProvider, SensorDeadLetter deadLetter,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.deadLetter = deadLetter;
+        this.spool = spoolProvider.getIfAvailable();
+        this.queue = spool == null ? new ArrayBlockingQueue<>(properties.getQueueCapacity()) : null;
+
+        Gauge.builder("sensor.ingest.queue.depth", this, SensorIngestPipeline::getQueueDepth)
+                .description("采集队列（或预写日志）积压条数")
+                .register(meterRegistry);
+        Gauge.builder("sensor.ingest.queue.capacity", this, SensorIngestPipeline::getQueueCapacity)
+                .register(meterRegistry);
+        registerCounter(meterRegistry, "accepted", acceptedCount);
+        registerCounter(meterRegistry, "rejected", rejectedCount);
+        registerCounter(meterRegistry, "written", writtenCount);
+        registerCounter(meterRegistry, "failed", failedCount);
+        registerCounter(meterRegistry, "quarantined", quarantinedCount);
+        this.flushSuccessTimer = flushTimer(meterRegistry, "success");
+        this.flushFailureTimer = flushTimer(meterRegistry, "error");
+        this.batchSizeSummary = DistributionSummary.builder("sensor.ingest.batch.size")
+                .description("每次批量写入的读数条数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(spool == null ? this::runWriter : this::runSpoolWriter, "sensor-ingest-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("传感器采集管道已启动，{}容量: {}, 批次大小: {}, 最大刷写延迟: {}ms",
+                spool == null ? "队列" : "预写日志", getQueueCapacity(), properties.getBatchSize(),
+                properties.getFlushIntervalMs());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // 不中断写线程，避免打断进行中的 JDBC 写入；写线程在最多一个刷写周期内感知停机并清空队列
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        log.info("传感器采集管道已停止，累计写入: {}, 写入失败: {}, 转入死信: {}, 背压拒绝: {}",
+                writtenCount.get(), failedCount.get(), quarantinedCount.get(), rejectedCount.get());
+    }
+
+    /**
+     * 提交一条读数
+     * @param reading 读数
+     * @return 是否被接收（false 表示队列或预写日志已满，发生背压）
+     */
+    public boolean offer(SensorReading reading) {
+        if (spool != null) {
+            return offerToSpool(reading);
+        }
+        boolean accepted;
+        try {
+            long timeout = properties.getOfferTimeoutMs();
+            accepted = timeout > 0
+                    ? queue.offer(reading, timeout, TimeUnit.MILLISECONDS)
+                    : queue.offer(reading);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        (accepted ? acceptedCount : rejectedCount).incrementAndGet();
+        return accepted;
+    }
+
+    private boolean offerToSpool(SensorReading reading) {
+        boolean accepted;
+        long seq = spool.append(reading);
+        if (seq < 0) {
+            accepted = false;
+        } else if (properties.getSpool().isDurableAck()) {
+            try {
+                accepted = spool.awaitDurable(seq, Math.max(properties.getOfferTimeoutMs(), DURABLE_ACK_TIMEOUT_MS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = true;
+        }
+        (accepted ? acceptedCount : rejectedCount).incrementAndGet();
+        return accepted;
+    }
+
+    /**
+     * 当前积压条数（启用预写日志时为尚未入库的日志记录数）
+     */
+    public long getQueueDepth() {
+        return spool == null ? queue.size() : spool.getBacklog();
+    }
+
+    public long getQueueCapacity() {
+        return spool == null ? properties.getQueueCapacity() : spool.getCapacity();
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getQuarantinedCount() {
+        return quarantinedCount.get();
+    }
+
+    // ========== 写线程 ==========
+
+    private void runWriter() {
+        int batchSize = properties.getBatchSize();
+        long maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<SensorReading> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                SensorReading first = queue.poll(maxLatencyNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxLatencyNanos;
+
+                // 攒批：先一次性搬走已积压的数据，不足一批时等待至最大延迟
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    if (batch.size() >= batchSize) {
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    SensorReading next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                running = false;
+            }
+            flush(batch);
+        }
+    }
+
+    /**
+     * 预写日志模式：批次全部入库（或转入死信）后才推进检查点；可恢复的失败退避后重试批次中未处理的部分，
+     * 期间新读数继续追加到日志，直到日志写满才对上游产生背压
+     */
+    private void runSpoolWriter() {
+        int batchSize = properties.getBatchSize();
+        long maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        long maxBackoffMs = properties.getSpool().getRetryMaxBackoffMs();
+        List<SensorReading> batch = new ArrayList<>(batchSize);
+        long backoffMs = 0;
+
+        while (running || (batch.isEmpty() ? spool.getBacklog() > 0 : backoffMs == 0)) {
+            try {
+                if (backoffMs > 0) {
+                    Thread.sleep(backoffMs);
+                }
+                if (batch.isEmpty()) {
+                    spool.poll(batch, batchSize, running ? maxLatencyNanos : 0);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                continue;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            if (writeOrQuarantine(batch)) {
+                spool.commit();
+                batch.clear();
+                backoffMs = 0;
+            } else {
+                // 停机时不再重试，未入库的记录保留在日志中，下次启动从检查点补写
+                backoffMs = Math.min(Math.max(backoffMs * 2, INITIAL_BACKOFF_MS), maxBackoffMs);
+                log.warn("{} 条读数保留在预写日志中，{}ms 后重试，当前积压 {} 条",
+                        batch.size(), backoffMs, spool.getBacklog());
+            }
+        }
+    }
+
+    /**
+     * 写入一批读数，数据类错误时逐条重写并把写不进去的读数转入死信文件
+     * @return true 表示整批已处理完（入库或转入死信）；false 表示遇到可恢复的错误，
+     *         batch 中只保留尚未处理的读数，由调用方稍后重试
+     */
+    boolean writeOrQuarantine(List<SensorReading> batch) {
+        batchSizeSummary.record(batch.size());
+        Exception error = write(batch);
+        if (error == null) {
+            return true;
+        }
+        if (!SensorDeadLetter.isPermanent(error)) {
+            return false;
+        }
+        log.warn("{} 条读数中存在无法入库的数据，改为逐条写入", batch.size());
+        int processed = 0;
+        try {
+            for (SensorReading reading : batch) {
+                Exception rowError = write(List.of(reading));
+                if (rowError != null) {
+                    if (!SensorDeadLetter.isPermanent(rowError)) {
+                        return false;
+                    }
+                    deadLetter.append(reading, rowError);
+                    quarantinedCount.incrementAndGet();
+                    log.warn("设备 {} 的读数（{}）无法入库，已转入死信文件 {}", reading.deviceId(),
+                            reading.epochMillis(), deadLetter.getFile());
+                }
+                processed++;
+            }
+            return true;
+        } catch (UncheckedIOException e) {
+            log.error("{}", e.getMessage());
+            return false;
+        } finally {
+            batch.subList(0, processed).clear();
+        }
+    }
+
+    /**
+     * @return 写入失败时的异常，成功返回 null
+     */
+    private Exception write(List<SensorReading> batch) {
+        long start = System.nanoTime();
+        try {
+            batchWriter.write(batch);
+            flushSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            writtenCount.addAndGet(batch.size());
+            return null;
+        } catch (Exception e) {
+            flushFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            failedCount.addAndGet(batch.size());
+            log.error("传感器数据批量写入失败: {}", e.getMessage());
+            return e;
+        }
+    }
+
+    private void flush(List<SensorReading> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!writeOrQuarantine(batch)) {
+            log.error("传感器数据批量写入失败，丢弃 {} 条读数", batch.size());
+        }
+        batch.clear();
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, String result, AtomicLong count) {
+        FunctionCounter.builder("sensor.ingest.readings", count, AtomicLong::doubleValue)
+                .description("采集管道处理的读数条数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer flushTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("sensor.ingest.flush")
+                .description("单批读数写入数据库的耗时")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,576 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 传感器读数预写日志（app.device.ingest.spool.enabled=true 时启用）
+ * <p>
+ * 读数先追加到本地内存映射的段文件（定长记录，带 CRC 与魔数），由后台线程按 fsync-interval-ms 成组刷盘；
+ * 写库线程从检查点开始按批读取，入库成功后推进检查点并删除已全部入库的段文件。
+ * 数据库不可用时读数继续落盘，恢复后从检查点开始补写；进程崩溃重启后，检查点之后的记录会被重放，
+ * 因此入库语义为"至少一次"（崩溃窗口内的一批读数可能重复写入）。
+ * <p>
+ * 记录格式（56 字节）：deviceId、epochMillis、4 个测量值（double）、CRC32C、魔数。
+ * 段文件名为段序号，记录序号 = 段序号 × 每段记录数 + 段内下标。
+ * <p>
+ * 段文件由刷盘线程提前创建：当前段写过一半时开始预分配下一段，以真实写入零值的方式占用磁盘块
+ * （每个刷盘周期最多写 PREALLOCATE_BYTES_PER_TICK，避免长时间推迟 fsync），完成后再改名、映射。
+ * 磁盘空间不足会在预分配时暴露为 IOException，而不是之后写映射内存时的 SIGBUS；
+ * append 只使用已就绪的段，段未就绪或写入出错都按背压返回 -1，从不向调用方（MQTT 回调线程）抛出异常。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.device.ingest.spool", name = "enabled", havingValue = "true")
+public class SensorSpool {
+
+    static final int RECORD_SIZE = 56;
+    private static final int PAYLOAD_SIZE = 48;
+    private static final int MAGIC = 0x53504C31;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "CHECKPOINT";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 每个刷盘周期最多为预分配写入的字节数
+     */
+    private static final int PREALLOCATE_BYTES_PER_TICK = 4 * 1024 * 1024;
+    /**
+     * 预分配失败（如磁盘已满）后的重试间隔
+     */
+    private static final long PREALLOCATE_RETRY_MS = 1_000;
+    /**
+     * 写满当前段时等待下一段就绪的最长时间，超时按背压处理
+     */
+    private static final long SEGMENT_WAIT_MS = 1_000;
+    /**
+     * 写入失败日志的最小间隔，避免磁盘故障时逐条刷屏
+     */
+    private static final long FAILURE_LOG_INTERVAL_MS = 10_000;
+
+    private final Path directory;
+    private final long recordsPerSegment;
+    private final long capacity;
+    private final long fsyncIntervalMs;
+
+    private final Map<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition batchReady = appendLock.newCondition();
+    private final Condition segmentReady = appendLock.newCondition();
+    private final CRC32C crc = new CRC32C();
+    private final Object durableMonitor = new Object();
+
+    /**
+     * 下一条记录的序号
+     */
+    private volatile long writeSeq;
+    /**
+     * 已刷盘的记录序号上界（不含）
+     */
+    private volatile long durableSeq;
+    /**
+     * 已交给写库线程的记录序号上界（不含），只由写库线程推进
+     */
+    private volatile long readSeq;
+    /**
+     * 已入库的记录序号上界（不含）
+     */
+    private volatile long checkpointSeq;
+
+    private volatile int signalThreshold = 1;
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    /**
+     * 正在预分配的段（只由刷盘线程访问）
+     */
+    private Preallocation preallocation;
+    private long preallocateRetryAt;
+    /**
+     * append 失败计数与上次打印日志的时间（在 appendLock 内访问）
+     */
+    private long appendFailures;
+    private long appendFailureLoggedAt;
+
+    public SensorSpool(IngestProperties ingestProperties) throws IOException {
+        IngestProperties.Spool properties = ingestProperties.getSpool();
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath();
+        this.recordsPerSegment = Math.max(1, properties.getSegmentSizeMb() * 1024L * 1024L / RECORD_SIZE);
+        this.capacity = recordsPerSegment * properties.getMaxSegments();
+        this.fsyncIntervalMs = properties.getFsyncIntervalMs();
+        Files.createDirectories(directory);
+        recover();
+        long current = writeSeq / recordsPerSegment;
+        if (!segments.containsKey(current)) {
+            // 启动时同步创建当前段，磁盘不足直接启动失败
+            Preallocation first = Preallocation.start(segmentPath(current), current, recordsPerSegment);
+            first.advance(Integer.MAX_VALUE);
+            segments.put(current, first.finish());
+        }
+
+        flusher = new Thread(this::runFlusher, "sensor-spool-fsync");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        force();
+        if (preallocation != null) {
+            preallocation.abort();
+        }
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        log.info("预写日志已关闭，未入库记录: {}", getBacklog());
+    }
+
+    /**
+     * 追加一条读数（不抛出异常）
+     * @return 该记录变为持久化所需等待的序号（用于 awaitDurable）；空间不足、下一段未就绪或写入失败时返回 -1
+     */
+    public long append(SensorReading reading) {
+        appendLock.lock();
+        try {
+            long waitDeadline = 0;
+            while (true) {
+                long seq = writeSeq;
+                if (seq - checkpointSeq >= capacity) {
+                    return -1;
+                }
+                Segment segment = segments.get(seq / recordsPerSegment);
+                if (segment != null) {
+                    return write(segment, seq, reading);
+                }
+                // 下一段还在预分配：唤醒刷盘线程并短暂等待（等待期间释放 appendLock）
+                long now = System.nanoTime();
+                if (waitDeadline == 0) {
+                    waitDeadline = now + TimeUnit.MILLISECONDS.toNanos(SEGMENT_WAIT_MS);
+                } else if (now >= waitDeadline) {
+                    logAppendFailure("预写日志段 " + seq / recordsPerSegment + " 未能及时就绪");
+                    return -1;
+                }
+                LockSupport.unpark(flusher);
+                segmentReady.awaitNanos(waitDeadline - now);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (RuntimeException | InternalError e) {
+            // InternalError：映射内存访问出错（如底层文件被截断），不能让它传到 MQTT 回调线程
+            logAppendFailure(e.toString());
+            return -1;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * 在已就绪的段中写入一条记录（调用方持有 appendLock）
+     */
+    private long write(Segment segment, long seq, SensorReading reading) {
+        int offset = offsetOf(seq);
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putLong(offset, reading.deviceId());
+        buffer.putLong(offset + 8, reading.epochMillis());
+        buffer.putDouble(offset + 16, reading.soilHumidity());
+        buffer.putDouble(offset + 24, reading.temperature());
+        buffer.putDouble(offset + 32, reading.lightIntensity());
+        buffer.putDouble(offset + 40, reading.batteryLevel());
+        buffer.putInt(offset + PAYLOAD_SIZE, checksum(buffer, offset));
+        buffer.putInt(offset + PAYLOAD_SIZE + 4, MAGIC);
+        writeSeq = seq + 1;
+        if (writeSeq - readSeq >= signalThreshold) {
+            batchReady.signal();
+        }
+        if (seq % recordsPerSegment == recordsPerSegment / 2) {
+            // 当前段写过一半，提醒刷盘线程开始预分配下一段
+            LockSupport.unpark(flusher);
+        }
+        return seq + 1;
+    }
+
+    private void logAppendFailure(String reason) {
+        appendFailures++;
+        long now = System.currentTimeMillis();
+        if (now - appendFailureLoggedAt >= FAILURE_LOG_INTERVAL_MS) {
+            log.error("预写日志写入失败，读数按背压拒绝（累计 {} 次）: {}", appendFailures, reason);
+            appendFailureLoggedAt = now;
+        }
+    }
+
+    /**
+     * 等待记录刷盘（成组提交：同一刷盘周期内的所有等待者共享一次 fsync）
+     * @return 是否在超时前完成刷盘
+     */
+    public boolean awaitDurable(long seq, long timeoutMs) throws InterruptedException {
+        if (durableSeq >= seq) {
+            return true;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (durableMonitor) {
+            while (durableSeq < seq) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                durableMonitor.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取下一批待入库记录：积累到 max 条或等待超过 maxWaitNanos 即返回（可能为空）
+     * 只能由写库线程调用；读出的记录在 commit 之前不会从磁盘删除
+     */
+    public void poll(List<SensorReading> out, int max, long maxWaitNanos) throws InterruptedException {
+        long end;
+        appendLock.lockInterruptibly();
+        try {
+            signalThreshold = max;
+            long remaining = maxWaitNanos;
+            while (writeSeq - readSeq < max && remaining > 0 && running) {
+                remaining = batchReady.awaitNanos(remaining);
+            }
+            end = Math.min(writeSeq, readSeq + max);
+        } finally {
+            appendLock.unlock();
+        }
+        for (long seq = readSeq; seq < end; seq++) {
+            out.add(read(seq));
+        }
+        readSeq = end;
+    }
+
+    /**
+     * 已读出的记录全部入库：推进检查点并删除已完全入库的段文件
+     */
+    public void commit() {
+        long committed = readSeq;
+        if (committed == checkpointSeq) {
+            return;
+        }
+        writeCheckpoint(committed);
+        checkpointSeq = committed;
+        long firstLiveSegment = committed / recordsPerSegment;
+        segments.keySet().removeIf(index -> {
+            if (index >= firstLiveSegment) {
+                return false;
+            }
+            Segment segment = segments.get(index);
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                log.warn("删除预写日志段 {} 失败: {}", segment.path, e.getMessage());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * 未入库的记录数（含已读出但尚未提交的批次）
+     */
+    public long getBacklog() {
+        return writeSeq - checkpointSeq;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    // ========== 刷盘 ==========
+
+    private void runFlusher() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs);
+        while (running) {
+            // append 需要新段时会提前唤醒
+            LockSupport.parkNanos(this, intervalNanos);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            try {
+                force();
+            } catch (RuntimeException e) {
+                log.error("预写日志刷盘失败: {}", e.getMessage());
+            }
+            preallocate();
+        }
+    }
+
+    /**
+     * 推进下一段的预分配；当前段写过一半（或 append 已在等待）且下一段仍在容量范围内时才开始
+     */
+    private void preallocate() {
+        if (preallocation == null) {
+            long seq = writeSeq;
+            long index = seq / recordsPerSegment;
+            if (segments.containsKey(index)) {
+                if (seq % recordsPerSegment < recordsPerSegment / 2) {
+                    return;
+                }
+                index++;
+            }
+            if (segments.containsKey(index) || index * recordsPerSegment >= checkpointSeq + capacity
+                    || System.currentTimeMillis() < preallocateRetryAt) {
+                return;
+            }
+            try {
+                preallocation = Preallocation.start(segmentPath(index), index, recordsPerSegment);
+            } catch (IOException e) {
+                preallocationFailed(segmentPath(index), e);
+                return;
+            }
+        }
+        try {
+            if (!preallocation.advance(PREALLOCATE_BYTES_PER_TICK)) {
+                return;
+            }
+            Segment segment = preallocation.finish();
+            preallocation = null;
+            segments.put(segment.index, segment);
+        } catch (IOException e) {
+            Path path = preallocation.target;
+            preallocation.abort();
+            preallocation = null;
+            preallocationFailed(path, e);
+            return;
+        }
+        appendLock.lock();
+        try {
+            segmentReady.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void preallocationFailed(Path path, IOException e) {
+        preallocateRetryAt = System.currentTimeMillis() + PREALLOCATE_RETRY_MS;
+        log.error("预分配预写日志段 {} 失败（磁盘空间不足？），{}ms 后重试: {}", path, PREALLOCATE_RETRY_MS, e.getMessage());
+    }
+
+    private void force() {
+        long target = writeSeq;
+        long from = durableSeq;
+        if (target <= from) {
+            return;
+        }
+        for (long index = from / recordsPerSegment; index <= (target - 1) / recordsPerSegment; index++) {
+            Segment segment = segments.get(index);
+            if (segment == null) {
+                continue;
+            }
+            long segmentStart = index * recordsPerSegment;
+            int start = (int) ((Math.max(from, segmentStart) - segmentStart) * RECORD_SIZE);
+            int end = (int) ((Math.min(target, segmentStart + recordsPerSegment) - segmentStart) * RECORD_SIZE);
+            segment.buffer.force(start, end - start);
+        }
+        synchronized (durableMonitor) {
+            durableSeq = target;
+            durableMonitor.notifyAll();
+        }
+    }
+
+    // ========== 段文件 ==========
+
+    private void recover() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        long checkpointValue = Files.exists(checkpoint)
+                ? Long.parseLong(Files.readString(checkpoint, StandardCharsets.UTF_8).trim())
+                : 0L;
+
+        long lastIndex = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX + TEMP_SUFFIX)) {
+                    // 上次未完成的预分配
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                if (!name.endsWith(SEGMENT_SUFFIX)) {
+                    continue;
+                }
+                long index = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if ((index + 1) * recordsPerSegment <= checkpointValue) {
+                    Files.deleteIfExists(path);
+                } else {
+                    segments.put(index, Segment.open(path, index, recordsPerSegment));
+                    lastIndex = Math.max(lastIndex, index);
+                }
+            }
+        }
+
+        long end = checkpointValue;
+        if (lastIndex >= 0) {
+            Segment last = segments.get(lastIndex);
+            long seq = Math.max(lastIndex * recordsPerSegment, checkpointValue);
+            long limit = (lastIndex + 1) * recordsPerSegment;
+            while (seq < limit && isValid(last.buffer, offsetOf(seq))) {
+                seq++;
+            }
+            end = Math.max(end, seq);
+        }
+        writeSeq = end;
+        durableSeq = end;
+        readSeq = checkpointValue;
+        checkpointSeq = checkpointValue;
+        if (end > checkpointValue) {
+            log.warn("预写日志中有 {} 条读数尚未入库，将从检查点开始补写", end - checkpointValue);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d", index) + SEGMENT_SUFFIX);
+    }
+
+    private SensorReading read(long seq) {
+        MappedByteBuffer buffer = segments.get(seq / recordsPerSegment).buffer;
+        int offset = offsetOf(seq);
+        return new SensorReading(buffer.getLong(offset), buffer.getLong(offset + 8),
+                buffer.getDouble(offset + 16), buffer.getDouble(offset + 24),
+                buffer.getDouble(offset + 32), buffer.getDouble(offset + 40));
+    }
+
+    private int offsetOf(long seq) {
+        return (int) (seq % recordsPerSegment) * RECORD_SIZE;
+    }
+
+    private boolean isValid(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + PAYLOAD_SIZE + 4) == MAGIC
+                && buffer.getInt(offset + PAYLOAD_SIZE) == checksum(buffer, offset);
+    }
+
+    private int checksum(ByteBuffer buffer, int offset) {
+        crc.reset();
+        crc.update(buffer.slice(offset, PAYLOAD_SIZE));
+        return (int) crc.getValue();
+    }
+
+    private void writeCheckpoint(long value) {
+        Path target = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + TEMP_SUFFIX);
+        try {
+            Files.writeString(temp, Long.toString(value), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            move(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入预写日志检查点失败", e);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private record Segment(Path path, long index, FileChannel channel, MappedByteBuffer buffer) {
+
+        static Segment open(Path path, long index, long records) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, records * RECORD_SIZE);
+            return new Segment(path, index, channel, buffer);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // 映射在通道关闭后仍然有效，这里忽略
+            }
+        }
+    }
+
+    /**
+     * 一个段文件的预分配过程：先在临时文件中逐块写入零值并 fsync（占用真实磁盘块，不产生稀疏文件），
+     * 写满后改名为正式段文件再映射；全零记录不通过魔数校验，恢复时视为空位
+     */
+    private static final class Preallocation {
+
+        private final Path target;
+        private final Path temp;
+        private final long index;
+        private final long records;
+        private final long size;
+        private final FileChannel channel;
+        private final ByteBuffer zeros = ByteBuffer.allocate(64 * 1024);
+        private long position;
+
+        private Preallocation(Path target, long index, long records) throws IOException {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+            this.index = index;
+            this.records = records;
+            this.size = records * RECORD_SIZE;
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+
+        static Preallocation start(Path target, long index, long records) throws IOException {
+            return new Preallocation(target, index, records);
+        }
+
+        /**
+         * 继续写入零值
+         * @return 是否已写满
+         */
+        boolean advance(int maxBytes) throws IOException {
+            long end = Math.min(size, position + maxBytes);
+            while (position < end) {
+                zeros.clear().limit((int) Math.min(zeros.capacity(), end - position));
+                position += channel.write(zeros, position);
+            }
+            return position >= size;
+        }
+
+        Segment finish() throws IOException {
+            channel.force(true);
+            channel.close();
+            move(temp, target);
+            return Segment.open(target, index, records);
+        }
+
+        void abort() {
+            try {
+                channel.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("清理未完成的预写日志段 {} 失败: {}", temp, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.strawberry.irrigation.module_device.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_device.cache.LatestReadingStore;
+import com.strawberry.irrigation.module_device.config.LivePushProperties;
+import com.strawberry.irrigation.module_device.dto.SensorDataResponse;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.service.SensorReadingListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 实时读数推送中心（SSE）
+ * <p>
+ * 采集回调只做两件事：按设备查订阅索引，有订阅者时把设备标记为"有更新"。
+ * 推送周期线程每个 tick 从 LatestReadingStore 取各设备最新读数（天然合并为每设备一帧），
+ * 每帧只序列化一次，再分发到订阅该设备的连接；真正的网络写出由发送线程池完成，
+ * 慢连接只会让自己的待发送帧被合并或丢弃，不影响其他连接和采集链路。
+ * <p>
+ * 写出是阻塞的：单帧写出超过 write-timeout-ms 的连接在下一个推送周期被断开，
+ * 阻塞在其上的发送线程不再计入可用线程，线程池临时扩容补足，其他连接的推送不受影响；
+ * 结束连接（emitter 的方法与写出互斥）交给独立线程执行，推送周期线程不会被卡住。
+ */
+@Slf4j
+@Component
+public class LiveReadingHub implements SensorReadingListener {
+
+    private final LivePushProperties properties;
+    private final LatestReadingStore latestReadingStore;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 订阅索引：设备ID → 订阅该设备的连接
+     */
+    private final Map<Long, Set<LiveSession>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<LiveSession> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<Long, AtomicInteger> sessionsPerUser = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyDevices = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder sentFrames = new LongAdder();
+    private final LongAdder droppedFrames = new LongAdder();
+    private final ThreadPoolExecutor sender;
+    private final ExecutorService closer;
+
+    /**
+     * 写出超时、仍占用发送线程的连接
+     */
+    private final Set<LiveSession> stuckWriters = ConcurrentHashMap.newKeySet();
+
+    public LiveReadingHub(LivePushProperties properties, LatestReadingStore latestReadingStore,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latestReadingStore = latestReadingStore;
+        this.objectMapper = objectMapper;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(properties.getSenderThreads(), properties.getSenderThreads(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "live-push-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.closer = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "live-push-closer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("device.live.sessions", sessions, Set::size)
+                .description("实时推送连接数")
+                .register(meterRegistry);
+        FunctionCounter.builder("device.live.frames", sentFrames, LongAdder::doubleValue)
+                .tag("result", "sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("device.live.frames", droppedFrames, LongAdder::doubleValue)
+                .tag("result", "dropped")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        closer.shutdownNow();
+        sessions.forEach(session -> session.emitter().complete());
+    }
+
+    @Override
+    public void onReading(SensorReading reading) {
+        if (subscriptions.containsKey(reading.deviceId())) {
+            dirtyDevices.add(reading.deviceId());
+        }
+    }
+
+    /**
+     * 建立推送连接（调用方负责校验设备归属）
+     * @param userId    用户ID
+     * @param deviceIds 订阅的设备ID（已去重）
+     * @return SSE 连接
+     */
+    public SseEmitter subscribe(long userId, long[] deviceIds) {
+        if (deviceIds.length > properties.getMaxDevicesPerSession()) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                    "单个连接最多订阅 " + properties.getMaxDevicesPerSession() + " 台设备");
+        }
+        AtomicInteger userSessions = sessionsPerUser.computeIfAbsent(userId, id -> new AtomicInteger());
+        if (userSessions.incrementAndGet() > properties.getMaxSessionsPerUser()) {
+            userSessions.decrementAndGet();
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "实时推送连接数已达上限");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getSessionTimeoutMs());
+        LiveSession session = new LiveSession(emitter, userId, deviceIds,
+                properties.getClientBufferSize(), droppedFrames);
+        emitter.onCompletion(() -> unsubscribe(session));
+        emitter.onTimeout(() -> unsubscribe(session));
+        emitter.onError(e -> unsubscribe(session));
+
+        sessions.add(session);
+        for (long deviceId : deviceIds) {
+            subscriptions.compute(deviceId, (id, subscribers) -> {
+                Set<LiveSession> target = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                target.add(session);
+                return target;
+            });
+        }
+
+        // 先推送一次当前值，客户端不必等待下一条上报
+        boolean schedule = false;
+        for (long deviceId : deviceIds) {
+            SensorReading reading = latestReadingStore.get(deviceId);
+            Set<DataWithMediaType> frame = reading != null ? frame(reading) : null;
+            if (frame != null) {
+                schedule |= session.offer(deviceId, frame);
+            }
+        }
+        if (schedule) {
+            sender.execute(() -> drain(session));
+        }
+        log.debug("用户 {} 建立实时推送连接，订阅 {} 台设备", userId, deviceIds.length);
+        return emitter;
+    }
+
+    /**
+     * 推送周期：合并本周期内有更新的设备，每台设备生成一帧并分发
+     */
+    @Scheduled(fixedDelayString = "${app.device.live.tick-ms:1000}")
+    public void tick() {
+        evictTimedOutWriters(System.currentTimeMillis());
+        if (dirtyDevices.isEmpty()) {
+            return;
+        }
+        Map<LiveSession, Boolean> toSchedule = new HashMap<>();
+        Iterator<Long> iterator = dirtyDevices.iterator();
+        while (iterator.hasNext()) {
+            long deviceId = iterator.next();
+            iterator.remove();
+            Set<LiveSession> subscribers = subscriptions.get(deviceId);
+            SensorReading reading = latestReadingStore.get(deviceId);
+            if (subscribers == null || subscribers.isEmpty() || reading == null) {
+                continue;
+            }
+            Set<DataWithMediaType> frame = frame(reading);
+            if (frame == null) {
+                continue;
+            }
+            for (LiveSession session : subscribers) {
+                if (session.offer(deviceId, frame)) {
+                    toSchedule.put(session, Boolean.TRUE);
+                }
+            }
+        }
+        toSchedule.keySet().forEach(session -> sender.execute(() -> drain(session)));
+    }
+
+    /**
+     * 心跳与慢连接清理
+     */
+    @Scheduled(fixedDelayString = "#{${app.device.live.heartbeat-seconds:15} * 1000}")
+    public void heartbeat() {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        for (LiveSession session : sessions) {
+            if (session.isStalled(now, properties.getSlowConsumerTimeoutMs())) {
+                log.info("用户 {} 的实时推送连接长时间无法写出，断开连接", session.userId());
+                close(session);
+            } else if (session.offer(LiveSession.HEARTBEAT_KEY, ping)) {
+                sender.execute(() -> drain(session));
+            }
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void drain(LiveSession session) {
+        List<Set<DataWithMediaType>> frames;
+        while (!(frames = session.takeFrames()).isEmpty()) {
+            for (Set<DataWithMediaType> frame : frames) {
+                if (session.isClosed()) {
+                    return;
+                }
+                session.beginWrite();
+                try {
+                    session.emitter().send(frame);
+                    session.markProgress();
+                    sentFrames.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // 客户端已断开：由容器回调 onError/onCompletion 清理，这里只停止写出
+                    unsubscribe(session);
+                    return;
+                } finally {
+                    session.endWrite();
+                    if (stuckWriters.remove(session)) {
+                        resizeSender();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 断开写出超时的连接，并为阻塞在其上的发送线程临时补一个线程
+     */
+    private void evictTimedOutWriters(long now) {
+        for (LiveSession session : sessions) {
+            if (!session.isWriteTimedOut(now, properties.getWriteTimeoutMs()) || !stuckWriters.add(session)) {
+                continue;
+            }
+            // 登记之后写出恰好结束：发送线程可能已错过登记，这里自行撤销
+            if (!session.isWriting()) {
+                stuckWriters.remove(session);
+                continue;
+            }
+            log.info("用户 {} 的实时推送连接单帧写出超过 {}ms，断开连接", session.userId(), properties.getWriteTimeoutMs());
+            resizeSender();
+            close(session);
+        }
+    }
+
+    private synchronized void resizeSender() {
+        int size = Math.min(Math.max(properties.getMaxSenderThreads(), properties.getSenderThreads()),
+                properties.getSenderThreads() + stuckWriters.size());
+        if (size > sender.getMaximumPoolSize()) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else if (size < sender.getCorePoolSize()) {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * 断开连接：emitter 的方法与阻塞中的写出互斥，在独立线程中结束，写出返回（超时或出错）后连接随即关闭
+     */
+    private void close(LiveSession session) {
+        unsubscribe(session);
+        closer.execute(() -> session.emitter().complete());
+    }
+
+    private Set<DataWithMediaType> frame(SensorReading reading) {
+        try {
+            String json = objectMapper.writeValueAsString(new SensorDataResponse(reading));
+            return SseEmitter.event()
+                    .name("reading")
+                    .id(reading.deviceId() + "-" + reading.epochMillis())
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("实时推送帧序列化失败，设备 {}: {}", reading.deviceId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void unsubscribe(LiveSession session) {
+        if (!sessions.remove(session)) {
+            return;
+        }
+        session.close();
+        for (long deviceId : session.deviceIds()) {
+            subscriptions.computeIfPresent(deviceId, (id, subscribers) -> {
+                subscribers.remove(session);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        sessionsPerUser.computeIfPresent(session.userId(),
+                (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+        log.debug("用户 {} 的实时推送连接已关闭", session.userId());
+    }
+}
@@ -0,0 +1,136 @@
+package com.strawberry.irrigation.module_device.live;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个 SSE 推送连接
+ * 待发送帧按设备合并：同一设备的新帧覆盖尚未发出的旧帧（慢连接只会收到较新的数据），
+ * 待发送帧总数超过上限时丢弃最早的帧。同一时刻最多一个发送线程在写这个连接。
+ */
+class LiveSession {
+
+    /**
+     * 心跳帧的合并键（设备ID均为正数）
+     */
+    static final long HEARTBEAT_KEY = -1L;
+
+    private final SseEmitter emitter;
+    private final long userId;
+    private final long[] deviceIds;
+    private final int bufferSize;
+    private final LongAdder droppedFrames;
+
+    private final LinkedHashMap<Long, Set<DataWithMediaType>> pending = new LinkedHashMap<>();
+    private boolean draining;
+    private volatile long lastProgressAt = System.currentTimeMillis();
+    /**
+     * 当前这次写出的开始时间，0 表示没有正在进行的写出
+     */
+    private volatile long writeStartedAt;
+    private volatile boolean closed;
+
+    LiveSession(SseEmitter emitter, long userId, long[] deviceIds, int bufferSize, LongAdder droppedFrames) {
+        this.emitter = emitter;
+        this.userId = userId;
+        this.deviceIds = deviceIds;
+        this.bufferSize = bufferSize;
+        this.droppedFrames = droppedFrames;
+    }
+
+    /**
+     * 加入一帧
+     * @return 是否需要调度发送（当前没有发送线程在处理此连接）
+     */
+    synchronized boolean offer(long key, Set<DataWithMediaType> frame) {
+        if (closed) {
+            return false;
+        }
+        if (pending.remove(key) != null) {
+            droppedFrames.increment();
+        } else if (pending.size() >= bufferSize) {
+            Iterator<Long> eldest = pending.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            droppedFrames.increment();
+        }
+        pending.put(key, frame);
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        lastProgressAt = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * 取出全部待发送帧；没有待发送帧时结束本轮发送
+     */
+    synchronized List<Set<DataWithMediaType>> takeFrames() {
+        if (pending.isEmpty() || closed) {
+            draining = false;
+            return List.of();
+        }
+        List<Set<DataWithMediaType>> frames = new ArrayList<>(pending.values());
+        pending.clear();
+        return frames;
+    }
+
+    void markProgress() {
+        lastProgressAt = System.currentTimeMillis();
+    }
+
+    void beginWrite() {
+        writeStartedAt = System.currentTimeMillis();
+    }
+
+    void endWrite() {
+        writeStartedAt = 0;
+    }
+
+    boolean isWriting() {
+        return writeStartedAt != 0;
+    }
+
+    /**
+     * 单次写出已超过 timeoutMs 仍未返回（客户端不读、TCP 发送缓冲区已满）
+     */
+    boolean isWriteTimedOut(long now, long timeoutMs) {
+        long started = writeStartedAt;
+        return started != 0 && now - started > timeoutMs;
+    }
+
+    /**
+     * 有待发送帧且长时间没有进展（客户端不读或网络阻塞）
+     */
+    synchronized boolean isStalled(long now, long timeoutMs) {
+        return draining && now - lastProgressAt > timeoutMs;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    long userId() {
+        return userId;
+    }
+
+    long[] deviceIds() {
+        return deviceIds;
+    }
+}
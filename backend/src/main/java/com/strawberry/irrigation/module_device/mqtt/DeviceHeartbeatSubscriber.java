@@ -0,0 +1,72 @@
+package com.strawberry.irrigation.module_device.mqtt;
+
+import com.strawberry.irrigation.common.config.MqttProperties;
+import com.strawberry.irrigation.module_device.presence.DevicePresenceTracker;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 设备心跳 MQTT 订阅者
+ * 订阅 strawberry/device/{device-id}/heartbeat，报文内容不解析，只记录一次设备活动（内存操作，不写库）
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.mqtt", name = "enabled", havingValue = "true")
+public class DeviceHeartbeatSubscriber implements IMqttMessageListener {
+
+    private static final String TOPIC_PREFIX = "strawberry/device/";
+    private static final String TOPIC_SUFFIX = "/heartbeat";
+
+    private final MqttClient mqttClient;
+    private final MqttProperties properties;
+    private final DeviceRegistry deviceRegistry;
+    private final DevicePresenceTracker presenceTracker;
+
+    public DeviceHeartbeatSubscriber(MqttClient mqttClient,
+                                     MqttProperties properties,
+                                     DeviceRegistry deviceRegistry,
+                                     DevicePresenceTracker presenceTracker) {
+        this.mqttClient = mqttClient;
+        this.properties = properties;
+        this.deviceRegistry = deviceRegistry;
+        this.presenceTracker = presenceTracker;
+    }
+
+    @PostConstruct
+    public void start() throws MqttException {
+        // 心跳丢失一条无关紧要，使用 QoS 0
+        mqttClient.subscribe(properties.getHeartbeatTopic(), 0, this);
+        log.info("已订阅设备心跳主题: {}", properties.getHeartbeatTopic());
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) {
+        String physicalId = extractDeviceId(topic);
+        RegisteredDevice device = physicalId != null ? deviceRegistry.find(physicalId) : null;
+        if (device == null) {
+            log.debug("收到未注册设备的心跳，忽略: {}", topic);
+            return;
+        }
+        presenceTracker.touch(device.id(), System.currentTimeMillis());
+    }
+
+    /**
+     * 从 strawberry/device/{device-id}/heartbeat 中提取设备物理ID
+     */
+    static String extractDeviceId(String topic) {
+        if (!topic.startsWith(TOPIC_PREFIX) || !topic.endsWith(TOPIC_SUFFIX)) {
+            return null;
+        }
+        int from = TOPIC_PREFIX.length();
+        int to = topic.length() - TOPIC_SUFFIX.length();
+        return to > from ? topic.substring(from, to) : null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.strawberry.irrigation.module_device.mqtt;
+
+import com.strawberry.irrigation.common.config.MqttProperties;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.ingest.ReadingTimestampPolicy;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_device.service.SensorDataService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.IMqttMessageListener;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 传感器数据 MQTT 订阅者
+ * 订阅 strawberry/sensor/{device-id}/data，在回调线程内直接解析报文字节并提交到采集管道。
+ * 设备物理ID 通过 DeviceRegistry 的内存索引解析为内部ID，不访问数据库。
+ * Paho 的消息回调是单线程的，因此解析器实例可以复用。
+ * 集群部署时每个节点都会收到全部设备的消息，只采集（入库）归属本节点分片的设备（ClusterMembership#ingests）；
+ * 其他设备的读数只更新本地最新读数缓存与监听器，使任意节点上的 current-data、实时推送和在线统计都能看到全部设备。
+ * 分片迁移期间由原节点继续采集，规则评估等有副作用的处理另按 owns 判断。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.mqtt", name = "enabled", havingValue = "true")
+public class SensorMqttSubscriber implements IMqttMessageListener {
+
+    static final String TOPIC_PREFIX = "strawberry/sensor/";
+    static final String TOPIC_SUFFIX = "/data";
+
+    private final MqttClient mqttClient;
+    private final MqttProperties properties;
+    private final DeviceRegistry deviceRegistry;
+    private final SensorDataService sensorDataService;
+    private final ClusterMembership clusterMembership;
+    private final ReadingTimestampPolicy timestampPolicy;
+
+    private final SensorPayloadParser parser = new SensorPayloadParser();
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong foreignCount = new AtomicLong();
+
+    public SensorMqttSubscriber(MqttClient mqttClient,
+                                MqttProperties properties,
+                                DeviceRegistry deviceRegistry,
+                                SensorDataService sensorDataService,
+                                ClusterMembership clusterMembership,
+                                ReadingTimestampPolicy timestampPolicy) {
+        this.mqttClient = mqttClient;
+        this.properties = properties;
+        this.deviceRegistry = deviceRegistry;
+        this.sensorDataService = sensorDataService;
+        this.clusterMembership = clusterMembership;
+        this.timestampPolicy = timestampPolicy;
+    }
+
+    @PostConstruct
+    public void start() throws MqttException {
+        mqttClient.subscribe(properties.getSensorTopic(), properties.getQos(), this);
+        log.info("已订阅传感器数据主题: {}", properties.getSensorTopic());
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) {
+        receivedCount.incrementAndGet();
+
+        String physicalId = extractDeviceId(topic);
+        if (physicalId == null) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        RegisteredDevice device = deviceRegistry.find(physicalId);
+        if (device == null) {
+            droppedCount.incrementAndGet();
+            log.debug("收到未注册设备的数据，忽略: {}", physicalId);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        SensorReading reading;
+        try {
+            reading = parser.parse(message.getPayload(), device.id(), now);
+        } catch (IllegalArgumentException e) {
+            droppedCount.incrementAndGet();
+            log.warn("设备 {} 上报的报文无法解析: {}", physicalId, e.getMessage());
+            return;
+        }
+        if (!timestampPolicy.isAcceptable(reading.epochMillis(), now)) {
+            droppedCount.incrementAndGet();
+            log.debug("设备 {} 上报的采集时间 {} 超出允许范围，忽略", physicalId, reading.epochMillis());
+            return;
+        }
+        if (!clusterMembership.ingests(device.id())) {
+            foreignCount.incrementAndGet();
+            sensorDataService.observeSensorData(reading);
+            return;
+        }
+        if (!sensorDataService.saveSensorData(reading)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 归属其他节点分片、只更新本地缓存而不入库的消息数
+     */
+    public long getForeignCount() {
+        return foreignCount.get();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 从 strawberry/sensor/{device-id}/data 中提取设备物理ID
+     */
+    static String extractDeviceId(String topic) {
+        if (!topic.startsWith(TOPIC_PREFIX) || !topic.endsWith(TOPIC_SUFFIX)) {
+            return null;
+        }
+        int from = TOPIC_PREFIX.length();
+        int to = topic.length() - TOPIC_SUFFIX.length();
+        return to > from ? topic.substring(from, to) : null;
+    }
+}
@@ -0,0 +1,335 @@
+package com.strawberry.irrigation.module_device.mqtt;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.ingest.ReadingTimestampPolicy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 传感器上报报文解析器
+ * 直接在 MQTT 报文的字节数组上扫描 {"humidity":..,"temperature":..,"timestamp":..}，
+ * 不构建 Jackson 树、不生成中间 String，整条报文只产生最终的 SensorReading 一个对象。
+ * <p>
+ * 非线程安全：内部保存扫描游标，每个消费线程持有自己的实例。
+ */
+public final class SensorPayloadParser {
+
+    private static final int FIELD_UNKNOWN = 0;
+    private static final int FIELD_HUMIDITY = 1;
+    private static final int FIELD_TEMPERATURE = 2;
+    private static final int FIELD_LIGHT = 3;
+    private static final int FIELD_BATTERY = 4;
+    private static final int FIELD_TIMESTAMP = 5;
+
+    private static final byte[] KEY_HUMIDITY = ascii("humidity");
+    private static final byte[] KEY_SOIL_HUMIDITY = ascii("soil_humidity");
+    private static final byte[] KEY_SOIL_HUMIDITY_CAMEL = ascii("soilHumidity");
+    private static final byte[] KEY_TEMPERATURE = ascii("temperature");
+    private static final byte[] KEY_LIGHT = ascii("light");
+    private static final byte[] KEY_LIGHT_INTENSITY = ascii("light_intensity");
+    private static final byte[] KEY_LIGHT_INTENSITY_CAMEL = ascii("lightIntensity");
+    private static final byte[] KEY_BATTERY = ascii("battery");
+    private static final byte[] KEY_BATTERY_LEVEL = ascii("battery_level");
+    private static final byte[] KEY_BATTERY_LEVEL_CAMEL = ascii("batteryLevel");
+    private static final byte[] KEY_TIMESTAMP = ascii("timestamp");
+
+    /**
+     * 2^53，超过该值的尾数无法用 double 精确表示
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private byte[] buf;
+    private int pos;
+    private int end;
+
+    /**
+     * 解析一条报文
+     * @param payload            报文字节
+     * @param offset             起始偏移
+     * @param length             长度
+     * @param deviceId           设备内部ID
+     * @param defaultEpochMillis 报文未携带时间戳时使用的时间
+     * @return 读数（未出现的测量值为 NaN）
+     * @throws IllegalArgumentException 报文不是合法的 JSON 对象
+     */
+    public SensorReading parse(byte[] payload, int offset, int length, long deviceId, long defaultEpochMillis) {
+        this.buf = payload;
+        this.pos = offset;
+        this.end = offset + length;
+        try {
+            return parseObject(deviceId, defaultEpochMillis);
+        } finally {
+            this.buf = null;
+        }
+    }
+
+    public SensorReading parse(byte[] payload, long deviceId, long defaultEpochMillis) {
+        return parse(payload, 0, payload.length, deviceId, defaultEpochMillis);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private SensorReading parseObject(long deviceId, long defaultEpochMillis) {
+        double humidity = Double.NaN;
+        double temperature = Double.NaN;
+        double light = Double.NaN;
+        double battery = Double.NaN;
+        long epochMillis = defaultEpochMillis;
+
+        skipWhitespace();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return new SensorReading(deviceId, epochMillis, humidity, temperature, light, battery);
+        }
+
+        while (true) {
+            skipWhitespace();
+            int field = readKey();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            byte c = peek();
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                double value = readNumber();
+                switch (field) {
+                    case FIELD_HUMIDITY -> humidity = value;
+                    case FIELD_TEMPERATURE -> temperature = value;
+                    case FIELD_LIGHT -> light = value;
+                    case FIELD_BATTERY -> battery = value;
+                    case FIELD_TIMESTAMP -> {
+                        epochMillis = ReadingTimestampPolicy.toEpochMillis((long) value);
+                    }
+                    default -> {
+                        // 未知字段忽略
+                    }
+                }
+            } else {
+                skipValue();
+            }
+
+            skipWhitespace();
+            byte sep = next();
+            if (sep == '}') {
+                break;
+            }
+            if (sep != ',') {
+                throw error("期望 ',' 或 '}'");
+            }
+        }
+        return new SensorReading(deviceId, epochMillis, humidity, temperature, light, battery);
+    }
+
+    /**
+     * 读取键名并直接在原字节上比对，返回字段编号
+     */
+    private int readKey() {
+        expect('"');
+        int start = pos;
+        boolean escaped = false;
+        while (true) {
+            byte c = next();
+            if (c == '\\') {
+                escaped = true;
+                next();
+            } else if (c == '"') {
+                break;
+            }
+        }
+        // 含转义字符的键不可能是已知字段
+        return escaped ? FIELD_UNKNOWN : matchKey(start, pos - 1);
+    }
+
+    private int matchKey(int from, int to) {
+        switch (to - from) {
+            case 5:
+                return keyEquals(from, to, KEY_LIGHT) ? FIELD_LIGHT : FIELD_UNKNOWN;
+            case 7:
+                return keyEquals(from, to, KEY_BATTERY) ? FIELD_BATTERY : FIELD_UNKNOWN;
+            case 8:
+                return keyEquals(from, to, KEY_HUMIDITY) ? FIELD_HUMIDITY : FIELD_UNKNOWN;
+            case 9:
+                return keyEquals(from, to, KEY_TIMESTAMP) ? FIELD_TIMESTAMP : FIELD_UNKNOWN;
+            case 11:
+                return keyEquals(from, to, KEY_TEMPERATURE) ? FIELD_TEMPERATURE : FIELD_UNKNOWN;
+            case 12:
+                if (keyEquals(from, to, KEY_SOIL_HUMIDITY_CAMEL)) {
+                    return FIELD_HUMIDITY;
+                }
+                return keyEquals(from, to, KEY_BATTERY_LEVEL_CAMEL) ? FIELD_BATTERY : FIELD_UNKNOWN;
+            case 13:
+                if (keyEquals(from, to, KEY_SOIL_HUMIDITY)) {
+                    return FIELD_HUMIDITY;
+                }
+                return keyEquals(from, to, KEY_BATTERY_LEVEL) ? FIELD_BATTERY : FIELD_UNKNOWN;
+            case 14:
+                return keyEquals(from, to, KEY_LIGHT_INTENSITY_CAMEL) ? FIELD_LIGHT : FIELD_UNKNOWN;
+            case 15:
+                return keyEquals(from, to, KEY_LIGHT_INTENSITY) ? FIELD_LIGHT : FIELD_UNKNOWN;
+            default:
+                return FIELD_UNKNOWN;
+        }
+    }
+
+    private boolean keyEquals(int from, int to, byte[] key) {
+        return Arrays.equals(buf, from, to, key, 0, key.length);
+    }
+
+    /**
+     * 解析数字。尾数不超过 2^53 且十进制指数在 ±22 以内时可精确换算（覆盖传感器上报的常见格式），
+     * 其余极少见的情况回退到 Double.parseDouble
+     */
+    private double readNumber() {
+        int start = pos;
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            pos++;
+        }
+
+        long mantissa = 0;
+        int exp10 = 0;
+        int digits = 0;
+        boolean exact = true;
+
+        while (pos < end && isDigit(buf[pos])) {
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (buf[pos] - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                exp10++;
+                exact = false;
+            }
+            pos++;
+        }
+        if (pos < end && buf[pos] == '.') {
+            pos++;
+            while (pos < end && isDigit(buf[pos])) {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (buf[pos] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exp10--;
+                } else {
+                    exact = false;
+                }
+                pos++;
+            }
+        }
+        if (pos < end && (buf[pos] == 'e' || buf[pos] == 'E')) {
+            pos++;
+            boolean expNegative = false;
+            if (pos < end && (buf[pos] == '+' || buf[pos] == '-')) {
+                expNegative = buf[pos] == '-';
+                pos++;
+            }
+            int exponent = 0;
+            while (pos < end && isDigit(buf[pos])) {
+                exponent = Math.min(exponent * 10 + (buf[pos] - '0'), 10_000);
+                pos++;
+            }
+            exp10 += expNegative ? -exponent : exponent;
+        }
+        if (pos == start || (negative && pos == start + 1)) {
+            throw error("非法数字");
+        }
+
+        if (exact && mantissa < MAX_EXACT_MANTISSA && exp10 >= -22 && exp10 <= 22) {
+            double value = exp10 >= 0 ? mantissa * POW10[exp10] : mantissa / POW10[-exp10];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 跳过一个任意 JSON 值（字符串、对象、数组、字面量）
+     */
+    private void skipValue() {
+        byte c = peek();
+        if (c == '"') {
+            pos++;
+            skipStringBody();
+        } else if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                byte b = next();
+                if (b == '"') {
+                    skipStringBody();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            // true / false / null
+            while (pos < end && buf[pos] != ',' && buf[pos] != '}' && !isWhitespace(buf[pos])) {
+                pos++;
+            }
+        }
+    }
+
+    private void skipStringBody() {
+        while (true) {
+            byte b = next();
+            if (b == '\\') {
+                next();
+            } else if (b == '"') {
+                return;
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(buf[pos])) {
+            pos++;
+        }
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw error("期望 '" + c + "'");
+        }
+    }
+
+    private byte peek() {
+        if (pos >= end) {
+            throw error("报文意外结束");
+        }
+        return buf[pos];
+    }
+
+    private byte next() {
+        if (pos >= end) {
+            throw error("报文意外结束");
+        }
+        return buf[pos++];
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("传感器报文格式错误（位置 " + pos + "）: " + message);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,66 @@
+package com.strawberry.irrigation.module_device.mqtt;
+
+import com.strawberry.irrigation.common.config.MqttProperties;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HTTP 上报读数转发器
+ * 集群部署时 HTTP 请求可能落到不负责该设备的节点，此时把读数按设备上报的格式发布到
+ * strawberry/sensor/{device-id}/data，由负责节点（SensorMqttSubscriber）采集并评估规则，
+ * 其余节点同时收到该消息并更新本地最新读数、实时推送与在线状态，与设备直接走 MQTT 上报完全一致。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.mqtt", name = "enabled", havingValue = "true")
+public class SensorReadingForwarder {
+
+    private final MqttClient mqttClient;
+    private final MqttProperties properties;
+
+    /**
+     * 发布一条读数（同步等待 Broker 确认）
+     * @param physicalId 设备物理ID
+     * @param reading    读数
+     * @return 是否发布成功（false 时调用方按背压处理）
+     */
+    public boolean forward(String physicalId, SensorReading reading) {
+        String topic = SensorMqttSubscriber.TOPIC_PREFIX + physicalId + SensorMqttSubscriber.TOPIC_SUFFIX;
+        MqttMessage message = new MqttMessage(payload(reading).getBytes(StandardCharsets.UTF_8));
+        message.setQos(properties.getQos());
+        try {
+            mqttClient.publish(topic, message);
+            return true;
+        } catch (MqttException e) {
+            log.warn("转发设备 {} 的读数失败: {}", physicalId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 生成 SensorPayloadParser 可解析的报文，时间戳使用毫秒，缺失的测量值不输出
+     */
+    static String payload(SensorReading reading) {
+        StringBuilder json = new StringBuilder(128).append('{');
+        appendIfPresent(json, "soil_humidity", reading.soilHumidity());
+        appendIfPresent(json, "temperature", reading.temperature());
+        appendIfPresent(json, "light_intensity", reading.lightIntensity());
+        appendIfPresent(json, "battery_level", reading.batteryLevel());
+        return json.append("\"timestamp\":").append(reading.epochMillis()).append('}').toString();
+    }
+
+    private static void appendIfPresent(StringBuilder json, String field, double value) {
+        if (!Double.isNaN(value)) {
+            json.append('"').append(field).append("\":").append(value).append(',');
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.strawberry.irrigation.module_device.partition;
+
+import java.time.DayOfWeek;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 时间分区粒度
+ * 分区名后缀使用分区起始日期，按字典序即为时间顺序
+ */
+public enum PartitionInterval {
+
+    DAY("yyyyMMdd") {
+        @Override
+        ZonedDateTime floor(ZonedDateTime time) {
+            return time.truncatedTo(ChronoUnit.DAYS);
+        }
+
+        @Override
+        ZonedDateTime next(ZonedDateTime start) {
+            return start.plusDays(1);
+        }
+    },
+
+    WEEK("yyyyMMdd") {
+        @Override
+        ZonedDateTime floor(ZonedDateTime time) {
+            return time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        ZonedDateTime next(ZonedDateTime start) {
+            return start.plusWeeks(1);
+        }
+    },
+
+    MONTH("yyyyMM") {
+        @Override
+        ZonedDateTime floor(ZonedDateTime time) {
+            return time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        }
+
+        @Override
+        ZonedDateTime next(ZonedDateTime start) {
+            return start.plusMonths(1);
+        }
+    };
+
+    private final DateTimeFormatter suffixFormat;
+
+    PartitionInterval(String suffixPattern) {
+        this.suffixFormat = DateTimeFormatter.ofPattern(suffixPattern);
+    }
+
+    /**
+     * 时间点所在分区的起始时间
+     */
+    abstract ZonedDateTime floor(ZonedDateTime time);
+
+    /**
+     * 下一个分区的起始时间
+     */
+    abstract ZonedDateTime next(ZonedDateTime start);
+
+    DateTimeFormatter suffixFormat() {
+        return suffixFormat;
+    }
+
+    /**
+     * 按名称解析（不区分大小写），无法识别时返回 null
+     */
+    public static PartitionInterval fromName(String name) {
+        for (PartitionInterval interval : values()) {
+            if (interval.name().equalsIgnoreCase(name)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+}
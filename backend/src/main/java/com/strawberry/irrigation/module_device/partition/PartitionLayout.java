@@ -0,0 +1,97 @@
+package com.strawberry.irrigation.module_device.partition;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 时间分区布局：分区命名、边界计算与按时间定位分区
+ * 分区名格式：{父表}_p{起始日期}，如 sensor_data_p20240501；哈希子分区再追加 _h{余数}
+ */
+public class PartitionLayout {
+
+    private final String parent;
+    private final PartitionInterval interval;
+    private final ZoneId zone;
+    private final String prefix;
+
+    public PartitionLayout(String parent, PartitionInterval interval, ZoneId zone) {
+        this.parent = parent;
+        this.interval = interval;
+        this.zone = zone;
+        this.prefix = parent + "_p";
+    }
+
+    /**
+     * 一个时间分区
+     * @param name        分区表名
+     * @param startMillis 起始时间（含）
+     * @param endMillis   结束时间（不含）
+     * @param from        起始时间的 SQL 字面量
+     * @param to          结束时间的 SQL 字面量
+     */
+    public record Partition(String name, long startMillis, long endMillis, String from, String to) {
+
+        public boolean contains(long epochMillis) {
+            return epochMillis >= startMillis && epochMillis < endMillis;
+        }
+
+        public String hashChild(int remainder) {
+            return name + "_h" + remainder;
+        }
+    }
+
+    public String getParent() {
+        return parent;
+    }
+
+    /**
+     * 时间点所在的分区
+     */
+    public Partition partitionFor(long epochMillis) {
+        return partitionStarting(interval.floor(Instant.ofEpochMilli(epochMillis).atZone(zone)));
+    }
+
+    /**
+     * 从时间点所在分区开始的连续 count 个分区（按时间顺序）
+     */
+    public List<Partition> partitionsFrom(long epochMillis, int count) {
+        List<Partition> partitions = new ArrayList<>(count);
+        ZonedDateTime start = interval.floor(Instant.ofEpochMilli(epochMillis).atZone(zone));
+        for (int i = 0; i < count; i++) {
+            partitions.add(partitionStarting(start));
+            start = interval.next(start);
+        }
+        return partitions;
+    }
+
+    /**
+     * 从分区表名还原分区，不是本布局创建的表返回 null
+     */
+    public Partition parse(String tableName) {
+        if (tableName == null || !tableName.startsWith(prefix)) {
+            return null;
+        }
+        String suffix = tableName.substring(prefix.length());
+        try {
+            ZonedDateTime start = interval == PartitionInterval.MONTH
+                    ? YearMonth.parse(suffix, interval.suffixFormat()).atDay(1).atStartOfDay(zone)
+                    : LocalDate.parse(suffix, interval.suffixFormat()).atStartOfDay(zone);
+            return interval.floor(start).equals(start) ? partitionStarting(start) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private Partition partitionStarting(ZonedDateTime start) {
+        ZonedDateTime end = interval.next(start);
+        return new Partition(prefix + interval.suffixFormat().format(start),
+                start.toInstant().toEpochMilli(), end.toInstant().toEpochMilli(),
+                start.toOffsetDateTime().toString(), end.toOffsetDateTime().toString());
+    }
+}
@@ -0,0 +1,210 @@
+package com.strawberry.irrigation.module_device.partition;
+
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.config.StorageProperties;
+import com.strawberry.irrigation.module_device.dao.SensorPartitionMapper;
+import com.strawberry.irrigation.module_device.partition.PartitionLayout.Partition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * sensor_data 原生分区管理（app.device.storage.mode=partitioned 时启用，适用于未安装 TimescaleDB 的站点）
+ * <p>
+ * 父表按 time 做 RANGE 分区（建表见 db/sensor_data_partitioned.sql），本组件定期：
+ * 1. 提前创建未来 premake 个时间分区（可选再按 device_id 做 HASH 子分区）；默认分区中已有落在该时间范围的行
+ *    （设备时钟超前等）时，在同一事务内建独立表、把这些行移入后再 ATTACH，否则 CREATE ... PARTITION OF 会一直失败；
+ * 2. 对超出保留期的分区 DETACH + DROP，代替大范围 DELETE（不产生死元组，也无需 VACUUM）；
+ * 3. 刷新本地分区目录，供批量写入直接定位时间分区。
+ * 开启哈希子分区时写入仍定位到时间分区，由 PostgreSQL 按其哈希函数路由到叶子分区。
+ * 集群部署时 1、2 两步的 DDL 只在主节点（ClusterMembership#isLeader）上执行，每个节点都刷新自己的分区目录。
+ * 每个分区的操作单独捕获异常，一个分区失败不影响其余分区和目录刷新。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.device.storage", name = "mode", havingValue = "partitioned")
+public class SensorPartitionManager {
+
+    public static final String PARENT_TABLE = "sensor_data";
+
+    /**
+     * 默认分区（建表见 db/sensor_data_partitioned.sql）
+     */
+    static final String DEFAULT_PARTITION = PARENT_TABLE + "_default";
+
+    private final SensorPartitionMapper partitionMapper;
+    private final StorageProperties.Partitioned properties;
+    private final PartitionLayout layout;
+    private final ClusterMembership clusterMembership;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 已存在的时间分区：起始时间 → 分区（整体替换发布，读者无锁）
+     */
+    private volatile NavigableMap<Long, Partition> partitions = Collections.emptyNavigableMap();
+
+    public SensorPartitionManager(SensorPartitionMapper partitionMapper, StorageProperties storageProperties,
+                                  ClusterMembership clusterMembership, PlatformTransactionManager transactionManager) {
+        this.partitionMapper = partitionMapper;
+        this.clusterMembership = clusterMembership;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = storageProperties.getPartitioned();
+        PartitionInterval interval = PartitionInterval.fromName(properties.getInterval());
+        if (interval == null) {
+            throw new IllegalStateException("无效的分区粒度: " + properties.getInterval() + "，可选值：day, week, month");
+        }
+        ZoneId zone = StringUtils.hasText(properties.getTimeZone())
+                ? ZoneId.of(properties.getTimeZone())
+                : ZoneId.systemDefault();
+        this.layout = new PartitionLayout(PARENT_TABLE, interval, zone);
+    }
+
+    /**
+     * 读数应写入的表：命中已知时间分区时返回分区表名，否则返回父表（由数据库路由，未覆盖的时间落入默认分区）
+     */
+    public String tableFor(long epochMillis) {
+        if (!properties.isRouteInserts()) {
+            return PARENT_TABLE;
+        }
+        Map.Entry<Long, Partition> entry = partitions.floorEntry(epochMillis);
+        return entry != null && entry.getValue().contains(epochMillis) ? entry.getValue().name() : PARENT_TABLE;
+    }
+
+    /**
+     * 分区维护：启动后立即执行一次，之后按 maintenance-interval-ms 周期执行
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.device.storage.partitioned.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        try {
+            if (!partitionMapper.isPartitioned(PARENT_TABLE)) {
+                log.error("{} 不是分区表，请先执行 db/sensor_data_partitioned.sql", PARENT_TABLE);
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.error("检查 {} 分区状态失败: {}", PARENT_TABLE, e.getMessage());
+            return;
+        }
+        if (clusterMembership.isLeader()) {
+            long now = System.currentTimeMillis();
+            createAhead(now);
+            dropExpired(now);
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("刷新 sensor_data 分区目录失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 已知时间分区数（用于监控）
+     */
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void createAhead(long now) {
+        // 当前分区 + 未来 premake 个分区
+        List<Partition> wanted = layout.partitionsFrom(now, properties.getPremake() + 1);
+        for (Partition partition : wanted) {
+            if (partitions.containsKey(partition.startMillis())) {
+                continue;
+            }
+            try {
+                createPartition(partition);
+            } catch (RuntimeException e) {
+                log.error("创建 sensor_data 分区 {} 失败: {}", partition.name(), e.getMessage());
+            }
+        }
+    }
+
+    private void createPartition(Partition partition) {
+        int hashPartitions = properties.getHashPartitions();
+        if (partitionMapper.hasRowsBetween(DEFAULT_PARTITION, partition.from(), partition.to())) {
+            int moved = transactionTemplate.execute(status -> {
+                partitionMapper.lockTable(DEFAULT_PARTITION);
+                if (hashPartitions > 0) {
+                    partitionMapper.createDetachedHashedTable(PARENT_TABLE, partition.name());
+                    createHashChildren(partition, hashPartitions);
+                } else {
+                    partitionMapper.createDetachedTable(PARENT_TABLE, partition.name());
+                }
+                int count = partitionMapper.moveRows(DEFAULT_PARTITION, partition.name(),
+                        partition.from(), partition.to());
+                partitionMapper.attachPartition(PARENT_TABLE, partition.name(), partition.from(), partition.to());
+                return count;
+            });
+            log.warn("已创建 sensor_data 分区 {}（{} ~ {}），并从默认分区移入 {} 行", partition.name(),
+                    partition.from(), partition.to(), moved);
+            return;
+        }
+        if (hashPartitions > 0) {
+            partitionMapper.createHashedRangePartition(PARENT_TABLE, partition.name(),
+                    partition.from(), partition.to());
+            createHashChildren(partition, hashPartitions);
+        } else {
+            partitionMapper.createRangePartition(PARENT_TABLE, partition.name(),
+                    partition.from(), partition.to());
+        }
+        log.info("已创建 sensor_data 分区 {}（{} ~ {}）", partition.name(), partition.from(), partition.to());
+    }
+
+    private void createHashChildren(Partition partition, int hashPartitions) {
+        for (int remainder = 0; remainder < hashPartitions; remainder++) {
+            partitionMapper.createHashPartition(partition.name(), partition.hashChild(remainder),
+                    hashPartitions, remainder);
+        }
+    }
+
+    private void dropExpired(long now) {
+        if (properties.getRetentionDays() <= 0) {
+            return;
+        }
+        long cutoff = now - Duration.ofDays(properties.getRetentionDays()).toMillis();
+        List<String> existing;
+        try {
+            existing = partitionMapper.listPartitions(PARENT_TABLE);
+        } catch (RuntimeException e) {
+            log.error("列出 sensor_data 分区失败: {}", e.getMessage());
+            return;
+        }
+        for (String name : existing) {
+            Partition partition = layout.parse(name);
+            if (partition == null || partition.endMillis() > cutoff) {
+                continue;
+            }
+            try {
+                partitionMapper.detachPartition(PARENT_TABLE, name);
+                partitionMapper.dropTable(name);
+                log.info("已删除过期 sensor_data 分区 {}（早于 {}）", name, partition.to());
+            } catch (RuntimeException e) {
+                log.error("删除过期 sensor_data 分区 {} 失败: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private void refresh() {
+        NavigableMap<Long, Partition> known = new TreeMap<>();
+        for (String name : partitionMapper.listPartitions(PARENT_TABLE)) {
+            Partition partition = layout.parse(name);
+            if (partition != null) {
+                known.put(partition.startMillis(), partition);
+            }
+        }
+        partitions = Collections.unmodifiableNavigableMap(known);
+    }
+}
@@ -0,0 +1,297 @@
+package com.strawberry.irrigation.module_device.presence;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.strawberry.irrigation.common.utils.TimingWheel;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_cluster.shard.ShardAssignmentChangedEvent;
+import com.strawberry.irrigation.module_device.config.PresenceProperties;
+import com.strawberry.irrigation.module_device.dao.DeviceMapper;
+import com.strawberry.irrigation.module_device.dto.DeviceActivity;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.entity.Device;
+import com.strawberry.irrigation.module_device.service.SensorReadingListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 设备在线状态跟踪
+ * <p>
+ * 心跳/读数只在内存中更新最后活动时间（一次 volatile 写），不访问数据库。
+ * 离线判定由分层时间轮完成：设备上线时插入一个"超时检查"，到期时若期间有过活动就按最新活动时间重新插入，
+ * 否则判定离线；没有逐设备的定时任务，也没有全表扫描。
+ * <p>
+ * 写库只有两类：在线/离线状态变化（按 transition-flush-ms 合并为批量 UPDATE），
+ * 以及 last_active_at 的周期性批量回写（只写有新活动的设备）。
+ * <p>
+ * 集群部署时每个节点都会收到全部设备的心跳与读数（MQTT 订阅不分片），因此内存中跟踪全部设备，
+ * 任意节点的在线统计都是完整的；写库（状态变化与 last_active_at）只由负责该设备的节点（owns）执行，避免重复写入。
+ */
+@Slf4j
+@Component
+public class DevicePresenceTracker implements SensorReadingListener {
+
+    private static final int UPDATE_CHUNK_SIZE = 1_000;
+
+    private final PresenceProperties properties;
+    private final DeviceMapper deviceMapper;
+    private final ClusterMembership clusterMembership;
+    private final long timeoutMillis;
+
+    private final Map<Long, Presence> presences = new ConcurrentHashMap<>();
+    private final AtomicInteger onlineCount = new AtomicInteger();
+
+    /**
+     * 新上线、需要插入时间轮的设备（时间轮只由 tick 线程访问）
+     */
+    private final Queue<Presence> armQueue = new ConcurrentLinkedQueue<>();
+    private final Queue<Transition> transitions = new ConcurrentLinkedQueue<>();
+    private final TimingWheel<Presence> wheel;
+
+    /**
+     * 写库失败后保留的状态变化，下次合并重试（只由状态写库任务访问）
+     */
+    private final Map<Long, Boolean> pendingTransitions = new HashMap<>();
+
+    public DevicePresenceTracker(PresenceProperties properties, DeviceMapper deviceMapper,
+                                 ClusterMembership clusterMembership, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.deviceMapper = deviceMapper;
+        this.clusterMembership = clusterMembership;
+        this.timeoutMillis = properties.getOfflineTimeoutSeconds() * 1000L;
+        this.wheel = new TimingWheel<>(properties.getTickMs(), System.currentTimeMillis());
+        Gauge.builder("device.presence.online", onlineCount, AtomicInteger::get)
+                .description("在线设备数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 数据库中仍标记为在线的设备（例如上次停机前在线）先视为刚刚活动过，
+     * 超时内没有心跳会正常判定离线并写回，避免状态永久停留在"在线"
+     */
+    @PostConstruct
+    public synchronized void restoreOnlineDevices() {
+        try {
+            List<Object> ids = deviceMapper.selectObjs(new QueryWrapper<Device>().select("id").eq("is_online", true));
+            long now = System.currentTimeMillis();
+            for (Object id : ids) {
+                long deviceId = ((Number) id).longValue();
+                Presence presence = presenceOf(deviceId);
+                synchronized (presence) {
+                    if (!presence.online) {
+                        presence.lastSeen = now;
+                        presence.flushedLastSeen = now;
+                        presence.online = true;
+                        onlineCount.incrementAndGet();
+                        armQueue.add(presence);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("读取设备在线状态失败，所有设备按离线处理: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 分片变化后补充恢复数据库中在线、但本节点尚未见过的设备（已在跟踪中的设备不受影响）
+     */
+    @EventListener(ShardAssignmentChangedEvent.class)
+    public void onShardChanged() {
+        restoreOnlineDevices();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushTransitions();
+        flushLastActive();
+    }
+
+    @Override
+    public void onReading(SensorReading reading) {
+        touch(reading.deviceId(), System.currentTimeMillis());
+    }
+
+    /**
+     * 记录一次设备活动（心跳或读数）
+     */
+    public void touch(long deviceId, long nowMillis) {
+        Presence presence = presenceOf(deviceId);
+        // 先写 lastSeen 再读 online：与 expire 中"先置离线再复查 lastSeen"配对，
+        // 两边至少有一方能看到对方的写入，在线设备的心跳不会被漏判为离线
+        presence.lastSeen = nowMillis;
+        if (presence.online) {
+            return;
+        }
+        synchronized (presence) {
+            if (!presence.online) {
+                presence.online = true;
+                onlineCount.incrementAndGet();
+                if (clusterMembership.owns(deviceId)) {
+                    transitions.add(new Transition(deviceId, true));
+                }
+                armQueue.add(presence);
+            }
+        }
+    }
+
+    public boolean isOnline(long deviceId) {
+        Presence presence = presences.get(deviceId);
+        return presence != null && presence.online;
+    }
+
+    public int getOnlineCount() {
+        return onlineCount.get();
+    }
+
+    /**
+     * 推进时间轮：插入新上线的设备，处理到期的超时检查
+     */
+    @Scheduled(fixedRateString = "${app.device.presence.tick-ms:1000}")
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    void tick(long nowMillis) {
+        Presence armed;
+        while ((armed = armQueue.poll()) != null) {
+            wheel.schedule(armed, armed.lastSeen + timeoutMillis);
+        }
+        wheel.advance(nowMillis, presence -> expire(presence, nowMillis));
+    }
+
+    @Scheduled(fixedDelayString = "${app.device.presence.transition-flush-ms:1000}")
+    public synchronized void flushTransitions() {
+        Transition transition;
+        while ((transition = transitions.poll()) != null) {
+            pendingTransitions.put(transition.deviceId(), transition.online());
+        }
+        if (pendingTransitions.isEmpty()) {
+            return;
+        }
+        List<Long> online = new ArrayList<>();
+        List<Long> offline = new ArrayList<>();
+        pendingTransitions.forEach((deviceId, isOnline) -> (isOnline ? online : offline).add(deviceId));
+        try {
+            updateOnline(online, true);
+            updateOnline(offline, false);
+            pendingTransitions.clear();
+        } catch (RuntimeException e) {
+            log.warn("写入设备在线状态失败，{} 条变化将在下个周期重试: {}", pendingTransitions.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.device.presence.last-active-flush-ms:60000}",
+            initialDelayString = "${app.device.presence.last-active-flush-ms:60000}")
+    public synchronized void flushLastActive() {
+        List<DeviceActivity> batch = new ArrayList<>(UPDATE_CHUNK_SIZE);
+        List<Presence> flushed = new ArrayList<>(UPDATE_CHUNK_SIZE);
+        for (Presence presence : presences.values()) {
+            long lastSeen = presence.lastSeen;
+            if (lastSeen == presence.flushedLastSeen || !clusterMembership.owns(presence.deviceId)) {
+                continue;
+            }
+            batch.add(new DeviceActivity(presence.deviceId, lastSeen));
+            flushed.add(presence);
+            if (batch.size() == UPDATE_CHUNK_SIZE) {
+                if (!writeLastActive(batch, flushed)) {
+                    return;
+                }
+                batch = new ArrayList<>(UPDATE_CHUNK_SIZE);
+                flushed = new ArrayList<>(UPDATE_CHUNK_SIZE);
+            }
+        }
+        writeLastActive(batch, flushed);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private Presence presenceOf(long deviceId) {
+        Presence presence = presences.get(deviceId);
+        return presence != null ? presence : presences.computeIfAbsent(deviceId, Presence::new);
+    }
+
+    /**
+     * 上线/离线切换都在设备自身的监视器内完成，与 touch 的慢路径互斥，
+     * 避免同一设备重复计数、状态变化顺序颠倒或时间轮中残留多个条目
+     */
+    private void expire(Presence presence, long nowMillis) {
+        synchronized (presence) {
+            long deadline = presence.lastSeen + timeoutMillis;
+            if (deadline > nowMillis) {
+                // 期间有过活动：按最新活动时间重新插入（惰性续期，心跳本身不触碰时间轮）
+                wheel.schedule(presence, deadline);
+                return;
+            }
+            presence.online = false;
+            deadline = presence.lastSeen + timeoutMillis;
+            if (deadline > nowMillis) {
+                // 判定离线的同时恰好收到心跳（该心跳已按在线处理并返回），撤销离线
+                presence.online = true;
+                wheel.schedule(presence, deadline);
+                return;
+            }
+            onlineCount.decrementAndGet();
+            // 其他节点负责的设备只更新内存状态，离线由负责节点写库
+            if (clusterMembership.owns(presence.deviceId)) {
+                transitions.add(new Transition(presence.deviceId, false));
+            }
+        }
+    }
+
+    private void updateOnline(List<Long> ids, boolean online) {
+        for (int from = 0; from < ids.size(); from += UPDATE_CHUNK_SIZE) {
+            deviceMapper.updateOnline(ids.subList(from, Math.min(ids.size(), from + UPDATE_CHUNK_SIZE)), online);
+        }
+    }
+
+    private boolean writeLastActive(List<DeviceActivity> batch, List<Presence> flushed) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            deviceMapper.updateLastActive(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                flushed.get(i).flushedLastSeen = batch.get(i).epochMillis();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("回写设备最后活动时间失败，将在下个周期重试: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private record Transition(long deviceId, boolean online) {
+    }
+
+    private static final class Presence {
+
+        private final long deviceId;
+        /**
+         * 在线状态，只在设备监视器内修改（touch 的快路径无锁读取）
+         */
+        private volatile boolean online;
+        private volatile long lastSeen;
+        /**
+         * 已写入数据库的最后活动时间（只由回写任务访问）
+         */
+        private long flushedLastSeen;
+
+        private Presence(long deviceId) {
+            this.deviceId = deviceId;
+        }
+    }
+}
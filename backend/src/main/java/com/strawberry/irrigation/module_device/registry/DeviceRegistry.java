@@ -0,0 +1,245 @@
+package com.strawberry.irrigation.module_device.registry;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.strawberry.irrigation.module_device.config.DeviceRegistryProperties;
+import com.strawberry.irrigation.module_device.dao.DeviceMapper;
+import com.strawberry.irrigation.module_device.entity.Device;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 设备注册表
+ * <p>
+ * 启动时把 devices 表加载到内存：物理ID（驻留字符串）→ 设备、内部ID → 设备、所有者 → 设备ID 集合。
+ * 采集（MQTT Client ID 解析）、权限校验（设备归属）和规则动作（执行器查找）都直接查内存，不访问数据库。
+ * <p>
+ * 之后按 devices.updated_at 轮询增量变化（需执行 db/devices_registry.sql），并定期全量重载以清除已删除的设备；
+ * 数据库不可用时保留现有索引。未执行迁移脚本时退化为每个轮询周期全量重载。
+ * <p>
+ * 新建设备（无论由哪个节点或外部系统创建）在下一次轮询前查不到时按ID 回源一次，
+ * 未命中结果短暂缓存，避免未注册/伪造的ID 反复查库。
+ */
+@Slf4j
+@Component
+public class DeviceRegistry {
+
+    private static final int MISS_CACHE_SIZE = 10_000;
+
+    private final DeviceMapper deviceMapper;
+    private final DeviceRegistryProperties properties;
+
+    /**
+     * 最近回源未命中的物理ID / 内部ID
+     */
+    private final Cache<Object, Boolean> misses;
+
+    private volatile Index index = new Index();
+    private volatile boolean loaded;
+
+    private boolean incremental = true;
+    private LocalDateTime watermark;
+    private long lastFullReloadMillis;
+
+    public DeviceRegistry(DeviceMapper deviceMapper, DeviceRegistryProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.deviceMapper = deviceMapper;
+        this.properties = properties;
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(MISS_CACHE_SIZE)
+                .expireAfterWrite(Duration.ofMillis(properties.getMissLookupCooldownMs()))
+                .build();
+        Gauge.builder("device.registry.size", this, DeviceRegistry::size)
+                .description("注册表中的设备数")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadOnStartup() {
+        // 在 MQTT 订阅建立之前完成加载，避免启动初期的读数被当作未注册设备丢弃
+        refresh();
+    }
+
+    /**
+     * 按物理ID查找设备
+     * @param physicalId 设备物理ID（MQTT Client ID）
+     * @return 设备，未注册时返回 null
+     */
+    public RegisteredDevice find(String physicalId) {
+        RegisteredDevice device = index.byPhysicalId.get(physicalId);
+        return device != null ? device : lookupMissing(physicalId,
+                () -> deviceMapper.selectOne(columns().eq("device_id", physicalId)));
+    }
+
+    /**
+     * 按内部ID查找设备
+     * @return 设备，未注册时返回 null
+     */
+    public RegisteredDevice get(long id) {
+        RegisteredDevice device = index.byId.get(id);
+        return device != null ? device : lookupMissing(id,
+                () -> deviceMapper.selectOne(columns().eq("id", id)));
+    }
+
+    /**
+     * 用户名下的设备ID（只读视图）
+     */
+    public Set<Long> ownedBy(long userId) {
+        Set<Long> owned = index.byOwner.get(userId);
+        return owned != null ? Collections.unmodifiableSet(owned) : Set.of();
+    }
+
+    /**
+     * 所有者 → 名下设备ID（只读视图，用于按农户统计）
+     */
+    public Map<Long, Set<Long>> devicesByOwner() {
+        return Collections.unmodifiableMap(index.byOwner);
+    }
+
+    /**
+     * 是否已成功加载过（未加载时查询结果不能作为"设备不存在"的依据）
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return index.byId.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.device.registry.poll-interval-ms:5000}",
+            initialDelayString = "${app.device.registry.poll-interval-ms:5000}")
+    public synchronized void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            if (!loaded || !incremental || now - lastFullReloadMillis >= properties.getFullReloadIntervalMs()) {
+                reload();
+                lastFullReloadMillis = now;
+            } else {
+                pollChanges();
+            }
+        } catch (RuntimeException e) {
+            log.warn("刷新设备注册表失败，继续使用现有索引: {}", e.getMessage());
+        }
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 索引中查不到的设备按ID 回源一次（注册表未加载时不回源，由调用方按"未加载"处理）
+     */
+    private RegisteredDevice lookupMissing(Object key, Supplier<Device> loader) {
+        if (!loaded || misses.getIfPresent(key) != null) {
+            return null;
+        }
+        try {
+            Device device = loader.get();
+            if (device == null) {
+                misses.put(key, Boolean.TRUE);
+                return null;
+            }
+            RegisteredDevice entry = toEntry(device);
+            index.put(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            log.warn("回源查询设备 {} 失败: {}", key, e.getMessage());
+            misses.put(key, Boolean.TRUE);
+            return null;
+        }
+    }
+
+    private static QueryWrapper<Device> columns() {
+        return new QueryWrapper<Device>().select("id", "device_id", "type", "created_by");
+    }
+
+    /**
+     * 全量重载：先记下水位再读取全表，期间发生的修改会在下一次增量轮询中重复应用（幂等）
+     */
+    private void reload() {
+        LocalDateTime maxUpdatedAt = null;
+        if (incremental) {
+            try {
+                maxUpdatedAt = deviceMapper.selectMaxUpdatedAt();
+            } catch (BadSqlGrammarException e) {
+                incremental = false;
+                log.warn("devices 表缺少 updated_at 列（未执行 db/devices_registry.sql），设备注册表改为定期全量重载");
+            }
+        }
+        List<Device> devices = deviceMapper.selectList(columns());
+
+        Index rebuilt = new Index();
+        for (Device device : devices) {
+            rebuilt.put(toEntry(device));
+        }
+        index = rebuilt;
+        watermark = maxUpdatedAt;
+        if (!loaded) {
+            log.info("设备注册表已加载，共 {} 台设备", rebuilt.byId.size());
+        }
+        loaded = true;
+    }
+
+    private void pollChanges() {
+        LocalDateTime since = watermark != null
+                ? watermark.minus(Duration.ofMillis(properties.getOverlapMs()))
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+        List<Device> changed = deviceMapper.selectChangedSince(since);
+        Index current = index;
+        for (Device device : changed) {
+            current.put(toEntry(device));
+            if (device.getUpdatedAt() != null
+                    && (watermark == null || device.getUpdatedAt().isAfter(watermark))) {
+                watermark = device.getUpdatedAt();
+            }
+        }
+    }
+
+    private static RegisteredDevice toEntry(Device device) {
+        return new RegisteredDevice(device.getId(), device.getDeviceId().intern(), device.getType(),
+                device.getCreatedBy());
+    }
+
+    /**
+     * 内存索引；增量变化原地更新，全量重载时整体替换
+     */
+    private static final class Index {
+
+        private final Map<String, RegisteredDevice> byPhysicalId = new ConcurrentHashMap<>();
+        private final Map<Long, RegisteredDevice> byId = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> byOwner = new ConcurrentHashMap<>();
+
+        void put(RegisteredDevice device) {
+            RegisteredDevice previous = byId.put(device.id(), device);
+            if (previous != null) {
+                if (!previous.physicalId().equals(device.physicalId())) {
+                    byPhysicalId.remove(previous.physicalId(), previous);
+                }
+                if (previous.ownerId() != null && !previous.ownerId().equals(device.ownerId())) {
+                    byOwner.computeIfPresent(previous.ownerId(), (owner, ids) -> {
+                        ids.remove(device.id());
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+            byPhysicalId.put(device.physicalId(), device);
+            if (device.ownerId() != null) {
+                byOwner.computeIfAbsent(device.ownerId(), owner -> ConcurrentHashMap.newKeySet()).add(device.id());
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.strawberry.irrigation.module_device.registry;
+
+/**
+ * 注册表中的设备条目（只包含身份与归属信息）
+ *
+ * @param id         设备内部ID（devices.id）
+ * @param physicalId 设备物理ID（MQTT Client ID）
+ * @param type       设备类型（SENSOR / ACTUATOR）
+ * @param ownerId    所有者（devices.created_by），可能为 null
+ */
+public record RegisteredDevice(long id, String physicalId, String type, Long ownerId) {
+}
@@ -0,0 +1,16 @@
+package com.strawberry.irrigation.module_device.service;
+
+/**
+ * 设备访问权限服务接口
+ * 农户只能访问自己创建的设备（devices.created_by），管理员可访问任意设备
+ */
+public interface DeviceAccessService {
+
+    /**
+     * 校验当前用户可以读写指定设备的数据
+     * @param userId   当前用户ID
+     * @param deviceId 设备内部ID
+     * @throws com.strawberry.irrigation.common.exception.BusinessException 设备不存在（404）或无权访问（403）
+     */
+    void checkAccess(Long userId, Long deviceId);
+}
@@ -0,0 +1,19 @@
+package com.strawberry.irrigation.module_device.service;
+
+import com.strawberry.irrigation.module_device.dto.DevicePresenceSummary;
+
+import java.util.List;
+
+/**
+ * 设备在线状态服务接口
+ */
+public interface DevicePresenceService {
+
+    /**
+     * 按农户统计在线/离线设备数（数据来自内存，不访问设备表）
+     * 管理员返回全部农户，农户只返回自己
+     * @param userId 当前用户ID
+     * @return 每个农户一条统计
+     */
+    List<DevicePresenceSummary> summarize(Long userId);
+}
@@ -0,0 +1,39 @@
+package com.strawberry.irrigation.module_device.service;
+
+import com.strawberry.irrigation.module_device.dto.SensorDataResponse;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+
+/**
+ * 传感器数据服务接口
+ * 定义传感器数据采集与查询的核心业务操作
+ */
+public interface SensorDataService {
+
+    /**
+     * 保存一条传感器读数（异步批量落库）
+     * @param reading 读数
+     * @return 是否被采集管道接收（false 表示发生背压）
+     */
+    boolean saveSensorData(SensorReading reading);
+
+    /**
+     * 处理 HTTP 通道上报的读数
+     * 本节点负责采集该设备时直接入管道；否则转发给负责节点（经 MQTT），保证规则评估只在负责节点进行
+     * @param reading 读数
+     * @return 是否被接收（false 表示发生背压或转发失败）
+     */
+    boolean reportSensorData(SensorReading reading);
+
+    /**
+     * 记录由其他节点负责采集的读数：只更新本地最新读数缓存并通知监听器，不入库
+     * @param reading 读数
+     */
+    void observeSensorData(SensorReading reading);
+
+    /**
+     * 获取设备当前（最新）数据，优先读取本地内存缓存
+     * @param deviceId 设备内部ID
+     * @return 最新读数
+     */
+    SensorDataResponse getCurrentData(Long deviceId);
+}
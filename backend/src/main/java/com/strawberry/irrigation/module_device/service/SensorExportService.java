@@ -0,0 +1,33 @@
+package com.strawberry.irrigation.module_device.service;
+
+import com.strawberry.irrigation.module_device.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * 传感器数据导出服务接口
+ * 以服务端游标逐行读取并直接写出，内存占用与导出行数无关
+ */
+public interface SensorExportService {
+
+    /**
+     * 校验导出参数（在开始写响应之前调用，以便错误仍能以 Result 结构返回）
+     * @param from 起始时间（含）
+     * @param to   结束时间（不含）
+     */
+    void validateExport(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * 将设备在时间范围内的原始数据写入输出流
+     * @param deviceId 设备内部ID
+     * @param from     起始时间（含）
+     * @param to       结束时间（不含）
+     * @param format   导出格式
+     * @param out      输出流（通常为 HTTP 响应体）
+     * @return 导出行数
+     */
+    long export(Long deviceId, LocalDateTime from, LocalDateTime to,
+                ExportFormat format, OutputStream out) throws IOException;
+}
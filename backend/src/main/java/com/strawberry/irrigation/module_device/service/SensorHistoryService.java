@@ -0,0 +1,26 @@
+package com.strawberry.irrigation.module_device.service;
+
+import com.strawberry.irrigation.module_device.dto.SensorHistoryResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * 传感器历史数据服务接口
+ * 按时间范围自动选择数据粒度，并可选 LTTB 降采样，使返回点数与查询耗时不随时间跨度增长
+ */
+public interface SensorHistoryService {
+
+    /**
+     * 查询设备历史数据
+     * @param deviceId   设备内部ID
+     * @param from       起始时间（含）
+     * @param to         结束时间（不含）
+     * @param resolution 粒度：AUTO（默认）, RAW, MINUTE_1, MINUTE_15, HOUR_1, DAY_1
+     * @param mode       返回模式：bucket（默认，按粒度聚合）或 lttb（保形降采样）
+     * @param points     目标点数（为空时使用配置的最大点数）
+     * @param parameter  LTTB 降采样依据的测量参数（默认 SOIL_HUMIDITY）
+     * @return 按列组织的历史数据
+     */
+    SensorHistoryResponse getHistoricalData(Long deviceId, LocalDateTime from, LocalDateTime to,
+                                            String resolution, String mode, Integer points, String parameter);
+}
@@ -0,0 +1,21 @@
+package com.strawberry.irrigation.module_device.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * 实时读数推送服务接口
+ * 以 SSE 长连接推送设备最新读数，替代前端轮询 current-data
+ */
+public interface SensorLiveService {
+
+    /**
+     * 订阅设备实时读数
+     * 农户只能订阅自己创建的设备（devices.created_by），管理员可订阅任意设备
+     * @param userId    当前用户ID
+     * @param deviceIds 设备内部ID，为空时订阅该用户名下的全部设备（管理员必须指定）
+     * @return SSE 连接
+     */
+    SseEmitter subscribe(Long userId, List<Long> deviceIds);
+}
@@ -0,0 +1,17 @@
+package com.strawberry.irrigation.module_device.service;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+
+/**
+ * 传感器读数监听器
+ * 采集链路每收到一条读数都会同步回调所有监听器（最新值缓存、规则引擎等），
+ * 实现必须轻量且不得阻塞（不要在回调里访问数据库）
+ */
+public interface SensorReadingListener {
+
+    /**
+     * 收到一条读数
+     * @param reading 读数
+     */
+    void onReading(SensorReading reading);
+}
@@ -0,0 +1,37 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_device.service.DeviceAccessService;
+import com.strawberry.irrigation.module_user.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * 设备访问权限服务实现类
+ * 与 SensorLiveServiceImpl 相同：按 DeviceRegistry 中的归属判断，管理员不受限
+ */
+@Service
+@RequiredArgsConstructor
+public class DeviceAccessServiceImpl implements DeviceAccessService {
+
+    private final DeviceRegistry deviceRegistry;
+    private final UserService userService;
+
+    @Override
+    public void checkAccess(Long userId, Long deviceId) {
+        RegisteredDevice device = deviceRegistry.get(deviceId);
+        if (device == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND.value(), "设备不存在");
+        }
+        if (userId.equals(device.ownerId())) {
+            return;
+        }
+        if (!SystemConstants.USER_TYPE_ADMIN.equals(userService.getUserById(userId).getUserType())) {
+            throw new BusinessException(HttpStatus.FORBIDDEN.value(), "无权访问该设备");
+        }
+    }
+}
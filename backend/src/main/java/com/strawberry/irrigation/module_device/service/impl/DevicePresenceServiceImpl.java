@@ -0,0 +1,54 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.module_device.dto.DevicePresenceSummary;
+import com.strawberry.irrigation.module_device.presence.DevicePresenceTracker;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.service.DevicePresenceService;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import com.strawberry.irrigation.module_user.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 设备在线状态服务实现类
+ * 设备归属取自 DeviceRegistry，在线状态取自 DevicePresenceTracker，统计过程不访问数据库
+ */
+@Service
+@RequiredArgsConstructor
+public class DevicePresenceServiceImpl implements DevicePresenceService {
+
+    private final DeviceRegistry deviceRegistry;
+    private final DevicePresenceTracker presenceTracker;
+    private final UserService userService;
+
+    @Override
+    public List<DevicePresenceSummary> summarize(Long userId) {
+        UserResponse user = userService.getUserById(userId);
+        if (!SystemConstants.USER_TYPE_ADMIN.equals(user.getUserType())) {
+            return List.of(summarize(userId, deviceRegistry.ownedBy(userId)));
+        }
+        List<DevicePresenceSummary> summaries = new ArrayList<>();
+        for (Map.Entry<Long, Set<Long>> entry : deviceRegistry.devicesByOwner().entrySet()) {
+            summaries.add(summarize(entry.getKey(), entry.getValue()));
+        }
+        summaries.sort(Comparator.comparing(DevicePresenceSummary::getOwnerId));
+        return summaries;
+    }
+
+    private DevicePresenceSummary summarize(Long ownerId, Set<Long> deviceIds) {
+        int online = 0;
+        for (Long deviceId : deviceIds) {
+            if (presenceTracker.isOnline(deviceId)) {
+                online++;
+            }
+        }
+        return new DevicePresenceSummary(ownerId, online, deviceIds.size() - online);
+    }
+}
@@ -0,0 +1,119 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.cache.LatestReadingStore;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.dto.SensorDataResponse;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.entity.SensorData;
+import com.strawberry.irrigation.module_device.ingest.SensorIngestPipeline;
+import com.strawberry.irrigation.module_device.mqtt.SensorReadingForwarder;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_device.service.SensorDataService;
+import com.strawberry.irrigation.module_device.service.SensorReadingListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 传感器数据服务实现类
+ * 写入不直接访问数据库，而是交给采集管道攒批落库；
+ * 最新数据查询优先走本地内存缓存，缓存未命中（如应用刚重启）才回查数据库。
+ * 集群部署时 HTTP 上报落到非负责节点会经 MQTT 转发，由负责节点入库并评估规则
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SensorDataServiceImpl implements SensorDataService {
+
+    private final SensorIngestPipeline ingestPipeline;
+    private final LatestReadingStore latestReadingStore;
+    private final SensorDataMapper sensorDataMapper;
+    private final DeviceRegistry deviceRegistry;
+    private final List<SensorReadingListener> readingListeners;
+    private final ClusterMembership clusterMembership;
+    private final ObjectProvider<SensorReadingForwarder> forwarderProvider;
+
+    @Override
+    public boolean saveSensorData(SensorReading reading) {
+        // 未注册设备的读数会违反外键，导致整批写入失败，在进入管道前拒绝
+        if (deviceRegistry.isLoaded() && deviceRegistry.get(reading.deviceId()) == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND.value(), "设备不存在");
+        }
+        // 先入管道：被背压拒绝的读数不会落库，也不应成为"最新读数"或触发规则
+        boolean accepted = ingestPipeline.offer(reading);
+        if (!accepted) {
+            log.warn("采集队列已满，丢弃设备 {} 的读数", reading.deviceId());
+            return false;
+        }
+        observeSensorData(reading);
+        return true;
+    }
+
+    @Override
+    public boolean reportSensorData(SensorReading reading) {
+        SensorReadingForwarder forwarder = forwarderProvider.getIfAvailable();
+        if (forwarder == null || clusterMembership.ingests(reading.deviceId())) {
+            // 未启用 MQTT 时无法转发，只能本地采集（集群部署需启用 MQTT）
+            return saveSensorData(reading);
+        }
+        RegisteredDevice device = deviceRegistry.get(reading.deviceId());
+        if (device == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND.value(), "设备不存在");
+        }
+        return forwarder.forward(device.physicalId(), reading);
+    }
+
+    @Override
+    public void observeSensorData(SensorReading reading) {
+        latestReadingStore.update(reading);
+        for (SensorReadingListener listener : readingListeners) {
+            try {
+                listener.onReading(reading);
+            } catch (RuntimeException e) {
+                log.error("读数监听器 {} 处理失败: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public SensorDataResponse getCurrentData(Long deviceId) {
+        SensorReading cached = latestReadingStore.get(deviceId);
+        if (cached != null) {
+            return new SensorDataResponse(cached);
+        }
+
+        // 缓存未命中：回查数据库并回填缓存
+        SensorData latest = sensorDataMapper.selectLatest(deviceId);
+        if (latest == null) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "该设备暂无数据");
+        }
+        SensorReading reading = toReading(latest);
+        latestReadingStore.update(reading);
+        return new SensorDataResponse(reading);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private static SensorReading toReading(SensorData data) {
+        return new SensorReading(
+                data.getDeviceId(),
+                data.getTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                orNaN(data.getSoilHumidity()),
+                orNaN(data.getTemperature()),
+                orNaN(data.getLightIntensity()),
+                orNaN(data.getBatteryLevel()));
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
@@ -0,0 +1,155 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_device.archive.SensorArchiveStore;
+import com.strawberry.irrigation.module_device.config.HistoryProperties;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.entity.SensorData;
+import com.strawberry.irrigation.module_device.export.ExportFormat;
+import com.strawberry.irrigation.module_device.service.SensorExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 传感器数据导出服务实现类
+ * 游标必须在事务内遍历：PostgreSQL 驱动只有在关闭自动提交时才按 fetchSize 分批拉取，
+ * 否则会一次性把整个结果集读入内存。
+ * 启用冷数据归档时，与历史查询相同：归档水位线之前的部分先从归档文件读出，其余部分再走数据库游标
+ */
+@Slf4j
+@Service
+public class SensorExportServiceImpl implements SensorExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final SensorDataMapper sensorDataMapper;
+    private final HistoryProperties properties;
+    private final ObjectProvider<SensorArchiveStore> archiveStore;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public SensorExportServiceImpl(SensorDataMapper sensorDataMapper,
+                                   HistoryProperties properties,
+                                   ObjectProvider<SensorArchiveStore> archiveStore,
+                                   PlatformTransactionManager transactionManager) {
+        this.sensorDataMapper = sensorDataMapper;
+        this.properties = properties;
+        this.archiveStore = archiveStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void validateExport(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "起始时间必须早于结束时间");
+        }
+        if (Duration.between(from, to).toDays() > properties.getMaxRangeDays()) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                    "导出时间跨度不能超过 " + properties.getMaxRangeDays() + " 天");
+        }
+    }
+
+    @Override
+    public long export(Long deviceId, LocalDateTime from, LocalDateTime to,
+                       ExportFormat format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        format.writeHeader(writer);
+
+        long archived = 0;
+        Long rows = 0L;
+        try {
+            LocalDateTime hotFrom = from;
+            SensorArchiveStore archive = archiveStore.getIfAvailable();
+            if (archive != null) {
+                // 水位线只读取一次，归档段与数据库段以同一个时间点衔接，不重不漏
+                ZoneId zone = archive.getZone();
+                long watermark = archive.getWatermarkMillis();
+                long fromMillis = from.atZone(zone).toInstant().toEpochMilli();
+                if (fromMillis < watermark) {
+                    long coldEnd = Math.min(to.atZone(zone).toInstant().toEpochMilli(), watermark);
+                    archived = exportArchived(archive, deviceId, fromMillis, coldEnd, format, writer);
+                    LocalDateTime watermarkTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(watermark), zone);
+                    hotFrom = watermarkTime.isAfter(from) ? watermarkTime : from;
+                }
+            }
+            if (hotFrom.isBefore(to)) {
+                LocalDateTime cursorFrom = hotFrom;
+                rows = readOnlyTransaction.execute(status -> exportHot(deviceId, cursorFrom, to, format, writer));
+            }
+        } catch (UncheckedIOException e) {
+            log.warn("设备 {} 数据导出中断: {}", deviceId, e.getCause().getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+
+        long exported = archived + (rows != null ? rows : 0);
+        log.info("设备 {} 导出 {} 行 {} 数据（其中归档 {} 行），耗时 {}ms", deviceId, exported, format, archived,
+                Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return exported;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    /**
+     * 从归档文件导出 [fromMillis, toMillis) 的读数，复用同一个行对象，不逐行分配
+     */
+    private static long exportArchived(SensorArchiveStore archive, Long deviceId, long fromMillis, long toMillis,
+                                       ExportFormat format, Writer writer) {
+        ZoneId zone = archive.getZone();
+        StringBuilder line = new StringBuilder(160);
+        SensorData row = new SensorData();
+        row.setDeviceId(deviceId);
+        return archive.read(deviceId, fromMillis, toMillis, (epochMillis, humidity, temperature, light, battery) -> {
+            row.setTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone));
+            row.setSoilHumidity(orNull(humidity));
+            row.setTemperature(orNull(temperature));
+            row.setLightIntensity(orNull(light));
+            row.setBatteryLevel(orNull(battery));
+            try {
+                format.writeRow(row, line, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 通过数据库游标导出（调用方保证在只读事务内）
+     */
+    private long exportHot(Long deviceId, LocalDateTime from, LocalDateTime to, ExportFormat format, Writer writer) {
+        StringBuilder line = new StringBuilder(160);
+        long count = 0;
+        try (Cursor<SensorData> cursor = sensorDataMapper.cursorRange(deviceId, from, to)) {
+            for (SensorData row : cursor) {
+                format.writeRow(row, line, writer);
+                count++;
+            }
+        } catch (IOException e) {
+            // 客户端断开等写出错误：终止遍历，事务回滚时释放游标与连接
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,179 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_device.archive.BucketingSink;
+import com.strawberry.irrigation.module_device.archive.SensorArchiveStore;
+import com.strawberry.irrigation.module_device.config.HistoryProperties;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.dto.SensorHistoryResponse;
+import com.strawberry.irrigation.module_device.history.HistoryResolution;
+import com.strawberry.irrigation.module_device.history.SensorSeries;
+import com.strawberry.irrigation.module_device.service.SensorHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 传感器历史数据服务实现类
+ * 查询在只读事务中执行，使 PostgreSQL 驱动按 fetchSize 分批拉取，结果直接写入列式数组。
+ * 启用冷数据归档时，归档水位线之前的时间段从归档文件读取（聚合粒度在内存中分桶求平均），之后的部分仍查数据库
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SensorHistoryServiceImpl implements SensorHistoryService {
+
+    private static final String MODE_LTTB = "lttb";
+    private static final String RESOLUTION_AUTO = "AUTO";
+
+    /**
+     * LTTB 模式下源数据相对目标点数的过采样倍数（源点越多形状越准，查询代价也越高）
+     */
+    private static final int LTTB_OVERSAMPLING = 8;
+
+    private final SensorDataMapper sensorDataMapper;
+    private final HistoryProperties properties;
+    private final ObjectProvider<SensorArchiveStore> archiveStore;
+
+    @Override
+    public SensorHistoryResponse getHistoricalData(Long deviceId, LocalDateTime from, LocalDateTime to,
+                                                   String resolution, String mode, Integer points, String parameter) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        validateRange(start, end);
+
+        int targetPoints = points != null ? points : properties.getMaxPoints();
+        if (targetPoints < 3 || targetPoints > 10_000) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "点数必须在3-10000之间");
+        }
+        boolean lttb = MODE_LTTB.equalsIgnoreCase(mode);
+        long rangeSeconds = Duration.between(start, end).getSeconds();
+
+        HistoryResolution chosen;
+        boolean auto = !StringUtils.hasText(resolution) || RESOLUTION_AUTO.equalsIgnoreCase(resolution);
+        if (auto) {
+            int budget = lttb ? targetPoints * LTTB_OVERSAMPLING : targetPoints;
+            chosen = HistoryResolution.select(rangeSeconds, properties.getReportIntervalSeconds(), budget);
+        } else {
+            chosen = parseResolution(resolution);
+            // 显式粒度不受点数预算约束，先按估算点数拦截，避免一次加载数百万行
+            long estimated = chosen.estimatePoints(rangeSeconds, properties.getReportIntervalSeconds());
+            if (estimated > properties.getMaxExplicitPoints()) {
+                throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                        "粒度 " + chosen + " 在该时间范围内约有 " + estimated + " 个点，超过上限 "
+                                + properties.getMaxExplicitPoints() + "，请缩小时间范围、使用更粗的粒度或 AUTO");
+            }
+        }
+
+        int expected = (int) Math.min(chosen.estimatePoints(rangeSeconds, properties.getReportIntervalSeconds()), 100_000);
+        SensorSeries series = new SensorSeries(expected);
+        load(chosen, deviceId, start, end, series);
+
+        int[] indices = null;
+        // 自动粒度下即使最粗粒度仍超出点数预算（例如指定了很少的点数），也用 LTTB 降到预算以内
+        if ((lttb || auto) && series.size() > targetPoints) {
+            int column = parameterColumn(parameter);
+            indices = series.downsample(column, targetPoints);
+        }
+        log.debug("查询设备 {} 历史数据，粒度: {}, 原始点数: {}, 返回点数: {}",
+                deviceId, chosen, series.size(), indices != null ? indices.length : series.size());
+        return toResponse(deviceId, chosen, series, indices);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void load(HistoryResolution resolution, Long deviceId,
+                      LocalDateTime from, LocalDateTime to, SensorSeries series) {
+        SensorArchiveStore archive = archiveStore.getIfAvailable();
+        if (archive != null) {
+            ZoneId zone = archive.getZone();
+            long fromMillis = from.atZone(zone).toInstant().toEpochMilli();
+            long toMillis = to.atZone(zone).toInstant().toEpochMilli();
+            long watermark = archive.getWatermarkMillis();
+            if (fromMillis < watermark) {
+                long coldEnd = Math.min(toMillis, watermark);
+                if (resolution == HistoryResolution.RAW) {
+                    archive.read(deviceId, fromMillis, coldEnd, series::add);
+                } else {
+                    BucketingSink buckets = new BucketingSink(resolution.getBucketSeconds() * 1000L, series::add);
+                    archive.read(deviceId, fromMillis, coldEnd, buckets);
+                    buckets.flush();
+                }
+                if (toMillis <= watermark) {
+                    return;
+                }
+                from = LocalDateTime.ofInstant(Instant.ofEpochMilli(watermark), zone);
+            }
+        }
+
+        if (resolution == HistoryResolution.RAW) {
+            sensorDataMapper.selectRange(deviceId, from, to, series);
+        } else if (properties.isOnTheFly()) {
+            sensorDataMapper.selectBucketed(resolution.getBucketSeconds(), deviceId, from, to, series);
+        } else {
+            sensorDataMapper.selectAggregated(resolution.getAggregateView(), deviceId, from, to, series);
+        }
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "起始时间必须早于结束时间");
+        }
+        if (Duration.between(from, to).toDays() > properties.getMaxRangeDays()) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                    "查询时间跨度不能超过 " + properties.getMaxRangeDays() + " 天");
+        }
+    }
+
+    private static HistoryResolution parseResolution(String resolution) {
+        try {
+            return HistoryResolution.valueOf(resolution.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                    "无效的粒度，可选值：AUTO, RAW, MINUTE_1, MINUTE_15, HOUR_1, DAY_1");
+        }
+    }
+
+    private static int parameterColumn(String parameter) {
+        if (!StringUtils.hasText(parameter)) {
+            return SensorSeries.HUMIDITY;
+        }
+        return switch (parameter.toUpperCase()) {
+            case "SOIL_HUMIDITY" -> SensorSeries.HUMIDITY;
+            case "TEMPERATURE" -> SensorSeries.TEMPERATURE;
+            case "LIGHT_INTENSITY" -> SensorSeries.LIGHT;
+            case "BATTERY_LEVEL" -> SensorSeries.BATTERY;
+            default -> throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "无效的测量参数: " + parameter);
+        };
+    }
+
+    private static SensorHistoryResponse toResponse(Long deviceId, HistoryResolution resolution,
+                                                    SensorSeries series, int[] indices) {
+        int count = indices != null ? indices.length : series.size();
+        long[] times = new long[count];
+        Double[][] columns = new Double[SensorSeries.COLUMN_COUNT][count];
+        for (int i = 0; i < count; i++) {
+            int source = indices != null ? indices[i] : i;
+            times[i] = series.time(source);
+            for (int c = 0; c < SensorSeries.COLUMN_COUNT; c++) {
+                double value = series.value(c, source);
+                columns[c][i] = Double.isNaN(value) ? null : value;
+            }
+        }
+        return new SensorHistoryResponse(deviceId, resolution.name(), indices != null, count, times,
+                columns[SensorSeries.HUMIDITY],
+                columns[SensorSeries.TEMPERATURE],
+                columns[SensorSeries.LIGHT],
+                columns[SensorSeries.BATTERY]);
+    }
+}
@@ -0,0 +1,59 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_device.live.LiveReadingHub;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.service.SensorLiveService;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import com.strawberry.irrigation.module_user.service.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 实时读数推送服务实现类
+ * 建立连接时按 DeviceRegistry 内存索引校验设备归属，之后的推送不再访问数据库
+ */
+@Service
+@RequiredArgsConstructor
+public class SensorLiveServiceImpl implements SensorLiveService {
+
+    private final LiveReadingHub liveReadingHub;
+    private final DeviceRegistry deviceRegistry;
+    private final UserService userService;
+
+    @Override
+    public SseEmitter subscribe(Long userId, List<Long> deviceIds) {
+        UserResponse user = userService.getUserById(userId);
+        boolean admin = SystemConstants.USER_TYPE_ADMIN.equals(user.getUserType());
+        Set<Long> requested = deviceIds != null ? new LinkedHashSet<>(deviceIds) : Set.of();
+
+        long[] authorized;
+        if (admin) {
+            if (requested.isEmpty()) {
+                throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "请指定要订阅的设备");
+            }
+            authorized = toArray(requested);
+        } else {
+            Set<Long> owned = deviceRegistry.ownedBy(userId);
+            if (!requested.isEmpty() && !owned.containsAll(requested)) {
+                throw new BusinessException(HttpStatus.FORBIDDEN.value(), "无权订阅部分设备");
+            }
+            if (owned.isEmpty()) {
+                throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "当前用户名下没有设备");
+            }
+            authorized = toArray(requested.isEmpty() ? owned : requested);
+        }
+        return liveReadingHub.subscribe(userId, authorized);
+    }
+
+    private static long[] toArray(Set<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,203 @@
+package com.strawberry.irrigation.module_user.bulk;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_user.dto.UserCreateRequest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 批量导入数据读取器
+ * 从请求体逐条读取 UserCreateRequest，不把整个请求体读入内存：
+ * JSON 数组使用 Jackson 流式解析逐个元素绑定，CSV 按行解析（首行为列名）
+ */
+public abstract class UserImportReader implements Closeable {
+
+    /**
+     * 读取下一条记录
+     * @return 下一条记录，读完时返回 null
+     */
+    public abstract UserCreateRequest next() throws IOException;
+
+    public static UserImportReader json(InputStream in, ObjectMapper objectMapper) throws IOException {
+        return new JsonArrayReader(objectMapper.getFactory().createParser(in), objectMapper);
+    }
+
+    public static UserImportReader csv(InputStream in) throws IOException {
+        return new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    private static BusinessException badRequest(String message) {
+        return new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, message);
+    }
+
+    // ========== JSON 数组 ==========
+
+    private static final class JsonArrayReader extends UserImportReader {
+
+        private final JsonParser parser;
+        private final ObjectMapper objectMapper;
+        private boolean started;
+
+        JsonArrayReader(JsonParser parser, ObjectMapper objectMapper) {
+            this.parser = parser;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public UserCreateRequest next() throws IOException {
+            if (!started) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw badRequest("导入数据必须是 JSON 数组");
+                }
+                started = true;
+            }
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw badRequest("JSON 数组元素必须是对象");
+            }
+            return objectMapper.readValue(parser, UserCreateRequest.class);
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    // ========== CSV ==========
+
+    private static final class CsvReader extends UserImportReader {
+
+        private static final int USERNAME = 0;
+        private static final int PASSWORD = 1;
+        private static final int EMAIL = 2;
+        private static final int REAL_NAME = 3;
+        private static final int PHONE_NUMBER = 4;
+        private static final int USER_TYPE = 5;
+        private static final int REMARK = 6;
+
+        private final BufferedReader reader;
+        private int[] columnFields;
+
+        CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public UserCreateRequest next() throws IOException {
+            if (columnFields == null) {
+                String header = reader.readLine();
+                if (header == null) {
+                    return null;
+                }
+                columnFields = parseHeader(split(stripBom(header)));
+            }
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            List<String> values = split(line);
+            UserCreateRequest request = new UserCreateRequest();
+            for (int i = 0; i < values.size() && i < columnFields.length; i++) {
+                String value = values.get(i);
+                switch (columnFields[i]) {
+                    case USERNAME -> request.setUsername(value);
+                    case PASSWORD -> request.setPassword(value);
+                    case EMAIL -> request.setEmail(value);
+                    case REAL_NAME -> request.setRealName(value);
+                    case PHONE_NUMBER -> request.setPhoneNumber(value);
+                    case USER_TYPE -> request.setUserType(value);
+                    case REMARK -> request.setRemark(value);
+                    default -> {
+                        // 未知列忽略
+                    }
+                }
+            }
+            return request;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+
+        private static int[] parseHeader(List<String> columns) {
+            int[] fields = new int[columns.size()];
+            boolean hasUsername = false;
+            for (int i = 0; i < fields.length; i++) {
+                String name = columns.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+                fields[i] = switch (name) {
+                    case "username" -> USERNAME;
+                    case "password" -> PASSWORD;
+                    case "email" -> EMAIL;
+                    case "realname" -> REAL_NAME;
+                    case "phone", "phonenumber" -> PHONE_NUMBER;
+                    case "usertype" -> USER_TYPE;
+                    case "remark" -> REMARK;
+                    default -> -1;
+                };
+                hasUsername |= fields[i] == USERNAME;
+            }
+            if (!hasUsername) {
+                throw badRequest("CSV 首行必须是列名，且包含 username 列");
+            }
+            return fields;
+        }
+
+        /**
+         * 拆分一行 CSV，支持双引号包裹的字段与 "" 转义（不支持字段内换行）
+         */
+        private static List<String> split(String line) {
+            List<String> values = new ArrayList<>(8);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            values.add(field.toString());
+            return values;
+        }
+
+        private static String stripBom(String header) {
+            return !header.isEmpty() && header.charAt(0) == '\uFEFF' ? header.substring(1) : header;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.strawberry.irrigation.module_user.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.strawberry.irrigation.module_user.config.UserCacheProperties;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 用户查询两级缓存
+ * <p>
+ * 一级：本地 Caffeine，按条目数与写入时间淘汰，同一 key 的并发未命中只会有一个线程回源；
+ * 二级：可选的 Redis（app.user.cache.redis.enabled=true），多个节点共享，减少冷启动时的回源。
+ * 缓存的是 UserResponse（不含密码），用户名只缓存到 ID 的映射，避免同一用户存两份。
+ * <p>
+ * 更新/删除在事务提交后失效本地与 Redis 条目，并通过 Redis 频道广播给其他节点；
+ * 广播消息丢失时由本地 TTL 兜底。
+ * <p>
+ * 回源读到的可能是提交前的旧值：每次失效递增失效序号，回源前后序号不一致时不回填 Redis 与
+ * 用户名查询路径的本地缓存（先写后查，写入后发现序号变化则撤销），避免旧值在失效之后被重新放回缓存。
+ * 按ID 查询的本地回填在 Caffeine 的计算过程中完成，并发失效会等待计算结束后再清除，无需额外处理。
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private static final String ID_KEY_PREFIX = "user:id:";
+    private static final String USERNAME_KEY_PREFIX = "user:username:";
+
+    private final Cache<Long, UserResponse> byId;
+    private final Cache<String, Long> idByUsername;
+
+    private final UserCacheProperties properties;
+    private final ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 失效序号：任何失效（本地或远程）都会递增，用于识别回源期间发生的失效
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    public UserCache(UserCacheProperties properties,
+                     ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                     ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.redisTemplateProvider = redisTemplateProvider;
+        this.objectMapper = objectMapper;
+        Duration ttl = Duration.ofSeconds(properties.getTtlSeconds());
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idByUsername = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 按ID读取用户，未命中时依次查询 Redis 与数据库
+     * @param id     用户ID
+     * @param loader 数据库加载函数，用户不存在时返回 null（不缓存）
+     */
+    public UserResponse getById(Long id, Function<Long, UserResponse> loader) {
+        return byId.get(id, key -> {
+            long sequence = invalidations.get();
+            UserResponse cached = readRedis(ID_KEY_PREFIX + key);
+            UserResponse loaded = cached != null ? cached : loader.apply(key);
+            if (loaded == null) {
+                return null;
+            }
+            idByUsername.put(loaded.getUsername(), key);
+            if (cached == null) {
+                writeRedis(loaded, sequence);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * 按用户名读取用户
+     * @param username 用户名
+     * @param loader   数据库加载函数，用户不存在时返回 null（不缓存）
+     */
+    public UserResponse getByUsername(String username, Function<String, UserResponse> loader) {
+        Long id = idByUsername.getIfPresent(username);
+        if (id != null) {
+            UserResponse user = byId.getIfPresent(id);
+            if (user != null) {
+                return user;
+            }
+        }
+        long sequence = invalidations.get();
+        UserResponse cached = readRedisByUsername(username);
+        UserResponse user = cached != null ? cached : loader.apply(username);
+        if (user == null) {
+            return null;
+        }
+        if (invalidations.get() != sequence) {
+            // 回源期间发生了失效，读到的可能是旧值：直接返回，不回填缓存
+            return user;
+        }
+        byId.put(user.getId(), user);
+        idByUsername.put(username, user.getId());
+        if (invalidations.get() != sequence) {
+            evictLocal(user.getId(), username);
+            return user;
+        }
+        if (cached == null) {
+            writeRedis(user, sequence);
+        }
+        return user;
+    }
+
+    /**
+     * 在当前事务提交后失效缓存（无事务时立即失效），并广播给其他节点
+     */
+    public void invalidateAfterCommit(Long id, String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id, username, true);
+                }
+            });
+        } else {
+            invalidate(id, username, true);
+        }
+    }
+
+    /**
+     * 处理其他节点广播的失效消息（只清理本地）
+     * @param message 格式：{id}:{username}
+     */
+    public void onRemoteInvalidation(String message) {
+        int separator = message.indexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            Long id = Long.valueOf(message.substring(0, separator));
+            String username = message.substring(separator + 1);
+            invalidations.incrementAndGet();
+            evictLocal(id, username);
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的用户缓存失效消息: {}", message);
+        }
+    }
+
+    /**
+     * 缓存统计（命中、未命中、淘汰次数等）
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = byId.stats();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("size", byId.estimatedSize());
+        data.put("hitCount", stats.hitCount());
+        data.put("missCount", stats.missCount());
+        data.put("hitRate", stats.hitRate());
+        data.put("evictionCount", stats.evictionCount());
+        data.put("loadFailureCount", stats.loadFailureCount());
+        data.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        data.put("redisEnabled", redisEnabled());
+        data.put("redisHitCount", redisHits.sum());
+        data.put("redisMissCount", redisMisses.sum());
+        data.put("redisErrorCount", redisErrors.sum());
+        return data;
+    }
+
+    /**
+     * 本地缓存（供监控绑定）
+     */
+    public Cache<Long, UserResponse> localCache() {
+        return byId;
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void invalidate(Long id, String username, boolean broadcast) {
+        invalidations.incrementAndGet();
+        evictLocal(id, username);
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return;
+        }
+        try {
+            redis.delete(ID_KEY_PREFIX + id);
+            if (username != null) {
+                redis.delete(USERNAME_KEY_PREFIX + username);
+            }
+            if (broadcast) {
+                redis.convertAndSend(properties.getRedis().getChannel(), id + ":" + (username != null ? username : ""));
+            }
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.warn("Redis 用户缓存失效失败，ID: {}, 原因: {}", id, e.getMessage());
+        }
+    }
+
+    private void evictLocal(Long id, String username) {
+        byId.invalidate(id);
+        if (username != null && !username.isEmpty()) {
+            idByUsername.invalidate(username);
+        }
+    }
+
+    private UserResponse readRedis(String key) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return null;
+        }
+        try {
+            String json = redis.opsForValue().get(key);
+            if (json == null) {
+                redisMisses.increment();
+                return null;
+            }
+            redisHits.increment();
+            return objectMapper.readValue(json, UserResponse.class);
+        } catch (JsonProcessingException | RuntimeException e) {
+            redisErrors.increment();
+            log.debug("读取 Redis 用户缓存失败，回源数据库: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private UserResponse readRedisByUsername(String username) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null) {
+            return null;
+        }
+        try {
+            String id = redis.opsForValue().get(USERNAME_KEY_PREFIX + username);
+            if (id == null) {
+                redisMisses.increment();
+                return null;
+            }
+            return readRedis(ID_KEY_PREFIX + id);
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.debug("读取 Redis 用户缓存失败，回源数据库: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 回填 Redis；sequence 为回源前的失效序号，期间发生过失效则不写，写入后才发现失效则撤销
+     */
+    private void writeRedis(UserResponse user, long sequence) {
+        StringRedisTemplate redis = redisTemplate();
+        if (redis == null || invalidations.get() != sequence) {
+            return;
+        }
+        Duration ttl = Duration.ofSeconds(properties.getRedis().getTtlSeconds());
+        try {
+            redis.opsForValue().set(ID_KEY_PREFIX + user.getId(), objectMapper.writeValueAsString(user), ttl);
+            redis.opsForValue().set(USERNAME_KEY_PREFIX + user.getUsername(), String.valueOf(user.getId()), ttl);
+            if (invalidations.get() != sequence) {
+                redis.delete(ID_KEY_PREFIX + user.getId());
+                redis.delete(USERNAME_KEY_PREFIX + user.getUsername());
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            redisErrors.increment();
+            log.debug("写入 Redis 用户缓存失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean redisEnabled() {
+        return properties.getRedis().isEnabled();
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        return redisEnabled() ? redisTemplateProvider.getIfAvailable() : null;
+    }
+}
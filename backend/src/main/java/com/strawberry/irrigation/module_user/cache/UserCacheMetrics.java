@@ -0,0 +1,22 @@
+package com.strawberry.irrigation.module_user.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户本地缓存指标（cache.gets{result=hit|miss}、cache.evictions 等，cache=users）
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheMetrics implements MeterBinder {
+
+    private final UserCache userCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, userCache.localCache(), "users");
+    }
+}
@@ -0,0 +1,33 @@
+package com.strawberry.irrigation.module_user.config;
+
+import com.strawberry.irrigation.module_user.cache.UserCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 用户缓存跨节点失效配置
+ * 仅在启用 Redis 二级缓存时订阅失效频道，收到消息后清理本节点的本地缓存
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.user.cache.redis", name = "enabled", havingValue = "true")
+public class UserCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer userCacheInvalidationContainer(RedisConnectionFactory connectionFactory,
+                                                                        UserCache userCache,
+                                                                        UserCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> userCache.onRemoteInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(properties.getRedis().getChannel()));
+        return container;
+    }
+}
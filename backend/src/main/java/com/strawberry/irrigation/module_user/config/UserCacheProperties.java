@@ -0,0 +1,45 @@
+package com.strawberry.irrigation.module_user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户缓存配置（绑定 app.user.cache.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.user.cache")
+public class UserCacheProperties {
+
+    /**
+     * 本地缓存最大条目数（超出后按 W-TinyLFU 淘汰）
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * 本地缓存写入后过期时间（秒）
+     */
+    private long ttlSeconds = 300;
+
+    private Redis redis = new Redis();
+
+    @Data
+    public static class Redis {
+
+        /**
+         * 是否启用 Redis 二级缓存与跨节点失效广播
+         */
+        private boolean enabled = false;
+
+        /**
+         * Redis 中缓存条目的过期时间（秒）
+         */
+        private long ttlSeconds = 1_800;
+
+        /**
+         * 失效广播频道
+         */
+        private String channel = "user:cache:invalidate";
+    }
+}
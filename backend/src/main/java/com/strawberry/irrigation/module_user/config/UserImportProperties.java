@@ -0,0 +1,24 @@
+package com.strawberry.irrigation.module_user.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户批量导入配置（绑定 app.user.import.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.user.import")
+public class UserImportProperties {
+
+    /**
+     * 每批处理的行数（一次去重查询 + 一次批量插入）
+     */
+    private int batchSize = 500;
+
+    /**
+     * 单次导入允许的最大行数
+     */
+    private int maxRows = 50_000;
+}
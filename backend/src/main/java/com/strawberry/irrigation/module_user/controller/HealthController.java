@@ -2,6 +2,8 @@ package com.strawberry.irrigation.module_user.controller;
 
 
 import com.strawberry.irrigation.common.response.Result;
+import com.strawberry.irrigation.module_user.cache.UserCache;
+import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,8 +18,11 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/system")
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final UserCache userCache;
+
     @GetMapping("/health")
     public Result<Map<String, Object>> health() {
         Map<String, Object> data = new HashMap<>();
@@ -29,6 +34,14 @@ public class HealthController {
         return Result.success(data);
     }
 
+    /**
+     * 用户缓存统计（命中率、淘汰次数、Redis 二级缓存命中情况）
+     */
+    @GetMapping("/cache/users")
+    public Result<Map<String, Object>> userCacheStats() {
+        return Result.success(userCache.stats());
+    }
+
     @GetMapping("/test")
     public Result<String> test() {
         return Result.success("后端服务运行正常！");
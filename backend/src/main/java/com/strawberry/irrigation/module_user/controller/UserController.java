@@ -1,14 +1,19 @@
 package com.strawberry.irrigation.module_user.controller;
 
 import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.pagination.CursorPage;
 import com.strawberry.irrigation.common.response.Result;
 import com.strawberry.irrigation.module_user.dto.UserCreateRequest;
+import com.strawberry.irrigation.module_user.dto.UserImportResponse;
 import com.strawberry.irrigation.module_user.dto.UserResponse;
 import com.strawberry.irrigation.module_user.dto.UserUpdateRequest;
+import com.strawberry.irrigation.module_user.service.UserImportService;
 import com.strawberry.irrigation.module_user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -30,6 +36,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     /**
      * 创建新用户
@@ -37,7 +44,7 @@ public class UserController {
      */
     @PostMapping
     public ResponseEntity<Result<UserResponse>> createUser(@Valid @RequestBody UserCreateRequest request) {
-        log.info("接收到创建用户请求，用户名: {}", request.getUsername());
+        log.debug("接收到创建用户请求，用户名: {}", request.getUsername());
 
         UserResponse userResponse = userService.createUser(request);
 
@@ -47,13 +54,31 @@ public class UserController {
                         SystemConstants.USER_CREATE_SUCCESS, userResponse));
     }
 
+    /**
+     * 批量导入用户
+     * POST /api/users/import
+     * 请求体为 JSON 数组（Content-Type: application/json）或带表头的 CSV（Content-Type: text/csv），
+     * 服务端流式读取，返回逐行导入结果；超过行数上限时只导入前 maxRows 行并标记 truncated
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<Result<UserImportResponse>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        log.debug("接收到批量导入用户请求，格式: {}", csv ? "CSV" : "JSON");
+
+        UserImportResponse response = userImportService.importUsers(body, csv);
+
+        return ResponseEntity.ok(Result.success(response));
+    }
+
     /**
      * 根据ID获取用户信息
      * GET /api/users/{id}
      */
     @GetMapping("/{id}")
     public ResponseEntity<Result<UserResponse>> getUserById(@PathVariable Long id) {
-        log.info("接收到查询用户请求，ID: {}", id);
+        log.debug("接收到查询用户请求，ID: {}", id);
 
         UserResponse userResponse = userService.getUserById(id);
 
@@ -67,7 +92,7 @@ public class UserController {
     @GetMapping("/username/{username}")
     public ResponseEntity<Result<UserResponse>> getUserByUsername(
             @PathVariable @NotBlank(message = "用户名不能为空") String username) {
-        log.info("接收到根据用户名查询用户请求，用户名: {}", username);
+        log.debug("接收到根据用户名查询用户请求，用户名: {}", username);
 
         UserResponse userResponse = userService.getUserByUsername(username);
 
@@ -82,7 +107,7 @@ public class UserController {
     public ResponseEntity<Result<UserResponse>> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserUpdateRequest request) {
-        log.info("接收到更新用户请求，ID: {}", id);
+        log.debug("接收到更新用户请求，ID: {}", id);
 
         UserResponse userResponse = userService.updateUser(id, request);
 
@@ -96,7 +121,7 @@ public class UserController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Result<Void>> deleteUser(@PathVariable Long id) {
-        log.info("接收到删除用户请求，ID: {}", id);
+        log.debug("接收到删除用户请求，ID: {}", id);
 
         userService.deleteUser(id);
 
@@ -110,7 +135,7 @@ public class UserController {
      */
     @GetMapping
     public ResponseEntity<Result<List<UserResponse>>> getAllUsers() {
-        log.info("接收到查询所有用户请求");
+        log.debug("接收到查询所有用户请求");
 
         List<UserResponse> users = userService.getAllUsers();
 
@@ -125,20 +150,36 @@ public class UserController {
     public ResponseEntity<Result<List<UserResponse>>> getUserPage(
             @RequestParam(defaultValue = "1") @Min(value = 1, message = "页码必须大于0") int page,
             @RequestParam(defaultValue = "10") @Min(value = 1, message = "每页大小必须大于0") int size) {
-        log.info("接收到分页查询用户请求，页码: {}, 每页大小: {}", page, size);
+        log.debug("接收到分页查询用户请求，页码: {}, 每页大小: {}", page, size);
 
         List<UserResponse> users = userService.getUserPage(page, size);
 
         return ResponseEntity.ok(Result.success(users));
     }
 
+    /**
+     * 游标分页获取用户列表
+     * GET /api/users/cursor?cursor=&size=20&count=false
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<Result<CursorPage<UserResponse>>> getUserCursorPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        log.debug("接收到游标分页查询用户请求，每页大小: {}", size);
+
+        CursorPage<UserResponse> page = userService.getUserCursorPage(cursor, size, count);
+
+        return ResponseEntity.ok(Result.success(page));
+    }
+
     /**
      * 根据用户类型获取用户列表
      * GET /api/users/type/{userType}
      */
     @GetMapping("/type/{userType}")
     public ResponseEntity<Result<List<UserResponse>>> getUsersByType(@PathVariable String userType) {
-        log.info("接收到根据用户类型查询用户请求，类型: {}", userType);
+        log.debug("接收到根据用户类型查询用户请求，类型: {}", userType);
 
         List<UserResponse> users = userService.getUsersByType(userType);
 
@@ -151,7 +192,7 @@ public class UserController {
      */
     @GetMapping("/count")
     public ResponseEntity<Result<Long>> getUserCount() {
-        log.info("接收到查询用户总数请求");
+        log.debug("接收到查询用户总数请求");
 
         long count = userService.getUserCount();
 
@@ -164,7 +205,7 @@ public class UserController {
      */
     @GetMapping("/check/username/{username}")
     public ResponseEntity<Result<Boolean>> checkUsernameExists(@PathVariable String username) {
-        log.info("接收到检查用户名是否存在请求，用户名: {}", username);
+        log.debug("接收到检查用户名是否存在请求，用户名: {}", username);
 
         boolean exists = userService.isUsernameExists(username);
 
@@ -177,7 +218,7 @@ public class UserController {
      */
     @GetMapping("/check/phone/{phone}")
     public ResponseEntity<Result<Boolean>> checkPhoneExists(@PathVariable String phone) {
-        log.info("接收到检查手机号是否存在请求，手机号: {}", phone);
+        log.debug("接收到检查手机号是否存在请求，手机号: {}", phone);
 
         boolean exists = userService.isPhoneExists(phone);
 
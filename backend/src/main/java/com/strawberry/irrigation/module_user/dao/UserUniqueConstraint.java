@@ -0,0 +1,71 @@
+package com.strawberry.irrigation.module_user.dao;
+
+import com.strawberry.irrigation.module_user.entity.User;
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * users 表上的唯一约束
+ * 创建/更新用户时不再预先逐个 selectCount，而是直接写入，由数据库唯一索引判定冲突，
+ * 再按违反的约束名还原为对应字段的业务提示（约束定义见 db/users_unique_constraints.sql）
+ */
+public enum UserUniqueConstraint {
+
+    USERNAME("users_username_key", "(username)", "用户名"),
+    EMAIL("users_email_key", "(email)", "邮箱"),
+    PHONE_NUMBER("users_phone_number_key", "(phone_number)", "手机号");
+
+    private final String constraintName;
+    private final String keyColumn;
+    private final String label;
+
+    UserUniqueConstraint(String constraintName, String keyColumn, String label) {
+        this.constraintName = constraintName;
+        this.keyColumn = keyColumn;
+        this.label = label;
+    }
+
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 读取用户实体上受本约束约束的字段值
+     */
+    public String valueOf(User user) {
+        return switch (this) {
+            case USERNAME -> user.getUsername();
+            case EMAIL -> user.getEmail();
+            case PHONE_NUMBER -> user.getPhoneNumber();
+        };
+    }
+
+    /**
+     * 根据唯一键冲突异常判断违反的约束
+     * 只依赖错误信息中带引号的约束名（或 Detail 中的列名），与数据库服务端的语言设置无关
+     * @return 对应的约束，无法识别时返回 null
+     */
+    public static UserUniqueConstraint from(DuplicateKeyException e) {
+        StringBuilder messages = new StringBuilder();
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null) {
+                messages.append(cause.getMessage()).append('\n');
+            }
+        }
+        String text = messages.toString();
+        for (UserUniqueConstraint constraint : values()) {
+            if (text.contains(constraint.constraintName)) {
+                return constraint;
+            }
+        }
+        for (UserUniqueConstraint constraint : values()) {
+            if (text.contains(constraint.keyColumn)) {
+                return constraint;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.strawberry.irrigation.module_user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用户批量导入结果DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResponse {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    private long elapsedMs;
+
+    /**
+     * 是否因超过单次导入行数上限而截断：为 true 时仅导入了前 total 行，其余行未读取，需拆分后重新提交
+     */
+    private boolean truncated;
+
+    /**
+     * 逐行结果（按行号排序）
+     */
+    private List<UserImportRowResult> rows;
+}
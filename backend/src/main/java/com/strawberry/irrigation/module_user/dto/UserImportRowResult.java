@@ -0,0 +1,41 @@
+package com.strawberry.irrigation.module_user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量导入单行结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRowResult {
+
+    /**
+     * 行号（从1开始，CSV 不含表头）
+     */
+    private int row;
+
+    private String username;
+
+    private boolean success;
+
+    /**
+     * 导入成功时的用户ID
+     */
+    private Long userId;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+
+    public static UserImportRowResult success(int row, String username, Long userId) {
+        return new UserImportRowResult(row, username, true, userId, null);
+    }
+
+    public static UserImportRowResult failure(int row, String username, String message) {
+        return new UserImportRowResult(row, username, false, null, message);
+    }
+}
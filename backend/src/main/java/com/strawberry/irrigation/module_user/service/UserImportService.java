@@ -0,0 +1,21 @@
+package com.strawberry.irrigation.module_user.service;
+
+import com.strawberry.irrigation.module_user.dto.UserImportResponse;
+
+import java.io.InputStream;
+
+/**
+ * 用户批量导入服务接口
+ */
+public interface UserImportService {
+
+    /**
+     * 从请求体流式导入用户
+     * 按批处理：并行校验 → 导入数据内去重 → 一次查询与已有用户去重 → 批量插入，
+     * 每批独立提交，单行失败不影响其他行
+     * @param body 请求体（JSON 数组或带表头的 CSV）
+     * @param csv  是否为 CSV 格式
+     * @return 逐行导入结果
+     */
+    UserImportResponse importUsers(InputStream body, boolean csv);
+}
@@ -1,5 +1,6 @@
 package com.strawberry.irrigation.module_user.service;
 
+import com.strawberry.irrigation.common.pagination.CursorPage;
 import com.strawberry.irrigation.module_user.dto.UserCreateRequest;
 import com.strawberry.irrigation.module_user.dto.UserResponse;
 import com.strawberry.irrigation.module_user.dto.UserUpdateRequest;
@@ -61,6 +62,15 @@ public interface UserService {
      */
     List<UserResponse> getUserPage(int page, int size);
 
+    /**
+     * 游标（键集）分页获取用户列表，翻页深度不影响查询耗时
+     * @param cursor    上一页返回的游标，第一页为空
+     * @param size      每页大小
+     * @param withCount 是否同时统计总数
+     * @return 分页结果
+     */
+    CursorPage<UserResponse> getUserCursorPage(String cursor, int size, boolean withCount);
+
     /**
      * 根据用户类型获取用户列表
      * @param userType 用户类型
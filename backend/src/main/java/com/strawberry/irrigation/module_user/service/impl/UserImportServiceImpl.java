@@ -0,0 +1,298 @@
+package com.strawberry.irrigation.module_user.service.impl;
+
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.password.PasswordHasher;
+import com.strawberry.irrigation.module_user.bulk.UserImportReader;
+import com.strawberry.irrigation.module_user.config.UserImportProperties;
+import com.strawberry.irrigation.module_user.dao.UserMapper;
+import com.strawberry.irrigation.module_user.dao.UserUniqueConstraint;
+import com.strawberry.irrigation.module_user.dto.UserCreateRequest;
+import com.strawberry.irrigation.module_user.dto.UserImportResponse;
+import com.strawberry.irrigation.module_user.dto.UserImportRowResult;
+import com.strawberry.irrigation.module_user.entity.User;
+import com.strawberry.irrigation.module_user.service.UserImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 用户批量导入服务实现类
+ * 每批最多一次去重查询（username/email/phone_number 三个 IN 条件合并）和一次 BATCH 执行器插入；
+ * 批量插入因并发写入撞上唯一约束时，该批退化为逐行插入，以便准确定位冲突行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private final UserMapper userMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UserImportProperties properties;
+    private final PasswordHasher passwordHasher;
+
+    @Override
+    public UserImportResponse importUsers(InputStream body, boolean csv) {
+        long start = System.nanoTime();
+        List<UserImportRowResult> results = new ArrayList<>();
+        ImportKeys seen = new ImportKeys();
+        List<ImportRow> batch = new ArrayList<>(properties.getBatchSize());
+        int rowNumber = 0;
+        boolean truncated = false;
+
+        try (UserImportReader reader = csv ? UserImportReader.csv(body) : UserImportReader.json(body, objectMapper)) {
+            for (UserCreateRequest request = reader.next(); request != null; request = reader.next()) {
+                // 之前的批次已提交，超限时停止读取并返回已处理部分（truncated），而不是抛异常让调用方误以为整体未导入
+                if (rowNumber >= properties.getMaxRows()) {
+                    truncated = true;
+                    break;
+                }
+                batch.add(new ImportRow(++rowNumber, request));
+                if (batch.size() >= properties.getBatchSize()) {
+                    processBatch(batch, seen, results);
+                    batch.clear();
+                }
+            }
+            processBatch(batch, seen, results);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                    "第 " + (rowNumber + 1) + " 行数据格式错误，前 " + results.size() + " 行已处理: "
+                            + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                    "读取导入数据失败，前 " + results.size() + " 行已处理: " + e.getMessage());
+        }
+
+        results.sort(Comparator.comparingInt(UserImportRowResult::getRow));
+        int succeeded = (int) results.stream().filter(UserImportRowResult::isSuccess).count();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (truncated) {
+            log.warn("用户批量导入超过 {} 行上限，第 {} 行及之后的数据未导入", properties.getMaxRows(), rowNumber + 1);
+        }
+        log.info("用户批量导入完成，共 {} 行，成功 {} 行，失败 {} 行，耗时 {}ms",
+                results.size(), succeeded, results.size() - succeeded, elapsedMs);
+        return new UserImportResponse(results.size(), succeeded, results.size() - succeeded, elapsedMs,
+                truncated, results);
+    }
+
+    // ========== 私有辅助方法 ==========
+
+    private void processBatch(List<ImportRow> batch, ImportKeys seen, List<UserImportRowResult> results) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // 1. 并行校验（注解校验 + 业务规则）
+        batch.parallelStream().forEach(row -> row.error = validate(row.request));
+
+        // 2. 导入数据内部去重（跨批次）
+        for (ImportRow row : batch) {
+            if (row.error == null) {
+                row.error = seen.claim(row.request, "在导入数据中重复");
+            }
+        }
+
+        // 3. 与已有用户去重：整批一次查询
+        List<ImportRow> candidates = batch.stream().filter(row -> row.error == null).collect(Collectors.toList());
+        ImportKeys existing = loadExisting(candidates);
+        for (ImportRow row : candidates) {
+            row.error = existing.conflict(row.request, "已存在");
+        }
+
+        // 4. 批量插入
+        List<ImportRow> valid = candidates.stream().filter(row -> row.error == null).collect(Collectors.toList());
+        insert(valid);
+
+        for (ImportRow row : batch) {
+            results.add(row.error == null
+                    ? UserImportRowResult.success(row.number, row.request.getUsername(), row.user.getId())
+                    : UserImportRowResult.failure(row.number, row.request.getUsername(), row.error));
+        }
+    }
+
+    private String validate(UserCreateRequest request) {
+        Set<ConstraintViolation<UserCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!SystemConstants.USER_TYPE_ADMIN.equals(request.getUserType()) &&
+                !SystemConstants.USER_TYPE_FARMER.equals(request.getUserType())) {
+            return "用户类型只能是 ADMIN 或 FARMER";
+        }
+        return null;
+    }
+
+    private ImportKeys loadExisting(List<ImportRow> rows) {
+        ImportKeys existing = new ImportKeys();
+        if (rows.isEmpty()) {
+            return existing;
+        }
+        List<String> usernames = new ArrayList<>(rows.size());
+        List<String> emails = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        for (ImportRow row : rows) {
+            usernames.add(row.request.getUsername());
+            if (StringUtils.hasText(row.request.getEmail())) {
+                emails.add(row.request.getEmail());
+            }
+            if (StringUtils.hasText(row.request.getPhoneNumber())) {
+                phones.add(row.request.getPhoneNumber());
+            }
+        }
+
+        QueryWrapper<User> query = new QueryWrapper<>();
+        query.select("username", "email", "phone_number").in("username", usernames);
+        if (!emails.isEmpty()) {
+            query.or().in("email", emails);
+        }
+        if (!phones.isEmpty()) {
+            query.or().in("phone_number", phones);
+        }
+        for (User user : userMapper.selectList(query)) {
+            existing.add(user.getUsername(), user.getEmail(), user.getPhoneNumber());
+        }
+        return existing;
+    }
+
+    private void insert(List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        // 密码哈希在事务外完成，不占用数据库连接
+        List<String> passwordHashes = passwordHasher.hashAll(
+                rows.stream().map(row -> row.request.getPassword()).toList());
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            row.user = toUser(row.request, passwordHashes.get(i));
+            users.add(row.user);
+        }
+
+        MybatisBatch.Method<User> method = new MybatisBatch.Method<>(UserMapper.class);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    new MybatisBatch<>(sqlSessionFactory, users).execute(method.insert()));
+        } catch (DuplicateKeyException e) {
+            // 去重查询之后有其他请求写入了相同的用户名/邮箱/手机号：逐行重试，定位冲突行
+            log.warn("批量插入发生唯一约束冲突，改为逐行插入 {} 行", rows.size());
+            for (ImportRow row : rows) {
+                row.user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> userMapper.insert(row.user));
+                } catch (DuplicateKeyException rowError) {
+                    UserUniqueConstraint constraint = UserUniqueConstraint.from(rowError);
+                    row.error = constraint != null
+                            ? constraint.getLabel() + " '" + constraint.valueOf(row.user) + "' 已存在"
+                            : "用户信息与已有用户冲突";
+                }
+            }
+        }
+    }
+
+    private static User toUser(UserCreateRequest request, String passwordHash) {
+        User user = new User(
+                request.getUsername(),
+                passwordHash,
+                emptyToNull(request.getEmail()),
+                request.getRealName(),
+                emptyToNull(request.getPhoneNumber()),
+                request.getUserType()
+        );
+        user.setRemark(request.getRemark());
+        return user;
+    }
+
+    private static String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    /**
+     * 单行导入状态
+     */
+    private static final class ImportRow {
+
+        private final int number;
+        private final UserCreateRequest request;
+        private volatile String error;
+        private User user;
+
+        ImportRow(int number, UserCreateRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+
+    /**
+     * 用户名/邮箱/手机号集合，用于去重
+     */
+    private static final class ImportKeys {
+
+        private final Set<String> usernames = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+
+        void add(String username, String email, String phone) {
+            if (username != null) {
+                usernames.add(username);
+            }
+            if (StringUtils.hasText(email)) {
+                emails.add(email);
+            }
+            if (StringUtils.hasText(phone)) {
+                phones.add(phone);
+            }
+        }
+
+        /**
+         * 与集合比较，返回第一个冲突字段的提示，无冲突返回 null
+         */
+        String conflict(UserCreateRequest request, String suffix) {
+            if (usernames.contains(request.getUsername())) {
+                return "用户名 '" + request.getUsername() + "' " + suffix;
+            }
+            if (StringUtils.hasText(request.getEmail()) && emails.contains(request.getEmail())) {
+                return "邮箱 '" + request.getEmail() + "' " + suffix;
+            }
+            if (StringUtils.hasText(request.getPhoneNumber()) && phones.contains(request.getPhoneNumber())) {
+                return "手机号 '" + request.getPhoneNumber() + "' " + suffix;
+            }
+            return null;
+        }
+
+        /**
+         * 无冲突时把该行的键加入集合
+         */
+        String claim(UserCreateRequest request, String suffix) {
+            String conflict = conflict(request, suffix);
+            if (conflict == null) {
+                add(request.getUsername(), request.getEmail(), request.getPhoneNumber());
+            }
+            return conflict;
+        }
+    }
+}
@@ -5,7 +5,12 @@ import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.strawberry.irrigation.common.constants.SystemConstants;
 import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.common.pagination.CursorPage;
+import com.strawberry.irrigation.common.pagination.KeysetPaginator;
+import com.strawberry.irrigation.module_auth.password.PasswordHasher;
+import com.strawberry.irrigation.module_user.cache.UserCache;
 import com.strawberry.irrigation.module_user.dao.UserMapper;
+import com.strawberry.irrigation.module_user.dao.UserUniqueConstraint;
 import com.strawberry.irrigation.module_user.dto.UserCreateRequest;
 import com.strawberry.irrigation.module_user.dto.UserResponse;
 import com.strawberry.irrigation.module_user.dto.UserUpdateRequest;
@@ -13,7 +18,9 @@ import com.strawberry.irrigation.module_user.entity.User;
 import com.strawberry.irrigation.module_user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -31,56 +38,39 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final PasswordHasher passwordHasher;
 
+    /**
+     * 只有一条 INSERT，依赖自动提交即可；不开启事务，BCrypt 哈希（可能排队等待哈希线程池）期间不占用数据库连接
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponse createUser(UserCreateRequest request) {
         log.info("开始创建用户，用户名: {}", request.getUsername());
 
         // 1. 校验用户类型
         validateCreateRequest(request);
 
-        // 2. 检查用户名是否已存在 - 使用MP的QueryWrapper
-        QueryWrapper<User> usernameQuery = new QueryWrapper<>();
-        usernameQuery.eq("username", request.getUsername());
-        if (userMapper.selectCount(usernameQuery) > 0) {
-            throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
-                    "用户名 '" + request.getUsername() + "' 已存在");
-        }
-
-        // 3. 检查邮箱是否已存在（如果提供了邮箱）- 使用MP的QueryWrapper
-        if (StringUtils.hasText(request.getEmail())) {
-            QueryWrapper<User> emailQuery = new QueryWrapper<>();
-            emailQuery.eq("email", request.getEmail());
-            if (userMapper.selectCount(emailQuery) > 0) {
-                throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
-                        "邮箱 '" + request.getEmail() + "' 已存在");
-            }
-        }
-
-        // 4. 检查手机号是否已存在（如果提供了手机号）- 使用MP的QueryWrapper
-        if (StringUtils.hasText(request.getPhoneNumber())) {
-            QueryWrapper<User> phoneQuery = new QueryWrapper<>();
-            phoneQuery.eq("phone_number", request.getPhoneNumber());
-            if (userMapper.selectCount(phoneQuery) > 0) {
-                throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
-                        "手机号 '" + request.getPhoneNumber() + "' 已存在");
-            }
-        }
-
-        // 5. 创建用户实体
+        // 2. 创建用户实体（可选字段为空时存 NULL，NULL 不参与唯一约束比较）
+        //    密码在独立的哈希线程池中计算（事务外），只保存 BCrypt 哈希
         User user = new User(
                 request.getUsername(),
-                request.getPassword(), // 后续需要加密
-                request.getEmail(),
+                passwordHasher.hash(request.getPassword()),
+                emptyToNull(request.getEmail()),
                 request.getRealName(),
-                request.getPhoneNumber(),
+                emptyToNull(request.getPhoneNumber()),
                 request.getUserType()
         );
         user.setRemark(request.getRemark());
 
-        // 6. 保存用户（MyBatis-Plus会自动填充创建时间和更新时间）
-        userMapper.insert(user);
+        // 3. 保存用户（MyBatis-Plus会自动填充创建时间和更新时间）
+        //    用户名/邮箱/手机号的唯一性由数据库唯一约束保证，冲突时按约束名返回对应提示
+        try {
+            userMapper.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw conflict(e, user, "已存在");
+        }
 
         log.info("用户创建成功，ID: {}, 用户名: {}", user.getId(), user.getUsername());
         return new UserResponse(user);
@@ -88,33 +78,38 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponse getUserById(Long id) {
-        log.info("根据ID查询用户: {}", id);
-
-        // 使用MP的selectById方法
-        User user = userMapper.selectById(id);
-        if (user == null) {
+        log.debug("根据ID查询用户: {}", id);
+
+        // 优先读取缓存，未命中时使用MP的selectById回源
+        UserResponse userResponse = userCache.getById(id, key -> {
+            User user = userMapper.selectById(key);
+            return user != null ? new UserResponse(user) : null;
+        });
+        if (userResponse == null) {
             throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
                     SystemConstants.USER_NOT_FOUND);
         }
 
-        return new UserResponse(user);
+        return userResponse;
     }
 
     @Override
     public UserResponse getUserByUsername(String username) {
-        log.info("根据用户名查询用户: {}", username);
-
-        // 使用MP的QueryWrapper查询
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("username", username);
-        User user = userMapper.selectOne(queryWrapper);
-
-        if (user == null) {
+        log.debug("根据用户名查询用户: {}", username);
+
+        // 优先读取缓存，未命中时使用MP的QueryWrapper回源
+        UserResponse userResponse = userCache.getByUsername(username, key -> {
+            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+            queryWrapper.eq("username", key);
+            User user = userMapper.selectOne(queryWrapper);
+            return user != null ? new UserResponse(user) : null;
+        });
+        if (userResponse == null) {
             throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
                     SystemConstants.USER_NOT_FOUND);
         }
 
-        return new UserResponse(user);
+        return userResponse;
     }
 
     @Override
@@ -129,10 +124,7 @@ public class UserServiceImpl implements UserService {
                     SystemConstants.USER_NOT_FOUND);
         }
 
-        // 2. 校验更新请求
-        validateUpdateRequest(request, user);
-
-        // 3. 构建更新条件
+        // 2. 构建更新条件
         UpdateWrapper<User> updateWrapper = new UpdateWrapper<>();
         updateWrapper.eq("id", id);
 
@@ -149,8 +141,18 @@ public class UserServiceImpl implements UserService {
             updateWrapper.set("remark", request.getRemark());
         }
 
-        // 4. 执行更新
-        userMapper.update(null, updateWrapper);
+        // 3. 执行更新（手机号/邮箱冲突由唯一约束检测）
+        try {
+            userMapper.update(null, updateWrapper);
+        } catch (DuplicateKeyException e) {
+            User attempted = new User();
+            attempted.setPhoneNumber(request.getPhoneNumber());
+            attempted.setEmail(request.getEmail());
+            throw conflict(e, attempted, "已被其他用户使用");
+        }
+
+        // 4. 事务提交后失效缓存（含其他节点）
+        userCache.invalidateAfterCommit(id, user.getUsername());
 
         // 5. 重新查询返回更新后的用户信息
         User updatedUser = userMapper.selectById(id);
@@ -172,6 +174,7 @@ public class UserServiceImpl implements UserService {
 
         // 2. 执行删除 - 使用MP的deleteById
         userMapper.deleteById(id);
+        userCache.invalidateAfterCommit(id, user.getUsername());
 
         log.info("用户删除成功，ID: {}", id);
     }
@@ -199,8 +202,8 @@ public class UserServiceImpl implements UserService {
             throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "每页大小必须在1-100之间");
         }
 
-        // 使用MyBatis-Plus分页插件
-        Page<User> pageParam = new Page<>(page, size);
+        // 使用MyBatis-Plus分页插件（结果只返回记录，不需要额外的 COUNT 查询）
+        Page<User> pageParam = new Page<>(page, size, false);
         Page<User> userPage = userMapper.selectPage(pageParam, null);
 
         return userPage.getRecords().stream()
@@ -208,6 +211,14 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<UserResponse> getUserCursorPage(String cursor, int size, boolean withCount) {
+        log.info("游标分页查询用户列表，每页大小: {}, 统计总数: {}", size, withCount);
+
+        return KeysetPaginator.page(userMapper, QueryWrapper::new, "id", User::getId,
+                cursor, size, withCount, UserResponse::new);
+    }
+
     @Override
     public List<UserResponse> getUsersByType(String userType) {
         log.info("根据用户类型查询用户列表: {}", userType);
@@ -273,30 +284,23 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * 校验用户更新请求
+     * 将唯一约束冲突转换为业务异常，提示信息与原先的预检查保持一致
+     * @param e      唯一键冲突异常
+     * @param values 本次写入的字段值（用于拼接提示）
+     * @param suffix 提示后缀（创建为"已存在"，更新为"已被其他用户使用"）
      */
-    private void validateUpdateRequest(UserUpdateRequest request, User existingUser) {
-        // 如果要更新手机号，检查是否与其他用户冲突
-        if (StringUtils.hasText(request.getPhoneNumber()) &&
-                !request.getPhoneNumber().equals(existingUser.getPhoneNumber())) {
-            QueryWrapper<User> phoneQuery = new QueryWrapper<>();
-            phoneQuery.eq("phone_number", request.getPhoneNumber());
-            if (userMapper.selectCount(phoneQuery) > 0) {
-                throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
-                        "手机号 '" + request.getPhoneNumber() + "' 已被其他用户使用");
-            }
+    private BusinessException conflict(DuplicateKeyException e, User values, String suffix) {
+        UserUniqueConstraint constraint = UserUniqueConstraint.from(e);
+        if (constraint == null) {
+            log.warn("用户写入违反未知的唯一约束: {}", e.getMostSpecificCause().getMessage());
+            return new BusinessException(SystemConstants.BUSINESS_ERROR_CODE, "用户信息与已有用户冲突");
         }
+        return new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
+                constraint.getLabel() + " '" + constraint.valueOf(values) + "' " + suffix);
+    }
 
-        // 如果要更新邮箱，检查是否与其他用户冲突（只在邮箱不为空时检查）
-        if (StringUtils.hasText(request.getEmail()) &&
-                !request.getEmail().equals(existingUser.getEmail())) {
-            QueryWrapper<User> emailQuery = new QueryWrapper<>();
-            emailQuery.eq("email", request.getEmail());
-            if (userMapper.selectCount(emailQuery) > 0) {
-                throw new BusinessException(SystemConstants.BUSINESS_ERROR_CODE,
-                        "邮箱 '" + request.getEmail() + "' 已被其他用户使用");
-            }
-        }
+    private static String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
     }
 
     /**
@@ -0,0 +1,26 @@
+-- 认证令牌
+-- 访问令牌（JWT）为无状态令牌，校验时不查库；本脚本只保存刷新令牌与被提前吊销的访问令牌ID。
+-- auth_revoked_tokens 的记录在对应访问令牌过期后即可删除，由 TokenRevocationList 定期清理。
+-- 可重复执行。
+
+CREATE TABLE IF NOT EXISTS auth_refresh_tokens (
+    id         BIGSERIAL PRIMARY KEY,
+    user_id    BIGINT      NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    -- 只保存 SHA-256 摘要，数据库泄露时无法直接使用
+    token_hash CHAR(64)    NOT NULL UNIQUE,
+    expires_at TIMESTAMPTZ NOT NULL,
+    revoked    BOOLEAN     NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS auth_refresh_tokens_user_idx ON auth_refresh_tokens (user_id);
+
+CREATE TABLE IF NOT EXISTS auth_revoked_tokens (
+    id         BIGSERIAL PRIMARY KEY,
+    jti        VARCHAR(64) NOT NULL UNIQUE,
+    expires_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS auth_revoked_tokens_expires_idx ON auth_revoked_tokens (expires_at);
+
+-- 已有明文密码在用户下次登录成功时自动改写为 BCrypt 哈希
@@ -0,0 +1,14 @@
+-- 集群节点租约
+-- 启用 app.cluster.enabled 后，每个节点定期续约，存活节点组成一致性哈希环，设备按 ID 分配到节点：
+-- 每个节点只采集、缓存并评估自己分片内设备的规则，避免多实例部署时重复开泵。
+-- 同一张表还保存集群级互斥租约（如主节点租约 @leader）：node_id 为租约名，holder 为当前持有节点；
+-- 节点自身的租约 holder 为 NULL。归档、分区维护等全局任务只在持有主节点租约的节点上执行。
+-- 可重复执行。
+
+CREATE TABLE IF NOT EXISTS cluster_leases (
+    node_id    VARCHAR(128) PRIMARY KEY,
+    expires_at TIMESTAMPTZ  NOT NULL,
+    joined_at  TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+ALTER TABLE cluster_leases ADD COLUMN IF NOT EXISTS holder VARCHAR(128);
@@ -0,0 +1,25 @@
+-- 设备注册表增量刷新
+-- DeviceRegistry 在内存中维护 设备物理ID → 内部ID 的索引，按 updated_at 轮询增量变化（删除由定期全量重载处理）。
+-- 未执行本脚本时注册表退化为按 full-reload-interval-ms 全量重载。
+-- 可重复执行。
+
+ALTER TABLE devices ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW();
+
+CREATE INDEX IF NOT EXISTS devices_updated_at_idx ON devices (updated_at);
+
+CREATE OR REPLACE FUNCTION devices_touch_updated_at() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := NOW();
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS devices_touch_updated_at ON devices;
+-- 只在身份/归属列变化时更新：在线状态与 last_active_at 的批量回写不应触发注册表刷新
+CREATE TRIGGER devices_touch_updated_at
+    BEFORE UPDATE ON devices
+    FOR EACH ROW
+    WHEN (OLD.device_id IS DISTINCT FROM NEW.device_id
+        OR OLD.type IS DISTINCT FROM NEW.type
+        OR OLD.created_by IS DISTINCT FROM NEW.created_by)
+    EXECUTE FUNCTION devices_touch_updated_at();
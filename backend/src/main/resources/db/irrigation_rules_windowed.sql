@@ -0,0 +1,16 @@
+-- 灌溉规则窗口条件
+-- condition_type：INSTANT（单条读数，默认）、AVERAGE（最近 window_seconds 内均值）、SUSTAINED（连续 window_seconds 满足）
+-- hysteresis：滞回带宽，条件成立后需越过 阈值 ± hysteresis 才解除，避免读数在阈值附近抖动时反复开泵
+-- 未执行本脚本时规则引擎只加载原有列，所有规则按 INSTANT 处理。
+-- 可重复执行。
+
+ALTER TABLE irrigation_rules ADD COLUMN IF NOT EXISTS condition_type VARCHAR(20) NOT NULL DEFAULT 'INSTANT';
+ALTER TABLE irrigation_rules ADD COLUMN IF NOT EXISTS window_seconds INT;
+ALTER TABLE irrigation_rules ADD COLUMN IF NOT EXISTS hysteresis DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+ALTER TABLE irrigation_rules DROP CONSTRAINT IF EXISTS irrigation_rules_window_check;
+ALTER TABLE irrigation_rules ADD CONSTRAINT irrigation_rules_window_check CHECK (
+    condition_type IN ('INSTANT', 'AVERAGE', 'SUSTAINED')
+    AND (condition_type = 'INSTANT' OR window_seconds > 0)
+    AND hysteresis >= 0
+);
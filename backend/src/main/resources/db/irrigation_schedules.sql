@@ -0,0 +1,23 @@
+-- 定时灌溉计划
+-- 例如"每周一、三、五 06:00 为 3 号区开泵 10 分钟"。days_of_week 为位掩码：周一 = 1、周二 = 2 …… 周日 = 64。
+-- 所有计划的下次触发时间保存在 IrrigationScheduler 的优先队列中，由单个线程驱动；
+-- 通过接口修改计划时直接增量更新本节点的队列，其他节点按 updated_at 每几秒增量同步一次，不按分钟轮询本表。
+-- 可重复执行。
+
+CREATE TABLE IF NOT EXISTS irrigation_schedules (
+    id                 BIGSERIAL PRIMARY KEY,
+    name               VARCHAR(100) NOT NULL,
+    actuator_device_id BIGINT       NOT NULL REFERENCES devices (id) ON DELETE CASCADE,
+    start_time         TIME         NOT NULL,
+    duration_seconds   INT          NOT NULL CHECK (duration_seconds > 0),
+    days_of_week       SMALLINT     NOT NULL CHECK (days_of_week BETWEEN 1 AND 127),
+    time_zone          VARCHAR(64)  NOT NULL DEFAULT 'Asia/Shanghai',
+    is_enabled         BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_by         BIGINT REFERENCES users (id),
+    created_at         TIMESTAMPTZ  NOT NULL DEFAULT NOW(),
+    updated_at         TIMESTAMPTZ  NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS irrigation_schedules_created_by_idx ON irrigation_schedules (created_by);
+CREATE INDEX IF NOT EXISTS irrigation_schedules_actuator_idx ON irrigation_schedules (actuator_device_id);
+CREATE INDEX IF NOT EXISTS irrigation_schedules_updated_at_idx ON irrigation_schedules (updated_at);
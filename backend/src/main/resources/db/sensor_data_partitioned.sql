@@ -0,0 +1,23 @@
+-- sensor_data 原生分区表（未安装 TimescaleDB 的站点使用，配合 app.device.storage.mode=partitioned）
+-- 父表按 time 做 RANGE 分区，具体分区由应用（SensorPartitionManager）提前创建并按保留期删除。
+-- 需要 PostgreSQL 11+（默认分区、分区表索引），历史查询需同时设置 app.device.history.source=on-the-fly；
+-- 若开启 hash-partitions，时间分区会再按 device_id 做 HASH 子分区。
+--
+-- 已有普通表 sensor_data 的站点：先重命名旧表，执行本脚本并启动应用建好分区后，
+-- 再 INSERT INTO sensor_data SELECT * FROM sensor_data_old 分批迁移数据。
+
+CREATE TABLE IF NOT EXISTS sensor_data (
+    time            TIMESTAMPTZ      NOT NULL DEFAULT NOW(),
+    device_id       BIGINT           NOT NULL REFERENCES devices (id),
+    soil_humidity   DOUBLE PRECISION,
+    temperature     DOUBLE PRECISION,
+    light_intensity DOUBLE PRECISION,
+    battery_level   DOUBLE PRECISION
+) PARTITION BY RANGE (time);
+
+-- 在父表上建索引，新建分区自动继承
+CREATE INDEX IF NOT EXISTS sensor_data_device_time_idx ON sensor_data (device_id, time DESC);
+
+-- 默认分区兜底接收未覆盖时间范围的数据（如设备时钟错误），应保持为空；
+-- 有数据落入默认分区时，应用创建与其时间范围重叠的新分区时会在同一事务内把这些行移入新分区
+CREATE TABLE IF NOT EXISTS sensor_data_default PARTITION OF sensor_data DEFAULT;
@@ -0,0 +1,70 @@
+-- 传感器数据预聚合（TimescaleDB 连续聚合）
+-- 历史曲线按时间范围自动选择 原始 / 1分钟 / 15分钟 / 1小时 / 1天 粒度，避免把数万个原始点发给浏览器。
+-- 需要 TimescaleDB 2.x；未安装扩展的站点请设置 app.device.history.source=on-the-fly（按需 date_bin 聚合）。
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS sensor_data_1m
+WITH (timescaledb.continuous) AS
+SELECT time_bucket(INTERVAL '1 minute', time) AS bucket,
+       device_id,
+       avg(soil_humidity)   AS soil_humidity,
+       avg(temperature)     AS temperature,
+       avg(light_intensity) AS light_intensity,
+       avg(battery_level)   AS battery_level
+FROM sensor_data
+GROUP BY bucket, device_id
+WITH NO DATA;
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS sensor_data_15m
+WITH (timescaledb.continuous) AS
+SELECT time_bucket(INTERVAL '15 minutes', time) AS bucket,
+       device_id,
+       avg(soil_humidity)   AS soil_humidity,
+       avg(temperature)     AS temperature,
+       avg(light_intensity) AS light_intensity,
+       avg(battery_level)   AS battery_level
+FROM sensor_data
+GROUP BY bucket, device_id
+WITH NO DATA;
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS sensor_data_1h
+WITH (timescaledb.continuous) AS
+SELECT time_bucket(INTERVAL '1 hour', time) AS bucket,
+       device_id,
+       avg(soil_humidity)   AS soil_humidity,
+       avg(temperature)     AS temperature,
+       avg(light_intensity) AS light_intensity,
+       avg(battery_level)   AS battery_level
+FROM sensor_data
+GROUP BY bucket, device_id
+WITH NO DATA;
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS sensor_data_1d
+WITH (timescaledb.continuous) AS
+SELECT time_bucket(INTERVAL '1 day', time) AS bucket,
+       device_id,
+       avg(soil_humidity)   AS soil_humidity,
+       avg(temperature)     AS temperature,
+       avg(light_intensity) AS light_intensity,
+       avg(battery_level)   AS battery_level
+FROM sensor_data
+GROUP BY bucket, device_id
+WITH NO DATA;
+
+-- 刷新策略：只刷新最近的窗口，更早的数据已物化；最新未物化部分由实时聚合补齐
+SELECT add_continuous_aggregate_policy('sensor_data_1m',
+       start_offset => INTERVAL '2 hours', end_offset => INTERVAL '1 minute',
+       schedule_interval => INTERVAL '1 minute', if_not_exists => TRUE);
+SELECT add_continuous_aggregate_policy('sensor_data_15m',
+       start_offset => INTERVAL '1 day', end_offset => INTERVAL '15 minutes',
+       schedule_interval => INTERVAL '15 minutes', if_not_exists => TRUE);
+SELECT add_continuous_aggregate_policy('sensor_data_1h',
+       start_offset => INTERVAL '3 days', end_offset => INTERVAL '1 hour',
+       schedule_interval => INTERVAL '1 hour', if_not_exists => TRUE);
+SELECT add_continuous_aggregate_policy('sensor_data_1d',
+       start_offset => INTERVAL '7 days', end_offset => INTERVAL '1 day',
+       schedule_interval => INTERVAL '1 day', if_not_exists => TRUE);
+
+CREATE INDEX IF NOT EXISTS idx_sensor_data_1m_device_bucket ON sensor_data_1m (device_id, bucket DESC);
+CREATE INDEX IF NOT EXISTS idx_sensor_data_15m_device_bucket ON sensor_data_15m (device_id, bucket DESC);
+CREATE INDEX IF NOT EXISTS idx_sensor_data_1h_device_bucket ON sensor_data_1h (device_id, bucket DESC);
+CREATE INDEX IF NOT EXISTS idx_sensor_data_1d_device_bucket ON sensor_data_1d (device_id, bucket DESC);
@@ -0,0 +1,46 @@
+-- users 表唯一约束
+-- 用户创建/更新依赖这些约束检测重复（UserUniqueConstraint 按约束名映射提示信息），约束名不能随意修改。
+-- 可重复执行。
+
+-- 1. 可选字段的空串统一改为 NULL（应用写入时已如此处理），否则多个空串会互相冲突
+UPDATE users SET email = NULL WHERE email IS NOT NULL AND btrim(email) = '';
+UPDATE users SET phone_number = NULL WHERE phone_number IS NOT NULL AND btrim(phone_number) = '';
+
+-- 2. 存在真实重复时列出重复值并中止，需人工合并或修改后重新执行
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(format('%s=%s（%s 条）', col, val, cnt), '; ')
+    INTO duplicates
+    FROM (
+        SELECT 'username' AS col, username AS val, count(*) AS cnt
+        FROM users GROUP BY username HAVING count(*) > 1
+        UNION ALL
+        SELECT 'email', email, count(*)
+        FROM users WHERE email IS NOT NULL GROUP BY email HAVING count(*) > 1
+        UNION ALL
+        SELECT 'phone_number', phone_number, count(*)
+        FROM users WHERE phone_number IS NOT NULL GROUP BY phone_number HAVING count(*) > 1
+    ) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'users 表存在重复数据，无法添加唯一约束: %', duplicates;
+    END IF;
+END
+$$;
+
+-- 3. 添加约束
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'users_username_key') THEN
+        ALTER TABLE users ADD CONSTRAINT users_username_key UNIQUE (username);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'users_email_key') THEN
+        ALTER TABLE users ADD CONSTRAINT users_email_key UNIQUE (email);
+    END IF;
+    -- 手机号为可选字段，NULL 不参与唯一性比较
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'users_phone_number_key') THEN
+        ALTER TABLE users ADD CONSTRAINT users_phone_number_key UNIQUE (phone_number);
+    END IF;
+END
+$$;
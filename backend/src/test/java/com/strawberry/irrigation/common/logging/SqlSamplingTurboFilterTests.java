@@ -0,0 +1,51 @@
+package com.strawberry.irrigation.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SqlSamplingTurboFilterTests {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger mapperLogger = context.getLogger("com.example.dao.UserMapper.selectById");
+    private final SqlSamplingTurboFilter filter = new SqlSamplingTurboFilter();
+
+    private FilterReply debug(Logger logger, String format) {
+        return filter.decide(null, logger, Level.DEBUG, format, null, null);
+    }
+
+    @Test
+    void keepsWholeStatementWhenSampled() {
+        filter.setSampleEvery(3);
+
+        int kept = 0;
+        for (int i = 0; i < 6; i++) {
+            FilterReply preparing = debug(mapperLogger, "==>  Preparing: SELECT 1");
+            FilterReply parameters = debug(mapperLogger, "==> Parameters: 1(Long)");
+            FilterReply total = debug(mapperLogger, "<==      Total: 1");
+            assertEquals(preparing, parameters);
+            assertEquals(preparing, total);
+            if (preparing == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertEquals(2, kept);
+    }
+
+    @Test
+    void leavesOtherLoggersAndEnabledChecksAlone() {
+        filter.setSampleEvery(1000);
+        Logger serviceLogger = context.getLogger("com.example.service.UserService");
+
+        debug(mapperLogger, "==>  Preparing: SELECT 1");
+        assertEquals(FilterReply.DENY, debug(mapperLogger, "==>  Preparing: SELECT 2"));
+        assertEquals(FilterReply.NEUTRAL, debug(mapperLogger, null));
+        assertEquals(FilterReply.NEUTRAL, debug(serviceLogger, "==>  Preparing: SELECT 1"));
+        assertEquals(FilterReply.NEUTRAL,
+                filter.decide(null, mapperLogger, Level.INFO, "==>  Preparing: SELECT 1", null, null));
+    }
+}
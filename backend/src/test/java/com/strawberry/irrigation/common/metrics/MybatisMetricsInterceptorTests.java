@@ -0,0 +1,78 @@
+package com.strawberry.irrigation.common.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MybatisMetricsInterceptorTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MybatisMetricsInterceptor interceptor = new MybatisMetricsInterceptor(registry);
+    private final Executor executor = mock(Executor.class);
+
+    private static MappedStatement statement(String id, SqlCommandType type) {
+        Configuration configuration = new Configuration();
+        SqlSource sqlSource = mock(SqlSource.class);
+        return new MappedStatement.Builder(configuration, id, sqlSource, type).build();
+    }
+
+    private Timer timer(String statement, String outcome) {
+        return registry.find(MybatisMetricsInterceptor.METRIC_NAME)
+                .tag("statement", statement)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    @Test
+    void shortNameKeepsMapperAndMethod() {
+        assertEquals("UserMapper.selectById",
+                MybatisMetricsInterceptor.shortName("com.strawberry.irrigation.module_user.dao.UserMapper.selectById"));
+        assertEquals("plain", MybatisMetricsInterceptor.shortName("plain"));
+    }
+
+    @Test
+    void recordsUpdateByStatementAndOutcome() throws Throwable {
+        MappedStatement ms = statement("com.example.dao.UserMapper.updateById", SqlCommandType.UPDATE);
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        when(executor.update(any(), any())).thenReturn(1).thenThrow(new SQLException("boom"));
+
+        interceptor.intercept(new Invocation(executor, update, new Object[]{ms, null}));
+        // Invocation 直接反射调用，异常由 Plugin 代理负责解包
+        assertThrows(InvocationTargetException.class,
+                () -> interceptor.intercept(new Invocation(executor, update, new Object[]{ms, null})));
+
+        assertEquals(1, timer("UserMapper.updateById", "success").count());
+        assertEquals(1, timer("UserMapper.updateById", "error").count());
+    }
+
+    @Test
+    void emptyFlushIsNotRecorded() throws Throwable {
+        Method flush = Executor.class.getMethod("flushStatements");
+        when(executor.flushStatements()).thenReturn(List.of()).thenReturn(List.of(mock(BatchResult.class)));
+
+        interceptor.intercept(new Invocation(executor, flush, new Object[0]));
+        assertNull(timer("batch.flush", "success"));
+
+        interceptor.intercept(new Invocation(executor, flush, new Object[0]));
+        assertEquals(1, timer("batch.flush", "success").count());
+    }
+}
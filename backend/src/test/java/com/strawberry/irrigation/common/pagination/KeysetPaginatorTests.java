@@ -0,0 +1,79 @@
+package com.strawberry.irrigation.common.pagination;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_user.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KeysetPaginatorTests {
+
+    @SuppressWarnings("unchecked")
+    private final BaseMapper<User> mapper = mock(BaseMapper.class);
+
+    private static List<User> users(long fromId, int count) {
+        List<User> users = new ArrayList<>();
+        for (long id = fromId; id < fromId + count; id++) {
+            User user = new User();
+            user.setId(id);
+            users.add(user);
+        }
+        return users;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returns(List<User> rows) {
+        Page<User> page = new Page<>();
+        page.setRecords(rows);
+        when(mapper.selectPage(any(Page.class), any(QueryWrapper.class))).thenReturn(page);
+    }
+
+    @Test
+    void returnsCursorWhenMoreRowsExist() {
+        returns(users(1, 3));
+
+        CursorPage<Long> page = KeysetPaginator.page(mapper, QueryWrapper::new, "id", User::getId,
+                null, 2, false, User::getId);
+
+        assertEquals(List.of(1L, 2L), page.getRecords());
+        assertTrue(page.isHasMore());
+        assertEquals(2L, CursorCodec.decode(page.getNextCursor()));
+        assertNull(page.getTotal());
+        verify(mapper, never()).selectCount(any());
+    }
+
+    @Test
+    void lastPageHasNoCursorAndCountsOnRequest() {
+        returns(users(5, 2));
+        when(mapper.selectCount(any())).thenReturn(6L);
+
+        CursorPage<Long> page = KeysetPaginator.page(mapper, QueryWrapper::new, "id", User::getId,
+                CursorCodec.encode(4), 2, true, User::getId);
+
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        assertEquals(6L, page.getTotal());
+    }
+
+    @Test
+    void rejectsTamperedCursorAndOversizedPage() {
+        assertThrows(BusinessException.class, () -> CursorCodec.decode("not-a-cursor"));
+        assertThrows(BusinessException.class, () -> KeysetPaginator.page(mapper, QueryWrapper::new, "id",
+                User::getId, null, KeysetPaginator.MAX_PAGE_SIZE + 1, false, User::getId));
+    }
+}
@@ -0,0 +1,56 @@
+package com.strawberry.irrigation.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+
+    @Test
+    void firesEachEntryInItsOwnTickAcrossLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1_000, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // 覆盖第 0~2 层：最长约 5 天
+            long deadline = (1 + random.nextInt(400_000)) * 1_000L;
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 400_000_000L; now += 7_000) {
+            long current = now;
+            wheel.advance(now, deadline -> {
+                assertTrue(deadline <= current && deadline > current - 7_000, "到期时间不在本次推进区间内");
+                fired.add(deadline);
+            });
+        }
+        assertEquals(deadlines.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextTickAndCallbacksMayReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 10_000);
+        wheel.schedule("late", 5_000);
+        List<String> fired = new ArrayList<>();
+        wheel.advance(10_100, item -> {
+            fired.add(item);
+            if (fired.size() == 1) {
+                wheel.schedule("again", 10_300);
+            }
+        });
+        assertEquals(List.of("late"), fired);
+
+        wheel.advance(10_200, fired::add);
+        assertEquals(1, fired.size());
+        wheel.advance(10_300, fired::add);
+        assertEquals(List.of("late", "again"), fired);
+    }
+}
@@ -0,0 +1,99 @@
+package com.strawberry.irrigation.module_auth.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.token.IssuedToken;
+import com.strawberry.irrigation.module_auth.token.JwtTokenService;
+import com.strawberry.irrigation.module_auth.token.TokenRevocationList;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTests {
+
+    private final TokenRevocationList revocationList = mock(TokenRevocationList.class);
+    private final JwtTokenService jwtTokenService;
+    private final JwtAuthenticationFilter filter;
+
+    JwtAuthenticationFilterTests() {
+        AuthProperties properties = new AuthProperties();
+        properties.setEnabled(true);
+        properties.getJwt().setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        jwtTokenService = new JwtTokenService(properties, new ObjectMapper());
+        filter = new JwtAuthenticationFilter(properties, jwtTokenService, revocationList, new ObjectMapper());
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader(JwtAuthenticationFilter.USER_ID_HEADER, "1");
+        return request;
+    }
+
+    private MockFilterChain filter(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return chain;
+    }
+
+    @Test
+    void rejectsMissingToken() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = filter(request("/api/irrigation/status"), response);
+
+        assertEquals(401, response.getStatus());
+        assertEquals("Bearer", response.getHeader(HttpHeaders.WWW_AUTHENTICATE));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void rejectsRevokedToken() throws Exception {
+        IssuedToken issued = jwtTokenService.issue(42L, "farmer01", "FARMER");
+        when(revocationList.isRevoked(issued.claims().jti())).thenReturn(true);
+        MockHttpServletRequest request = request("/api/irrigation/status");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + issued.token());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = filter(request, response);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void replacesSpoofedUserIdWithTokenSubject() throws Exception {
+        IssuedToken issued = jwtTokenService.issue(42L, "farmer01", "FARMER");
+        MockHttpServletRequest request = request("/api/irrigation/status");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + issued.token());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = filter(request, response);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals("42", ((HttpServletRequest) chain.getRequest())
+                .getHeader(JwtAuthenticationFilter.USER_ID_HEADER));
+        assertNotNull(chain.getRequest().getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE));
+    }
+
+    @Test
+    void publicPathsBypassTokenCheck() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = filter(request("/api/auth/login"), response);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+}
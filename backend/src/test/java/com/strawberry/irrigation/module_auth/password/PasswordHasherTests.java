@@ -0,0 +1,85 @@
+package com.strawberry.irrigation.module_auth.password;
+
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTests {
+
+    private PasswordHasher hasher;
+
+    private PasswordHasher hasher(int strength, int threads, int queueCapacity) {
+        AuthProperties properties = new AuthProperties();
+        properties.getPassword().setBcryptStrength(strength);
+        properties.getPassword().setThreads(threads);
+        properties.getPassword().setQueueCapacity(queueCapacity);
+        hasher = new PasswordHasher(properties, new SimpleMeterRegistry());
+        return hasher;
+    }
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesAndVerifiesIncludingLegacyPlaintext() {
+        PasswordHasher hasher = hasher(4, 2, 8);
+        String hash = hasher.hash("secret1");
+
+        assertTrue(PasswordHasher.isHashed(hash));
+        assertTrue(hasher.matches("secret1", hash));
+        assertFalse(hasher.matches("secret2", hash));
+        assertTrue(hasher.matches("secret1", "secret1"));
+        assertFalse(PasswordHasher.isHashed("secret1"));
+        assertFalse(hasher.matches("secret1", null));
+    }
+
+    @Test
+    void hashAllPreservesOrder() {
+        PasswordHasher hasher = hasher(4, 2, 1);
+        List<String> hashes = hasher.hashAll(List.of("a1", "b2", "c3", "d4", "e5"));
+
+        assertEquals(5, hashes.size());
+        assertTrue(hasher.matches("c3", hashes.get(2)));
+        assertFalse(hasher.matches("c3", hashes.get(3)));
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableWhenQueueIsFull() throws Exception {
+        PasswordHasher hasher = hasher(14, 1, 1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(2);
+        try {
+            // 一个任务占用唯一的哈希线程、一个占满队列，第三个请求应被立即拒绝而不是排队等待
+            Future<?> running = callers.submit(() -> { started.countDown(); return hasher.hash("slow-1"); });
+            Future<?> queued = callers.submit(() -> { started.countDown(); return hasher.hash("slow-2"); });
+            started.await();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (hasher.getQueueDepth() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            BusinessException e = assertThrows(BusinessException.class, () -> hasher.hash("third"));
+            assertEquals(503, e.getCode());
+            running.cancel(true);
+            queued.cancel(true);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.strawberry.irrigation.module_auth.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.dao.RefreshTokenMapper;
+import com.strawberry.irrigation.module_auth.dto.LoginRequest;
+import com.strawberry.irrigation.module_auth.dto.TokenResponse;
+import com.strawberry.irrigation.module_auth.password.PasswordHasher;
+import com.strawberry.irrigation.module_auth.token.JwtTokenService;
+import com.strawberry.irrigation.module_auth.token.TokenRevocationList;
+import com.strawberry.irrigation.module_user.dao.UserMapper;
+import com.strawberry.irrigation.module_user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceImplTests {
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final RefreshTokenMapper refreshTokenMapper = mock(RefreshTokenMapper.class);
+    private final PasswordHasher passwordHasher;
+    private final AuthServiceImpl authService;
+
+    AuthServiceImplTests() {
+        AuthProperties properties = new AuthProperties();
+        properties.getPassword().setBcryptStrength(4);
+        properties.getJwt().setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        passwordHasher = new PasswordHasher(properties, new SimpleMeterRegistry());
+        authService = new AuthServiceImpl(userMapper, refreshTokenMapper, passwordHasher,
+                new JwtTokenService(properties, new ObjectMapper()), mock(TokenRevocationList.class), properties);
+    }
+
+    private static User user(String passwordHash, String status) {
+        User user = new User("farmer01", passwordHash, null, null, null, SystemConstants.USER_TYPE_FARMER);
+        user.setId(42L);
+        user.setStatus(status);
+        return user;
+    }
+
+    private static LoginRequest login(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("farmer01");
+        request.setPassword(password);
+        return request;
+    }
+
+    private String storedRefreshHash(int call) {
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenMapper, times(call)).insert(eq(42L), hash.capture(), anyInt());
+        return hash.getAllValues().get(call - 1);
+    }
+
+    @Test
+    void refreshRotatesTokenAndReuseRevokesAllTokensOfUser() {
+        User user = user(passwordHasher.hash("secret1"), SystemConstants.USER_STATUS_ACTIVE);
+        when(userMapper.selectOne(any())).thenReturn(user);
+        when(userMapper.selectById(42L)).thenReturn(user);
+
+        TokenResponse first = authService.login(login("secret1"));
+        String firstHash = storedRefreshHash(1);
+        when(refreshTokenMapper.consume(firstHash)).thenReturn(42L, (Long) null);
+
+        // 刷新：旧令牌作废，签发新的刷新令牌
+        TokenResponse second = authService.refresh(first.getRefreshToken());
+        assertNotEquals(first.getRefreshToken(), second.getRefreshToken());
+        assertNotEquals(firstHash, storedRefreshHash(2));
+
+        // 已使用过的刷新令牌再次出现：视为被盗用，吊销该用户全部刷新令牌
+        when(refreshTokenMapper.selectRevokedOwner(firstHash)).thenReturn(42L);
+        BusinessException e = assertThrows(BusinessException.class, () -> authService.refresh(first.getRefreshToken()));
+        assertEquals(401, e.getCode());
+        verify(refreshTokenMapper).revokeAllForUser(42L);
+    }
+
+    @Test
+    void unknownRefreshTokenIsRejectedWithoutRevokingAnything() {
+        BusinessException e = assertThrows(BusinessException.class, () -> authService.refresh("unknown"));
+
+        assertEquals(401, e.getCode());
+        verify(refreshTokenMapper, never()).revokeAllForUser(anyLong());
+    }
+
+    @Test
+    void loginRehashesLegacyPlaintextPassword() {
+        when(userMapper.selectOne(any())).thenReturn(user("secret1", SystemConstants.USER_STATUS_ACTIVE));
+
+        authService.login(login("secret1"));
+
+        ArgumentCaptor<User> update = ArgumentCaptor.forClass(User.class);
+        verify(userMapper).updateById(update.capture());
+        assertEquals(42L, update.getValue().getId());
+        assertTrue(PasswordHasher.isHashed(update.getValue().getPasswordHash()));
+        assertTrue(passwordHasher.matches("secret1", update.getValue().getPasswordHash()));
+    }
+
+    @Test
+    void rejectsWrongPasswordAndBannedUser() {
+        when(userMapper.selectOne(any())).thenReturn(user(passwordHasher.hash("secret1"), SystemConstants.USER_STATUS_BANNED));
+
+        assertEquals(401, assertThrows(BusinessException.class, () -> authService.login(login("wrong"))).getCode());
+        assertEquals(403, assertThrows(BusinessException.class, () -> authService.login(login("secret1"))).getCode());
+        verify(refreshTokenMapper, never()).insert(anyLong(), anyString(), anyInt());
+        verify(userMapper, never()).updateById(any(User.class));
+    }
+}
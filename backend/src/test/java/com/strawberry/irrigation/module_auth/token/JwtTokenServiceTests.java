@@ -0,0 +1,76 @@
+package com.strawberry.irrigation.module_auth.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtTokenServiceTests {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String OTHER_SECRET = Base64.getEncoder()
+            .encodeToString("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+    private static final long NOW = 1_700_000_000L;
+
+    private static JwtTokenService service(String secret, String... previous) {
+        AuthProperties properties = new AuthProperties();
+        properties.getJwt().setSecret(secret);
+        properties.getJwt().setPreviousSecrets(List.of(previous));
+        return new JwtTokenService(properties, new ObjectMapper());
+    }
+
+    @Test
+    void verifiesIssuedTokenUntilExpiry() {
+        JwtTokenService service = service(SECRET);
+        IssuedToken issued = service.issue(42L, "farmer01", "FARMER", NOW);
+
+        AccessTokenClaims claims = service.verify(issued.token(), NOW + 899);
+        assertNotNull(claims);
+        assertEquals(42L, claims.userId());
+        assertEquals("farmer01", claims.name());
+        assertEquals(issued.claims().jti(), claims.jti());
+
+        assertNull(service.verify(issued.token(), NOW + 900));
+    }
+
+    @Test
+    void rejectsTamperedPayloadAndForeignSignature() {
+        JwtTokenService service = service(SECRET);
+        String token = service.issue(42L, "farmer01", "FARMER", NOW).token();
+        String[] parts = token.split("\\.");
+
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                        .replace("\"sub\":\"42\"", "\"sub\":\"1\"").getBytes(StandardCharsets.UTF_8));
+        assertNull(service.verify(parts[0] + "." + forgedPayload + "." + parts[2], NOW));
+
+        String foreign = service(OTHER_SECRET).issue(42L, "farmer01", "FARMER", NOW).token();
+        assertNull(service.verify(foreign, NOW));
+    }
+
+    @Test
+    void rejectsUnsignedAlgorithmNone() {
+        JwtTokenService service = service(SECRET);
+        String token = service.issue(42L, "farmer01", "FARMER", NOW).token();
+        String payload = token.split("\\.")[1];
+        String none = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(service.verify(none + "." + payload + ".", NOW));
+        assertNull(service.verify("garbage", NOW));
+    }
+
+    @Test
+    void acceptsTokensSignedWithPreviousSecretAfterRotation() {
+        String token = service(OTHER_SECRET).issue(42L, "farmer01", "FARMER", NOW).token();
+
+        assertNotNull(service(SECRET, OTHER_SECRET).verify(token, NOW));
+    }
+}
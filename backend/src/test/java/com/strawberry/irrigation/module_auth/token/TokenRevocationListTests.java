@@ -0,0 +1,79 @@
+package com.strawberry.irrigation.module_auth.token;
+
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.dao.RefreshTokenMapper;
+import com.strawberry.irrigation.module_auth.dao.RevokedTokenMapper;
+import com.strawberry.irrigation.module_auth.entity.RevokedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final RevokedTokenMapper revokedTokenMapper = mock(RevokedTokenMapper.class);
+
+    private TokenRevocationList revocationList(AuthProperties properties) {
+        return new TokenRevocationList(properties, revokedTokenMapper, mock(RefreshTokenMapper.class),
+                new SimpleMeterRegistry());
+    }
+
+    private static RevokedToken row(long id, String jti) {
+        RevokedToken row = new RevokedToken();
+        row.setId(id);
+        row.setJti(jti);
+        return row;
+    }
+
+    @Test
+    void rescansTrailingWindowForIdsCommittedOutOfOrder() {
+        AuthProperties properties = new AuthProperties();
+        properties.getRevocation().setRescanWindow(10);
+        TokenRevocationList list = revocationList(properties);
+        when(revokedTokenMapper.exists(anyString())).thenAnswer(call -> !"never-revoked".equals(call.getArgument(0)));
+
+        // ID 7 先提交，ID 6 在第一次拉取之后才提交
+        when(revokedTokenMapper.selectAfter(eq(0L), anyInt())).thenReturn(List.of(row(7, "jti-7")));
+        list.poll(NOW);
+        when(revokedTokenMapper.selectAfter(eq(0L), anyInt())).thenReturn(List.of(row(6, "jti-6"), row(7, "jti-7")));
+        list.poll(NOW + 1_000);
+
+        assertTrue(list.isRevoked("jti-6"));
+        assertTrue(list.isRevoked("jti-7"));
+        assertFalse(list.isRevoked("never-revoked"));
+    }
+
+    @Test
+    void dropsRevocationsAfterTwoGenerations() {
+        AuthProperties properties = new AuthProperties();
+        long generationMillis = properties.getJwt().getAccessTokenTtlSeconds() * 1000;
+        TokenRevocationList list = revocationList(properties);
+        long start = System.currentTimeMillis();
+        when(revokedTokenMapper.exists("jti-1")).thenReturn(true);
+
+        list.revoke("jti-1", start / 1000 + properties.getJwt().getAccessTokenTtlSeconds());
+        assertTrue(list.isRevoked("jti-1"));
+
+        // 一个有效期后转为上一代，仍然生效
+        list.poll(start + generationMillis + 1);
+        assertTrue(list.isRevoked("jti-1"));
+        verify(revokedTokenMapper).purgeExpired();
+
+        // 两个有效期后整代丢弃（令牌本身早已过期），不再查库
+        list.poll(start + 2 * generationMillis + 2);
+        assertFalse(list.isRevoked("jti-1"));
+        verify(revokedTokenMapper, never()).exists("jti-1");
+    }
+}
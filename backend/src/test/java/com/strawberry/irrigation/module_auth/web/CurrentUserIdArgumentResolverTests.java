@@ -0,0 +1,53 @@
+package com.strawberry.irrigation.module_auth.web;
+
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.filter.JwtAuthenticationFilter;
+import com.strawberry.irrigation.module_auth.token.AccessTokenClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CurrentUserIdArgumentResolverTests {
+
+    private final AuthProperties properties = new AuthProperties();
+    private final CurrentUserIdArgumentResolver resolver = new CurrentUserIdArgumentResolver(properties);
+
+    private Long resolve(MockHttpServletRequest request) {
+        return resolver.resolveArgument(null, null, new ServletWebRequest(request), null);
+    }
+
+    private static MockHttpServletRequest spoofed() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CurrentUserIdArgumentResolver.USER_ID_HEADER, "1");
+        return request;
+    }
+
+    @Test
+    void usesTokenSubjectWhenAuthenticated() {
+        properties.setEnabled(true);
+        MockHttpServletRequest request = spoofed();
+        request.setAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE,
+                new AccessTokenClaims("iss", "42", "farmer01", "FARMER", 0, 0, "jti"));
+
+        assertEquals(42L, resolve(request));
+    }
+
+    @Test
+    void failsClosedWhenAuthIsDisabled() {
+        BusinessException e = assertThrows(BusinessException.class, () -> resolve(spoofed()));
+
+        assertEquals(401, e.getCode());
+    }
+
+    @Test
+    void readsHeaderOnlyWhenExplicitlyTrusted() {
+        properties.setTrustUserIdHeader(true);
+
+        assertEquals(1L, resolve(spoofed()));
+        assertEquals(401, assertThrows(BusinessException.class, () -> resolve(new MockHttpServletRequest())).getCode());
+    }
+}
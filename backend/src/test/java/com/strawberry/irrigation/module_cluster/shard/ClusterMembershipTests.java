@@ -0,0 +1,160 @@
+package com.strawberry.irrigation.module_cluster.shard;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClusterMembershipTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ClusterLeaseMapper leaseMapper = mock(ClusterLeaseMapper.class);
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+
+    @Test
+    void disabledMembershipOwnsEverything() {
+        ClusterMembership membership = membership("node-a", false);
+
+        assertTrue(membership.owns(42));
+        assertEquals(1, membership.getMemberCount());
+    }
+
+    @Test
+    void acquiresShardOnlyAfterHandoffAndReleasesImmediately() {
+        ClusterMembership a = membership("node-a", true);
+        ClusterMembership b = membership("node-b", true);
+        long now = System.nanoTime();
+
+        // 单节点加入：迁入延迟生效
+        when(leaseMapper.selectLiveNodes()).thenReturn(List.of("node-a"));
+        a.heartbeat(now);
+        assertFalse(a.owns(1));
+        a.heartbeat(now + 10 * SECOND);
+        assertTrue(a.owns(1));
+
+        // node-b 加入：node-a 立即释放归属 node-b 的设备，node-b 延迟接管
+        when(leaseMapper.selectLiveNodes()).thenReturn(List.of("node-a", "node-b"));
+        a.heartbeat(now + 15 * SECOND);
+        b.heartbeat(now + 15 * SECOND);
+        for (long id = 1; id <= 1_000; id++) {
+            assertFalse(a.owns(id) && b.owns(id));
+            assertFalse(b.owns(id));
+        }
+        a.heartbeat(now + 25 * SECOND);
+        b.heartbeat(now + 25 * SECOND);
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(a.owns(id) ^ b.owns(id), "设备 " + id + " 必须恰好由一个节点负责");
+        }
+        assertEquals(2, a.getMemberCount());
+        verify(publisher, times(6)).publishEvent(any(ShardAssignmentChangedEvent.class));
+    }
+
+    @Test
+    void exactlyOneNodeIngestsEachDeviceThroughoutHandoff() {
+        ClusterMembership a = membership("node-a", true);
+        ClusterMembership b = membership("node-b", true);
+        long now = System.nanoTime();
+
+        // 首个节点加入后立即采集，无需等待迁入生效
+        when(leaseMapper.selectLiveNodes()).thenReturn(List.of("node-a"));
+        a.heartbeat(now);
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(a.ingests(id));
+        }
+        a.heartbeat(now + 10 * SECOND);
+
+        // node-b 加入：迁入生效前仍由 node-a 采集全部设备
+        when(leaseMapper.selectLiveNodes()).thenReturn(List.of("node-a", "node-b"));
+        a.heartbeat(now + 15 * SECOND);
+        b.heartbeat(now + 15 * SECOND);
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(a.ingests(id));
+            assertFalse(b.ingests(id));
+        }
+        a.heartbeat(now + 25 * SECOND);
+        b.heartbeat(now + 25 * SECOND);
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(a.ingests(id) ^ b.ingests(id), "设备 " + id + " 必须恰好由一个节点采集");
+            assertEquals(a.owns(id), a.ingests(id));
+        }
+
+        // node-b 宕机：node-a 立即接手采集，规则评估等仍等迁入生效
+        when(leaseMapper.selectLiveNodes()).thenReturn(List.of("node-a"));
+        a.heartbeat(now + 40 * SECOND);
+        boolean sawHandoff = false;
+        for (long id = 1; id <= 1_000; id++) {
+            assertTrue(a.ingests(id));
+            sawHandoff |= !a.owns(id);
+        }
+        assertTrue(sawHandoff);
+    }
+
+    @Test
+    void onlyLeaseHolderIsLeaderAndStepsDownBeforeLeaseExpires() {
+        ClusterMembership a = membership("node-a", true);
+        ClusterMembership b = membership("node-b", true);
+        long now = System.nanoTime();
+        when(leaseMapper.selectLiveNodes()).thenReturn(List.of("node-a", "node-b"));
+        when(leaseMapper.tryAcquire(ClusterMembership.LEADER_LEASE, "node-a", 15.0)).thenReturn(1);
+        when(leaseMapper.tryAcquire(ClusterMembership.LEADER_LEASE, "node-b", 15.0)).thenReturn(0);
+
+        a.heartbeat(now);
+        b.heartbeat(now);
+        assertTrue(a.isLeader());
+        assertFalse(b.isLeader());
+        assertTrue(membership("node-c", false).isLeader());
+
+        // 租约截止按发起续约前的时间计算：最后一次成功续约已超过有效期则自动退位
+        ClusterMembership c = membership("node-c", true);
+        when(leaseMapper.tryAcquire(ClusterMembership.LEADER_LEASE, "node-c", 15.0)).thenReturn(1);
+        c.heartbeat(now - 20 * SECOND);
+        assertFalse(c.isLeader());
+
+        // 续约失败时保持身份直到租约截止
+        doThrow(new IllegalStateException("db down")).when(leaseMapper)
+                .tryAcquire(anyString(), anyString(), anyDouble());
+        a.heartbeat(now + SECOND);
+        assertTrue(a.isLeader());
+
+        a.leave();
+        verify(leaseMapper).releaseHeld(ClusterMembership.LEADER_LEASE, "node-a");
+    }
+
+    @Test
+    void expiredLeaseStopsOwnership() {
+        ClusterMembership a = membership("node-a", true);
+        long now = System.nanoTime();
+        when(leaseMapper.selectLiveNodes()).thenReturn(List.of("node-a"));
+        a.heartbeat(now - 60 * SECOND);
+        a.heartbeat(now - 50 * SECOND);
+
+        // 最后一次成功续约已超过租约有效期
+        doThrow(new IllegalStateException("db down")).when(leaseMapper).renew(anyString(), anyDouble());
+        a.heartbeat(now);
+        assertFalse(a.owns(1));
+    }
+
+    private ClusterMembership membership(String nodeId, boolean enabled) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(enabled);
+        properties.setNodeId(nodeId);
+        return new ClusterMembership(properties, leaseMapper, publisher, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,56 @@
+package com.strawberry.irrigation.module_cluster.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTests {
+
+    private static final int DEVICES = 30_000;
+
+    @Test
+    void ringIsIndependentOfMemberOrder() {
+        ConsistentHashRing a = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing b = ConsistentHashRing.of(List.of("node-c", "node-a", "node-b"), 128);
+
+        for (long id = 1; id <= 1_000; id++) {
+            assertEquals(a.ownerOf(id), b.ownerOf(id));
+        }
+        assertNull(ConsistentHashRing.EMPTY.ownerOf(1));
+    }
+
+    @Test
+    void devicesAreSpreadEvenly() {
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long id = 1; id <= DEVICES; id++) {
+            counts.merge(ring.ownerOf(id), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(Math.abs(count - DEVICES / 4) < DEVICES / 4 * 0.25,
+                "分布不均匀: " + counts));
+    }
+
+    @Test
+    void joiningNodeOnlyTakesDevicesFromOthers() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c"), 128);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+
+        int moved = 0;
+        for (long id = 1; id <= DEVICES; id++) {
+            String owner = after.ownerOf(id);
+            if (!owner.equals(before.ownerOf(id))) {
+                assertEquals("node-d", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > DEVICES / 8 && moved < DEVICES / 3, "迁移设备数: " + moved);
+    }
+}
@@ -0,0 +1,81 @@
+package com.strawberry.irrigation.module_control.dispatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandJournalTests {
+
+    @TempDir
+    Path directory;
+
+    private static PumpCommand command(String id, long actuator) {
+        return new PumpCommand(id, actuator, "PUMP_ON", 60, "MANUAL", "7", 1_700_000_000_000L);
+    }
+
+    @Test
+    void recoversUnfinishedCommandsInOrder() throws Exception {
+        CommandJournal journal = new CommandJournal(directory, 1 << 20);
+        journal.appendQueued(command("a", 1));
+        journal.appendQueued(command("b", 2));
+        journal.appendQueued(command("c", 1));
+        journal.appendResult("a", "FAILED", "发布失败:\t超时\n第二行");
+        journal.appendResult("b", "SUCCESS", "ok");
+        journal.appendLogged(List.of("b"));
+        journal.close();
+
+        // 模拟写到一半的记录
+        Files.writeString(directory.resolve("commands.journal"), "Q\td\t3\tPUMP_ON",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        List<CommandJournal.Entry> pending = new CommandJournal(directory, 1 << 20).pending();
+        assertEquals(2, pending.size());
+        assertEquals(command("a", 1), pending.get(0).command());
+        assertEquals("FAILED", pending.get(0).status());
+        assertEquals("发布失败:\t超时\n第二行", pending.get(0).message());
+        assertEquals(command("c", 1), pending.get(1).command());
+        assertNull(pending.get(1).status());
+    }
+
+    @Test
+    void neverOverwritesUnfinishedCommand() throws Exception {
+        CommandJournal journal = new CommandJournal(directory, 1 << 20);
+        assertTrue(journal.appendQueued(command("k", 1)));
+        journal.appendResult("k", "SUCCESS", "ok");
+        // 结果已记录但灌溉日志尚未入库，同一 commandId 的新指令不能覆盖旧记录
+        assertFalse(journal.appendQueued(command("k", 2)));
+        assertEquals(command("k", 1), journal.pending().get(0).command());
+
+        journal.appendLogged(List.of("k"));
+        assertTrue(journal.appendQueued(command("k", 2)));
+        journal.close();
+        assertEquals(command("k", 2), new CommandJournal(directory, 1 << 20).pending().get(0).command());
+    }
+
+    @Test
+    void compactsToLiveEntries() throws Exception {
+        CommandJournal journal = new CommandJournal(directory, 2_000);
+        journal.appendQueued(command("keep", 1));
+        for (int i = 0; i < 50; i++) {
+            journal.appendQueued(command("done-" + i, 2));
+            journal.appendResult("done-" + i, "SUCCESS", "ok");
+            journal.appendLogged(List.of("done-" + i));
+        }
+        assertTrue(Files.size(directory.resolve("commands.journal")) < 2_000);
+        journal.close();
+
+        List<CommandJournal.Entry> pending = new CommandJournal(directory, 2_000).pending();
+        assertEquals(1, pending.size());
+        assertEquals("keep", pending.get(0).command().commandId());
+    }
+}
@@ -0,0 +1,167 @@
+package com.strawberry.irrigation.module_control.dispatch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.module_control.config.CommandDispatchProperties;
+import com.strawberry.irrigation.module_control.dao.IrrigationLogMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationLog;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.MqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.eclipse.paho.client.mqttv3.MqttTopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IrrigationCommandDispatcherTests {
+
+    @TempDir
+    Path directory;
+
+    private final MqttClient mqttClient = mock(MqttClient.class);
+    private final MqttTopic topic = mock(MqttTopic.class);
+    private final IrrigationLogMapper logMapper = mock(IrrigationLogMapper.class);
+    private final DeviceRegistry registry = mock(DeviceRegistry.class);
+    private final CommandDispatchProperties properties = new CommandDispatchProperties();
+
+    @BeforeEach
+    void setUp() {
+        properties.setJournalDirectory(directory.toString());
+        properties.setRetryBackoffMs(0);
+        when(registry.get(5)).thenReturn(new RegisteredDevice(5, "pump-005", "ACTUATOR", 7L));
+        when(mqttClient.getTopic("strawberry/actuator/pump-005/control")).thenReturn(topic);
+    }
+
+    private IrrigationCommandDispatcher dispatcher() throws Exception {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("mqttClient", mqttClient);
+        IrrigationCommandDispatcher dispatcher = new IrrigationCommandDispatcher(properties, registry,
+                beanFactory.getBeanProvider(MqttClient.class), logMapper, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private static MqttDeliveryToken token(boolean complete, MqttException exception) {
+        MqttDeliveryToken token = mock(MqttDeliveryToken.class);
+        when(token.isComplete()).thenReturn(complete);
+        when(token.getException()).thenReturn(exception);
+        return token;
+    }
+
+    private static PumpCommand command(String id, String action) {
+        return new PumpCommand(id, 5, action, 60, "MANUAL", "7", System.currentTimeMillis());
+    }
+
+    @Test
+    void commandsForOneActuatorAreSentInOrderAndLoggedInOneBatch() throws Exception {
+        MqttDeliveryToken pending = token(false, null);
+        when(topic.publish(any(MqttMessage.class))).thenReturn(pending);
+        IrrigationCommandDispatcher dispatcher = dispatcher();
+
+        assertTrue(dispatcher.submit(command("on", "PUMP_ON")));
+        assertTrue(dispatcher.submit(command("off", "PUMP_OFF")));
+        assertFalse(dispatcher.submit(command("on", "PUMP_ON")));
+        // 第一条未确认前，第二条不会下发
+        verify(topic, times(1)).publish(any(MqttMessage.class));
+
+        when(pending.isComplete()).thenReturn(true);
+        dispatcher.sweep();
+        dispatcher.sweep();
+
+        ArgumentCaptor<MqttMessage> messages = ArgumentCaptor.forClass(MqttMessage.class);
+        verify(topic, times(2)).publish(messages.capture());
+        assertTrue(new String(messages.getAllValues().get(0).getPayload(), StandardCharsets.UTF_8)
+                .contains("\"commandId\":\"on\",\"command\":\"PUMP_ON\""));
+        assertTrue(new String(messages.getAllValues().get(1).getPayload(), StandardCharsets.UTF_8)
+                .contains("\"command\":\"PUMP_OFF\""));
+
+        dispatcher.flushLogs();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IrrigationLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(logMapper).insertBatch(logs.capture());
+        assertEquals(List.of("PUMP_ON", "PUMP_OFF"), logs.getValue().stream().map(IrrigationLog::getAction).toList());
+        assertEquals(List.of("SUCCESS", "SUCCESS"), logs.getValue().stream().map(IrrigationLog::getStatus).toList());
+    }
+
+    @Test
+    void failedPublishesAreRetriedThenLoggedAsFailed() throws Exception {
+        MqttDeliveryToken failed = token(true, new MqttException(MqttException.REASON_CODE_CONNECTION_LOST));
+        when(topic.publish(any(MqttMessage.class))).thenReturn(failed);
+        IrrigationCommandDispatcher dispatcher = dispatcher();
+
+        dispatcher.submit(command("c1", "PUMP_ON"));
+        for (int i = 0; i < 10; i++) {
+            dispatcher.sweep();
+        }
+        verify(topic, times(3)).publish(any(MqttMessage.class));
+        assertFalse(dispatcher.isInProgress("c1"));
+
+        dispatcher.flushLogs();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IrrigationLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(logMapper).insertBatch(logs.capture());
+        assertEquals("FAILED", logs.getValue().get(0).getStatus());
+    }
+
+    @Test
+    void completedCommandIdsAreIgnoredWithinWindow() throws Exception {
+        MqttDeliveryToken done = token(true, null);
+        when(topic.publish(any(MqttMessage.class))).thenReturn(done);
+        IrrigationCommandDispatcher dispatcher = dispatcher();
+
+        assertTrue(dispatcher.submit(command("k1", "PUMP_ON")));
+        dispatcher.sweep();
+        assertFalse(dispatcher.isInProgress("k1"));
+        // 已完成、灌溉日志尚未入库
+        assertFalse(dispatcher.submit(command("k1", "PUMP_ON")));
+        dispatcher.flushLogs();
+        // 已从指令日志中清除，仍在去重窗口内
+        assertFalse(dispatcher.submit(command("k1", "PUMP_ON")));
+        verify(topic, times(1)).publish(any(MqttMessage.class));
+    }
+
+    @Test
+    void commandIdCanBeReusedAfterWindowExpires() throws Exception {
+        properties.setCompletedWindowMs(0);
+        MqttDeliveryToken done = token(true, null);
+        when(topic.publish(any(MqttMessage.class))).thenReturn(done);
+        IrrigationCommandDispatcher dispatcher = dispatcher();
+
+        assertTrue(dispatcher.submit(command("k1", "PUMP_ON")));
+        dispatcher.sweep();
+        dispatcher.flushLogs();
+        assertTrue(dispatcher.submit(command("k1", "PUMP_ON")));
+    }
+
+    @Test
+    void unfinishedCommandsAreResentAfterRestart() throws Exception {
+        MqttDeliveryToken pending = token(false, null);
+        when(topic.publish(any(MqttMessage.class))).thenReturn(pending);
+        IrrigationCommandDispatcher first = dispatcher();
+        first.submit(command("c1", "PUMP_ON"));
+        first.stop();
+
+        IrrigationCommandDispatcher second = dispatcher();
+        assertTrue(second.isInProgress("c1"));
+        verify(topic, times(2)).publish(any(MqttMessage.class));
+    }
+}
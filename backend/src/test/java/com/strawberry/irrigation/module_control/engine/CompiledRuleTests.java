@@ -0,0 +1,110 @@
+package com.strawberry.irrigation.module_control.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledRuleTests {
+
+    @Test
+    void averageWaitsForFullWindowAndSmoothsSpikes() {
+        CompiledRule rule = rule(ConditionType.AVERAGE, 60, 0);
+
+        // 窗口未覆盖满 60 秒前不触发
+        assertTrue(Double.isNaN(rule.evaluate(10, 0)));
+        assertTrue(Double.isNaN(rule.evaluate(10, 30_000)));
+        assertEquals(10.0, rule.evaluate(10, 60_000), 1e-9);
+
+        // 单个高值尖峰不足以把均值拉回阈值以上
+        assertFalse(Double.isNaN(rule.evaluate(90, 70_000)));
+        // 持续高值把旧读数挤出窗口后条件解除
+        for (long t = 80_000; t <= 140_000; t += 10_000) {
+            rule.evaluate(60, t);
+        }
+        assertTrue(Double.isNaN(rule.evaluate(60, 150_000)));
+    }
+
+    @Test
+    void averageRestartsAfterGapLongerThanWindow() {
+        CompiledRule rule = rule(ConditionType.AVERAGE, 60, 0);
+        rule.evaluate(10, 0);
+        assertFalse(Double.isNaN(rule.evaluate(10, 60_000)));
+
+        assertTrue(Double.isNaN(rule.evaluate(10, 200_000)));
+    }
+
+    @Test
+    void sustainedRequiresUninterruptedCondition() {
+        CompiledRule rule = rule(ConditionType.SUSTAINED, 30, 0);
+
+        assertTrue(Double.isNaN(rule.evaluate(20, 0)));
+        assertTrue(Double.isNaN(rule.evaluate(20, 20_000)));
+        assertTrue(Double.isNaN(rule.evaluate(50, 25_000)));
+        assertTrue(Double.isNaN(rule.evaluate(20, 40_000)));
+        assertEquals(20.0, rule.evaluate(20, 70_000), 1e-9);
+    }
+
+    @Test
+    void hysteresisKeepsConditionUntilReleaseThreshold() {
+        CompiledRule rule = rule(ConditionType.INSTANT, 0, 5);
+
+        assertTrue(Double.isNaN(rule.evaluate(41, 0)));
+        assertFalse(Double.isNaN(rule.evaluate(39, 1)));
+        // 在 40~45 之间抖动不解除
+        assertFalse(Double.isNaN(rule.evaluate(42, 2)));
+        assertFalse(Double.isNaN(rule.evaluate(44.9, 3)));
+        assertTrue(Double.isNaN(rule.evaluate(45, 4)));
+        // 解除后需重新低于 40
+        assertTrue(Double.isNaN(rule.evaluate(42, 5)));
+    }
+
+    @Test
+    void reloadKeepsWindowStateWhenDefinitionUnchanged() {
+        CompiledRule first = rule(ConditionType.SUSTAINED, 30, 0);
+        first.evaluate(20, 0);
+        RuleIndex index = RuleIndex.build(List.of(first), RuleIndex.EMPTY);
+
+        CompiledRule reloaded = rule(ConditionType.SUSTAINED, 30, 0);
+        RuleIndex.build(List.of(reloaded), index);
+        assertEquals(20.0, reloaded.evaluate(20, 30_000), 1e-9);
+
+        CompiledRule redefined = rule(ConditionType.SUSTAINED, 60, 0);
+        RuleIndex.build(List.of(redefined), index);
+        assertTrue(Double.isNaN(redefined.evaluate(20, 40_000)));
+    }
+
+    @Test
+    void mapsRuleActionToPumpCommand() {
+        assertEquals("PUMP_ON", CompiledRule.toPumpCommand("START_PUMP"));
+        assertEquals("PUMP_OFF", CompiledRule.toPumpCommand("STOP_PUMP"));
+        assertEquals("PUMP_OFF", CompiledRule.toPumpCommand("pump_off"));
+        assertEquals("PUMP_ON", CompiledRule.toPumpCommand(null));
+        assertThrows(IllegalArgumentException.class, () -> CompiledRule.toPumpCommand("OPEN_VALVE"));
+    }
+
+    @Test
+    void zeroDurationStillAppliesMinimumCooldown() {
+        CompiledRule rule = new CompiledRule(1L, "off", 10L, 20L, MeasuredParameter.SOIL_HUMIDITY,
+                ThresholdOperator.GT, 80.0, "STOP_PUMP", 0);
+
+        assertTrue(rule.tryFire(0));
+        assertFalse(rule.tryFire(1_000));
+        assertTrue(rule.tryFire(CompiledRule.MIN_COOLDOWN_SECONDS * 1000L));
+    }
+
+    @Test
+    void rejectsWindowConditionWithoutWindow() {
+        assertThrows(IllegalArgumentException.class, () -> rule(ConditionType.AVERAGE, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> rule(ConditionType.INSTANT, 0, -1));
+    }
+
+    private static CompiledRule rule(ConditionType type, int windowSeconds, double hysteresis) {
+        return new CompiledRule(1L, "rule-1", 10L, 100L, MeasuredParameter.SOIL_HUMIDITY,
+                ThresholdOperator.LT, 40.0, "START_PUMP", 60, type, windowSeconds, hysteresis);
+    }
+}
@@ -0,0 +1,87 @@
+package com.strawberry.irrigation.module_control.engine;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_control.dao.IrrigationRuleMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationRule;
+import com.strawberry.irrigation.module_control.service.IrrigationControlService;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RuleEngineTests {
+
+    private final IrrigationRuleMapper ruleMapper = mock(IrrigationRuleMapper.class);
+    private final IrrigationControlService controlService = mock(IrrigationControlService.class);
+    private final ClusterMembership standalone = new ClusterMembership(new ClusterProperties(),
+            mock(ClusterLeaseMapper.class), mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+    private final RuleEngine engine = new RuleEngine(ruleMapper, controlService, standalone);
+
+    @BeforeEach
+    void loadRules() {
+        when(ruleMapper.selectList(any())).thenReturn(List.of(
+                rule(1L, 10L, "SOIL_HUMIDITY", "<", 40.0),
+                rule(2L, 10L, "TEMPERATURE", ">=", 35.0),
+                rule(3L, 20L, "SOIL_HUMIDITY", "<", 30.0),
+                rule(4L, 20L, "UNKNOWN", "<", 30.0)));
+        engine.reload();
+    }
+
+    @Test
+    void evaluatesOnlyRulesOfTheReportingSensor() {
+        assertEquals(3, engine.getRuleCount());
+
+        engine.onReading(new SensorReading(10L, 0L, 35.0, 20.0, Double.NaN, Double.NaN));
+
+        verify(controlService).executeRuleAction(argThat(r -> r.getRuleId() == 1L), eq(35.0));
+        verify(controlService, times(1)).executeRuleAction(any(), anyDouble());
+    }
+
+    @Test
+    void ignoresMissingValuesAndUnknownSensors() {
+        engine.onReading(new SensorReading(10L, 0L, Double.NaN, Double.NaN, 1.0, 1.0));
+        engine.onReading(new SensorReading(99L, 0L, 1.0, 99.0, 1.0, 1.0));
+
+        verify(controlService, never()).executeRuleAction(any(), anyDouble());
+    }
+
+    @Test
+    void suppressesRepeatedTriggersDuringCooldownAcrossReloads() {
+        engine.onReading(new SensorReading(20L, 0L, 10.0, Double.NaN, Double.NaN, Double.NaN));
+        engine.reload();
+        engine.onReading(new SensorReading(20L, 0L, 12.0, Double.NaN, Double.NaN, Double.NaN));
+
+        verify(controlService, times(1)).executeRuleAction(argThat(r -> r.getRuleId() == 3L), anyDouble());
+    }
+
+    private static IrrigationRule rule(Long id, Long sensorId, String parameter, String operator, double threshold) {
+        IrrigationRule rule = new IrrigationRule();
+        rule.setId(id);
+        rule.setName("rule-" + id);
+        rule.setSensorDeviceId(sensorId);
+        rule.setActuatorDeviceId(100L + id);
+        rule.setMeasuredParameter(parameter);
+        rule.setThresholdOperator(operator);
+        rule.setThresholdValue(threshold);
+        rule.setAction("START_PUMP");
+        rule.setDurationSeconds(60);
+        rule.setIsEnabled(true);
+        return rule;
+    }
+}
@@ -0,0 +1,272 @@
+package com.strawberry.irrigation.module_control.schedule;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_control.config.ScheduleProperties;
+import com.strawberry.irrigation.module_control.dao.IrrigationScheduleMapper;
+import com.strawberry.irrigation.module_control.entity.IrrigationSchedule;
+import com.strawberry.irrigation.module_control.service.IrrigationControlService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IrrigationSchedulerTests {
+
+    private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+    private static final int MON_WED_FRI = CompiledSchedule.maskOf(
+            EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY));
+
+    /**
+     * 2024-05-06 是星期一
+     */
+    private static final long MONDAY_0500 = millis(LocalDateTime.of(2024, 5, 6, 5, 0), SHANGHAI);
+
+    private final IrrigationScheduler scheduler = new IrrigationScheduler(new ScheduleProperties(),
+            mock(IrrigationScheduleMapper.class), mock(IrrigationControlService.class),
+            new ClusterMembership(new ClusterProperties(), mock(ClusterLeaseMapper.class),
+                    mock(ApplicationEventPublisher.class), new SimpleMeterRegistry()),
+            new SimpleMeterRegistry());
+
+    @Test
+    void nextFireSkipsDaysNotInMask() {
+        CompiledSchedule schedule = schedule(1L, LocalTime.of(6, 0), MON_WED_FRI, SHANGHAI);
+
+        long monday = schedule.nextFireAfter(MONDAY_0500);
+        assertEquals(millis(LocalDateTime.of(2024, 5, 6, 6, 0), SHANGHAI), monday);
+        assertEquals(millis(LocalDateTime.of(2024, 5, 8, 6, 0), SHANGHAI), schedule.nextFireAfter(monday));
+        long friday = millis(LocalDateTime.of(2024, 5, 10, 6, 0), SHANGHAI);
+        assertEquals(millis(LocalDateTime.of(2024, 5, 13, 6, 0), SHANGHAI), schedule.nextFireAfter(friday));
+    }
+
+    @Test
+    void nextFireHandlesDaylightSavingGap() {
+        ZoneId newYork = ZoneId.of("America/New_York");
+        CompiledSchedule schedule = schedule(1L, LocalTime.of(2, 30), CompiledSchedule.ALL_DAYS, newYork);
+
+        // 2024-03-10 02:30 在纽约不存在，顺延到 03:30 EDT
+        long before = millis(LocalDateTime.of(2024, 3, 10, 0, 0), newYork);
+        assertEquals(millis(LocalDateTime.of(2024, 3, 10, 3, 30), newYork), schedule.nextFireAfter(before));
+    }
+
+    @Test
+    void firesDueSchedulesInOrderAndRequeues() {
+        scheduler.schedule(schedule(1L, LocalTime.of(7, 0), MON_WED_FRI, SHANGHAI), MONDAY_0500);
+        scheduler.schedule(schedule(2L, LocalTime.of(6, 0), MON_WED_FRI, SHANGHAI), MONDAY_0500);
+
+        assertTrue(scheduler.pollDue(MONDAY_0500 + 30 * 60_000).isEmpty());
+        List<IrrigationScheduler.Firing> due = scheduler.pollDue(MONDAY_0500 + 3_600_000 + 30_000);
+        assertEquals(List.of(2L), due.stream().map(f -> f.schedule().scheduleId()).toList());
+        due = scheduler.pollDue(MONDAY_0500 + 2 * 3_600_000 + 30_000);
+        assertEquals(List.of(1L), due.stream().map(f -> f.schedule().scheduleId()).toList());
+        assertEquals(millis(LocalDateTime.of(2024, 5, 8, 6, 0), SHANGHAI), scheduler.nextFireTime(2L));
+    }
+
+    @Test
+    void replacedAndCancelledSchedulesDoNotFire() {
+        scheduler.schedule(schedule(1L, LocalTime.of(6, 0), MON_WED_FRI, SHANGHAI), MONDAY_0500);
+        scheduler.schedule(schedule(2L, LocalTime.of(6, 0), MON_WED_FRI, SHANGHAI), MONDAY_0500);
+        scheduler.schedule(schedule(1L, LocalTime.of(9, 0), MON_WED_FRI, SHANGHAI), MONDAY_0500);
+        scheduler.cancel(2L);
+
+        assertTrue(scheduler.pollDue(MONDAY_0500 + 3_600_000).isEmpty());
+        assertEquals(1, scheduler.pollDue(MONDAY_0500 + 4 * 3_600_000).size());
+        assertNull(scheduler.nextFireTime(2L));
+    }
+
+    @Test
+    void skipsFiringsBeyondMisfireGrace() {
+        scheduler.schedule(schedule(1L, LocalTime.of(6, 0), MON_WED_FRI, SHANGHAI), MONDAY_0500);
+
+        assertTrue(scheduler.pollDue(MONDAY_0500 + 3 * 3_600_000).isEmpty());
+        assertEquals(millis(LocalDateTime.of(2024, 5, 8, 6, 0), SHANGHAI), scheduler.nextFireTime(1L));
+    }
+
+    @Test
+    void handlesManySchedules() {
+        List<CompiledSchedule> schedules = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            schedules.add(schedule(id, LocalTime.of((int) (id % 24), (int) (id % 60)), MON_WED_FRI, SHANGHAI));
+        }
+        scheduler.replaceAll(schedules, MONDAY_0500);
+        assertEquals(100_000, scheduler.size());
+
+        // 同一天 05:00 之后到次日 05:00 之前，周一有效的计划各触发一次
+        int fired = 0;
+        for (long t = MONDAY_0500; t < MONDAY_0500 + 24 * 3_600_000L; t += 60_000) {
+            fired += scheduler.pollDue(t).size();
+        }
+        assertEquals(100_000 - countBefore0500(schedules), fired);
+    }
+
+    @Test
+    void firingUsesLatestRowFromDatabase() {
+        IrrigationScheduleMapper mapper = mock(IrrigationScheduleMapper.class);
+        IrrigationControlService control = mock(IrrigationControlService.class);
+        IrrigationScheduler scheduler = new IrrigationScheduler(new ScheduleProperties(), mapper, control,
+                new ClusterMembership(new ClusterProperties(), mock(ClusterLeaseMapper.class),
+                        mock(ApplicationEventPublisher.class), new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+        CompiledSchedule loaded = schedule(1L, LocalTime.of(6, 0), MON_WED_FRI, SHANGHAI);
+        scheduler.schedule(loaded, MONDAY_0500);
+        long fireAt = loaded.nextFireAfter(MONDAY_0500);
+        IrrigationScheduler.Firing firing = new IrrigationScheduler.Firing(loaded, fireAt);
+
+        // 其他节点上已删除
+        scheduler.fire(firing, fireAt);
+        verify(control, never()).executeScheduledAction(any(), anyLong());
+        assertNull(scheduler.nextFireTime(1L));
+
+        // 其他节点上只修改了时长：按新内容执行
+        IrrigationSchedule row = row(900);
+        when(mapper.selectById(1L)).thenReturn(row);
+        scheduler.fire(firing, fireAt);
+        CompiledSchedule edited = CompiledSchedule.of(row);
+        verify(control).executeScheduledAction(edited, fireAt);
+
+        // 已停用
+        row.setIsEnabled(false);
+        scheduler.fire(new IrrigationScheduler.Firing(edited, fireAt), fireAt);
+        verify(control).executeScheduledAction(any(), anyLong());
+    }
+
+    @Test
+    void firingsDuringHandoffAreDeferredUntilOwnershipSettles() {
+        IrrigationScheduleMapper mapper = mock(IrrigationScheduleMapper.class);
+        IrrigationControlService control = mock(IrrigationControlService.class);
+        ClusterMembership membership = mock(ClusterMembership.class);
+        IrrigationScheduler scheduler = new IrrigationScheduler(new ScheduleProperties(), mapper, control,
+                membership, new SimpleMeterRegistry());
+        CompiledSchedule schedule = schedule(1L, LocalTime.of(6, 0), MON_WED_FRI, SHANGHAI);
+        IrrigationSchedule row = row(600);
+        when(mapper.selectById(1L)).thenReturn(row);
+        long fireAt = schedule.nextFireAfter(MONDAY_0500);
+
+        when(membership.isAcquiring(101L)).thenReturn(true);
+        scheduler.fire(new IrrigationScheduler.Firing(schedule, fireAt), fireAt);
+        assertEquals(1, scheduler.deferredCount());
+        scheduler.retryDeferred(fireAt + 1_000);
+        assertEquals(1, scheduler.deferredCount());
+        verify(control, never()).executeScheduledAction(any(), anyLong());
+
+        // 迁入生效
+        when(membership.owns(101L)).thenReturn(true);
+        scheduler.retryDeferred(fireAt + 2_000);
+        assertEquals(0, scheduler.deferredCount());
+        verify(control).executeScheduledAction(schedule, fireAt);
+
+        // 迁入迟迟未生效，超过补发期限后放弃
+        when(membership.owns(101L)).thenReturn(false);
+        scheduler.fire(new IrrigationScheduler.Firing(schedule, fireAt), fireAt);
+        scheduler.retryDeferred(fireAt + 120_000);
+        assertEquals(0, scheduler.deferredCount());
+    }
+
+    @Test
+    void scheduleCreatedOnNonOwnerNodeReachesOwnerByPolling() {
+        IrrigationScheduleMapper mapper = mock(IrrigationScheduleMapper.class);
+        LocalDateTime loadedAt = LocalDateTime.of(2024, 5, 6, 4, 0);
+        when(mapper.selectMaxUpdatedAt()).thenReturn(loadedAt);
+        when(mapper.selectList(any())).thenReturn(List.of());
+
+        // 节点 A 接收新建请求但不负责执行器 101，节点 B 负责
+        ClusterMembership membershipA = mock(ClusterMembership.class);
+        ClusterMembership membershipB = mock(ClusterMembership.class);
+        when(membershipB.owns(101L)).thenReturn(true);
+        IrrigationControlService controlA = mock(IrrigationControlService.class);
+        IrrigationControlService controlB = mock(IrrigationControlService.class);
+        IrrigationScheduler nodeA = new IrrigationScheduler(new ScheduleProperties(), mapper, controlA,
+                membershipA, new SimpleMeterRegistry());
+        IrrigationScheduler nodeB = new IrrigationScheduler(new ScheduleProperties(), mapper, controlB,
+                membershipB, new SimpleMeterRegistry());
+        nodeA.reload();
+        nodeB.reload();
+
+        IrrigationSchedule row = row(600);
+        row.setUpdateTime(LocalDateTime.of(2024, 5, 6, 4, 59));
+        when(mapper.selectById(1L)).thenReturn(row);
+        CompiledSchedule created = CompiledSchedule.of(row);
+        nodeA.schedule(created, MONDAY_0500);
+        long fireAt = created.nextFireAfter(MONDAY_0500);
+
+        // 节点 B 在下一次增量轮询中看到新计划（回看窗口从水位往前 5 秒）
+        when(mapper.selectChangedSince(loadedAt.minusSeconds(5))).thenReturn(List.of(row));
+        nodeB.pollChanges(MONDAY_0500 + 5_000);
+        assertEquals(fireAt, nodeB.nextFireTime(1L));
+
+        for (IrrigationScheduler.Firing firing : nodeA.pollDue(fireAt)) {
+            nodeA.fire(firing, fireAt);
+        }
+        for (IrrigationScheduler.Firing firing : nodeB.pollDue(fireAt)) {
+            nodeB.fire(firing, fireAt);
+        }
+        verify(controlA, never()).executeScheduledAction(any(), anyLong());
+        verify(controlB).executeScheduledAction(created, fireAt);
+
+        // 之后在节点 A 停用：水位已推进到新计划的修改时间，节点 B 下次轮询即移出队列
+        IrrigationSchedule disabled = row(600);
+        disabled.setIsEnabled(false);
+        disabled.setUpdateTime(LocalDateTime.of(2024, 5, 6, 7, 0));
+        when(mapper.selectChangedSince(row.getUpdateTime().minusSeconds(5))).thenReturn(List.of(row, disabled));
+        nodeB.pollChanges(fireAt + 60_000);
+        assertNull(nodeB.nextFireTime(1L));
+    }
+
+    @Test
+    void pollingWaitsForInitialLoad() {
+        IrrigationScheduleMapper mapper = mock(IrrigationScheduleMapper.class);
+        IrrigationScheduler scheduler = new IrrigationScheduler(new ScheduleProperties(), mapper,
+                mock(IrrigationControlService.class), mock(ClusterMembership.class), new SimpleMeterRegistry());
+
+        scheduler.pollChanges(MONDAY_0500);
+        verify(mapper, never()).selectChangedSince(any());
+    }
+
+    private static long countBefore0500(List<CompiledSchedule> schedules) {
+        return schedules.stream().filter(s -> s.startTime().isBefore(LocalTime.of(5, 0))
+                || s.startTime().equals(LocalTime.of(5, 0))).count();
+    }
+
+    /**
+     * 数据库中计划 1 的当前内容（与 schedule(1L, 06:00, MON_WED_FRI, SHANGHAI) 仅时长可能不同）
+     */
+    private static IrrigationSchedule row(int durationSeconds) {
+        IrrigationSchedule row = new IrrigationSchedule();
+        row.setId(1L);
+        row.setName("schedule-1");
+        row.setActuatorDeviceId(101L);
+        row.setStartTime(LocalTime.of(6, 0));
+        row.setDurationSeconds(durationSeconds);
+        row.setDaysOfWeek(MON_WED_FRI);
+        row.setTimeZone("Asia/Shanghai");
+        row.setIsEnabled(true);
+        return row;
+    }
+
+    private static CompiledSchedule schedule(long id, LocalTime start, int mask, ZoneId zone) {
+        return new CompiledSchedule(id, "schedule-" + id, 100L + id, start, 600, mask, zone);
+    }
+
+    private static long millis(LocalDateTime time, ZoneId zone) {
+        return ZonedDateTime.of(time, zone).toInstant().toEpochMilli();
+    }
+}
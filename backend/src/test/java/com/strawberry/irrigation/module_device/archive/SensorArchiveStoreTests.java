@@ -0,0 +1,43 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import com.strawberry.irrigation.module_device.config.ArchiveProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SensorArchiveStoreTests {
+
+    @TempDir
+    Path archiveDir;
+
+    private SensorArchiveStore open() throws IOException {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setDirectory(archiveDir.toString());
+        return new SensorArchiveStore(properties);
+    }
+
+    @Test
+    void followerSeesWatermarkAdvancedByLeaderOnSharedDirectory() throws IOException {
+        SensorArchiveStore leader = open();
+        SensorArchiveStore follower = open();
+        assertNull(follower.getWatermarkDay());
+        assertEquals(Long.MIN_VALUE, follower.getWatermarkMillis());
+
+        LocalDate first = LocalDate.of(2024, 3, 1);
+        leader.advanceWatermark(first);
+        assertEquals(first, follower.getWatermarkDay());
+        assertEquals(first.atStartOfDay(follower.getZone()).toInstant().toEpochMilli(),
+                follower.getWatermarkMillis());
+
+        LocalDate second = first.plusDays(1);
+        leader.advanceWatermark(second);
+        assertEquals(second, follower.getWatermarkDay());
+        assertEquals(second, leader.getWatermarkDay());
+    }
+}
@@ -0,0 +1,145 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.config.ArchiveProperties;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.entity.SensorData;
+import com.strawberry.irrigation.module_device.history.SensorSeries;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SensorArchiverTests {
+
+    private static final long DEVICE_ID = 1L;
+
+    @TempDir
+    Path archiveDir;
+
+    /**
+     * 模拟 sensor_data 中设备 1 的数据
+     */
+    private final NavigableMap<LocalDateTime, SensorData> table = new TreeMap<>();
+    private final SensorDataMapper mapper = mock(SensorDataMapper.class);
+    private final LocalDate day = LocalDate.now().minusDays(40);
+    private Runnable duringSelect = () -> { };
+    private SensorArchiveStore store;
+    private SensorArchiver archiver;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setDirectory(archiveDir.toString());
+        store = new SensorArchiveStore(properties);
+        ClusterMembership standalone = new ClusterMembership(new ClusterProperties(), mock(ClusterLeaseMapper.class),
+                mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+        archiver = new SensorArchiver(mapper, store, properties, mock(PlatformTransactionManager.class), standalone);
+
+        when(mapper.selectEarliestTime()).thenAnswer(call -> table.isEmpty() ? null : table.firstKey());
+        when(mapper.selectDeviceIds(any(), any())).thenAnswer(call ->
+                range(call.getArgument(0), call.getArgument(1)).isEmpty() ? List.of() : List.of(DEVICE_ID));
+        doAnswer(call -> {
+            feed(range(call.getArgument(1), call.getArgument(2)), call.getArgument(3));
+            duringSelect.run();
+            duringSelect = () -> { };
+            return null;
+        }).when(mapper).selectRange(anyLong(), any(), any(), any(ResultHandler.class));
+        doAnswer(call -> {
+            Map<LocalDateTime, SensorData> deleted = range(call.getArgument(1), call.getArgument(2));
+            feed(deleted, call.getArgument(3));
+            deleted.clear();
+            return null;
+        }).when(mapper).deleteRangeReturning(anyLong(), any(), any(), any(ResultHandler.class));
+    }
+
+    private Map<LocalDateTime, SensorData> range(LocalDateTime from, LocalDateTime to) {
+        return table.subMap(from, true, to, false);
+    }
+
+    private static void feed(Map<LocalDateTime, SensorData> rows, ResultHandler<SensorData> handler) {
+        DefaultResultContext<SensorData> context = new DefaultResultContext<>();
+        for (SensorData row : new ArrayList<>(rows.values())) {
+            context.nextResultObject(row);
+            handler.handleResult(context);
+        }
+    }
+
+    private void insert(int hour) {
+        SensorData row = new SensorData();
+        row.setTime(day.atTime(hour, 0));
+        row.setDeviceId(DEVICE_ID);
+        row.setSoilHumidity(40.0 + hour);
+        table.put(row.getTime(), row);
+    }
+
+    private List<Long> archivedTimes() {
+        SensorSeries series = new SensorSeries(16);
+        ZoneId zone = store.getZone();
+        store.read(DEVICE_ID, day.atStartOfDay(zone).toInstant().toEpochMilli(),
+                day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(), series::add);
+        List<Long> times = new ArrayList<>();
+        for (int i = 0; i < series.size(); i++) {
+            times.add(series.time(i));
+        }
+        return times;
+    }
+
+    private long millis(int hour) {
+        return day.atTime(hour, 0).atZone(store.getZone()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    void rowInsertedBetweenReadAndDeleteIsMergedIntoArchive() {
+        insert(8);
+        insert(9);
+        duringSelect = () -> insert(10);
+
+        archiver.archiveDueDays();
+
+        assertTrue(table.isEmpty());
+        assertEquals(List.of(millis(8), millis(9), millis(10)), archivedTimes());
+    }
+
+    @Test
+    void rowInsertedAfterArchivingSurvivesAndIsArchivedNextRun() {
+        insert(8);
+        archiver.archiveDueDays();
+        assertEquals(List.of(millis(8)), archivedTimes());
+
+        // 水位线已越过该天之后才到达的迟到数据：不会被删除，下次运行合并进归档
+        insert(11);
+        assertTrue(table.containsKey(day.atTime(11, 0)));
+
+        archiver.archiveDueDays();
+
+        assertTrue(table.isEmpty());
+        assertEquals(List.of(millis(8), millis(11)), archivedTimes());
+    }
+}
@@ -0,0 +1,109 @@
+package com.strawberry.irrigation.module_device.archive;
+
+import com.strawberry.irrigation.module_device.history.SensorSeries;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesCodecTests {
+
+    private static final long DAY_START = 1_714_492_800_000L;
+
+    /**
+     * 模拟一天 10 秒间隔的上报：时间有少量抖动，读数为 1 位小数的缓慢随机游走
+     */
+    private static SensorSeries realisticDay() {
+        Random random = new Random(42);
+        SensorSeries series = new SensorSeries(8_640);
+        double humidity = 45.0;
+        double temperature = 22.0;
+        for (int i = 0; i < 8_640; i++) {
+            long time = DAY_START + i * 10_000L + random.nextInt(5);
+            humidity = Math.round((humidity + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0;
+            temperature = Math.round((temperature + (random.nextInt(3) - 1) * 0.1) * 10) / 10.0;
+            series.add(time, humidity, temperature, Double.NaN, 87.0);
+        }
+        return series;
+    }
+
+    private static SensorSeries decode(byte[] encoded, long from, long to) {
+        SensorSeries decoded = new SensorSeries(16);
+        SeriesCodec.decode(ByteBuffer.wrap(encoded), from, to, decoded::add);
+        return decoded;
+    }
+
+    private static void assertSameRow(SensorSeries expected, int expectedIndex, SensorSeries actual, int actualIndex) {
+        assertEquals(expected.time(expectedIndex), actual.time(actualIndex));
+        for (int c = 0; c < SensorSeries.COLUMN_COUNT; c++) {
+            assertEquals(Double.doubleToRawLongBits(expected.value(c, expectedIndex)),
+                    Double.doubleToRawLongBits(actual.value(c, actualIndex)));
+        }
+    }
+
+    @Test
+    void roundTripsRealisticDayAndCompressesWell() {
+        SensorSeries series = realisticDay();
+        byte[] encoded = SeriesCodec.encode(7L, series);
+
+        SensorSeries decoded = decode(encoded, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(series.size(), decoded.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertSameRow(series, i, decoded, i);
+        }
+        // 行存储每行约 90 字节（元组头 + 6 列 + 索引项），归档应至少小 10 倍
+        double bytesPerRow = (double) encoded.length / series.size();
+        assertTrue(bytesPerRow < 9, "bytes per row: " + bytesPerRow);
+    }
+
+    @Test
+    void roundTripsArbitraryDoublesWithXor() {
+        Random random = new Random(7);
+        SensorSeries series = new SensorSeries(16);
+        for (int i = 0; i < 1_000; i++) {
+            long time = DAY_START + i * 10_000L + (i % 97 == 0 ? 3_600_000L : 0) - random.nextInt(3);
+            series.add(time, random.nextDouble() * 100, i % 3 == 0 ? Double.NaN : -random.nextGaussian(),
+                    Math.PI * i, i % 10 == 0 ? Double.NaN : 50.123456789);
+        }
+        byte[] encoded = SeriesCodec.encode(1L, series);
+
+        SensorSeries decoded = decode(encoded, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(series.size(), decoded.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertSameRow(series, i, decoded, i);
+        }
+    }
+
+    @Test
+    void decodesOnlyRequestedRange() {
+        SensorSeries series = realisticDay();
+        byte[] encoded = SeriesCodec.encode(7L, series);
+
+        long from = series.time(100);
+        long to = series.time(200);
+        SensorSeries decoded = decode(encoded, from, to);
+        assertEquals(100, decoded.size());
+        assertSameRow(series, 100, decoded, 0);
+        assertSameRow(series, 199, decoded, 99);
+    }
+
+    @Test
+    void bucketingAveragesIgnoringMissingValues() {
+        SensorSeries out = new SensorSeries(4);
+        BucketingSink sink = new BucketingSink(60_000, out::add);
+        sink.add(DAY_START, 40, 20, Double.NaN, 90);
+        sink.add(DAY_START + 30_000, 42, Double.NaN, Double.NaN, 90);
+        sink.add(DAY_START + 60_000, 50, 21, 100, 89);
+        sink.flush();
+
+        assertEquals(2, out.size());
+        assertEquals(DAY_START, out.time(0));
+        assertEquals(41.0, out.value(SensorSeries.HUMIDITY, 0));
+        assertEquals(20.0, out.value(SensorSeries.TEMPERATURE, 0));
+        assertTrue(Double.isNaN(out.value(SensorSeries.LIGHT, 0)));
+        assertEquals(100.0, out.value(SensorSeries.LIGHT, 1));
+    }
+}
@@ -0,0 +1,58 @@
+package com.strawberry.irrigation.module_device.cache;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LatestReadingStoreTests {
+
+    private final LatestReadingStore store = new LatestReadingStore();
+
+    @Test
+    void keepsNewestReadingPerDevice() {
+        store.update(new SensorReading(5_000, 2_000, 40.0, 20.0, Double.NaN, 90.0));
+        boolean updated = store.update(new SensorReading(5_000, 1_000, 10.0, 10.0, 10.0, 10.0));
+
+        assertFalse(updated);
+        SensorReading latest = store.get(5_000);
+        assertEquals(2_000, latest.epochMillis());
+        assertEquals(40.0, latest.soilHumidity());
+        assertNull(store.get(5_001));
+        assertNull(store.get(1L << 40));
+    }
+
+    @Test
+    void readersNeverObserveTornWrites() throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            for (long i = 1; i < 200_000; i++) {
+                // 所有字段写入同一个值，读者看到不一致即为撕裂
+                store.update(new SensorReading(7, i, i, i, i, i));
+            }
+            running.set(false);
+        });
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                SensorReading r = store.get(7);
+                if (r != null && (r.soilHumidity() != r.epochMillis() || r.batteryLevel() != r.temperature())) {
+                    failure.set("torn read: " + r);
+                    return;
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertNull(failure.get());
+    }
+}
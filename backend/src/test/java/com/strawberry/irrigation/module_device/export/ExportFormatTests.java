@@ -0,0 +1,55 @@
+package com.strawberry.irrigation.module_device.export;
+
+import com.strawberry.irrigation.module_device.entity.SensorData;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExportFormatTests {
+
+    private static SensorData row() {
+        SensorData data = new SensorData();
+        data.setTime(LocalDateTime.of(2024, 5, 1, 8, 30, 15));
+        data.setDeviceId(3L);
+        data.setSoilHumidity(42.5);
+        data.setTemperature(null);
+        data.setLightIntensity(1200.0);
+        data.setBatteryLevel(88.0);
+        return data;
+    }
+
+    @Test
+    void writesNdjsonLines() throws IOException {
+        StringWriter out = new StringWriter();
+        StringBuilder line = new StringBuilder();
+        ExportFormat.NDJSON.writeHeader(out);
+        ExportFormat.NDJSON.writeRow(row(), line, out);
+        ExportFormat.NDJSON.writeRow(row(), line, out);
+
+        String expected = "{\"time\":\"2024-05-01T08:30:15\",\"deviceId\":3,\"soilHumidity\":42.5,"
+                + "\"temperature\":null,\"lightIntensity\":1200.0,\"batteryLevel\":88.0}\n";
+        assertEquals(expected + expected, out.toString());
+    }
+
+    @Test
+    void writesCsvWithHeaderAndEmptyMissingValues() throws IOException {
+        StringWriter out = new StringWriter();
+        ExportFormat.CSV.writeHeader(out);
+        ExportFormat.CSV.writeRow(row(), new StringBuilder(), out);
+
+        assertEquals("time,device_id,soil_humidity,temperature,light_intensity,battery_level\n"
+                + "2024-05-01T08:30:15,3,42.5,,1200.0,88.0\n", out.toString());
+    }
+
+    @Test
+    void parsesFormatNameIgnoringCase() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromName("csv"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromName("NDJSON"));
+        assertNull(ExportFormat.fromName("xlsx"));
+    }
+}
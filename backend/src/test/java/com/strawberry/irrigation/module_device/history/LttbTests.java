@@ -0,0 +1,73 @@
+package com.strawberry.irrigation.module_device.history;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbTests {
+
+    @Test
+    void keepsEndpointsAndPeaks() {
+        int size = 1_000;
+        long[] times = new long[size];
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            times[i] = i * 10_000L;
+            values[i] = 50.0;
+        }
+        values[333] = 95.0;
+        values[777] = 5.0;
+
+        int[] kept = Lttb.downsample(times, values, size, 50);
+
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(size - 1, kept[kept.length - 1]);
+        assertTrue(contains(kept, 333));
+        assertTrue(contains(kept, 777));
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+    }
+
+    @Test
+    void skipsMissingValues() {
+        long[] times = {0, 1, 2, 3, 4, 5, 6, 7};
+        double[] values = {1, Double.NaN, Double.NaN, 4, Double.NaN, 6, Double.NaN, 8};
+
+        int[] kept = Lttb.downsample(times, values, times.length, 4);
+
+        for (int index : kept) {
+            assertTrue(index == 0 || index == 7 || !Double.isNaN(values[index]));
+        }
+    }
+
+    @Test
+    void returnsAllPointsBelowThreshold() {
+        long[] times = {0, 1, 2};
+        double[] values = {1, 2, 3};
+
+        assertArrayEquals(new int[]{0, 1, 2}, Lttb.downsample(times, values, 3, 10));
+    }
+
+    @Test
+    void autoResolutionPicksFinestWithinBudget() {
+        assertEquals(HistoryResolution.RAW, HistoryResolution.select(3_600, 10, 1_000));
+        assertEquals(HistoryResolution.MINUTE_1, HistoryResolution.select(12 * 3_600, 10, 1_000));
+        assertEquals(HistoryResolution.MINUTE_15, HistoryResolution.select(7 * 86_400, 10, 1_000));
+        assertEquals(HistoryResolution.HOUR_1, HistoryResolution.select(30 * 86_400L, 10, 1_000));
+        // 一年跨度按小时约 8760 点，超出预算时改用按天聚合
+        assertEquals(HistoryResolution.DAY_1, HistoryResolution.select(365 * 86_400L, 10, 1_000));
+    }
+
+    private static boolean contains(int[] array, int value) {
+        for (int element : array) {
+            if (element == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
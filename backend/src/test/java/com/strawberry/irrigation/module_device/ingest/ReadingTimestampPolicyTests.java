@@ -0,0 +1,32 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadingTimestampPolicyTests {
+
+    private static final long NOW = 1_714_521_600_000L;
+
+    @Test
+    void treatsSmallValuesAsSecondsAndLargeValuesAsMillis() {
+        assertEquals(1_714_521_600_000L, ReadingTimestampPolicy.toEpochMillis(1_714_521_600L));
+        assertEquals(1_714_521_600_123L, ReadingTimestampPolicy.toEpochMillis(1_714_521_600_123L));
+    }
+
+    @Test
+    void acceptsOnlyReadingsInsideSkewWindow() {
+        ReadingTimestampPolicy policy = new ReadingTimestampPolicy(new IngestProperties());
+
+        assertTrue(policy.isAcceptable(NOW, NOW));
+        assertTrue(policy.isAcceptable(NOW - 6L * 24 * 3600 * 1000, NOW));
+        assertTrue(policy.isAcceptable(NOW + 299_000, NOW));
+        assertFalse(policy.isAcceptable(NOW - 8L * 24 * 3600 * 1000, NOW));
+        assertFalse(policy.isAcceptable(NOW + 301_000, NOW));
+        // 秒级时间戳被误当作毫秒时落在 1970 年附近
+        assertFalse(policy.isAcceptable(1_714_521_600L, NOW));
+    }
+}
@@ -0,0 +1,200 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SensorIngestPipelineTests {
+
+    @TempDir
+    Path directory;
+
+    private final SensorBatchWriter batchWriter = mock(SensorBatchWriter.class);
+    private final List<SensorReading> stored = new ArrayList<>();
+
+    private SensorIngestPipeline pipeline() {
+        return pipeline(properties -> { });
+    }
+
+    private SensorIngestPipeline pipeline(Consumer<IngestProperties> customizer) {
+        IngestProperties properties = new IngestProperties();
+        properties.setDeadLetterFile(directory.resolve("dead-letter.csv").toString());
+        customizer.accept(properties);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<SensorSpool> noSpool = mock(ObjectProvider.class);
+        return new SensorIngestPipeline(properties, batchWriter, noSpool, new SensorDeadLetter(properties),
+                new SimpleMeterRegistry());
+    }
+
+    private static SensorReading reading(long deviceId) {
+        return new SensorReading(deviceId, 1_700_000_000_000L + deviceId, 30.0, 20.0, Double.NaN, 80.0);
+    }
+
+    /**
+     * 模拟数据库：设备 ID 为负数的读数违反外键，flaky 为 true 时所有写入都因连接中断失败
+     */
+    private void stubDatabase(boolean[] flaky) {
+        doAnswer(invocation -> {
+            List<SensorReading> batch = invocation.getArgument(0);
+            if (flaky[0]) {
+                throw new PersistenceException(new SQLException("connection reset", "08006"));
+            }
+            for (SensorReading reading : batch) {
+                if (reading.deviceId() < 0) {
+                    SQLException cause = new SQLException("violates foreign key constraint", "23503");
+                    BatchUpdateException batchError = new BatchUpdateException("batch failed", null, 0, new int[0]);
+                    batchError.setNextException(cause);
+                    throw new PersistenceException(batchError);
+                }
+            }
+            stored.addAll(batch);
+            return null;
+        }).when(batchWriter).write(anyList());
+    }
+
+    @Test
+    void permanentErrorQuarantinesBadRowsAndWritesTheRest() throws Exception {
+        SensorIngestPipeline pipeline = pipeline();
+        stubDatabase(new boolean[]{false});
+        List<SensorReading> batch = new ArrayList<>(List.of(reading(1), reading(-2), reading(3)));
+
+        assertTrue(pipeline.writeOrQuarantine(batch));
+
+        assertTrue(batch.isEmpty());
+        assertEquals(List.of(reading(1), reading(3)), stored);
+        assertEquals(1, pipeline.getQuarantinedCount());
+        List<String> lines = Files.readAllLines(directory.resolve("dead-letter.csv"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains(",-2,"));
+        assertTrue(lines.get(1).contains("foreign key"));
+    }
+
+    @Test
+    void transientErrorKeepsBatchForRetry() {
+        SensorIngestPipeline pipeline = pipeline();
+        boolean[] flaky = {true};
+        stubDatabase(flaky);
+        List<SensorReading> batch = new ArrayList<>(List.of(reading(1), reading(2)));
+
+        assertFalse(pipeline.writeOrQuarantine(batch));
+        assertEquals(2, batch.size());
+        assertEquals(0, pipeline.getQuarantinedCount());
+        assertFalse(Files.exists(directory.resolve("dead-letter.csv")));
+
+        flaky[0] = false;
+        assertTrue(pipeline.writeOrQuarantine(batch));
+        assertEquals(List.of(reading(1), reading(2)), stored);
+    }
+
+    @Test
+    void transientErrorDuringRowByRowRetryKeepsOnlyUnprocessedRows() {
+        SensorIngestPipeline pipeline = pipeline();
+        int[] calls = {0};
+        doAnswer(invocation -> {
+            List<SensorReading> batch = invocation.getArgument(0);
+            // 第一次整批写因外键失败，逐条写到第二条时连接中断
+            if (++calls[0] == 1) {
+                throw new PersistenceException(new SQLException("violates foreign key constraint", "23503"));
+            }
+            if (calls[0] == 3) {
+                throw new PersistenceException(new SQLException("connection reset", "08006"));
+            }
+            stored.addAll(batch);
+            return null;
+        }).when(batchWriter).write(anyList());
+        List<SensorReading> batch = new ArrayList<>(List.of(reading(1), reading(2), reading(3)));
+
+        assertFalse(pipeline.writeOrQuarantine(batch));
+        assertEquals(List.of(reading(2), reading(3)), batch);
+        assertEquals(List.of(reading(1)), stored);
+    }
+
+    @Test
+    void backlogIsWrittenInFullBatchesThenRemainder() throws Exception {
+        SensorIngestPipeline pipeline = pipeline(properties -> {
+            properties.setBatchSize(100);
+            properties.setFlushIntervalMs(50);
+        });
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            batchSizes.add(invocation.<List<SensorReading>>getArgument(0).size());
+            return null;
+        }).when(batchWriter).write(anyList());
+        // 写线程启动前积压 250 条
+        for (int i = 0; i < 250; i++) {
+            assertTrue(pipeline.offer(reading(i)));
+        }
+
+        pipeline.start();
+        pipeline.stop();
+
+        assertEquals(List.of(100, 100, 50), batchSizes);
+        assertEquals(250, pipeline.getWrittenCount());
+        assertEquals(0, pipeline.getQueueDepth());
+    }
+
+    @Test
+    void partialBatchIsFlushedAfterMaxLatency() throws Exception {
+        SensorIngestPipeline pipeline = pipeline(properties -> {
+            properties.setBatchSize(1_000);
+            properties.setFlushIntervalMs(50);
+        });
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            batchSizes.add(invocation.<List<SensorReading>>getArgument(0).size());
+            return null;
+        }).when(batchWriter).write(anyList());
+        pipeline.start();
+
+        for (int i = 0; i < 3; i++) {
+            pipeline.offer(reading(i));
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pipeline.getWrittenCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        pipeline.stop();
+
+        assertEquals(3, pipeline.getWrittenCount());
+        assertEquals(List.of(3), batchSizes);
+    }
+
+    @Test
+    void fullQueueRejectsAfterOfferTimeout() {
+        SensorIngestPipeline pipeline = pipeline(properties -> {
+            properties.setQueueCapacity(5);
+            properties.setOfferTimeoutMs(20);
+        });
+        // 写线程未启动，队列只进不出
+        for (int i = 0; i < 5; i++) {
+            assertTrue(pipeline.offer(reading(i)));
+        }
+
+        long start = System.nanoTime();
+        assertFalse(pipeline.offer(reading(5)));
+        assertTrue(System.nanoTime() - start >= 20_000_000L);
+        assertEquals(5, pipeline.getAcceptedCount());
+        assertEquals(1, pipeline.getRejectedCount());
+        assertEquals(5, pipeline.getQueueDepth());
+    }
+}
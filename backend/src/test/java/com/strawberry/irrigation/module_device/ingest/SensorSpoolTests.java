@@ -0,0 +1,171 @@
+package com.strawberry.irrigation.module_device.ingest;
+
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensorSpoolTests {
+
+    @TempDir
+    Path directory;
+
+    private IngestProperties properties(int maxSegments) {
+        IngestProperties properties = new IngestProperties();
+        properties.getSpool().setDirectory(directory.toString());
+        properties.getSpool().setSegmentSizeMb(1);
+        properties.getSpool().setMaxSegments(maxSegments);
+        return properties;
+    }
+
+    private static SensorReading reading(long i) {
+        return new SensorReading(i % 7, 1_700_000_000_000L + i, i * 0.5, 20.0, Double.NaN, 80.0);
+    }
+
+    private static List<SensorReading> poll(SensorSpool spool, int max) throws InterruptedException {
+        List<SensorReading> out = new ArrayList<>();
+        spool.poll(out, max, 0);
+        return out;
+    }
+
+    @Test
+    void replaysUncommittedRecordsAfterRestart() throws Exception {
+        SensorSpool spool = new SensorSpool(properties(4));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(spool.append(reading(i)) > 0);
+        }
+        assertEquals(60, poll(spool, 60).size());
+        spool.commit();
+        // 已读出但未提交的批次在重启后需要重放
+        assertEquals(40, poll(spool, 60).size());
+        spool.close();
+
+        SensorSpool reopened = new SensorSpool(properties(4));
+        assertEquals(40, reopened.getBacklog());
+        List<SensorReading> replayed = poll(reopened, 1000);
+        assertEquals(40, replayed.size());
+        assertEquals(reading(60), replayed.get(0));
+        assertEquals(reading(99), replayed.get(39));
+        reopened.close();
+    }
+
+    @Test
+    void rotatesSegmentsAndDeletesCommittedOnes() throws Exception {
+        SensorSpool spool = new SensorSpool(properties(4));
+        long perSegment = 1024L * 1024L / SensorSpool.RECORD_SIZE;
+        for (long i = 0; i < perSegment * 2 + 10; i++) {
+            spool.append(reading(i));
+        }
+        assertEquals(3, segmentCount());
+
+        List<SensorReading> out = new ArrayList<>();
+        while (out.size() < perSegment * 2) {
+            spool.poll(out, 5000, 0);
+        }
+        spool.commit();
+        assertEquals(1, segmentCount());
+        assertEquals(perSegment * 2 + 10 - out.size(), spool.getBacklog());
+        spool.close();
+    }
+
+    @Test
+    void rejectsAppendsWhenFull() throws Exception {
+        SensorSpool spool = new SensorSpool(properties(1));
+        for (long i = 0; i < spool.getCapacity(); i++) {
+            assertTrue(spool.append(reading(i)) > 0);
+        }
+        assertEquals(-1, spool.append(reading(0)));
+
+        poll(spool, 10);
+        spool.commit();
+        assertTrue(spool.append(reading(0)) > 0);
+        spool.close();
+    }
+
+    @Test
+    void stopsRecoveryAtTornRecord() throws Exception {
+        SensorSpool spool = new SensorSpool(properties(4));
+        for (int i = 0; i < 10; i++) {
+            spool.append(reading(i));
+        }
+        spool.close();
+
+        // 模拟第 8 条记录只写了一半：破坏负载后 CRC 不再匹配
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(p -> p.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(7L * SensorSpool.RECORD_SIZE + 20);
+            file.writeLong(-1L);
+        }
+
+        SensorSpool reopened = new SensorSpool(properties(4));
+        assertEquals(7, reopened.getBacklog());
+        reopened.append(reading(42));
+        List<SensorReading> out = poll(reopened, 100);
+        assertEquals(8, out.size());
+        assertEquals(reading(42), out.get(7));
+        reopened.close();
+    }
+
+    @Test
+    void appendReportsBackpressureInsteadOfThrowingWhenNextSegmentCannotBeAllocated() throws Exception {
+        SensorSpool spool = new SensorSpool(properties(4));
+        long perSegment = 1024L * 1024L / SensorSpool.RECORD_SIZE;
+        // 占住下一段的临时文件名，模拟磁盘写满时预分配失败
+        Path blocker = directory.resolve(String.format("%020d", 1) + ".seg.tmp");
+        Files.createDirectory(blocker);
+        for (long i = 0; i < perSegment; i++) {
+            assertTrue(spool.append(reading(i)) > 0);
+        }
+        assertFalse(Files.exists(directory.resolve(String.format("%020d", 1) + ".seg")));
+
+        assertEquals(-1, spool.append(reading(0)));
+        assertEquals(perSegment, spool.getBacklog());
+
+        // 空间恢复后下一次重试即可分配成功
+        Files.delete(blocker);
+        long seq = -1;
+        for (int attempt = 0; attempt < 5 && seq < 0; attempt++) {
+            seq = spool.append(reading(perSegment));
+        }
+        assertEquals(perSegment + 1, seq);
+        assertTrue(Files.size(directory.resolve(String.format("%020d", 1) + ".seg")) > 0);
+        spool.close();
+    }
+
+    @Test
+    void preallocatesNextSegmentOnceCurrentIsHalfFull() throws Exception {
+        SensorSpool spool = new SensorSpool(properties(4));
+        long perSegment = 1024L * 1024L / SensorSpool.RECORD_SIZE;
+        for (long i = 0; i <= perSegment / 2; i++) {
+            spool.append(reading(i));
+        }
+        Path next = directory.resolve(String.format("%020d", 1) + ".seg");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Files.exists(next) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(Files.exists(next));
+        assertEquals(perSegment * SensorSpool.RECORD_SIZE, Files.size(next));
+        spool.close();
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.toString().endsWith(".seg")).count();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.strawberry.irrigation.module_device.live;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveSessionTests {
+
+    private final LongAdder dropped = new LongAdder();
+    private final LiveSession session = new LiveSession(new SseEmitter(), 1L, new long[]{1, 2, 3}, 2, dropped);
+
+    private static Set<DataWithMediaType> frame(String data) {
+        return SseEmitter.event().data(data).build();
+    }
+
+    @Test
+    void onlyFirstOfferSchedulesDrain() {
+        assertTrue(session.offer(1, frame("a")));
+        assertFalse(session.offer(2, frame("b")));
+
+        assertEquals(2, session.takeFrames().size());
+        assertTrue(session.takeFrames().isEmpty());
+        assertTrue(session.offer(1, frame("c")));
+    }
+
+    @Test
+    void newerFrameReplacesPendingFrameOfSameDevice() {
+        Set<DataWithMediaType> latest = frame("new");
+        session.offer(1, frame("old"));
+        session.offer(1, latest);
+
+        List<Set<DataWithMediaType>> frames = session.takeFrames();
+        assertEquals(List.of(latest), frames);
+        assertEquals(1, dropped.sum());
+    }
+
+    @Test
+    void fullBufferDropsEldestFrame() {
+        Set<DataWithMediaType> second = frame("2");
+        Set<DataWithMediaType> third = frame("3");
+        session.offer(1, frame("1"));
+        session.offer(2, second);
+        session.offer(3, third);
+
+        assertEquals(List.of(second, third), session.takeFrames());
+        assertEquals(1, dropped.sum());
+    }
+
+    @Test
+    void closedSessionAcceptsNothing() {
+        session.close();
+        assertFalse(session.offer(1, frame("a")));
+        assertTrue(session.takeFrames().isEmpty());
+    }
+
+    @Test
+    void writeTimesOutOnlyWhileInFlight() {
+        long now = System.currentTimeMillis();
+        assertFalse(session.isWriteTimedOut(now + 10_000, 5_000));
+
+        session.beginWrite();
+        assertFalse(session.isWriteTimedOut(now, 5_000));
+        assertTrue(session.isWriteTimedOut(now + 10_000, 5_000));
+
+        session.endWrite();
+        assertFalse(session.isWriting());
+        assertFalse(session.isWriteTimedOut(now + 10_000, 5_000));
+    }
+}
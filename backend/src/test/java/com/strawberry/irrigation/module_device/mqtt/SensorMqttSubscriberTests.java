@@ -0,0 +1,186 @@
+package com.strawberry.irrigation.module_device.mqtt;
+
+import com.strawberry.irrigation.common.config.MqttProperties;
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.config.IngestProperties;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.ingest.ReadingTimestampPolicy;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_device.service.SensorDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.moquette.broker.Server;
+import io.moquette.broker.config.IConfig;
+import io.moquette.broker.config.MemoryConfig;
+import org.eclipse.paho.client.mqttv3.MqttClient;
+import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 使用进程内 Moquette Broker 验证订阅链路，不依赖外部网络与 EMQX
+ */
+class SensorMqttSubscriberTests {
+
+    @TempDir
+    Path brokerDataDir;
+
+    private Server broker;
+    private MqttClient subscriberClient;
+    private MqttClient deviceClient;
+
+    @BeforeEach
+    void startBroker() throws Exception {
+        int port = freePort();
+        Properties props = new Properties();
+        props.setProperty(IConfig.HOST_PROPERTY_NAME, "127.0.0.1");
+        props.setProperty(IConfig.PORT_PROPERTY_NAME, String.valueOf(port));
+        props.setProperty(IConfig.ALLOW_ANONYMOUS_PROPERTY_NAME, "true");
+        props.setProperty(IConfig.PERSISTENCE_ENABLED_PROPERTY_NAME, "false");
+        // 关闭遥测上报（会访问外网），数据目录（含 .moquette_uuid）放到临时目录，不写入工作区
+        props.setProperty(IConfig.ENABLE_TELEMETRY_NAME, "false");
+        props.setProperty(IConfig.DATA_PATH_PROPERTY_NAME, brokerDataDir.toString());
+        broker = new Server();
+        broker.startServer(new MemoryConfig(props));
+
+        String url = "tcp://127.0.0.1:" + port;
+        subscriberClient = new MqttClient(url, "backend-test", new MemoryPersistence());
+        subscriberClient.connect();
+        deviceClient = new MqttClient(url, "sensor-001", new MemoryPersistence());
+        deviceClient.connect();
+    }
+
+    @AfterEach
+    void stopBroker() throws Exception {
+        deviceClient.disconnect();
+        subscriberClient.disconnect();
+        broker.stopServer();
+    }
+
+    @Test
+    void publishedReadingReachesSensorDataService() throws Exception {
+        DeviceRegistry registry = mock(DeviceRegistry.class);
+        when(registry.find("sensor-001")).thenReturn(new RegisteredDevice(11L, "sensor-001", "SENSOR", 1L));
+        SensorDataService sensorDataService = mock(SensorDataService.class);
+        when(sensorDataService.saveSensorData(any())).thenReturn(true);
+
+        SensorMqttSubscriber subscriber = new SensorMqttSubscriber(
+                subscriberClient, new MqttProperties(), registry, sensorDataService, standalone(), anyAge());
+        subscriber.start();
+
+        byte[] payload = "{\"humidity\": 35.5, \"temperature\": 22.1, \"timestamp\": 1629999999}"
+                .getBytes(StandardCharsets.UTF_8);
+        deviceClient.publish("strawberry/sensor/sensor-001/data", payload, 1, false);
+
+        ArgumentCaptor<SensorReading> captor = ArgumentCaptor.forClass(SensorReading.class);
+        verify(sensorDataService, timeout(5_000)).saveSensorData(captor.capture());
+        SensorReading reading = captor.getValue();
+        assertEquals(11L, reading.deviceId());
+        assertEquals(35.5, reading.soilHumidity());
+        assertEquals(22.1, reading.temperature());
+        assertEquals(1629999999000L, reading.epochMillis());
+    }
+
+    @Test
+    void readingForDeviceIngestedElsewhereOnlyUpdatesLocalView() throws Exception {
+        DeviceRegistry registry = mock(DeviceRegistry.class);
+        when(registry.find("sensor-001")).thenReturn(new RegisteredDevice(11L, "sensor-001", "SENSOR", 1L));
+        SensorDataService sensorDataService = mock(SensorDataService.class);
+        ClusterMembership otherNode = mock(ClusterMembership.class);
+        when(otherNode.ingests(anyLong())).thenReturn(false);
+
+        SensorMqttSubscriber subscriber = new SensorMqttSubscriber(
+                subscriberClient, new MqttProperties(), registry, sensorDataService, otherNode, anyAge());
+        subscriber.start();
+
+        deviceClient.publish("strawberry/sensor/sensor-001/data",
+                "{\"humidity\": 35.5}".getBytes(StandardCharsets.UTF_8), 1, false);
+
+        ArgumentCaptor<SensorReading> captor = ArgumentCaptor.forClass(SensorReading.class);
+        verify(sensorDataService, timeout(5_000)).observeSensorData(captor.capture());
+        assertEquals(35.5, captor.getValue().soilHumidity());
+        verify(sensorDataService, never()).saveSensorData(any());
+        assertEquals(1, subscriber.getForeignCount());
+    }
+
+    @Test
+    void forwardedHttpReadingIsParsedLikeADeviceReport() throws Exception {
+        DeviceRegistry registry = mock(DeviceRegistry.class);
+        when(registry.find("sensor-001")).thenReturn(new RegisteredDevice(11L, "sensor-001", "SENSOR", 1L));
+        SensorDataService sensorDataService = mock(SensorDataService.class);
+        when(sensorDataService.saveSensorData(any())).thenReturn(true);
+        SensorMqttSubscriber subscriber = new SensorMqttSubscriber(
+                subscriberClient, new MqttProperties(), registry, sensorDataService, standalone(), anyAge());
+        subscriber.start();
+
+        SensorReading sent = new SensorReading(11L, 1_700_000_000_123L, 41.0, Double.NaN, 800.0, 77.5);
+        assertTrue(new SensorReadingForwarder(deviceClient, new MqttProperties()).forward("sensor-001", sent));
+
+        verify(sensorDataService, timeout(5_000)).saveSensorData(sent);
+    }
+
+    @Test
+    void readingWithClockFarAheadIsDropped() throws Exception {
+        DeviceRegistry registry = mock(DeviceRegistry.class);
+        when(registry.find("sensor-001")).thenReturn(new RegisteredDevice(11L, "sensor-001", "SENSOR", 1L));
+        SensorDataService sensorDataService = mock(SensorDataService.class);
+        when(sensorDataService.saveSensorData(any())).thenReturn(true);
+        SensorMqttSubscriber subscriber = new SensorMqttSubscriber(subscriberClient, new MqttProperties(),
+                registry, sensorDataService, standalone(), new ReadingTimestampPolicy(new IngestProperties()));
+        subscriber.start();
+
+        long aheadSeconds = System.currentTimeMillis() / 1000 + 3600;
+        deviceClient.publish("strawberry/sensor/sensor-001/data",
+                ("{\"humidity\": 30, \"timestamp\": " + aheadSeconds + "}").getBytes(StandardCharsets.UTF_8), 1, false);
+        deviceClient.publish("strawberry/sensor/sensor-001/data",
+                "{\"humidity\": 31}".getBytes(StandardCharsets.UTF_8), 1, false);
+
+        // 第二条（无时间戳，使用服务器时间）正常采集，第一条被丢弃
+        ArgumentCaptor<SensorReading> captor = ArgumentCaptor.forClass(SensorReading.class);
+        verify(sensorDataService, timeout(5_000)).saveSensorData(captor.capture());
+        assertEquals(31.0, captor.getValue().soilHumidity());
+        assertEquals(1, subscriber.getDroppedCount());
+    }
+
+    /**
+     * 测试报文使用固定的历史时间戳，放宽采集时间下限
+     */
+    private static ReadingTimestampPolicy anyAge() {
+        IngestProperties properties = new IngestProperties();
+        properties.setMaxReadingAgeSeconds(100L * 365 * 24 * 3600);
+        return new ReadingTimestampPolicy(properties);
+    }
+
+    private static ClusterMembership standalone() {
+        return new ClusterMembership(new ClusterProperties(), mock(ClusterLeaseMapper.class),
+                mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
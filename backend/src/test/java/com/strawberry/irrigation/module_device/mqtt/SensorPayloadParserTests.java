@@ -0,0 +1,55 @@
+package com.strawberry.irrigation.module_device.mqtt;
+
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensorPayloadParserTests {
+
+    private final SensorPayloadParser parser = new SensorPayloadParser();
+
+    @Test
+    void parsesDesignPayload() {
+        SensorReading reading = parse("{\"humidity\": 45.2, \"temperature\": 25.1, \"timestamp\": 1629999999}");
+
+        assertEquals(7L, reading.deviceId());
+        assertEquals(45.2, reading.soilHumidity());
+        assertEquals(25.1, reading.temperature());
+        assertEquals(1629999999000L, reading.epochMillis());
+        assertTrue(Double.isNaN(reading.lightIntensity()));
+        assertTrue(Double.isNaN(reading.batteryLevel()));
+    }
+
+    @Test
+    void skipsUnknownFieldsAndKeepsDefaultTime() {
+        SensorReading reading = parse("{\"fw\":\"1.0.\\\"3\\\"\",\"meta\":{\"a\":[1,{\"b\":2}]},"
+                + "\"soil_humidity\":-0.5e1,\"light_intensity\":1200,\"batteryLevel\":null,\"ok\":true}");
+
+        assertEquals(-5.0, reading.soilHumidity());
+        assertEquals(1200.0, reading.lightIntensity());
+        assertTrue(Double.isNaN(reading.batteryLevel()));
+        assertEquals(42L, reading.epochMillis());
+    }
+
+    @Test
+    void fallsBackForLongMantissa() {
+        SensorReading reading = parse("{\"temperature\":12.345678901234567890123}");
+
+        assertEquals(Double.parseDouble("12.345678901234567890123"), reading.temperature());
+    }
+
+    @Test
+    void rejectsMalformedPayload() {
+        assertThrows(IllegalArgumentException.class, () -> parse("{\"humidity\":"));
+        assertThrows(IllegalArgumentException.class, () -> parse("[1,2]"));
+    }
+
+    private SensorReading parse(String json) {
+        return parser.parse(json.getBytes(StandardCharsets.UTF_8), 7L, 42L);
+    }
+}
@@ -0,0 +1,58 @@
+package com.strawberry.irrigation.module_device.partition;
+
+import com.strawberry.irrigation.module_device.partition.PartitionLayout.Partition;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionLayoutTests {
+
+    private static final ZoneId SHANGHAI = ZoneId.of("Asia/Shanghai");
+
+    private static long at(int year, int month, int day, int hour) {
+        return ZonedDateTime.of(year, month, day, hour, 0, 0, 0, SHANGHAI).toInstant().toEpochMilli();
+    }
+
+    @Test
+    void dailyPartitionsFollowLocalMidnight() {
+        PartitionLayout layout = new PartitionLayout("sensor_data", PartitionInterval.DAY, SHANGHAI);
+
+        Partition partition = layout.partitionFor(at(2024, 5, 1, 23));
+        assertEquals("sensor_data_p20240501", partition.name());
+        assertEquals("2024-05-01T00:00+08:00", partition.from());
+        assertEquals("2024-05-02T00:00+08:00", partition.to());
+        assertTrue(partition.contains(at(2024, 5, 1, 0)));
+        assertFalse(partition.contains(at(2024, 5, 2, 0)));
+        assertEquals("sensor_data_p20240501_h3", partition.hashChild(3));
+    }
+
+    @Test
+    void weeklyAndMonthlyPartitionsStartOnBoundaries() {
+        PartitionLayout weekly = new PartitionLayout("sensor_data", PartitionInterval.WEEK, SHANGHAI);
+        assertEquals("sensor_data_p20240429", weekly.partitionFor(at(2024, 5, 1, 12)).name());
+
+        PartitionLayout monthly = new PartitionLayout("sensor_data", PartitionInterval.MONTH, SHANGHAI);
+        List<Partition> ahead = monthly.partitionsFrom(at(2024, 12, 15, 0), 3);
+        assertEquals(List.of("sensor_data_p202412", "sensor_data_p202501", "sensor_data_p202502"),
+                ahead.stream().map(Partition::name).toList());
+        assertEquals(ahead.get(0).endMillis(), ahead.get(1).startMillis());
+    }
+
+    @Test
+    void parseRoundTripsOwnNamesOnly() {
+        PartitionLayout layout = new PartitionLayout("sensor_data", PartitionInterval.WEEK, SHANGHAI);
+        Partition partition = layout.partitionFor(at(2024, 5, 1, 12));
+
+        assertEquals(partition, layout.parse(partition.name()));
+        assertNull(layout.parse("sensor_data_default"));
+        assertNull(layout.parse("sensor_data_p20240501"));
+        assertNull(layout.parse("other_p20240429"));
+    }
+}
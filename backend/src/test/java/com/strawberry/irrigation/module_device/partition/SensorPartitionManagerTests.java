@@ -0,0 +1,82 @@
+package com.strawberry.irrigation.module_device.partition;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.config.StorageProperties;
+import com.strawberry.irrigation.module_device.dao.SensorPartitionMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorPartitionManagerTests {
+
+    private final SensorPartitionMapper mapper = mock(SensorPartitionMapper.class);
+
+    private SensorPartitionManager manager(int retentionDays) {
+        StorageProperties storage = new StorageProperties();
+        storage.getPartitioned().setInterval("day");
+        storage.getPartitioned().setTimeZone("UTC");
+        storage.getPartitioned().setPremake(2);
+        storage.getPartitioned().setRetentionDays(retentionDays);
+        ClusterMembership standalone = new ClusterMembership(new ClusterProperties(), mock(ClusterLeaseMapper.class),
+                mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+        when(mapper.isPartitioned(SensorPartitionManager.PARENT_TABLE)).thenReturn(true);
+        return new SensorPartitionManager(mapper, storage, standalone, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void oneFailedPartitionDoesNotAbortTheRest() {
+        SensorPartitionManager manager = manager(1);
+        doThrow(new IllegalStateException("lock timeout"))
+                .when(mapper).createRangePartition(eq("sensor_data"), anyString(), anyString(), anyString());
+        when(mapper.listPartitions("sensor_data"))
+                .thenReturn(List.of("sensor_data_default", "sensor_data_p20200101", "sensor_data_p20200102"));
+        doThrow(new IllegalStateException("in use")).when(mapper).detachPartition("sensor_data", "sensor_data_p20200101");
+
+        manager.maintain();
+
+        // 当前 + 2 个未来分区都尝试过创建，过期分区逐个删除，最后仍刷新目录
+        verify(mapper, times(3)).createRangePartition(eq("sensor_data"), anyString(), anyString(), anyString());
+        verify(mapper).detachPartition("sensor_data", "sensor_data_p20200102");
+        verify(mapper).dropTable("sensor_data_p20200102");
+        verify(mapper, never()).dropTable("sensor_data_p20200101");
+        assertEquals(2, manager.getPartitionCount());
+    }
+
+    @Test
+    void movesConflictingDefaultRowsIntoNewPartition() {
+        SensorPartitionManager manager = manager(0);
+        when(mapper.hasRowsBetween(eq("sensor_data_default"), anyString(), anyString())).thenReturn(false);
+        List<PartitionLayout.Partition> wanted = new PartitionLayout("sensor_data", PartitionInterval.DAY,
+                ZoneId.of("UTC")).partitionsFrom(System.currentTimeMillis(), 3);
+        PartitionLayout.Partition future = wanted.get(2);
+        when(mapper.hasRowsBetween("sensor_data_default", future.from(), future.to())).thenReturn(true);
+
+        manager.maintain();
+
+        verify(mapper, times(2)).createRangePartition(eq("sensor_data"), anyString(), anyString(), anyString());
+        verify(mapper, never()).createRangePartition("sensor_data", future.name(), future.from(), future.to());
+        InOrder order = inOrder(mapper);
+        order.verify(mapper).lockTable("sensor_data_default");
+        order.verify(mapper).createDetachedTable("sensor_data", future.name());
+        order.verify(mapper).moveRows("sensor_data_default", future.name(), future.from(), future.to());
+        order.verify(mapper).attachPartition("sensor_data", future.name(), future.from(), future.to());
+    }
+}
@@ -0,0 +1,162 @@
+package com.strawberry.irrigation.module_device.presence;
+
+import com.strawberry.irrigation.module_cluster.config.ClusterProperties;
+import com.strawberry.irrigation.module_cluster.dao.ClusterLeaseMapper;
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.config.PresenceProperties;
+import com.strawberry.irrigation.module_device.dao.DeviceMapper;
+import com.strawberry.irrigation.module_device.dto.DeviceActivity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DevicePresenceTrackerTests {
+
+    private final DeviceMapper mapper = mock(DeviceMapper.class);
+
+    private DevicePresenceTracker tracker() {
+        PresenceProperties properties = new PresenceProperties();
+        properties.setOfflineTimeoutSeconds(60);
+        ClusterMembership standalone = new ClusterMembership(new ClusterProperties(), mock(ClusterLeaseMapper.class),
+                mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+        return new DevicePresenceTracker(properties, mapper, standalone, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void heartbeatsExtendDeadlineAndOnlyTransitionsAreWritten() {
+        DevicePresenceTracker tracker = tracker();
+        long t0 = System.currentTimeMillis();
+
+        tracker.touch(1, t0);
+        tracker.touch(1, t0 + 10_000);
+        tracker.touch(2, t0);
+        tracker.tick(t0 + 1_000);
+        tracker.flushTransitions();
+        verify(mapper).updateOnline(List.of(1L, 2L), true);
+        assertEquals(2, tracker.getOnlineCount());
+
+        // 设备 1 持续心跳，设备 2 超时
+        for (long t = t0 + 20_000; t <= t0 + 120_000; t += 20_000) {
+            tracker.touch(1, t);
+            tracker.tick(t);
+        }
+        assertTrue(tracker.isOnline(1));
+        assertFalse(tracker.isOnline(2));
+        tracker.flushTransitions();
+        verify(mapper).updateOnline(List.of(2L), false);
+
+        tracker.flushTransitions();
+        verify(mapper, never()).updateOnline(List.of(1L), false);
+    }
+
+    @Test
+    void lastActiveIsFlushedOncePerChange() {
+        DevicePresenceTracker tracker = tracker();
+        tracker.touch(1, 1_000);
+        tracker.touch(2, 2_000);
+
+        tracker.flushLastActive();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeviceActivity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mapper).updateLastActive(captor.capture());
+        assertEquals(2, captor.getValue().size());
+
+        // 没有新活动时不再写库
+        tracker.flushLastActive();
+        verify(mapper).updateLastActive(any());
+        verify(mapper, never()).updateOnline(any(), anyBoolean());
+    }
+
+    @Test
+    void concurrentHeartbeatsAndExpiryKeepCountAndTransitionsConsistent() throws InterruptedException {
+        DevicePresenceTracker tracker = tracker();
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        AtomicBoolean running = new AtomicBoolean(true);
+        int devices = 8;
+        Thread heartbeats = new Thread(() -> {
+            while (running.get()) {
+                for (int id = 1; id <= devices; id++) {
+                    tracker.touch(id, clock.get());
+                }
+            }
+        });
+        heartbeats.start();
+        // 每次推进超过离线超时，使每个 tick 都与心跳竞争离线判定
+        for (int i = 0; i < 20_000; i++) {
+            tracker.tick(clock.addAndGet(61_000));
+        }
+        running.set(false);
+        heartbeats.join();
+
+        int online = 0;
+        for (int id = 1; id <= devices; id++) {
+            online += tracker.isOnline(id) ? 1 : 0;
+        }
+        assertEquals(online, tracker.getOnlineCount());
+
+        // 合并后写库的最终状态与内存一致（每台设备都从离线变为过在线，一定有状态变化）
+        tracker.flushTransitions();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> ids = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Boolean> states = ArgumentCaptor.forClass(Boolean.class);
+        verify(mapper, atLeastOnce()).updateOnline(ids.capture(), states.capture());
+        Map<Long, Boolean> written = new HashMap<>();
+        for (int i = 0; i < ids.getAllValues().size(); i++) {
+            for (Long id : ids.getAllValues().get(i)) {
+                written.put(id, states.getAllValues().get(i));
+            }
+        }
+        for (long id = 1; id <= devices; id++) {
+            assertEquals(tracker.isOnline(id), written.get(id), "device " + id);
+        }
+    }
+
+    @Test
+    void devicesOwnedByOtherNodesAreTrackedInMemoryButNeverWritten() {
+        ClusterMembership membership = mock(ClusterMembership.class);
+        when(membership.owns(1L)).thenReturn(true);
+        DevicePresenceTracker tracker = new DevicePresenceTracker(new PresenceProperties(), mapper, membership,
+                new SimpleMeterRegistry());
+        long t0 = System.currentTimeMillis();
+
+        tracker.touch(1, t0);
+        tracker.touch(2, t0);
+        tracker.tick(t0 + 1_000);
+        assertTrue(tracker.isOnline(2));
+        assertEquals(2, tracker.getOnlineCount());
+
+        tracker.flushTransitions();
+        tracker.flushLastActive();
+        verify(mapper).updateOnline(List.of(1L), true);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeviceActivity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mapper).updateLastActive(captor.capture());
+        assertEquals(List.of(1L), captor.getValue().stream().map(DeviceActivity::deviceId).toList());
+
+        // 超时后两台设备都离线，只有本节点负责的设备写库
+        tracker.tick(t0 + 10 * 60_000);
+        assertFalse(tracker.isOnline(2));
+        tracker.flushTransitions();
+        verify(mapper).updateOnline(List.of(1L), false);
+        verify(mapper, never()).updateOnline(List.of(2L), false);
+        verify(mapper, never()).updateOnline(List.of(2L), true);
+    }
+}
@@ -0,0 +1,120 @@
+package com.strawberry.irrigation.module_device.registry;
+
+import com.strawberry.irrigation.module_device.config.DeviceRegistryProperties;
+import com.strawberry.irrigation.module_device.dao.DeviceMapper;
+import com.strawberry.irrigation.module_device.entity.Device;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeviceRegistryTests {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 1, 8, 0);
+
+    private static Device device(long id, String physicalId, Long owner, LocalDateTime updatedAt) {
+        Device device = new Device();
+        device.setId(id);
+        device.setDeviceId(physicalId);
+        device.setType("SENSOR");
+        device.setCreatedBy(owner);
+        device.setUpdatedAt(updatedAt);
+        return device;
+    }
+
+    @Test
+    void appliesIncrementalChangesWithoutFullReload() {
+        DeviceMapper mapper = mock(DeviceMapper.class);
+        when(mapper.selectMaxUpdatedAt()).thenReturn(T0);
+        when(mapper.selectList(any())).thenReturn(List.of(
+                device(1, "sensor-001", 7L, T0), device(2, "sensor-002", 7L, T0)));
+        DeviceRegistry registry = new DeviceRegistry(mapper, new DeviceRegistryProperties(), new SimpleMeterRegistry());
+
+        registry.loadOnStartup();
+        assertTrue(registry.isLoaded());
+        assertEquals(1L, registry.find("sensor-001").id());
+        assertEquals(Set.of(1L, 2L), registry.ownedBy(7));
+
+        // 设备 2 改名并转给用户 8，新增设备 3
+        when(mapper.selectChangedSince(T0.minusSeconds(5))).thenReturn(List.of(
+                device(2, "sensor-002b", 8L, T0.plusSeconds(1)), device(3, "sensor-003", 8L, T0.plusSeconds(2))));
+        registry.refresh();
+
+        verify(mapper, times(1)).selectList(any());
+        assertNull(registry.find("sensor-002"));
+        assertEquals(2L, registry.find("sensor-002b").id());
+        assertEquals(Set.of(1L), registry.ownedBy(7));
+        assertEquals(Set.of(2L, 3L), registry.ownedBy(8));
+        assertEquals(3, registry.size());
+
+        // 水位推进到最新修改时间
+        registry.refresh();
+        verify(mapper).selectChangedSince(T0.plusSeconds(2).minusSeconds(5));
+    }
+
+    @Test
+    void fallsBackToFullReloadWithoutUpdatedAtColumn() {
+        DeviceMapper mapper = mock(DeviceMapper.class);
+        when(mapper.selectMaxUpdatedAt()).thenThrow(
+                new BadSqlGrammarException("select", "SELECT max(updated_at) FROM devices", new SQLException()));
+        when(mapper.selectList(any())).thenReturn(List.of(device(1, "sensor-001", null, null)));
+        DeviceRegistry registry = new DeviceRegistry(mapper, new DeviceRegistryProperties(), new SimpleMeterRegistry());
+
+        registry.loadOnStartup();
+        registry.refresh();
+
+        verify(mapper, times(2)).selectList(any());
+        verify(mapper, never()).selectChangedSince(any());
+        assertEquals(1L, registry.get(1).id());
+        assertTrue(registry.ownedBy(1).isEmpty());
+    }
+
+    @Test
+    void keepsUnloadedStateWhenDatabaseIsDown() {
+        DeviceMapper mapper = mock(DeviceMapper.class);
+        when(mapper.selectList(any())).thenThrow(new IllegalStateException("connection refused"));
+        DeviceRegistry registry = new DeviceRegistry(mapper, new DeviceRegistryProperties(), new SimpleMeterRegistry());
+
+        registry.loadOnStartup();
+
+        assertFalse(registry.isLoaded());
+        assertNull(registry.find("sensor-001"));
+    }
+
+    @Test
+    void looksUpUnknownDeviceOnceAndCachesMisses() {
+        DeviceMapper mapper = mock(DeviceMapper.class);
+        when(mapper.selectList(any())).thenReturn(List.of());
+        DeviceRegistryProperties properties = new DeviceRegistryProperties();
+        properties.setMissLookupCooldownMs(60_000);
+        DeviceRegistry registry = new DeviceRegistry(mapper, properties, new SimpleMeterRegistry());
+        registry.loadOnStartup();
+
+        // 其他节点刚创建的设备：回源后进入索引
+        when(mapper.selectOne(any())).thenReturn(device(6, "sensor-006", 8L, T0));
+        assertEquals(6L, registry.find("sensor-006").id());
+        assertEquals(6L, registry.get(6).id());
+        verify(mapper, times(1)).selectOne(any());
+
+        // 不存在的设备：冷却时间内只查一次库
+        when(mapper.selectOne(any())).thenReturn(null);
+        assertNull(registry.find("forged"));
+        assertNull(registry.find("forged"));
+        verify(mapper, times(2)).selectOne(any());
+    }
+}
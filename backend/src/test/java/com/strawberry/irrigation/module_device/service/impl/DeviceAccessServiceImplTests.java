@@ -0,0 +1,50 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.constants.SystemConstants;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import com.strawberry.irrigation.module_user.service.UserService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeviceAccessServiceImplTests {
+
+    private final DeviceRegistry registry = mock(DeviceRegistry.class);
+    private final UserService userService = mock(UserService.class);
+    private final DeviceAccessServiceImpl service = new DeviceAccessServiceImpl(registry, userService);
+
+    private void user(long id, String type) {
+        UserResponse user = new UserResponse();
+        user.setId(id);
+        user.setUserType(type);
+        when(userService.getUserById(id)).thenReturn(user);
+    }
+
+    @Test
+    void ownerAndAdminMayAccessOthersMayNot() {
+        when(registry.get(1L)).thenReturn(new RegisteredDevice(1L, "sensor-001", "SENSOR", 7L));
+        user(7, SystemConstants.USER_TYPE_FARMER);
+        user(8, SystemConstants.USER_TYPE_FARMER);
+        user(9, SystemConstants.USER_TYPE_ADMIN);
+
+        assertDoesNotThrow(() -> service.checkAccess(7L, 1L));
+        assertDoesNotThrow(() -> service.checkAccess(9L, 1L));
+        BusinessException denied = assertThrows(BusinessException.class, () -> service.checkAccess(8L, 1L));
+        assertEquals(403, denied.getCode());
+    }
+
+    @Test
+    void unknownDeviceIsNotFound() {
+        user(9, SystemConstants.USER_TYPE_ADMIN);
+
+        BusinessException missing = assertThrows(BusinessException.class, () -> service.checkAccess(9L, 404L));
+        assertEquals(404, missing.getCode());
+    }
+}
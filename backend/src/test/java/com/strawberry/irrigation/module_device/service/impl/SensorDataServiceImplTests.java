@@ -0,0 +1,98 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.module_cluster.shard.ClusterMembership;
+import com.strawberry.irrigation.module_device.cache.LatestReadingStore;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.dto.SensorReading;
+import com.strawberry.irrigation.module_device.ingest.SensorIngestPipeline;
+import com.strawberry.irrigation.module_device.mqtt.SensorReadingForwarder;
+import com.strawberry.irrigation.module_device.registry.DeviceRegistry;
+import com.strawberry.irrigation.module_device.registry.RegisteredDevice;
+import com.strawberry.irrigation.module_device.service.SensorReadingListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SensorDataServiceImplTests {
+
+    private final SensorIngestPipeline pipeline = mock(SensorIngestPipeline.class);
+    private final LatestReadingStore latestReadingStore = mock(LatestReadingStore.class);
+    private final SensorReadingListener listener = mock(SensorReadingListener.class);
+    private final DeviceRegistry registry = mock(DeviceRegistry.class);
+    private final ClusterMembership membership = mock(ClusterMembership.class);
+    private final SensorReadingForwarder forwarder = mock(SensorReadingForwarder.class);
+    private final SensorDataServiceImpl service = new SensorDataServiceImpl(pipeline, latestReadingStore,
+            mock(SensorDataMapper.class), registry, List.of(listener), membership, provider(forwarder));
+
+    private static final SensorReading READING = new SensorReading(1L, 1_000L, 30.0, 20.0, 500.0, 90.0);
+
+    @Test
+    void rejectedReadingDoesNotUpdateLatestOrFireListeners() {
+        when(pipeline.offer(any())).thenReturn(false);
+
+        assertFalse(service.saveSensorData(READING));
+
+        verify(latestReadingStore, never()).update(any());
+        verify(listener, never()).onReading(any());
+    }
+
+    @Test
+    void acceptedReadingUpdatesLatestAndFiresListeners() {
+        when(pipeline.offer(any())).thenReturn(true);
+
+        assertTrue(service.saveSensorData(READING));
+
+        verify(latestReadingStore).update(READING);
+        verify(listener).onReading(READING);
+    }
+
+    @Test
+    void httpReadingForNonIngestingNodeIsForwardedInsteadOfStored() {
+        when(membership.ingests(anyLong())).thenReturn(false);
+        when(registry.get(1L)).thenReturn(new RegisteredDevice(1L, "sensor-001", "SENSOR", 7L));
+        when(forwarder.forward("sensor-001", READING)).thenReturn(true);
+
+        assertTrue(service.reportSensorData(READING));
+
+        verify(forwarder).forward("sensor-001", READING);
+        verify(pipeline, never()).offer(any());
+        verify(listener, never()).onReading(any());
+    }
+
+    @Test
+    void httpReadingForIngestingNodeIsStoredLocally() {
+        when(membership.ingests(anyLong())).thenReturn(true);
+        when(pipeline.offer(any())).thenReturn(true);
+
+        assertTrue(service.reportSensorData(READING));
+
+        verify(pipeline).offer(READING);
+        verify(forwarder, never()).forward(any(), any());
+    }
+
+    @Test
+    void observedReadingUpdatesLatestWithoutIngesting() {
+        service.observeSensorData(READING);
+
+        verify(pipeline, never()).offer(any());
+        verify(latestReadingStore).update(READING);
+        verify(listener).onReading(READING);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<SensorReadingForwarder> provider(SensorReadingForwarder forwarder) {
+        ObjectProvider<SensorReadingForwarder> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(forwarder);
+        return provider;
+    }
+}
@@ -0,0 +1,80 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.module_device.archive.SensorArchiveStore;
+import com.strawberry.irrigation.module_device.archive.SeriesCodec;
+import com.strawberry.irrigation.module_device.config.ArchiveProperties;
+import com.strawberry.irrigation.module_device.config.HistoryProperties;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.entity.SensorData;
+import com.strawberry.irrigation.module_device.export.ExportFormat;
+import com.strawberry.irrigation.module_device.history.SensorSeries;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SensorExportServiceImplTests {
+
+    private static final long DEVICE_ID = 3L;
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 1);
+
+    @TempDir
+    Path archiveDir;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportAcrossWatermarkReadsArchiveThenDatabase() throws IOException {
+        ArchiveProperties archiveProperties = new ArchiveProperties();
+        archiveProperties.setDirectory(archiveDir.toString());
+        SensorArchiveStore archive = new SensorArchiveStore(archiveProperties);
+        ZoneId zone = archive.getZone();
+        SensorSeries series = new SensorSeries(2);
+        series.add(millis(DAY.atTime(8, 0), zone), 41.5, 20.0, Double.NaN, 90.0);
+        series.add(millis(DAY.atTime(12, 0), zone), 40.0, 24.5, 1500.0, 89.0);
+        archive.write(DEVICE_ID, DAY, SeriesCodec.encode(DEVICE_ID, series));
+        archive.advanceWatermark(DAY.plusDays(1));
+
+        SensorData hot = new SensorData();
+        hot.setTime(DAY.plusDays(1).atTime(8, 0));
+        hot.setDeviceId(DEVICE_ID);
+        hot.setSoilHumidity(38.0);
+        Cursor<SensorData> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(List.of(hot).iterator());
+        SensorDataMapper mapper = mock(SensorDataMapper.class);
+        // 数据库段必须从水位线开始，不再查询已归档的日期
+        when(mapper.cursorRange(DEVICE_ID, DAY.plusDays(1).atStartOfDay(), DAY.plusDays(2).atStartOfDay()))
+                .thenReturn(cursor);
+        ObjectProvider<SensorArchiveStore> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(archive);
+        SensorExportServiceImpl service = new SensorExportServiceImpl(mapper, new HistoryProperties(), provider,
+                mock(PlatformTransactionManager.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.export(DEVICE_ID, DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay(),
+                ExportFormat.CSV, out);
+
+        assertEquals(3, rows);
+        assertEquals("time,device_id,soil_humidity,temperature,light_intensity,battery_level\n"
+                + "2024-05-01T08:00:00,3,41.5,20.0,,90.0\n"
+                + "2024-05-01T12:00:00,3,40.0,24.5,1500.0,89.0\n"
+                + "2024-05-02T08:00:00,3,38.0,,,\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private static long millis(LocalDateTime time, ZoneId zone) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,49 @@
+package com.strawberry.irrigation.module_device.service.impl;
+
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_device.archive.SensorArchiveStore;
+import com.strawberry.irrigation.module_device.config.HistoryProperties;
+import com.strawberry.irrigation.module_device.dao.SensorDataMapper;
+import com.strawberry.irrigation.module_device.dto.SensorHistoryResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SensorHistoryServiceImplTests {
+
+    private static final LocalDateTime END = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    private final SensorDataMapper mapper = mock(SensorDataMapper.class);
+
+    @SuppressWarnings("unchecked")
+    private final SensorHistoryServiceImpl service = new SensorHistoryServiceImpl(mapper, new HistoryProperties(),
+            mock(ObjectProvider.class));
+
+    @Test
+    void rejectsExplicitResolutionThatWouldLoadTooManyPoints() {
+        // RAW 粒度 366 天约 316 万个点
+        assertThrows(BusinessException.class, () -> service.getHistoricalData(
+                1L, END.minusDays(366), END, "RAW", null, null, null));
+        assertThrows(BusinessException.class, () -> service.getHistoricalData(
+                1L, END.minusDays(366), END, "MINUTE_1", "lttb", 500, null));
+        verify(mapper, never()).selectRange(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void allowsExplicitResolutionWithinCeiling() {
+        SensorHistoryResponse response = service.getHistoricalData(
+                1L, END.minusDays(1), END, "RAW", null, null, null);
+
+        assertEquals(0, response.getPointCount());
+        verify(mapper).selectRange(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,68 @@
+package com.strawberry.irrigation.module_user.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_user.dto.UserCreateRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserImportReaderTests {
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readsCsvByHeaderNames() throws IOException {
+        String csv = "\uFEFFuser_type,username,password,phone,remark\n"
+                + "FARMER,farmer01,secret1,13800000000,\"一号棚, 东侧\"\n"
+                + "\n"
+                + "ADMIN,admin01,secret2,,\"说\"\"明\"\"\"\n";
+
+        try (UserImportReader reader = UserImportReader.csv(stream(csv))) {
+            UserCreateRequest first = reader.next();
+            assertEquals("farmer01", first.getUsername());
+            assertEquals("FARMER", first.getUserType());
+            assertEquals("13800000000", first.getPhoneNumber());
+            assertEquals("一号棚, 东侧", first.getRemark());
+
+            UserCreateRequest second = reader.next();
+            assertEquals("admin01", second.getUsername());
+            assertEquals("", second.getPhoneNumber());
+            assertEquals("说\"明\"", second.getRemark());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsCsvWithoutUsernameColumn() {
+        assertThrows(BusinessException.class,
+                () -> UserImportReader.csv(stream("name,password\na,b\n")).next());
+    }
+
+    @Test
+    void readsJsonArrayElementByElement() throws IOException {
+        String json = "[{\"username\":\"farmer01\",\"userType\":\"FARMER\"},{\"username\":\"farmer02\"}]";
+
+        try (UserImportReader reader = UserImportReader.json(stream(json), new ObjectMapper())) {
+            assertEquals("farmer01", reader.next().getUsername());
+            assertEquals("farmer02", reader.next().getUsername());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsJsonThatIsNotAnArray() {
+        assertThrows(BusinessException.class,
+                () -> UserImportReader.json(stream("{\"username\":\"x\"}"), new ObjectMapper()).next());
+    }
+}
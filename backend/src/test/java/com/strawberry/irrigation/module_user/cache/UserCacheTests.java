@@ -0,0 +1,85 @@
+package com.strawberry.irrigation.module_user.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.module_user.config.UserCacheProperties;
+import com.strawberry.irrigation.module_user.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class UserCacheTests {
+
+    @SuppressWarnings("unchecked")
+    private final UserCache cache = new UserCache(new UserCacheProperties(),
+            mock(ObjectProvider.class), new ObjectMapper());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private UserResponse load(Long id) {
+        loads.incrementAndGet();
+        UserResponse user = new UserResponse();
+        user.setId(id);
+        user.setUsername("farmer" + id);
+        return user;
+    }
+
+    @Test
+    void servesRepeatedLookupsFromLocalCache() {
+        cache.getById(1L, this::load);
+        cache.getById(1L, this::load);
+        UserResponse byName = cache.getByUsername("farmer1", name -> load(1L));
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, byName.getId());
+        assertEquals(2L, cache.stats().get("hitCount"));
+    }
+
+    @Test
+    void reloadsAfterInvalidation() {
+        cache.getById(2L, this::load);
+        cache.invalidateAfterCommit(2L, "farmer2");
+        cache.getById(2L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void remoteInvalidationEvictsLocalEntry() {
+        cache.getById(3L, this::load);
+        cache.onRemoteInvalidation("3:farmer3");
+        cache.getById(3L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void missingUsersAreNotCached() {
+        assertNull(cache.getById(4L, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        cache.getById(4L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadOverlappingInvalidationIsNotCached() {
+        // 回源读到旧值的同时，另一事务提交并失效了该用户
+        UserResponse stale = cache.getByUsername("farmer4", name -> {
+            UserResponse user = load(4L);
+            cache.invalidateAfterCommit(4L, "farmer4");
+            return user;
+        });
+        assertEquals(4L, stale.getId());
+
+        cache.getById(4L, this::load);
+        assertEquals(2, loads.get());
+    }
+}
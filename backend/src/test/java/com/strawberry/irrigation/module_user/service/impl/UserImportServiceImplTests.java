@@ -0,0 +1,130 @@
+package com.strawberry.irrigation.module_user.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.password.PasswordHasher;
+import com.strawberry.irrigation.module_user.config.UserImportProperties;
+import com.strawberry.irrigation.module_user.dao.UserMapper;
+import com.strawberry.irrigation.module_user.dto.UserImportResponse;
+import com.strawberry.irrigation.module_user.dto.UserImportRowResult;
+import com.strawberry.irrigation.module_user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceImplTests {
+
+    private static final String HEADER = "username,password,email,phoneNumber,userType\n";
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final SqlSession batchSession = mock(SqlSession.class);
+    private final SqlSessionFactory sqlSessionFactory = mock(SqlSessionFactory.class);
+    private final UserImportProperties properties = new UserImportProperties();
+    private UserImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        when(sqlSessionFactory.openSession(any(ExecutorType.class), anyBoolean())).thenReturn(batchSession);
+        AuthProperties authProperties = new AuthProperties();
+        authProperties.getPassword().setBcryptStrength(4);
+        importService = new UserImportServiceImpl(
+                userMapper,
+                sqlSessionFactory,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                properties,
+                new PasswordHasher(authProperties, new SimpleMeterRegistry()));
+    }
+
+    private static String row(int i) {
+        return "farmer" + i + ",secret1,farmer" + i + "@example.com,1380000" + String.format("%04d", i) + ",FARMER\n";
+    }
+
+    private UserImportResponse importCsv(String csv) {
+        return importService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true);
+    }
+
+    @Test
+    void insertsEachBatchWithOneBatchSession() {
+        properties.setBatchSize(2);
+
+        UserImportResponse response = importCsv(HEADER + row(1) + row(2) + row(3));
+
+        assertEquals(3, response.getSucceeded());
+        assertFalse(response.isTruncated());
+        // 3 行分 2 批：两次 BATCH 会话、3 条 insert，每批一次去重查询
+        verify(sqlSessionFactory, times(2)).openSession(any(ExecutorType.class), anyBoolean());
+        verify(batchSession, times(3)).update(anyString(), any());
+        verify(userMapper, times(2)).selectList(any());
+    }
+
+    @Test
+    void reportsDuplicatesWithinImportAndAgainstExistingUsers() {
+        when(userMapper.selectList(any())).thenReturn(List.of(
+                new User("farmer2", "hash", null, null, null, "FARMER")));
+
+        UserImportResponse response = importCsv(HEADER + row(1) + row(2) + row(1).replace("farmer1,", "other1,"));
+
+        List<UserImportRowResult> rows = response.getRows();
+        assertTrue(rows.get(0).isSuccess());
+        assertEquals("用户名 'farmer2' 已存在", rows.get(1).getMessage());
+        assertEquals("邮箱 'farmer1@example.com' 在导入数据中重复", rows.get(2).getMessage());
+        verify(batchSession, times(1)).update(anyString(), any());
+    }
+
+    @Test
+    void fallsBackToRowInsertsWhenBatchHitsUniqueConstraint() {
+        when(batchSession.update(anyString(), any())).thenThrow(duplicate("users_username_key"));
+        when(userMapper.insert(argThat((User user) -> "farmer2".equals(user.getUsername()))))
+                .thenThrow(duplicate("users_username_key"));
+
+        UserImportResponse response = importCsv(HEADER + row(1) + row(2));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals("用户名 'farmer2' 已存在", response.getRows().get(1).getMessage());
+        verify(userMapper, times(2)).insert(any(User.class));
+    }
+
+    @Test
+    void stopsAtRowLimitAndReturnsImportedPart() {
+        properties.setBatchSize(2);
+        properties.setMaxRows(3);
+
+        UserImportResponse response = importCsv(HEADER + row(1) + row(2) + row(3) + row(4) + row(5));
+
+        assertTrue(response.isTruncated());
+        assertEquals(3, response.getTotal());
+        assertEquals(3, response.getSucceeded());
+        verify(batchSession, times(3)).update(anyString(), any());
+    }
+
+    private static DuplicateKeyException duplicate(String constraint) {
+        return new DuplicateKeyException("insert failed",
+                new SQLException("ERROR: duplicate key value violates unique constraint \"" + constraint + "\"", "23505"));
+    }
+}
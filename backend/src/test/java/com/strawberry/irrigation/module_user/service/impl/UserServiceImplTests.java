@@ -0,0 +1,87 @@
+package com.strawberry.irrigation.module_user.service.impl;
+
+import com.strawberry.irrigation.common.exception.BusinessException;
+import com.strawberry.irrigation.module_auth.config.AuthProperties;
+import com.strawberry.irrigation.module_auth.password.PasswordHasher;
+import com.strawberry.irrigation.module_user.cache.UserCache;
+import com.strawberry.irrigation.module_user.dao.UserMapper;
+import com.strawberry.irrigation.module_user.dto.UserCreateRequest;
+import com.strawberry.irrigation.module_user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTests {
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+    private final PasswordHasher passwordHasher = passwordHasher();
+    private final UserServiceImpl userService = new UserServiceImpl(userMapper, mock(UserCache.class), passwordHasher);
+
+    private static PasswordHasher passwordHasher() {
+        AuthProperties properties = new AuthProperties();
+        properties.getPassword().setBcryptStrength(4);
+        return new PasswordHasher(properties, new SimpleMeterRegistry());
+    }
+
+    private static UserCreateRequest request() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setUsername("farmer01");
+        request.setPassword("secret1");
+        request.setEmail("farmer01@example.com");
+        request.setPhoneNumber("13800000000");
+        request.setUserType("FARMER");
+        return request;
+    }
+
+    private static DuplicateKeyException duplicate(String serverMessage) {
+        return new DuplicateKeyException("insert failed", new SQLException(serverMessage, "23505"));
+    }
+
+    @Test
+    void createUserInsertsWithoutPreCheckQueries() {
+        userService.createUser(request());
+
+        verify(userMapper).insert(any(User.class));
+        verify(userMapper, never()).selectCount(any());
+    }
+
+    @Test
+    void createUserStoresPasswordHashInsteadOfPlaintext() {
+        userService.createUser(request());
+
+        ArgumentCaptor<User> inserted = ArgumentCaptor.forClass(User.class);
+        verify(userMapper).insert(inserted.capture());
+        assertTrue(PasswordHasher.isHashed(inserted.getValue().getPasswordHash()));
+        assertTrue(passwordHasher.matches("secret1", inserted.getValue().getPasswordHash()));
+    }
+
+    @Test
+    void mapsViolatedConstraintToFieldMessage() {
+        when(userMapper.insert(any(User.class))).thenThrow(duplicate("ERROR: duplicate key value violates unique constraint \"users_email_key\""));
+
+        BusinessException e = assertThrows(BusinessException.class, () -> userService.createUser(request()));
+
+        assertEquals("邮箱 'farmer01@example.com' 已存在", e.getMessage());
+    }
+
+    @Test
+    void mapsLocalizedServerMessageByConstraintName() {
+        when(userMapper.insert(any(User.class))).thenThrow(duplicate("错误: 重复键违反唯一约束\"users_phone_number_key\""));
+
+        BusinessException e = assertThrows(BusinessException.class, () -> userService.createUser(request()));
+
+        assertEquals("手机号 '13800000000' 已存在", e.getMessage());
+    }
+}